@@ -0,0 +1,73 @@
+package com.sccon.geospatial.benchmark;
+
+import com.sccon.geospatial.model.Pessoa;
+import com.sccon.geospatial.service.PessoaService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho do {@code PATCH /person/{id}}: atualização parcial com datas em texto, que troca a
+ * versão no armazenamento e atualiza todos os índices. Ids aleatórios numa thread, ids
+ * aleatórios em quatro threads, e quatro threads disputando o mesmo id (repetições do
+ * compare-and-swap).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class AtualizacaoBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int tamanho;
+
+    @Param({"memoria"})
+    public String armazenamento;
+
+    private PessoaService pessoaService;
+
+    @Setup
+    public void preparar() {
+        pessoaService = Cadastro.criar(tamanho, armazenamento);
+    }
+
+    @State(Scope.Thread)
+    public static class Alteracao {
+        final SplittableRandom aleatorio = new SplittableRandom();
+
+        Map<String, Object> nome() {
+            return Map.of("nome", Cadastro.nome(aleatorio));
+        }
+
+        Map<String, Object> nomeEAdmissao() {
+            return Map.of("nome", Cadastro.nome(aleatorio),
+                    "dataAdmissao", Cadastro.HOJE.minusDays(aleatorio.nextInt(10_000)).toString());
+        }
+    }
+
+    @Benchmark
+    public Pessoa patchNome(Alteracao alteracao) {
+        return pessoaService.atualizarParcialmente(1 + (long) alteracao.aleatorio.nextInt(tamanho), alteracao.nome());
+    }
+
+    @Benchmark
+    public Pessoa patchNomeEAdmissao(Alteracao alteracao) {
+        return pessoaService.atualizarParcialmente(1 + (long) alteracao.aleatorio.nextInt(tamanho), alteracao.nomeEAdmissao());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Pessoa patchNomeConcorrente(Alteracao alteracao) {
+        return pessoaService.atualizarParcialmente(1 + (long) alteracao.aleatorio.nextInt(tamanho), alteracao.nome());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Pessoa patchMesmoIdConcorrente(Alteracao alteracao) {
+        return pessoaService.atualizarParcialmente(1L, alteracao.nome());
+    }
+}
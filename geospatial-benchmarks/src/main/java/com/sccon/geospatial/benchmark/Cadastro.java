@@ -0,0 +1,81 @@
+package com.sccon.geospatial.benchmark;
+
+import com.sccon.geospatial.model.Pessoa;
+import com.sccon.geospatial.service.AlocadorIdSequencial;
+import com.sccon.geospatial.service.PessoaService;
+import com.sccon.geospatial.storage.ArmazenamentoColunar;
+import com.sccon.geospatial.storage.ArmazenamentoMemoria;
+import com.sccon.geospatial.storage.ArmazenamentoPessoas;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Cadastros sintéticos e determinísticos para os benchmarks: nomes compostos de listas
+ * de nomes e sobrenomes comuns, nascimentos entre 1950 e 2005 e admissões entre 1980 e 2023.
+ * Os ids vão de 1 a {@code tamanho}, os três primeiros são os dados iniciais do serviço.
+ */
+final class Cadastro {
+
+    static final LocalDate HOJE = LocalDate.of(2023, 2, 7);
+    static final Clock RELOGIO = Clock.fixed(HOJE.atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+
+    private static final String[] NOMES = {
+            "Ana", "Maria", "José", "João", "Antônio", "Francisco", "Carlos", "Paulo", "Pedro", "Lucas",
+            "Luiz", "Marcos", "Luís", "Gabriel", "Rafael", "Daniel", "Marcelo", "Bruno", "Eduardo", "Felipe",
+            "Juliana", "Fernanda", "Patrícia", "Aline", "Sandra", "Camila", "Amanda", "Bruna", "Jéssica", "Letícia",
+            "Júlia", "Luciana", "Vanessa", "Mariana", "Gabriela", "Vera", "Vitória", "Larissa", "Cláudia", "Beatriz"};
+    private static final String[] SOBRENOMES = {
+            "Silva", "Santos", "Oliveira", "Souza", "Rodrigues", "Ferreira", "Alves", "Pereira", "Lima", "Gomes",
+            "Costa", "Ribeiro", "Martins", "Carvalho", "Almeida", "Lopes", "Soares", "Fernandes", "Vieira", "Barbosa",
+            "Rocha", "Dias", "Nascimento", "Andrade", "Moreira", "Nunes", "Marques", "Machado", "Mendes", "Freitas",
+            "Cardoso", "Ramos", "Gonçalves", "Santana", "Teixeira", "Araújo", "Conceição", "Magalhães", "Cavalcanti", "Brandão"};
+    private static final int TAMANHO_LOTE = 1000;
+
+    private Cadastro() {
+    }
+
+    static PessoaService criar(int tamanho, String armazenamento) {
+        return criar(tamanho, armazenamento, null);
+    }
+
+    static PessoaService criar(int tamanho, String armazenamento, MeterRegistry registroMetricas) {
+        ArmazenamentoPessoas destino = switch (armazenamento) {
+            case "memoria" -> new ArmazenamentoMemoria();
+            case "colunar" -> new ArmazenamentoColunar(tamanho);
+            default -> throw new IllegalArgumentException("Armazenamento '" + armazenamento + "' não é válido");
+        };
+        PessoaService servico = new PessoaService(RELOGIO, new AlocadorIdSequencial(1L, 64), destino, null, null, registroMetricas);
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        List<Pessoa> lote = new ArrayList<>(TAMANHO_LOTE);
+        int indice = 0;
+        // Três pessoas já vêm dos dados iniciais
+        for (int i = 3; i < tamanho; i++) {
+            lote.add(pessoa(aleatorio));
+            if (lote.size() == TAMANHO_LOTE || i == tamanho - 1) {
+                servico.criarPessoas(lote, indice);
+                indice += lote.size();
+                lote.clear();
+            }
+        }
+        return servico;
+    }
+
+    static Pessoa pessoa(SplittableRandom aleatorio) {
+        String nome = NOMES[aleatorio.nextInt(NOMES.length)] + " "
+                + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)] + " "
+                + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)];
+        LocalDate nascimento = LocalDate.of(1950, 1, 1).plusDays(aleatorio.nextInt(55 * 365));
+        LocalDate admissao = LocalDate.of(1980, 1, 1).plusDays(aleatorio.nextInt(43 * 365));
+        return new Pessoa(null, nome, nascimento, admissao);
+    }
+
+    static String nome(SplittableRandom aleatorio) {
+        return NOMES[aleatorio.nextInt(NOMES.length)] + " " + SOBRENOMES[aleatorio.nextInt(SOBRENOMES.length)];
+    }
+}
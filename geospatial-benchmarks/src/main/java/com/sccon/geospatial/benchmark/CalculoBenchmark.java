@@ -0,0 +1,64 @@
+package com.sccon.geospatial.benchmark;
+
+import com.sccon.geospatial.service.PessoaService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Idade e salário pelo serviço, como nas rotas {@code /person/{id}/age} e
+ * {@code /person/{id}/salary}: busca por id num cadastro do tamanho informado e cálculo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CalculoBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int tamanho;
+
+    @Param({"memoria"})
+    public String armazenamento;
+
+    private PessoaService pessoaService;
+
+    @Setup
+    public void preparar() {
+        pessoaService = Cadastro.criar(tamanho, armazenamento);
+    }
+
+    @State(Scope.Thread)
+    public static class Ids {
+        final SplittableRandom aleatorio = new SplittableRandom();
+
+        long proximo(int tamanho) {
+            return 1 + aleatorio.nextInt(tamanho);
+        }
+    }
+
+    @Benchmark
+    public long idade(Ids ids) {
+        return pessoaService.calcularIdade(ids.proximo(tamanho), "years");
+    }
+
+    @Benchmark
+    public double salario(Ids ids) {
+        return pessoaService.calcularSalario(ids.proximo(tamanho), "full");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long idadeConcorrente(Ids ids) {
+        return pessoaService.calcularIdade(ids.proximo(tamanho), "years");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double salarioConcorrente(Ids ids) {
+        return pessoaService.calcularSalario(ids.proximo(tamanho), "full");
+    }
+}
@@ -0,0 +1,64 @@
+package com.sccon.geospatial.benchmark;
+
+import com.sccon.geospatial.exception.GlobalExceptionHandler;
+import com.sccon.geospatial.exception.PessoaNotFoundException;
+import com.sccon.geospatial.service.PessoaService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminho do 404 sem HTTP: busca de um id inexistente no serviço e montagem da resposta pelo
+ * {@link GlobalExceptionHandler}. A busca é feita a {@code profundidade} quadros do benchmark,
+ * já que numa requisição o controller roda sob quase uma centena de quadros do Tomcat e do
+ * Spring MVC, e é essa pilha que um stack trace teria de copiar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrosBenchmark {
+
+    private static final int TAMANHO = 1024;
+
+    @Param({"0", "100"})
+    public int profundidade;
+
+    private PessoaService pessoaService;
+    private GlobalExceptionHandler handler;
+
+    @Setup
+    public void preparar() {
+        pessoaService = Cadastro.criar(TAMANHO, "memoria");
+        handler = new GlobalExceptionHandler(new DefaultListableBeanFactory().getBeanProvider(MeterRegistry.class));
+    }
+
+    @State(Scope.Thread)
+    public static class Posicao {
+        long id = TAMANHO;
+
+        long proximoIdInexistente() {
+            return ++id;
+        }
+    }
+
+    @Benchmark
+    public Object naoEncontrada(Posicao posicao) {
+        return empilhar(profundidade, posicao.proximoIdInexistente());
+    }
+
+    private Object empilhar(int restante, long id) {
+        if (restante > 0) {
+            return empilhar(restante - 1, id);
+        }
+        try {
+            return pessoaService.buscarPorId(id);
+        } catch (PessoaNotFoundException e) {
+            return handler.handlePessoaNotFoundException(e);
+        }
+    }
+}
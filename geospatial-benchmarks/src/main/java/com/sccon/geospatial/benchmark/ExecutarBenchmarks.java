@@ -0,0 +1,34 @@
+package com.sccon.geospatial.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Ponto de entrada do perfil {@code jmh}: aceita as opções de linha de comando do JMH e liga
+ * o profiler de alocação ({@code -prof gc}) quando nenhum outro profiler é pedido.
+ */
+public final class ExecutarBenchmarks {
+
+    private ExecutarBenchmarks() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions linha = new CommandLineOptions(args);
+        if (linha.shouldHelp()) {
+            linha.showHelp();
+            return;
+        }
+        if (linha.shouldList()) {
+            new Runner(linha).list();
+            return;
+        }
+        ChainedOptionsBuilder opcoes = new OptionsBuilder().parent(linha);
+        if (linha.getProfilers().isEmpty()) {
+            opcoes.addProfiler(GCProfiler.class);
+        }
+        new Runner(opcoes.build()).run();
+    }
+}
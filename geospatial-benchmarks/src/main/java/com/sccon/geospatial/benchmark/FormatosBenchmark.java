@@ -0,0 +1,69 @@
+package com.sccon.geospatial.benchmark;
+
+import com.sccon.geospatial.enums.FormatoIdade;
+import com.sccon.geospatial.enums.FormatoSalario;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cada formato de idade e de salário isolado, sem helper nem validação em volta.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatosBenchmark {
+
+    private static final int QUANTIDADE = 1024;
+    private static final double SALARIO_MINIMO = 1302.00;
+
+    @State(Scope.Thread)
+    public static class Idades {
+        @Param({"DAYS", "MONTHS", "YEARS"})
+        public FormatoIdade formato;
+
+        LocalDate[] nascimentos;
+        int indice;
+
+        @Setup
+        public void preparar() {
+            SplittableRandom aleatorio = new SplittableRandom(42);
+            nascimentos = new LocalDate[QUANTIDADE];
+            for (int i = 0; i < QUANTIDADE; i++) {
+                nascimentos[i] = LocalDate.of(1950, 1, 1).plusDays(aleatorio.nextInt(55 * 365));
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Salarios {
+        @Param({"FULL", "MIN"})
+        public FormatoSalario formato;
+
+        double[] salarios;
+        int indice;
+
+        @Setup
+        public void preparar() {
+            SplittableRandom aleatorio = new SplittableRandom(42);
+            salarios = new double[QUANTIDADE];
+            for (int i = 0; i < QUANTIDADE; i++) {
+                salarios[i] = 1558.00 + aleatorio.nextDouble() * 50_000;
+            }
+        }
+    }
+
+    @Benchmark
+    public long idade(Idades idades) {
+        return idades.formato.calcular(idades.nascimentos[idades.indice++ & (QUANTIDADE - 1)], Cadastro.HOJE);
+    }
+
+    @Benchmark
+    public double salario(Salarios salarios) {
+        return salarios.formato.calcular(salarios.salarios[salarios.indice++ & (QUANTIDADE - 1)], SALARIO_MINIMO);
+    }
+}
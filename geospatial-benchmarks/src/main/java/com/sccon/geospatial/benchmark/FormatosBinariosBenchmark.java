@@ -0,0 +1,72 @@
+package com.sccon.geospatial.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sccon.geospatial.controller.FormatosBinarios;
+import com.sccon.geospatial.model.Pessoa;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Codificação e decodificação de uma lista de {@code tamanhoLista} pessoas em JSON (datas
+ * ISO) e nos formatos binários (datas como dia da época), com os mesmos mapeadores da API.
+ * O tamanho do corpo de cada formato é impresso na preparação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatosBinariosBenchmark {
+
+    @Param({"1000"})
+    public int tamanhoLista;
+
+    @Param({"json", "cbor", "smile"})
+    public String formato;
+
+    private ObjectMapper mapeador;
+    private JavaType tipoLista;
+    private List<Pessoa> pessoas;
+    private byte[] corpo;
+
+    @Setup
+    public void preparar() throws IOException {
+        ObjectMapper json = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        FormatosBinarios binarios = new FormatosBinarios(json);
+        mapeador = switch (formato) {
+            case "cbor" -> binarios.cbor();
+            case "smile" -> binarios.smile();
+            default -> json;
+        };
+        tipoLista = mapeador.getTypeFactory().constructCollectionType(List.class, Pessoa.class);
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        pessoas = new ArrayList<>(tamanhoLista);
+        for (int i = 0; i < tamanhoLista; i++) {
+            pessoas.add(Cadastro.pessoa(aleatorio).comId((long) i + 1));
+        }
+        corpo = mapeador.writeValueAsBytes(pessoas);
+        System.out.printf("%n%s: %d bytes para %d pessoas (%.1f por pessoa)%n",
+                formato, corpo.length, tamanhoLista, (double) corpo.length / tamanhoLista);
+    }
+
+    @Benchmark
+    public byte[] codificar() throws IOException {
+        return mapeador.writeValueAsBytes(pessoas);
+    }
+
+    @Benchmark
+    public List<Pessoa> decodificar() throws IOException {
+        return mapeador.readValue(corpo, tipoLista);
+    }
+}
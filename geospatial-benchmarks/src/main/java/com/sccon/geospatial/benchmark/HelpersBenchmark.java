@@ -0,0 +1,81 @@
+package com.sccon.geospatial.benchmark;
+
+import com.sccon.geospatial.enums.FormatoIdade;
+import com.sccon.geospatial.enums.FormatoSalario;
+import com.sccon.geospatial.helpers.IdadeHelper;
+import com.sccon.geospatial.helpers.SalarioHelper;
+import com.sccon.geospatial.model.Pessoa;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculo de idade e salário de uma pessoa, com o formato em texto (caminho das rotas
+ * {@code /age} e {@code /salary}) e já resolvido (caminho do cálculo em lote). As variantes
+ * {@code *Concorrente} rodam em quatro threads sobre os mesmos helpers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HelpersBenchmark {
+
+    private static final int QUANTIDADE_PESSOAS = 1024;
+
+    private final IdadeHelper idadeHelper = new IdadeHelper(Cadastro.RELOGIO);
+    private final SalarioHelper salarioHelper = new SalarioHelper(Cadastro.RELOGIO);
+    private Pessoa[] pessoas;
+
+    @Setup
+    public void preparar() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        pessoas = new Pessoa[QUANTIDADE_PESSOAS];
+        for (int i = 0; i < pessoas.length; i++) {
+            pessoas[i] = Cadastro.pessoa(aleatorio);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Posicao {
+        int indice;
+
+        int proxima() {
+            return indice++ & (QUANTIDADE_PESSOAS - 1);
+        }
+    }
+
+    @Benchmark
+    public long idadeComFormatoTexto(Posicao posicao) {
+        return idadeHelper.calcularIdade(pessoas[posicao.proxima()], "years");
+    }
+
+    @Benchmark
+    public long idadeComFormatoResolvido(Posicao posicao) {
+        return idadeHelper.calcularIdade(pessoas[posicao.proxima()], FormatoIdade.YEARS, Cadastro.HOJE);
+    }
+
+    @Benchmark
+    public double salarioComFormatoTexto(Posicao posicao) {
+        return salarioHelper.calcularSalario(pessoas[posicao.proxima()], "full");
+    }
+
+    @Benchmark
+    public double salarioComFormatoResolvido(Posicao posicao) {
+        return salarioHelper.calcularSalario(pessoas[posicao.proxima()], FormatoSalario.FULL, Cadastro.HOJE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long idadeComFormatoTextoConcorrente(Posicao posicao) {
+        return idadeHelper.calcularIdade(pessoas[posicao.proxima()], "years");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public double salarioComFormatoTextoConcorrente(Posicao posicao) {
+        return salarioHelper.calcularSalario(pessoas[posicao.proxima()], "full");
+    }
+}
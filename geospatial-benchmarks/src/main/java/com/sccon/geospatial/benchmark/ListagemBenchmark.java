@@ -0,0 +1,82 @@
+package com.sccon.geospatial.benchmark;
+
+import com.sccon.geospatial.model.PaginaPessoas;
+import com.sccon.geospatial.model.Pessoa;
+import com.sccon.geospatial.service.PessoaService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listagem por nome: a lista completa (rota {@code GET /person} sem parâmetros), a primeira
+ * página e uma página no meio do índice. O grupo {@code paginaComEscrita} lê páginas em três
+ * threads enquanto uma quarta renomeia pessoas, o que mexe no mesmo índice.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ListagemBenchmark {
+
+    private static final int TAMANHO_PAGINA = 100;
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int tamanho;
+
+    @Param({"memoria"})
+    public String armazenamento;
+
+    private PessoaService pessoaService;
+    private String cursorDoMeio;
+
+    @Setup
+    public void preparar() {
+        pessoaService = Cadastro.criar(tamanho, armazenamento);
+        // Cursor a meio caminho, encontrado de página em página sem materializar a lista toda
+        String cursor = null;
+        for (int lidas = 0; lidas < tamanho / 2; lidas += PessoaService.LIMITE_PAGINA_MAXIMO) {
+            cursor = pessoaService.listarPessoas(cursor, PessoaService.LIMITE_PAGINA_MAXIMO).proximoCursor();
+        }
+        cursorDoMeio = cursor;
+    }
+
+    @State(Scope.Thread)
+    public static class Escritor {
+        final SplittableRandom aleatorio = new SplittableRandom();
+    }
+
+    @Benchmark
+    public List<Pessoa> listarTudo() {
+        return pessoaService.listarPessoas();
+    }
+
+    @Benchmark
+    public PaginaPessoas primeiraPagina() {
+        return pessoaService.listarPessoas(null, TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    public PaginaPessoas paginaNoMeio() {
+        return pessoaService.listarPessoas(cursorDoMeio, TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    @Group("paginaComEscrita")
+    @GroupThreads(3)
+    public PaginaPessoas paginaComEscrita_leitura() {
+        return pessoaService.listarPessoas(cursorDoMeio, TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    @Group("paginaComEscrita")
+    @GroupThreads(1)
+    public Pessoa paginaComEscrita_escrita(Escritor escritor) {
+        long id = 1 + escritor.aleatorio.nextInt(tamanho);
+        return pessoaService.atualizarParcialmente(id, Map.of("nome", Cadastro.nome(escritor.aleatorio)));
+    }
+}
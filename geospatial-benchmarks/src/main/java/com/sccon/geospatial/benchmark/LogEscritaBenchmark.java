@@ -0,0 +1,86 @@
+package com.sccon.geospatial.benchmark;
+
+import com.sccon.geospatial.enums.Durabilidade;
+import com.sccon.geospatial.model.Pessoa;
+import com.sccon.geospatial.storage.LogEscrita;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Vazão do log de escrita em cada nível de durabilidade: registrar e confirmar uma gravação,
+ * como faz cada alteração do serviço. Numa thread o SYNC paga um {@code force} por alteração;
+ * em oito threads as confirmações que chegam durante um {@code force} saem no próximo, e o
+ * BATCHED ainda espera o intervalo de agrupamento. O ASYNC não espera o disco e mede só o custo
+ * de codificar e enfileirar. Os segmentos são rotacionados e apagados a cada iteração.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogEscritaBenchmark {
+
+    @Param({"SYNC", "BATCHED", "ASYNC"})
+    public Durabilidade durabilidade;
+
+    private final AtomicLong ids = new AtomicLong();
+
+    private Path diretorio;
+
+    private LogEscrita log;
+
+    @Setup
+    public void preparar() throws IOException {
+        diretorio = Files.createTempDirectory("wal-benchmark");
+        log = new LogEscrita(diretorio, durabilidade, 2);
+    }
+
+    @TearDown(Level.Iteration)
+    public void rotacionar() {
+        log.descartarAnteriores(log.rotacionar());
+    }
+
+    @TearDown
+    public void encerrar() throws IOException {
+        log.close();
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            for (Path arquivo : arquivos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(arquivo);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Alteracao {
+        final SplittableRandom aleatorio = new SplittableRandom();
+    }
+
+    private Pessoa pessoa(Alteracao alteracao) {
+        Pessoa modelo = Cadastro.pessoa(alteracao.aleatorio);
+        return new Pessoa(ids.incrementAndGet(), modelo.getNome(), modelo.getDataNascimento(), modelo.getDataAdmissao(), 1L);
+    }
+
+    @Benchmark
+    public long gravar(Alteracao alteracao) {
+        long sequencia = log.registrar(null, pessoa(alteracao));
+        log.confirmar(sequencia);
+        return sequencia;
+    }
+
+    @Benchmark
+    @Threads(8)
+    public long gravarConcorrente(Alteracao alteracao) {
+        long sequencia = log.registrar(null, pessoa(alteracao));
+        log.confirmar(sequencia);
+        return sequencia;
+    }
+}
@@ -0,0 +1,62 @@
+package com.sccon.geospatial.benchmark;
+
+import com.sccon.geospatial.model.Pessoa;
+import com.sccon.geospatial.service.PessoaService;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo da instrumentação nas operações mais curtas do serviço: sem registro de métricas
+ * (os medidores caem num registro composto vazio) e com o registro Prometheus da aplicação,
+ * com histograma de percentis. As variantes {@code *Concorrente} disputam os mesmos medidores
+ * em quatro threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetricasBenchmark {
+
+    private static final int TAMANHO = 1024;
+
+    @Param({"nenhum", "prometheus"})
+    public String registro;
+
+    private PessoaService pessoaService;
+
+    @Setup
+    public void preparar() {
+        pessoaService = Cadastro.criar(TAMANHO, "memoria",
+                registro.equals("prometheus") ? new PrometheusMeterRegistry(PrometheusConfig.DEFAULT) : null);
+    }
+
+    @State(Scope.Thread)
+    public static class Posicao {
+        int indice;
+
+        long proximoId() {
+            return (indice++ & (TAMANHO - 1)) + 1;
+        }
+    }
+
+    @Benchmark
+    public Pessoa buscarPorId(Posicao posicao) {
+        return pessoaService.buscarPorId(posicao.proximoId());
+    }
+
+    @Benchmark
+    public long calcularIdade(Posicao posicao) {
+        return pessoaService.calcularIdade(posicao.proximoId(), "years");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Pessoa buscarPorIdConcorrente(Posicao posicao) {
+        return pessoaService.buscarPorId(posicao.proximoId());
+    }
+}
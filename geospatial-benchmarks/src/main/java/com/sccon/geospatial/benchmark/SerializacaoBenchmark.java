@@ -0,0 +1,109 @@
+package com.sccon.geospatial.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sccon.geospatial.controller.ConversorJsonPessoas;
+import com.sccon.geospatial.model.Pessoa;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escrita de uma resposta com {@code tamanhoLista} pessoas pelo conversor do Jackson (o
+ * caminho de {@code ResponseEntity<List<Pessoa>>} sem cache) e pelo conversor com o JSON em
+ * cache de cada registro, já preenchido como fica depois da primeira resposta. A saída
+ * descarta os bytes, então o custo medido é só o da serialização.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+    private static final Type TIPO_LISTA = ResolvableType.forClassWithGenerics(List.class, Pessoa.class).getType();
+
+    @Param({"1", "100", "10000"})
+    public int tamanhoLista;
+
+    @Param({"jackson", "cache"})
+    public String conversor;
+
+    private GenericHttpMessageConverter<Object> escritor;
+    private List<Pessoa> pessoas;
+    private final Descarte saida = new Descarte();
+
+    @Setup
+    public void preparar() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        escritor = conversor.equals("cache") ? new ConversorJsonPessoas(objectMapper) : new MappingJackson2HttpMessageConverter(objectMapper);
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        pessoas = new ArrayList<>(tamanhoLista);
+        for (int i = 0; i < tamanhoLista; i++) {
+            pessoas.add(Cadastro.pessoa(aleatorio).comId((long) i + 1));
+        }
+    }
+
+    @Benchmark
+    public long escrever() throws IOException {
+        saida.reiniciar();
+        if (tamanhoLista == 1) {
+            escritor.write(pessoas.get(0), Pessoa.class, MediaType.APPLICATION_JSON, saida);
+        } else {
+            escritor.write(pessoas, TIPO_LISTA, MediaType.APPLICATION_JSON, saida);
+        }
+        return saida.corpo.bytes;
+    }
+
+    private static final class Descarte implements HttpOutputMessage {
+
+        private HttpHeaders headers = new HttpHeaders();
+        private final Contador corpo = new Contador();
+
+        void reiniciar() {
+            headers = new HttpHeaders();
+            corpo.bytes = 0;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return corpo;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+
+    private static final class Contador extends OutputStream {
+
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
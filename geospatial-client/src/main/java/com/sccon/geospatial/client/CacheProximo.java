@@ -0,0 +1,63 @@
+package com.sccon.geospatial.client;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Cache limitado com admissão no estilo TinyLFU: cheio, o cache só troca a entrada menos
+ * usada recentemente por uma chave nova se a chave nova foi pedida mais vezes que ela. Uma
+ * varredura de chaves pedidas uma vez só não expulsa as entradas quentes, o que o LRU puro faria.
+ * Toda consulta, acerto ou não, conta na frequência.
+ */
+final class CacheProximo<V> {
+
+    private final int capacidade;
+    private final LinkedHashMap<String, V> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    private final SketchFrequencia frequencias;
+
+    CacheProximo(int capacidade) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("Capacidade do cache deve ser positiva");
+        }
+        this.capacidade = capacidade;
+        this.frequencias = new SketchFrequencia(capacidade);
+    }
+
+    synchronized V obter(String chave) {
+        frequencias.incrementar(chave.hashCode());
+        return entradas.get(chave);
+    }
+
+    /**
+     * @return se a entrada foi guardada; com o cache cheio, a chave pode não ser admitida
+     */
+    synchronized boolean guardar(String chave, V valor) {
+        if (entradas.size() < capacidade || entradas.containsKey(chave)) {
+            entradas.put(chave, valor);
+            return true;
+        }
+        Map.Entry<String, V> vitima = entradas.firstEntry();
+        if (frequencias.frequencia(chave.hashCode()) <= frequencias.frequencia(vitima.getKey().hashCode())) {
+            return false;
+        }
+        entradas.remove(vitima.getKey());
+        entradas.put(chave, valor);
+        return true;
+    }
+
+    synchronized void remover(String chave) {
+        entradas.remove(chave);
+    }
+
+    /**
+     * Percorre todas as entradas; para invalidações, que são raras perto das leituras.
+     */
+    synchronized void removerSe(Predicate<String> condicao) {
+        entradas.keySet().removeIf(condicao);
+    }
+
+    synchronized int tamanho() {
+        return entradas.size();
+    }
+}
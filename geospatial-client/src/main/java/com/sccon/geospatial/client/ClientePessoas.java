@@ -0,0 +1,337 @@
+package com.sccon.geospatial.client;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Cliente Java da API de pessoas ({@code /person}), com as operações do {@code PessoaController}.
+ * <p>
+ * Leituras passam por um cache próximo limitado ({@link CacheProximo}): dentro do frescor
+ * configurado a resposta sai da memória; depois dele, é revalidada com If-None-Match quando o
+ * servidor mandou ETag, e um 304 renova a entrada sem trafegar o corpo. Leituras idênticas em
+ * andamento são unidas numa requisição só.
+ * <p>
+ * Alterações feitas por este cliente invalidam as entradas afetadas; as feitas por outros
+ * clientes aparecem no máximo depois do frescor. Com frescor zero, toda leitura vai ao
+ * servidor. O cliente é thread-safe e deve ser compartilhado; depende só do JDK e do Jackson,
+ * e é publicado no artefato {@code com.sccon:geospatial-client}.
+ * <p>
+ * Todas as chamadas dividem uma conexão HTTP/2 sem TLS (h2c), multiplexadas, quando o servidor
+ * a habilita com {@code server.http2.enabled=true}; senão o JDK volta para HTTP/1.1, com uma
+ * conexão por requisição simultânea.
+ */
+public class ClientePessoas implements AutoCloseable {
+
+    public static final int CAPACIDADE_CACHE_PADRAO = 10_000;
+    public static final Duration FRESCOR_PADRAO = Duration.ofSeconds(1);
+    public static final Duration TIMEOUT_PADRAO = Duration.ofSeconds(5);
+
+    private static final String CAMINHO = "/person";
+
+    private final String base;
+    private final Duration timeout;
+    private final long frescorNanos;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper;
+    private final JavaType tipoPessoa;
+    private final JavaType tipoLista;
+    private final JavaType tipoIdade;
+    private final JavaType tipoSalario;
+    private final CacheProximo<Entrada> cache;
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> emAndamento = new ConcurrentHashMap<>();
+    // Muda a cada alteração feita por este cliente: respostas pedidas antes dela não entram no cache
+    private final AtomicLong geracao = new AtomicLong();
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder revalidadas = new LongAdder();
+    private final LongAdder requisicoes = new LongAdder();
+    private final LongAdder coalescidas = new LongAdder();
+
+    public ClientePessoas(URI base) {
+        this(base, CAPACIDADE_CACHE_PADRAO, FRESCOR_PADRAO, TIMEOUT_PADRAO);
+    }
+
+    public ClientePessoas(URI base, int capacidadeCache, Duration frescor, Duration timeout) {
+        if (frescor.isNegative()) {
+            throw new IllegalArgumentException("Frescor do cache não pode ser negativo");
+        }
+        String endereco = base.toString();
+        this.base = endereco.endsWith("/") ? endereco.substring(0, endereco.length() - 1) : endereco;
+        this.timeout = timeout;
+        this.frescorNanos = frescor.toNanos();
+        this.cache = new CacheProximo<>(capacidadeCache);
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(timeout)
+                .build();
+        this.objectMapper = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .build();
+        this.tipoPessoa = objectMapper.constructType(Pessoa.class);
+        this.tipoLista = objectMapper.getTypeFactory().constructCollectionType(List.class, Pessoa.class);
+        this.tipoIdade = objectMapper.constructType(Long.class);
+        this.tipoSalario = objectMapper.constructType(Double.class);
+    }
+
+    public List<Pessoa> listarPessoas() {
+        return esperar(listarPessoasAsync());
+    }
+
+    public CompletableFuture<List<Pessoa>> listarPessoasAsync() {
+        return ler(CAMINHO, tipoLista);
+    }
+
+    public Pessoa buscarPorId(long id) {
+        return esperar(buscarPorIdAsync(id));
+    }
+
+    public CompletableFuture<Pessoa> buscarPorIdAsync(long id) {
+        return ler(caminho(id), tipoPessoa);
+    }
+
+    /**
+     * @param output days, months ou years
+     */
+    public long calcularIdade(long id, String output) {
+        return esperar(calcularIdadeAsync(id, output));
+    }
+
+    public CompletableFuture<Long> calcularIdadeAsync(long id, String output) {
+        return ler(caminho(id) + "/age?output=" + URLEncoder.encode(output, StandardCharsets.UTF_8), tipoIdade);
+    }
+
+    /**
+     * @param output full ou min
+     */
+    public double calcularSalario(long id, String output) {
+        return esperar(calcularSalarioAsync(id, output));
+    }
+
+    public CompletableFuture<Double> calcularSalarioAsync(long id, String output) {
+        return ler(caminho(id) + "/salary?output=" + URLEncoder.encode(output, StandardCharsets.UTF_8), tipoSalario);
+    }
+
+    public Pessoa criarPessoa(Pessoa pessoa) {
+        HttpResponse<byte[]> resposta = alterar(CAMINHO, "POST", pessoa, null);
+        return publicada(resposta);
+    }
+
+    public Pessoa atualizarPessoa(long id, Pessoa pessoa) {
+        return publicada(alterar(caminho(id), "PUT", pessoa, id));
+    }
+
+    public Pessoa atualizarAtributo(long id, Map<String, Object> atributos) {
+        return publicada(alterar(caminho(id), "PATCH", atributos, id));
+    }
+
+    public void removerPessoa(long id) {
+        alterar(caminho(id), "DELETE", null, id);
+    }
+
+    public ContadoresCliente contadores() {
+        return new ContadoresCliente(acertos.sum(), revalidadas.sum(), requisicoes.sum(), coalescidas.sum());
+    }
+
+    @Override
+    public void close() {
+        http.close();
+    }
+
+    private static String caminho(long id) {
+        return CAMINHO + "/" + id;
+    }
+
+    /**
+     * Uma leitura em andamento é compartilhada: quem chega depois recebe uma cópia do mesmo
+     * futuro, que pode cancelar sem afetar os demais.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> CompletableFuture<T> ler(String caminho, JavaType tipo) {
+        Entrada anterior = cache.obter(caminho);
+        if (anterior != null && System.nanoTime() - anterior.frescaAte() < 0) {
+            acertos.increment();
+            return CompletableFuture.completedFuture((T) anterior.valor());
+        }
+        CompletableFuture<Object> leitura = new CompletableFuture<>();
+        CompletableFuture<Object> existente = emAndamento.putIfAbsent(caminho, leitura);
+        if (existente != null) {
+            coalescidas.increment();
+            return (CompletableFuture<T>) existente.copy();
+        }
+        long geracaoInicial = geracao.get();
+        HttpRequest.Builder requisicao = requisicao(caminho).GET();
+        if (anterior != null && anterior.etag() != null) {
+            requisicao.header("If-None-Match", anterior.etag());
+        }
+        requisicoes.increment();
+        try {
+            http.sendAsync(requisicao.build(), HttpResponse.BodyHandlers.ofByteArray())
+                    .thenApply(resposta -> lido(caminho, tipo, anterior, resposta, geracaoInicial))
+                    .whenComplete((valor, erro) -> {
+                        emAndamento.remove(caminho, leitura);
+                        if (erro != null) {
+                            leitura.completeExceptionally(erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro);
+                        } else {
+                            leitura.complete(valor);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            emAndamento.remove(caminho, leitura);
+            leitura.completeExceptionally(e);
+        }
+        return (CompletableFuture<T>) leitura.copy();
+    }
+
+    private Object lido(String caminho, JavaType tipo, Entrada anterior, HttpResponse<byte[]> resposta, long geracaoInicial) {
+        Object valor;
+        String etag;
+        if (resposta.statusCode() == 304 && anterior != null) {
+            revalidadas.increment();
+            valor = anterior.valor();
+            etag = anterior.etag();
+        } else if (resposta.statusCode() == 200) {
+            valor = converter(resposta.body(), tipo);
+            etag = resposta.headers().firstValue("ETag").orElse(null);
+        } else {
+            cache.remover(caminho);
+            throw erro(resposta);
+        }
+        guardar(caminho, valor, etag, geracaoInicial);
+        return valor;
+    }
+
+    /**
+     * Sem frescor e sem ETag a entrada nunca seria usada, e não ocupa lugar no cache.
+     */
+    private void guardar(String caminho, Object valor, String etag, long geracaoInicial) {
+        if ((frescorNanos > 0 || etag != null) && geracao.get() == geracaoInicial) {
+            cache.guardar(caminho, new Entrada(valor, etag, System.nanoTime() + frescorNanos));
+        }
+    }
+
+    /**
+     * Alterações não passam pelo cache. Depois da resposta, com sucesso ou não, as entradas
+     * da pessoa e a lista são invalidadas, e leituras em andamento deixam de ser compartilhadas
+     * com quem chegar depois.
+     */
+    private HttpResponse<byte[]> alterar(String caminho, String metodo, Object corpo, Long id) {
+        HttpRequest.Builder requisicao = requisicao(caminho);
+        if (corpo != null) {
+            requisicao.header("Content-Type", "application/json")
+                    .method(metodo, HttpRequest.BodyPublishers.ofByteArray(escrever(corpo)));
+        } else {
+            requisicao.method(metodo, HttpRequest.BodyPublishers.noBody());
+        }
+        HttpResponse<byte[]> resposta;
+        try {
+            resposta = http.send(requisicao.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido esperando " + metodo + " " + caminho, e);
+        } finally {
+            invalidar(id);
+        }
+        if (resposta.statusCode() / 100 != 2) {
+            throw erro(resposta);
+        }
+        return resposta;
+    }
+
+    private void invalidar(Long id) {
+        geracao.incrementAndGet();
+        Predicate<String> afetada = id == null
+                ? CAMINHO::equals
+                : chave -> chave.equals(CAMINHO) || chave.equals(caminho(id)) || chave.startsWith(caminho(id) + "/");
+        cache.removerSe(afetada);
+        emAndamento.keySet().removeIf(afetada);
+    }
+
+    /**
+     * A resposta de uma criação ou atualização já é a versão vigente, com a ETag dela.
+     */
+    private Pessoa publicada(HttpResponse<byte[]> resposta) {
+        Pessoa pessoa = (Pessoa) converter(resposta.body(), tipoPessoa);
+        guardar(caminho(pessoa.id()), pessoa, resposta.headers().firstValue("ETag").orElse(null), geracao.get());
+        return pessoa;
+    }
+
+    private HttpRequest.Builder requisicao(String caminho) {
+        return HttpRequest.newBuilder(URI.create(base + caminho))
+                .timeout(timeout)
+                .header("Accept", "application/json");
+    }
+
+    private Object converter(byte[] corpo, JavaType tipo) {
+        try {
+            Object valor = objectMapper.readValue(corpo, tipo);
+            // A mesma lista é entregue a várias chamadas
+            return valor instanceof List<?> lista ? List.copyOf(lista) : valor;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] escrever(Object corpo) {
+        try {
+            return objectMapper.writeValueAsBytes(corpo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ClientePessoasException erro(HttpResponse<byte[]> resposta) {
+        String mensagem = "HTTP " + resposta.statusCode();
+        try {
+            JsonNode corpo = objectMapper.readTree(resposta.body());
+            if (corpo != null && corpo.hasNonNull("error")) {
+                mensagem = corpo.get("error").asText();
+            }
+        } catch (IOException e) {
+            // corpo sem JSON: fica o status
+        }
+        return new ClientePessoasException(resposta.statusCode(), mensagem);
+    }
+
+    private static <T> T esperar(CompletableFuture<T> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof IOException causa) {
+                throw new UncheckedIOException(causa);
+            }
+            throw e;
+        }
+    }
+
+    private record Entrada(Object valor, String etag, long frescaAte) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.sccon.geospatial.client;
+
+/**
+ * Resposta de erro da API, com o status HTTP e a mensagem do corpo ({@code error}).
+ */
+public class ClientePessoasException extends RuntimeException {
+
+    private final int status;
+
+    public ClientePessoasException(int status, String mensagem) {
+        super(mensagem);
+        this.status = status;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+}
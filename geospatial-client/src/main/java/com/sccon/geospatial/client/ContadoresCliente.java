@@ -0,0 +1,12 @@
+package com.sccon.geospatial.client;
+
+/**
+ * Contadores de um {@link ClientePessoas} desde a criação.
+ *
+ * @param acertos     leituras respondidas pelo cache sem ir ao servidor
+ * @param revalidadas leituras em que o servidor respondeu 304 e a entrada do cache foi reaproveitada
+ * @param requisicoes requisições de leitura enviadas ao servidor
+ * @param coalescidas leituras que esperaram uma requisição idêntica já em andamento
+ */
+public record ContadoresCliente(long acertos, long revalidadas, long requisicoes, long coalescidas) {
+}
@@ -0,0 +1,9 @@
+package com.sccon.geospatial.client;
+
+import java.time.LocalDate;
+
+/**
+ * Pessoa como a API a representa; o id é nulo numa pessoa ainda não criada.
+ */
+public record Pessoa(Long id, String nome, LocalDate dataNascimento, LocalDate dataAdmissao) {
+}
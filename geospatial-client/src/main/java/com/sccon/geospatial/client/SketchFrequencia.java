@@ -0,0 +1,71 @@
+package com.sccon.geospatial.client;
+
+/**
+ * Frequência aproximada de acesso por chave, para a admissão do {@link CacheProximo}:
+ * count-min com quatro linhas de contadores que saturam em 15. A cada {@code amostra}
+ * incrementos todos os contadores caem pela metade, e frequências antigas perdem peso.
+ * Não é thread-safe.
+ */
+final class SketchFrequencia {
+
+    private static final long[] SEMENTES = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+    private static final int MAXIMO = 15;
+
+    private final byte[][] contadores;
+    private final int mascara;
+    private final int amostra;
+    private int incrementos;
+
+    /**
+     * Quatro contadores por entrada do cache em cada linha: chaves que nunca entram no cache
+     * também são contadas, e colisões inflariam a frequência delas.
+     */
+    SketchFrequencia(int capacidade) {
+        int minimo = (int) Math.min(1 << 30, Math.max(16L, 4L * capacidade));
+        int largura = Integer.highestOneBit(minimo);
+        if (largura < minimo) {
+            largura <<= 1;
+        }
+        this.contadores = new byte[SEMENTES.length][largura];
+        this.mascara = largura - 1;
+        this.amostra = (int) Math.min(Integer.MAX_VALUE, 10L * capacidade);
+    }
+
+    void incrementar(int hash) {
+        boolean incrementou = false;
+        for (int linha = 0; linha < SEMENTES.length; linha++) {
+            int indice = indice(hash, linha);
+            if (contadores[linha][indice] < MAXIMO) {
+                contadores[linha][indice]++;
+                incrementou = true;
+            }
+        }
+        if (incrementou && ++incrementos >= amostra) {
+            envelhecer();
+        }
+    }
+
+    int frequencia(int hash) {
+        int frequencia = MAXIMO;
+        for (int linha = 0; linha < SEMENTES.length; linha++) {
+            frequencia = Math.min(frequencia, contadores[linha][indice(hash, linha)]);
+        }
+        return frequencia;
+    }
+
+    private int indice(int hash, int linha) {
+        long misturado = (hash ^ SEMENTES[linha]) * 0x9E3779B97F4A7C15L;
+        return (int) (misturado >>> 32) & mascara;
+    }
+
+    private void envelhecer() {
+        for (byte[] linha : contadores) {
+            for (int i = 0; i < linha.length; i++) {
+                linha[i] >>= 1;
+            }
+        }
+        incrementos /= 2;
+    }
+}
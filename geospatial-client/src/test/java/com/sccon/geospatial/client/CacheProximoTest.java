@@ -0,0 +1,65 @@
+package com.sccon.geospatial.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheProximoTest {
+
+    @Test
+    void guardar_ComCacheCheio_NaoDeveTrocarChaveFrequentePorChaveVistaUmaVez() {
+        CacheProximo<String> cache = new CacheProximo<>(100);
+        for (int i = 0; i < 100; i++) {
+            String chave = "/person/" + i;
+            for (int acesso = 0; acesso < 8; acesso++) {
+                cache.obter(chave);
+            }
+            cache.guardar(chave, "quente");
+        }
+
+        // Varredura de chaves novas, cada uma pedida uma vez
+        for (int i = 1000; i < 2000; i++) {
+            String chave = "/person/" + i;
+            cache.obter(chave);
+            assertFalse(cache.guardar(chave, "fria"));
+        }
+
+        assertEquals(100, cache.tamanho());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("quente", cache.obter("/person/" + i));
+        }
+    }
+
+    @Test
+    void guardar_ComChaveMaisFrequenteQueAVitima_DeveTrocarAMenosUsadaRecentemente() {
+        CacheProximo<String> cache = new CacheProximo<>(2);
+        cache.obter("a");
+        cache.guardar("a", "A");
+        cache.obter("b");
+        cache.guardar("b", "B");
+        cache.obter("a");
+        for (int acesso = 0; acesso < 5; acesso++) {
+            cache.obter("c");
+        }
+
+        assertTrue(cache.guardar("c", "C"));
+
+        assertNull(cache.obter("b"));
+        assertEquals("A", cache.obter("a"));
+        assertEquals("C", cache.obter("c"));
+    }
+
+    @Test
+    void removerSe_DeveRemoverSoAsChavesQueAtendemACondicao() {
+        CacheProximo<String> cache = new CacheProximo<>(10);
+        cache.guardar("/person", "lista");
+        cache.guardar("/person/1", "pessoa");
+        cache.guardar("/person/1/age?output=years", "idade");
+        cache.guardar("/person/10", "outra");
+
+        cache.removerSe(chave -> chave.equals("/person/1") || chave.startsWith("/person/1/"));
+
+        assertEquals(2, cache.tamanho());
+        assertEquals("outra", cache.obter("/person/10"));
+    }
+}
@@ -0,0 +1,167 @@
+package com.sccon.geospatial.client;
+
+import com.sccon.geospatial.GeospatialApplication;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientePessoasTest {
+
+    private static ConfigurableApplicationContext aplicacao;
+    private static URI base;
+
+    @BeforeAll
+    static void subirAplicacao() {
+        aplicacao = new SpringApplicationBuilder(GeospatialApplication.class).run("--server.port=0", "--server.http2.enabled=true");
+        base = URI.create("http://localhost:" + ((WebServerApplicationContext) aplicacao).getWebServer().getPort());
+    }
+
+    @AfterAll
+    static void descerAplicacao() {
+        if (aplicacao != null) {
+            aplicacao.close();
+        }
+    }
+
+    private static ClientePessoas cliente(Duration frescor) {
+        return new ClientePessoas(base, 100, frescor, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void buscarPorId_DentroDoFrescor_DeveResponderDoCacheSemRequisicao() {
+        try (ClientePessoas cliente = cliente(Duration.ofMinutes(1))) {
+            Pessoa primeira = cliente.buscarPorId(2L);
+            Pessoa segunda = cliente.buscarPorId(2L);
+
+            assertEquals("Maria Santos", primeira.nome());
+            assertSame(primeira, segunda);
+            assertEquals(new ContadoresCliente(1, 0, 1, 0), cliente.contadores());
+        }
+    }
+
+    @Test
+    void listarPessoas_DepoisDoFrescor_DeveRevalidarComETag() {
+        try (ClientePessoas cliente = cliente(Duration.ZERO)) {
+            List<Pessoa> primeira = cliente.listarPessoas();
+            List<Pessoa> segunda = cliente.listarPessoas();
+
+            assertSame(primeira, segunda);
+            assertEquals(new ContadoresCliente(0, 1, 2, 0), cliente.contadores());
+        }
+    }
+
+    @Test
+    void atualizarAtributo_DeveInvalidarAPessoaESeusCalculos() {
+        try (ClientePessoas cliente = cliente(Duration.ofMinutes(1))) {
+            Pessoa criada = cliente.criarPessoa(new Pessoa(null, "Ana Costa", LocalDate.of(1992, 3, 15), LocalDate.of(2022, 6, 1)));
+            try {
+                long idade = cliente.calcularIdade(criada.id(), "years");
+
+                Pessoa atualizada = cliente.atualizarAtributo(criada.id(), Map.of("dataNascimento", "1982-03-15"));
+
+                assertEquals(idade + 10, cliente.calcularIdade(criada.id(), "years"));
+                // A resposta da alteração já entrou no cache
+                long requisicoes = cliente.contadores().requisicoes();
+                assertEquals(atualizada, cliente.buscarPorId(criada.id()));
+                assertEquals(requisicoes, cliente.contadores().requisicoes());
+            } finally {
+                cliente.removerPessoa(criada.id());
+            }
+            ClientePessoasException erro = assertThrows(ClientePessoasException.class, () -> cliente.buscarPorId(criada.id()));
+            assertEquals(404, erro.getStatus());
+        }
+    }
+
+    @Test
+    void buscarPorId_Inexistente_DeveLancarExcecaoComStatusEMensagem() {
+        try (ClientePessoas cliente = cliente(Duration.ofMinutes(1))) {
+            ClientePessoasException erro = assertThrows(ClientePessoasException.class, () -> cliente.buscarPorId(999L));
+
+            assertEquals(404, erro.getStatus());
+            assertEquals("Pessoa com ID 999 não encontrada", erro.getMessage());
+        }
+    }
+
+    @Test
+    void calcularSalario_DeveRetornarOValorDaApi() {
+        try (ClientePessoas cliente = cliente(Duration.ofMinutes(1))) {
+            double salario = cliente.calcularSalario(1L, "min");
+
+            assertTrue(salario > 0);
+            assertEquals(salario, cliente.calcularSalario(1L, "min"));
+            assertEquals(1, cliente.contadores().acertos());
+        }
+    }
+
+    @Test
+    void servidor_SemTls_DeveAtenderEmHttp2() throws Exception {
+        try (HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build()) {
+            HttpRequest requisicao = HttpRequest.newBuilder(base.resolve("/person/1")).build();
+            http.send(requisicao, HttpResponse.BodyHandlers.discarding());
+
+            HttpResponse<Void> resposta = http.send(requisicao, HttpResponse.BodyHandlers.discarding());
+
+            assertEquals(HttpClient.Version.HTTP_2, resposta.version());
+        }
+    }
+
+    @Test
+    void buscarPorIdAsync_ComLeiturasIdenticasEmAndamento_DeveEnviarUmaRequisicao() throws Exception {
+        AtomicInteger recebidas = new AtomicInteger();
+        CountDownLatch liberar = new CountDownLatch(1);
+        HttpServer servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.createContext("/person/1", troca -> {
+            recebidas.incrementAndGet();
+            try {
+                liberar.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] corpo = "{\"id\":1,\"nome\":\"José da Silva\",\"dataNascimento\":\"2000-04-06\",\"dataAdmissao\":\"2020-05-10\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+            troca.getResponseHeaders().add("Content-Type", "application/json");
+            troca.sendResponseHeaders(200, corpo.length);
+            troca.getResponseBody().write(corpo);
+            troca.close();
+        });
+        servidor.start();
+        try (ClientePessoas cliente = new ClientePessoas(URI.create("http://localhost:" + servidor.getAddress().getPort()),
+                100, Duration.ZERO, Duration.ofSeconds(5))) {
+            List<CompletableFuture<Pessoa>> leituras = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                leituras.add(cliente.buscarPorIdAsync(1L));
+            }
+            liberar.countDown();
+
+            for (CompletableFuture<Pessoa> leitura : leituras) {
+                assertEquals("José da Silva", leitura.get(10, TimeUnit.SECONDS).nome());
+            }
+            assertEquals(1, recebidas.get());
+            assertEquals(new ContadoresCliente(0, 0, 1, 19), cliente.contadores());
+        } finally {
+            servidor.stop(0);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.sccon.geospatial.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Anel de hash consistente: cada nó ocupa {@code nosVirtuais} posições pseudoaleatórias de
+ * 64 bits e o dono de um id é o nó da primeira posição igual ou seguinte ao hash do id. Um
+ * nó que entra assume só os trechos anteriores às suas posições, cerca de 1/N dos ids; os
+ * demais continuam onde estavam. Imutável: mudanças de membros montam um anel novo.
+ */
+public final class AnelConsistente {
+
+    private final List<String> nos;
+    private final long[] posicoes;
+    private final String[] donos;
+
+    public AnelConsistente(Collection<String> nos, int nosVirtuais) {
+        if (nos.isEmpty()) {
+            throw new IllegalArgumentException("O anel precisa de ao menos um nó");
+        }
+        if (nosVirtuais < 1) {
+            throw new IllegalArgumentException("Nós virtuais deve ser positivo");
+        }
+        this.nos = nos.stream().distinct().sorted().toList();
+        TreeMap<Long, String> anel = new TreeMap<>();
+        for (String no : this.nos) {
+            for (int i = 0; i < nosVirtuais; i++) {
+                // Colisões de 64 bits são improváveis; se houver, o menor endereço fica com a posição
+                anel.merge(posicao(no, i), no, (atual, novo) -> atual.compareTo(novo) <= 0 ? atual : novo);
+            }
+        }
+        this.posicoes = new long[anel.size()];
+        this.donos = new String[anel.size()];
+        int i = 0;
+        for (Map.Entry<Long, String> entrada : anel.entrySet()) {
+            posicoes[i] = entrada.getKey();
+            donos[i] = entrada.getValue();
+            i++;
+        }
+    }
+
+    public String dono(long id) {
+        int i = Arrays.binarySearch(posicoes, misturar(id));
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return donos[i == posicoes.length ? 0 : i];
+    }
+
+    /**
+     * Nós do anel em ordem de endereço.
+     */
+    public List<String> nos() {
+        return nos;
+    }
+
+    // FNV-1a sobre "endereço#i", espalhado pelo misturador
+    private static long posicao(String no, int i) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : (no + "#" + i).getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return misturar(hash);
+    }
+
+    // Finalizador do SplitMix64: ids sequenciais ou temporais viram posições uniformes
+    private static long misturar(long valor) {
+        valor = (valor ^ (valor >>> 30)) * 0xbf58476d1ce4e5b9L;
+        valor = (valor ^ (valor >>> 27)) * 0x94d049bb133111ebL;
+        return valor ^ (valor >>> 31);
+    }
+}
@@ -0,0 +1,303 @@
+package com.sccon.geospatial.cluster;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sccon.geospatial.exception.PessoaNotFoundException;
+import com.sccon.geospatial.model.Pessoa;
+import com.sccon.geospatial.service.AlocadorId;
+import com.sccon.geospatial.service.AlocadorIdTemporal;
+import com.sccon.geospatial.service.PessoaService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Membros do cluster e dono de cada id. Cada nó guarda só as pessoas cujo id o anel de
+ * hash consistente lhe atribui; o {@link FiltroCluster} encaminha o resto. Ao subir, o nó
+ * se anuncia às sementes ({@code pessoa.cluster.nos}) e adota os membros que elas conhecem.
+ * <p>
+ * Quando o anel muda, as pessoas que passaram a ter outro dono são transferidas para ele com
+ * a versão que têm aqui, em segundo plano; o dono fica com a maior versão e avança o seu
+ * contador até ela, e a cópia daqui só é removida se ainda estiver na versão transferida.
+ * Até a transferência terminar, o novo dono responde 404 para elas; um nó que sai não é
+ * detectado, e os ids dele ficam indisponíveis (503).
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "pessoa.cluster.habilitado", havingValue = "true")
+public class ClusterPessoas {
+
+    public static final String HEADER_ENCAMINHADO = "X-Pessoa-Encaminhado";
+    static final String CAMINHO_NOS = "/cluster/nodes";
+    static final String CAMINHO_TRANSFERENCIAS = "/cluster/transfers";
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterPessoas.class);
+
+    private final PessoaService pessoaService;
+    private final ObjectMapper objectMapper;
+    private final List<String> sementes;
+    private final int nosVirtuais;
+    private final Duration timeout;
+    private final HttpClient http;
+    private final AtomicBoolean rebalanceando = new AtomicBoolean();
+    private final AtomicBoolean rebalancearDeNovo = new AtomicBoolean();
+
+    private volatile String endereco;
+    private volatile AnelConsistente anel;
+
+    public ClusterPessoas(PessoaService pessoaService,
+                          ObjectMapper objectMapper,
+                          AlocadorId alocadorId,
+                          @Value("${pessoa.cluster.endereco:}") String endereco,
+                          @Value("${pessoa.cluster.nos:}") List<String> sementes,
+                          @Value("${pessoa.cluster.nos-virtuais:128}") int nosVirtuais,
+                          @Value("${pessoa.cluster.timeout-ms:5000}") long timeoutMillis) {
+        // Ids sequenciais se repetiriam entre nós; os temporais carregam o número do nó
+        if (!(alocadorId instanceof AlocadorIdTemporal)) {
+            throw new IllegalStateException("O modo em cluster exige pessoa.id.modo=temporal, com pessoa.id.no distinto em cada nó");
+        }
+        this.pessoaService = pessoaService;
+        this.objectMapper = objectMapper;
+        this.endereco = endereco.isBlank() ? null : normalizar(endereco);
+        this.sementes = sementes.stream().filter(semente -> !semente.isBlank()).map(ClusterPessoas::normalizar).toList();
+        this.nosVirtuais = nosVirtuais;
+        this.timeout = Duration.ofMillis(timeoutMillis);
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+    }
+
+    private static String normalizar(String endereco) {
+        String limpo = endereco.trim();
+        return limpo.endsWith("/") ? limpo.substring(0, limpo.length() - 1) : limpo;
+    }
+
+    /**
+     * Com o servidor já aceitando conexões, entra no cluster pelas sementes. Sem
+     * {@code pessoa.cluster.endereco}, o nó se anuncia como {@code http://localhost:<porta>}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void entrar(ApplicationReadyEvent evento) {
+        if (endereco == null && evento.getApplicationContext() instanceof WebServerApplicationContext contexto) {
+            endereco = "http://localhost:" + contexto.getWebServer().getPort();
+        }
+        anel = new AnelConsistente(List.of(endereco), nosVirtuais);
+        List<String> anunciados = new ArrayList<>();
+        for (String semente : sementes) {
+            if (!semente.equals(endereco)) {
+                anunciarPara(semente, anunciados);
+            }
+        }
+        // Membros que as sementes conheciam também precisam saber deste nó
+        for (String no : anel.nos()) {
+            if (!no.equals(endereco) && !anunciados.contains(no)) {
+                anunciarPara(no, anunciados);
+            }
+        }
+        log.info("Nó {} no cluster com {}", endereco, anel.nos());
+        agendarRebalanceamento();
+    }
+
+    private void anunciarPara(String no, List<String> anunciados) {
+        try {
+            HttpRequest requisicao = requisicao(no, CAMINHO_NOS)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(new EntradaNo(endereco))))
+                    .build();
+            HttpResponse<byte[]> resposta = http.send(requisicao, HttpResponse.BodyHandlers.ofByteArray());
+            if (resposta.statusCode() != HttpStatus.OK.value()) {
+                log.warn("Nó {} recusou a entrada de {}: HTTP {}", no, endereco, resposta.statusCode());
+                return;
+            }
+            anunciados.add(no);
+            adicionar(objectMapper.readValue(resposta.body(), new TypeReference<List<String>>() { }));
+        } catch (IOException e) {
+            log.warn("Nó {} não respondeu ao anúncio de {}: {}", no, endereco, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Inclui nós no anel e, se algum for novo, agenda o rebalanceamento.
+     *
+     * @return membros do cluster depois da inclusão
+     */
+    public List<String> adicionar(List<String> nos) {
+        synchronized (this) {
+            AnelConsistente atual = anel;
+            TreeSet<String> membros = new TreeSet<>(atual.nos());
+            for (String no : nos) {
+                membros.add(normalizar(no));
+            }
+            if (membros.size() == atual.nos().size()) {
+                return atual.nos();
+            }
+            anel = new AnelConsistente(membros, nosVirtuais);
+        }
+        agendarRebalanceamento();
+        return anel.nos();
+    }
+
+    public boolean pronto() {
+        return anel != null;
+    }
+
+    public String endereco() {
+        return endereco;
+    }
+
+    public List<String> nos() {
+        AnelConsistente atual = anel;
+        return atual == null ? List.of() : atual.nos();
+    }
+
+    public String dono(long id) {
+        return anel.dono(id);
+    }
+
+    public boolean local(long id) {
+        return anel.dono(id).equals(endereco);
+    }
+
+    HttpClient http() {
+        return http;
+    }
+
+    /**
+     * Requisição para outro nó, marcada como encaminhada para que ele a atenda localmente.
+     */
+    HttpRequest.Builder requisicao(String no, String caminho) {
+        return HttpRequest.newBuilder(URI.create(no + caminho))
+                .timeout(timeout)
+                .header(HEADER_ENCAMINHADO, endereco);
+    }
+
+    private void agendarRebalanceamento() {
+        rebalancearDeNovo.set(true);
+        if (rebalanceando.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("cluster-rebalanceamento").start(this::rebalancear);
+        }
+    }
+
+    /**
+     * Mudanças no anel durante uma passada não conseguem agendar outra; por isso o pedido
+     * é conferido de novo ao final.
+     */
+    private void rebalancear() {
+        do {
+            rebalancearDeNovo.set(false);
+            try {
+                moverPessoasDeOutrosDonos();
+            } catch (RuntimeException e) {
+                log.error("Falha no rebalanceamento do cluster", e);
+            } finally {
+                rebalanceando.set(false);
+            }
+        } while (rebalancearDeNovo.get() && rebalanceando.compareAndSet(false, true));
+    }
+
+    private void moverPessoasDeOutrosDonos() {
+        AnelConsistente atual = anel;
+        int movidas = 0;
+        int pendentes = 0;
+        for (Pessoa pessoa : pessoaService.exportarPessoas()) {
+            String dono = atual.dono(pessoa.getId());
+            if (dono.equals(endereco)) {
+                continue;
+            }
+            if (mover(pessoa, dono)) {
+                movidas++;
+            } else {
+                pendentes++;
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+        if (movidas > 0 || pendentes > 0) {
+            log.info("Rebalanceamento de {}: {} pessoas movidas, {} pendentes", endereco, movidas, pendentes);
+        }
+    }
+
+    /**
+     * Transfere a pessoa ao dono e só então a remove daqui, se ela ainda estiver na versão
+     * transferida. O dono pode já ter uma cópia (os dados iniciais existem em todos os nós,
+     * ou uma passada anterior foi interrompida depois da transferência) e fica com a maior
+     * versão. Uma alteração feita aqui durante a transferência é transferida de novo.
+     */
+    private boolean mover(Pessoa pessoa, String dono) {
+        Pessoa transferida = pessoa;
+        while (transferir(transferida, dono)) {
+            if (pessoaService.removerSeVersao(transferida.getId(), transferida.getVersao())) {
+                return true;
+            }
+            try {
+                transferida = pessoaService.buscarPorId(transferida.getId());
+            } catch (PessoaNotFoundException e) {
+                // removida por outra requisição enquanto era transferida
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean transferir(Pessoa pessoa, String dono) {
+        try {
+            Transferencia transferencia = new Transferencia(pessoa, pessoa.getVersao());
+            HttpRequest requisicao = requisicao(dono, CAMINHO_TRANSFERENCIAS)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(transferencia)))
+                    .build();
+            int status = http.send(requisicao, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status != HttpStatus.NO_CONTENT.value()) {
+                log.warn("Nó {} recusou a pessoa {}: HTTP {}", dono, pessoa.getId(), status);
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            log.warn("Nó {} não recebeu a pessoa {}: {}", dono, pessoa.getId(), e.toString());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Recebe uma pessoa transferida por outro nó; prevalece a maior versão.
+     */
+    public void receber(Transferencia transferencia) {
+        pessoaService.receberTransferencia(transferencia.pessoa().comVersao(transferencia.versao()));
+    }
+
+    public record EntradaNo(String endereco) {
+    }
+
+    /**
+     * Pessoa enviada ao novo dono. A versão vai à parte porque não faz parte do JSON da pessoa.
+     */
+    public record Transferencia(Pessoa pessoa, long versao) {
+    }
+}
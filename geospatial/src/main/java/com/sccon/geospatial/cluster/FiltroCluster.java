@@ -0,0 +1,691 @@
+package com.sccon.geospatial.cluster;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sccon.geospatial.controller.FormatosBinarios;
+import com.sccon.geospatial.enums.OrdenacaoPessoas;
+import com.sccon.geospatial.exception.InvalidParameterException;
+import com.sccon.geospatial.exception.RespostaErro;
+import com.sccon.geospatial.index.ChaveData;
+import com.sccon.geospatial.index.ChaveNome;
+import com.sccon.geospatial.index.IndiceBusca;
+import com.sccon.geospatial.index.IndiceData;
+import com.sccon.geospatial.index.IndiceNome;
+import com.sccon.geospatial.model.CalculoPessoa;
+import com.sccon.geospatial.model.EstatisticasPessoas;
+import com.sccon.geospatial.model.FiltroPessoas;
+import com.sccon.geospatial.model.PaginaPessoas;
+import com.sccon.geospatial.model.Pessoa;
+import com.sccon.geospatial.model.RequisicaoCalculo;
+import com.sccon.geospatial.model.ResultadoLote;
+import com.sccon.geospatial.service.AlocadorId;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Roteamento das requisições de {@code /person} no cluster. Rotas de um id vão para o dono
+ * do id, com corpo e cabeçalhos intactos (inclusive formatos binários). Listagem, busca,
+ * estatísticas, cálculos, lote e exportação consultam todos os nós em paralelo e combinam
+ * as respostas como um nó único faria: páginas por chave de ordenação (os cursores valem em
+ * qualquer nó), busca reordenada pelo mesmo índice, agregados somados.
+ * <p>
+ * Pessoas criadas sem id recebem aqui um id que este nó possui, para que a criação não
+ * precise de outro salto. Requisições vindas de outro nó ({@link ClusterPessoas#HEADER_ENCAMINHADO})
+ * são sempre atendidas localmente. Erros de um nó (400, 404...) são repassados como vieram.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "pessoa.cluster.habilitado", havingValue = "true")
+public class FiltroCluster extends OncePerRequestFilter {
+
+    private static final Pattern POR_ID = Pattern.compile("/person/(-?\\d+)(/age|/salary)?");
+    private static final String HEADER_PROXIMO_CURSOR = "X-Next-Cursor";
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final int LIMITE_PADRAO = 100;
+    private static final int LIMITE_PADRAO_BUSCA = 20;
+    // Com N nós, a chance de nenhum id sorteado ser deste nó é ((N-1)/N)^64
+    private static final int TENTATIVAS_ID_LOCAL = 64;
+    // Controlados pelo cliente HTTP ou exclusivos de cada conexão
+    private static final Set<String> CABECALHOS_DE_CONEXAO = Set.of("host", "connection", "content-length", "expect",
+            "upgrade", "keep-alive", "transfer-encoding", "te", "trailer", "proxy-connection", "http2-settings",
+            "accept-encoding", ClusterPessoas.HEADER_ENCAMINHADO.toLowerCase(Locale.ROOT));
+
+    private final ClusterPessoas cluster;
+    private final ObjectMapper objectMapper;
+    private final FormatosBinarios formatosBinarios;
+    private final AlocadorId alocadorId;
+    private final IndiceNome ordemNome = new IndiceNome(Locale.forLanguageTag("pt-BR"));
+
+    public FiltroCluster(ClusterPessoas cluster, ObjectMapper objectMapper, FormatosBinarios formatosBinarios,
+                         AlocadorId alocadorId) {
+        this.cluster = cluster;
+        this.objectMapper = objectMapper;
+        this.formatosBinarios = formatosBinarios;
+        this.alocadorId = alocadorId;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest requisicao) {
+        return requisicao.getHeader(ClusterPessoas.HEADER_ENCAMINHADO) != null
+                || cluster.nos().size() < 2
+                || !requisicao.getRequestURI().startsWith(requisicao.getContextPath() + "/person");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest requisicao, HttpServletResponse resposta, FilterChain cadeia)
+            throws ServletException, IOException {
+        String caminho = requisicao.getRequestURI().substring(requisicao.getContextPath().length());
+        try {
+            Matcher porId = POR_ID.matcher(caminho);
+            if (porId.matches()) {
+                rotearPorId(porId.group(1), requisicao, resposta, cadeia);
+                return;
+            }
+            switch (requisicao.getMethod() + " " + caminho) {
+                case "GET /person" -> listar(requisicao, resposta, cadeia);
+                case "POST /person" -> criar(requisicao, resposta, cadeia);
+                case "GET /person/search" -> buscar(requisicao, resposta, cadeia);
+                case "GET /person/stats" -> estatisticas(requisicao, resposta);
+                case "POST /person/calculations" -> calcular(requisicao, resposta, cadeia);
+                case "POST /person/batch" -> criarEmLote(requisicao, resposta, cadeia);
+                case "GET /person/export" -> exportar(requisicao, resposta);
+                default -> cadeia.doFilter(requisicao, resposta);
+            }
+        } catch (NoIndisponivel e) {
+            if (resposta.isCommitted()) {
+                throw new IOException(e.getMessage());
+            }
+            resposta.reset();
+            escrever(resposta, HttpStatus.SERVICE_UNAVAILABLE, MediaType.APPLICATION_JSON_VALUE,
+                    new RespostaErro(e.getMessage()), objectMapper);
+        }
+    }
+
+    private void rotearPorId(String id, HttpServletRequest requisicao, HttpServletResponse resposta, FilterChain cadeia)
+            throws ServletException, IOException {
+        String dono;
+        try {
+            dono = cluster.dono(Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            // Fora do intervalo de long: o controller local responde o erro
+            cadeia.doFilter(requisicao, resposta);
+            return;
+        }
+        if (dono.equals(cluster.endereco())) {
+            cadeia.doFilter(requisicao, resposta);
+        } else {
+            encaminhar(requisicao, resposta, dono, requisicao.getInputStream().readAllBytes());
+        }
+    }
+
+    private void criar(HttpServletRequest requisicao, HttpServletResponse resposta, FilterChain cadeia)
+            throws ServletException, IOException {
+        byte[] corpo = requisicao.getInputStream().readAllBytes();
+        ObjectMapper mapeador = mapeador(requisicao.getContentType());
+        JsonNode pessoa = lerArvore(mapeador, corpo);
+        if (!(pessoa instanceof ObjectNode objeto)) {
+            cadeia.doFilter(new RequisicaoComCorpo(requisicao, corpo), resposta);
+            return;
+        }
+        JsonNode id = objeto.get("id");
+        long idPessoa;
+        if (id == null || id.isNull()) {
+            idPessoa = idLocal();
+            objeto.put("id", idPessoa);
+            corpo = mapeador.writeValueAsBytes(objeto);
+        } else if (id.isIntegralNumber() && id.canConvertToLong()) {
+            idPessoa = id.asLong();
+        } else {
+            cadeia.doFilter(new RequisicaoComCorpo(requisicao, corpo), resposta);
+            return;
+        }
+        String dono = cluster.dono(idPessoa);
+        if (dono.equals(cluster.endereco())) {
+            cadeia.doFilter(new RequisicaoComCorpo(requisicao, corpo), resposta);
+        } else {
+            encaminhar(requisicao, resposta, dono, corpo);
+        }
+    }
+
+    private long idLocal() {
+        long id = alocadorId.proximo();
+        for (int i = 1; i < TENTATIVAS_ID_LOCAL && !cluster.local(id); i++) {
+            id = alocadorId.proximo();
+        }
+        return id;
+    }
+
+    private void listar(HttpServletRequest requisicao, HttpServletResponse resposta, FilterChain cadeia)
+            throws ServletException, IOException {
+        FiltroPessoas filtro;
+        OrdenacaoPessoas ordenacao;
+        Integer limite;
+        try {
+            filtro = FiltroPessoas.de(requisicao.getParameter("sort"),
+                    requisicao.getParameter("dataNascimentoDe"), requisicao.getParameter("dataNascimentoAte"),
+                    requisicao.getParameter("dataAdmissaoDe"), requisicao.getParameter("dataAdmissaoAte"));
+            ordenacao = filtro.ordenacaoEfetiva();
+            String limit = requisicao.getParameter("limit");
+            limite = limit == null ? null : Integer.valueOf(limit);
+        } catch (InvalidParameterException | NumberFormatException e) {
+            // Parâmetros inválidos: o controller local responde o mesmo erro que qualquer nó
+            cadeia.doFilter(requisicao, resposta);
+            return;
+        }
+        boolean paginado = limite != null || requisicao.getParameter("cursor") != null || !filtro.vazio();
+
+        List<HttpResponse<byte[]>> respostas = reunir(requisicao, HttpHeaders.IF_NONE_MATCH);
+        if (repassarErro(respostas, resposta)) {
+            return;
+        }
+        // ETag do cluster: versões de todos os nós, na ordem do anel
+        StringBuilder etag = new StringBuilder("\"c");
+        for (int i = 0; i < respostas.size(); i++) {
+            String versao = respostas.get(i).headers().firstValue(HttpHeaders.ETAG).orElse("\"c?\"");
+            etag.append(i == 0 ? "" : ".").append(versao, 2, versao.length() - 1);
+        }
+        etag.append('"');
+        resposta.setHeader(HttpHeaders.ETAG, etag.toString());
+        if (etag.toString().equals(requisicao.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            resposta.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+
+        String tipo = tipo(respostas.get(0));
+        ObjectMapper mapeador = mapeador(tipo);
+        JavaType tipoLista = mapeador.getTypeFactory().constructCollectionType(List.class, Pessoa.class);
+        List<Pessoa> pessoas = new ArrayList<>();
+        boolean haMais = false;
+        for (HttpResponse<byte[]> parcial : respostas) {
+            pessoas.addAll(mapeador.readValue(parcial.body(), tipoLista));
+            haMais |= parcial.headers().firstValue(HEADER_PROXIMO_CURSOR).isPresent();
+        }
+        int tamanho = paginado ? (limite != null ? limite : LIMITE_PADRAO) : Integer.MAX_VALUE;
+        PaginaPessoas pagina = switch (ordenacao) {
+            case NOME -> mesclar(pessoas, tamanho, haMais, p -> ordemNome.chave(p.getNome(), p.getId()), ChaveNome::toCursor);
+            case DATA_NASCIMENTO -> mesclar(pessoas, tamanho, haMais,
+                    p -> new ChaveData(IndiceData.dia(p.getDataNascimento()), p.getId()), ChaveData::toCursor);
+            case DATA_ADMISSAO -> mesclar(pessoas, tamanho, haMais,
+                    p -> new ChaveData(IndiceData.dia(p.getDataAdmissao()), p.getId()), ChaveData::toCursor);
+        };
+        if (pagina.proximoCursor() != null) {
+            resposta.setHeader(HEADER_PROXIMO_CURSOR, pagina.proximoCursor());
+        }
+        escrever(resposta, HttpStatus.OK, tipo, pagina.pessoas(), mapeador);
+    }
+
+    /**
+     * Primeiras {@code limite} pessoas das páginas de todos os nós. Cada nó devolveu as suas
+     * primeiras {@code limite} depois do cursor, então a página do cluster está entre elas;
+     * o próximo cursor é a chave da última pessoa devolvida.
+     */
+    private static <C extends Comparable<C>> PaginaPessoas mesclar(List<Pessoa> pessoas, int limite, boolean haMais,
+                                                                   Function<Pessoa, C> chave, Function<C, String> cursor) {
+        List<Map.Entry<C, Pessoa>> ordenadas = new ArrayList<>(pessoas.size());
+        for (Pessoa pessoa : pessoas) {
+            ordenadas.add(Map.entry(chave.apply(pessoa), pessoa));
+        }
+        ordenadas.sort(Map.Entry.comparingByKey());
+        int tamanho = Math.min(limite, ordenadas.size());
+        List<Pessoa> pagina = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            pagina.add(ordenadas.get(i).getValue());
+        }
+        String proximoCursor = null;
+        if (tamanho > 0 && tamanho == limite && (haMais || ordenadas.size() > tamanho)) {
+            proximoCursor = cursor.apply(ordenadas.get(tamanho - 1).getKey());
+        }
+        return new PaginaPessoas(pagina, proximoCursor);
+    }
+
+    private void buscar(HttpServletRequest requisicao, HttpServletResponse resposta, FilterChain cadeia)
+            throws ServletException, IOException {
+        int limite;
+        try {
+            String limit = requisicao.getParameter("limit");
+            limite = limit == null ? LIMITE_PADRAO_BUSCA : Integer.parseInt(limit);
+        } catch (NumberFormatException e) {
+            cadeia.doFilter(requisicao, resposta);
+            return;
+        }
+        List<HttpResponse<byte[]>> respostas = reunir(requisicao, null);
+        if (repassarErro(respostas, resposta)) {
+            return;
+        }
+        String tipo = tipo(respostas.get(0));
+        ObjectMapper mapeador = mapeador(tipo);
+        JavaType tipoLista = mapeador.getTypeFactory().constructCollectionType(List.class, Pessoa.class);
+        // O melhor resultado do cluster está entre os melhores de cada nó; um índice só com
+        // eles dá a mesma ordem que um nó único daria
+        Map<Long, Pessoa> candidatas = new HashMap<>();
+        for (HttpResponse<byte[]> parcial : respostas) {
+            for (Pessoa pessoa : mapeador.<List<Pessoa>>readValue(parcial.body(), tipoLista)) {
+                candidatas.put(pessoa.getId(), pessoa);
+            }
+        }
+        IndiceBusca indice = new IndiceBusca();
+        indice.carregar(candidatas.values());
+        escrever(resposta, HttpStatus.OK, tipo,
+                indice.buscar(requisicao.getParameter("q"), limite, candidatas::get), mapeador);
+    }
+
+    private void estatisticas(HttpServletRequest requisicao, HttpServletResponse resposta) throws IOException {
+        List<HttpResponse<byte[]>> respostas = reunir(requisicao, null);
+        if (repassarErro(respostas, resposta)) {
+            return;
+        }
+        String tipo = tipo(respostas.get(0));
+        ObjectMapper mapeador = mapeador(tipo);
+        long quantidade = 0;
+        double folha = 0;
+        Map<Integer, Long> porIdade = new TreeMap<>();
+        Map<String, Long> admissoes = new TreeMap<>();
+        EstatisticasPessoas parcial = null;
+        for (HttpResponse<byte[]> resp : respostas) {
+            parcial = mapeador.readValue(resp.body(), EstatisticasPessoas.class);
+            quantidade += parcial.quantidade();
+            folha += parcial.folhaTotal();
+            parcial.pessoasPorIdade().forEach((idade, total) -> porIdade.merge(idade, total, Long::sum));
+            parcial.admissoesPorMes().forEach((mes, total) -> admissoes.merge(mes, total, Long::sum));
+        }
+        // Quem tem salário é quem tem admissão, contado uma vez por mês de admissão
+        long assalariados = admissoes.values().stream().mapToLong(Long::longValue).sum();
+        escrever(resposta, HttpStatus.OK, tipo, new EstatisticasPessoas(parcial.referencia(), quantidade, centavos(folha),
+                assalariados == 0 ? 0 : centavos(folha / assalariados), porIdade, admissoes), mapeador);
+    }
+
+    private static double centavos(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+
+    private void calcular(HttpServletRequest requisicao, HttpServletResponse resposta, FilterChain cadeia)
+            throws ServletException, IOException {
+        byte[] corpo = requisicao.getInputStream().readAllBytes();
+        ObjectMapper mapeador = mapeador(requisicao.getContentType());
+        RequisicaoCalculo pedido;
+        try {
+            pedido = mapeador.readValue(corpo, RequisicaoCalculo.class);
+        } catch (IOException e) {
+            pedido = null;
+        }
+        if (pedido == null || pedido.ids() != null && pedido.ids().contains(null)) {
+            cadeia.doFilter(new RequisicaoComCorpo(requisicao, corpo), resposta);
+            return;
+        }
+
+        List<String> nos;
+        List<byte[]> corpos = new ArrayList<>();
+        Map<String, List<Integer>> posicoes = new LinkedHashMap<>();
+        if (pedido.ids() == null) {
+            // Todas as pessoas: cada nó calcula as suas, na ordem dele
+            nos = cluster.nos();
+            nos.forEach(no -> corpos.add(corpo));
+        } else {
+            Map<String, List<Long>> idsPorDono = new LinkedHashMap<>();
+            for (int i = 0; i < pedido.ids().size(); i++) {
+                String dono = cluster.dono(pedido.ids().get(i));
+                idsPorDono.computeIfAbsent(dono, no -> new ArrayList<>()).add(pedido.ids().get(i));
+                posicoes.computeIfAbsent(dono, no -> new ArrayList<>()).add(i);
+            }
+            nos = new ArrayList<>(idsPorDono.keySet());
+            for (List<Long> ids : idsPorDono.values()) {
+                corpos.add(mapeador.writeValueAsBytes(new RequisicaoCalculo(ids, pedido.age(), pedido.salary())));
+            }
+        }
+        List<HttpResponse<byte[]>> respostas = enviar(requisicao, nos, corpos);
+        if (repassarErro(respostas, resposta)) {
+            return;
+        }
+        String tipo = tipo(respostas.get(0));
+        ObjectMapper mapeadorResposta = mapeador(tipo);
+        TypeReference<List<CalculoPessoa>> tipoLista = new TypeReference<>() { };
+        List<CalculoPessoa> calculos = new ArrayList<>();
+        if (pedido.ids() == null) {
+            for (HttpResponse<byte[]> parcial : respostas) {
+                calculos.addAll(mapeadorResposta.readValue(parcial.body(), tipoLista));
+            }
+        } else {
+            CalculoPessoa[] naOrdem = new CalculoPessoa[pedido.ids().size()];
+            for (int i = 0; i < nos.size(); i++) {
+                List<CalculoPessoa> parciais = mapeadorResposta.readValue(respostas.get(i).body(), tipoLista);
+                List<Integer> destino = posicoes.get(nos.get(i));
+                for (int j = 0; j < parciais.size(); j++) {
+                    naOrdem[destino.get(j)] = parciais.get(j);
+                }
+            }
+            calculos = Arrays.asList(naOrdem);
+        }
+        escrever(resposta, HttpStatus.OK, tipo, calculos, mapeadorResposta);
+    }
+
+    /**
+     * Separa o lote por dono e envia cada parte como um lote próprio, no formato recebido.
+     * Itens sem id ganham um id deste nó; itens malformados ficam com este nó, que os
+     * reporta como inválidos. Diferente do nó único, o lote inteiro fica em memória.
+     */
+    private void criarEmLote(HttpServletRequest requisicao, HttpServletResponse resposta, FilterChain cadeia)
+            throws ServletException, IOException {
+        byte[] corpo = requisicao.getInputStream().readAllBytes();
+        ObjectMapper mapeador = mapeador(requisicao.getContentType());
+        JsonNode itens = lerArvore(mapeador, corpo);
+        if (itens == null || !itens.isArray()) {
+            cadeia.doFilter(new RequisicaoComCorpo(requisicao, corpo), resposta);
+            return;
+        }
+
+        Map<String, ArrayNode> lotes = new LinkedHashMap<>();
+        Map<String, List<Integer>> posicoes = new LinkedHashMap<>();
+        for (int i = 0; i < itens.size(); i++) {
+            JsonNode item = itens.get(i);
+            String dono = cluster.endereco();
+            if (item instanceof ObjectNode objeto) {
+                JsonNode id = objeto.get("id");
+                if (id == null || id.isNull()) {
+                    long novo = idLocal();
+                    objeto.put("id", novo);
+                    dono = cluster.dono(novo);
+                } else if (id.isIntegralNumber() && id.canConvertToLong()) {
+                    dono = cluster.dono(id.asLong());
+                }
+            }
+            lotes.computeIfAbsent(dono, no -> mapeador.createArrayNode()).add(item);
+            posicoes.computeIfAbsent(dono, no -> new ArrayList<>()).add(i);
+        }
+
+        List<String> nos = new ArrayList<>(lotes.keySet());
+        List<byte[]> corpos = new ArrayList<>();
+        for (ArrayNode lote : lotes.values()) {
+            corpos.add(mapeador.writeValueAsBytes(lote));
+        }
+        List<HttpResponse<byte[]>> respostas = enviar(requisicao, nos, corpos);
+        if (repassarErro(respostas, resposta)) {
+            return;
+        }
+        String tipo = respostas.isEmpty() ? MediaType.APPLICATION_JSON_VALUE : tipo(respostas.get(0));
+        ObjectMapper mapeadorResposta = mapeador(tipo);
+        List<ResultadoLote> resultados = new ArrayList<>(itens.size());
+        for (int i = 0; i < nos.size(); i++) {
+            List<Integer> origem = posicoes.get(nos.get(i));
+            for (ResultadoLote parcial : mapeadorResposta.readValue(respostas.get(i).body(), new TypeReference<List<ResultadoLote>>() { })) {
+                resultados.add(new ResultadoLote(origem.get(parcial.indice()), parcial.status(), parcial.id(), parcial.erro()));
+            }
+        }
+        resultados.sort(Comparator.comparingInt(ResultadoLote::indice));
+        escrever(resposta, HttpStatus.OK, tipo, resultados, mapeadorResposta);
+    }
+
+    /**
+     * Exportação de cada nó em sequência, sem buffer: o cliente lê o cadastro de um nó por vez.
+     */
+    private void exportar(HttpServletRequest requisicao, HttpServletResponse resposta) throws IOException {
+        OutputStream saida = null;
+        for (String no : cluster.nos()) {
+            HttpRequest pedido = copia(requisicao, no, null).GET().build();
+            HttpResponse<InputStream> parcial = enviar(no, pedido, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream corpo = parcial.body()) {
+                if (parcial.statusCode() != HttpStatus.OK.value()) {
+                    if (saida != null) {
+                        throw new IOException("Exportação interrompida: nó " + no + " respondeu HTTP " + parcial.statusCode());
+                    }
+                    copiarCabecalhos(parcial, resposta);
+                    resposta.setStatus(parcial.statusCode());
+                    corpo.transferTo(resposta.getOutputStream());
+                    return;
+                }
+                if (saida == null) {
+                    resposta.setStatus(HttpStatus.OK.value());
+                    resposta.setContentType(parcial.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse(APPLICATION_NDJSON_VALUE));
+                    saida = resposta.getOutputStream();
+                }
+                corpo.transferTo(saida);
+                saida.flush();
+            }
+        }
+    }
+
+    private void encaminhar(HttpServletRequest requisicao, HttpServletResponse resposta, String no, byte[] corpo)
+            throws IOException {
+        HttpRequest pedido = copia(requisicao, no, null)
+                .method(requisicao.getMethod(), corpo.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(corpo))
+                .build();
+        HttpResponse<InputStream> encaminhada = enviar(no, pedido, HttpResponse.BodyHandlers.ofInputStream());
+        resposta.setStatus(encaminhada.statusCode());
+        copiarCabecalhos(encaminhada, resposta);
+        try (InputStream corpoResposta = encaminhada.body()) {
+            corpoResposta.transferTo(resposta.getOutputStream());
+        }
+    }
+
+    /**
+     * A mesma requisição (caminho, consulta e cabeçalhos do cliente, menos o
+     * {@code ignorado}) enviada a todos os nós, em paralelo.
+     */
+    private List<HttpResponse<byte[]>> reunir(HttpServletRequest requisicao, String ignorado) {
+        List<String> nos = cluster.nos();
+        List<CompletableFuture<HttpResponse<byte[]>>> pendentes = new ArrayList<>(nos.size());
+        for (String no : nos) {
+            HttpRequest pedido = copia(requisicao, no, ignorado).GET().build();
+            pendentes.add(cluster.http().sendAsync(pedido, HttpResponse.BodyHandlers.ofByteArray()));
+        }
+        return aguardar(nos, pendentes);
+    }
+
+    private List<HttpResponse<byte[]>> enviar(HttpServletRequest requisicao, List<String> nos, List<byte[]> corpos) {
+        List<CompletableFuture<HttpResponse<byte[]>>> pendentes = new ArrayList<>(nos.size());
+        for (int i = 0; i < nos.size(); i++) {
+            HttpRequest pedido = copia(requisicao, nos.get(i), null)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(corpos.get(i)))
+                    .build();
+            pendentes.add(cluster.http().sendAsync(pedido, HttpResponse.BodyHandlers.ofByteArray()));
+        }
+        return aguardar(nos, pendentes);
+    }
+
+    private static List<HttpResponse<byte[]>> aguardar(List<String> nos, List<CompletableFuture<HttpResponse<byte[]>>> pendentes) {
+        List<HttpResponse<byte[]>> respostas = new ArrayList<>(pendentes.size());
+        for (int i = 0; i < pendentes.size(); i++) {
+            try {
+                respostas.add(pendentes.get(i).join());
+            } catch (CompletionException e) {
+                throw new NoIndisponivel(nos.get(i));
+            }
+        }
+        return respostas;
+    }
+
+    private <T> HttpResponse<T> enviar(String no, HttpRequest pedido, HttpResponse.BodyHandler<T> leitor) {
+        try {
+            return cluster.http().send(pedido, leitor);
+        } catch (IOException e) {
+            throw new NoIndisponivel(no);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new NoIndisponivel(no);
+        }
+    }
+
+    private HttpRequest.Builder copia(HttpServletRequest requisicao, String no, String ignorado) {
+        String consulta = requisicao.getQueryString();
+        HttpRequest.Builder pedido = cluster.requisicao(no, requisicao.getRequestURI() + (consulta != null ? "?" + consulta : ""));
+        for (String nome : Collections.list(requisicao.getHeaderNames())) {
+            if (CABECALHOS_DE_CONEXAO.contains(nome.toLowerCase(Locale.ROOT)) || nome.equalsIgnoreCase(ignorado)) {
+                continue;
+            }
+            for (String valor : Collections.list(requisicao.getHeaders(nome))) {
+                pedido.header(nome, valor);
+            }
+        }
+        return pedido;
+    }
+
+    private static void copiarCabecalhos(HttpResponse<?> origem, HttpServletResponse resposta) {
+        origem.headers().map().forEach((nome, valores) -> {
+            if (!nome.startsWith(":") && !CABECALHOS_DE_CONEXAO.contains(nome.toLowerCase(Locale.ROOT))) {
+                valores.forEach(valor -> resposta.addHeader(nome, valor));
+            }
+        });
+    }
+
+    private static boolean repassarErro(List<HttpResponse<byte[]>> respostas, HttpServletResponse resposta) throws IOException {
+        for (HttpResponse<byte[]> parcial : respostas) {
+            if (parcial.statusCode() >= 300) {
+                resposta.setStatus(parcial.statusCode());
+                copiarCabecalhos(parcial, resposta);
+                resposta.getOutputStream().write(parcial.body());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String tipo(HttpResponse<?> resposta) {
+        return resposta.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElse(MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private ObjectMapper mapeador(String tipo) {
+        if (tipo == null) {
+            return objectMapper;
+        }
+        try {
+            ObjectMapper binario = formatosBinarios.mapeadorPara(MediaType.parseMediaType(tipo));
+            return binario != null ? binario : objectMapper;
+        } catch (IllegalArgumentException e) {
+            return objectMapper;
+        }
+    }
+
+    private static JsonNode lerArvore(ObjectMapper mapeador, byte[] corpo) {
+        try {
+            return mapeador.readTree(corpo);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static void escrever(HttpServletResponse resposta, HttpStatus status, String tipo, Object corpo,
+                                 ObjectMapper mapeador) throws IOException {
+        byte[] bytes = mapeador.writeValueAsBytes(corpo);
+        resposta.setStatus(status.value());
+        resposta.setContentType(tipo);
+        resposta.setContentLength(bytes.length);
+        resposta.getOutputStream().write(bytes);
+    }
+
+    private static final class NoIndisponivel extends RuntimeException {
+
+        NoIndisponivel(String no) {
+            super("Nó " + no + " indisponível", null, false, false);
+        }
+    }
+
+    /**
+     * Requisição com o corpo já lido (e possivelmente reescrito), para seguir na cadeia local.
+     */
+    private static final class RequisicaoComCorpo extends HttpServletRequestWrapper {
+
+        private final byte[] corpo;
+
+        RequisicaoComCorpo(HttpServletRequest requisicao, byte[] corpo) {
+            super(requisicao);
+            this.corpo = corpo;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream entrada = new ByteArrayInputStream(corpo);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return entrada.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener leitor) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return entrada.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return entrada.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String charset = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(corpo),
+                    charset != null ? Charset.forName(charset) : StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int getContentLength() {
+            return corpo.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return corpo.length;
+        }
+
+        @Override
+        public String getHeader(String nome) {
+            return HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(nome) ? Integer.toString(corpo.length) : super.getHeader(nome);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.sccon.geospatial.config;
+
+import com.sccon.geospatial.enums.Durabilidade;
+import com.sccon.geospatial.service.AlocadorId;
+import com.sccon.geospatial.service.AlocadorIdSequencial;
+import com.sccon.geospatial.service.AlocadorIdTemporal;
+import com.sccon.geospatial.service.FeedAlteracoes;
+import com.sccon.geospatial.storage.ArmazenamentoColunar;
+import com.sccon.geospatial.storage.ArmazenamentoMemoria;
+import com.sccon.geospatial.storage.ArmazenamentoPessoas;
+import com.sccon.geospatial.storage.LogEscrita;
+import com.sccon.geospatial.storage.SnapshotPessoas;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.nio.file.Path;
+import java.time.Clock;
+
+@Configuration
+@EnableScheduling
+public class PessoaConfig {
+
+    @Bean
+    public Clock clock() {
+        return Clock.systemDefaultZone();
+    }
+
+    @Bean
+    public AlocadorId alocadorId(@Value("${pessoa.id.modo:sequencial}") String modo,
+                                 @Value("${pessoa.id.bloco:64}") int tamanhoBloco,
+                                 @Value("${pessoa.id.no:0}") int no,
+                                 Clock clock) {
+        return switch (modo.toLowerCase()) {
+            case "sequencial" -> new AlocadorIdSequencial(1L, tamanhoBloco);
+            case "temporal" -> new AlocadorIdTemporal(no, clock);
+            default -> throw new IllegalArgumentException("Modo de id '" + modo + "' não é válido. Use: sequencial ou temporal");
+        };
+    }
+
+    @Bean
+    public ArmazenamentoPessoas armazenamentoPessoas(@Value("${pessoa.armazenamento:memoria}") String modo,
+                                                    @Value("${pessoa.armazenamento.capacidade:1024}") int capacidade) {
+        return switch (modo.toLowerCase()) {
+            case "memoria" -> new ArmazenamentoMemoria();
+            case "colunar" -> new ArmazenamentoColunar(capacidade);
+            default -> throw new IllegalArgumentException("Armazenamento '" + modo + "' não é válido. Use: memoria ou colunar");
+        };
+    }
+
+    @Bean
+    public FeedAlteracoes feedAlteracoes(@Value("${pessoa.feed.capacidade:65536}") int capacidade) {
+        return new FeedAlteracoes(capacidade);
+    }
+
+    @Bean
+    @ConditionalOnProperty("pessoa.snapshot.arquivo")
+    public SnapshotPessoas snapshotPessoas(@Value("${pessoa.snapshot.arquivo}") String arquivo) {
+        return new SnapshotPessoas(Path.of(arquivo));
+    }
+
+    @Bean
+    @ConditionalOnProperty("pessoa.wal.diretorio")
+    public LogEscrita logEscrita(@Value("${pessoa.wal.diretorio}") String diretorio,
+                                 @Value("${pessoa.wal.durabilidade:sync}") String durabilidade,
+                                 @Value("${pessoa.wal.intervalo-ms:2}") long intervaloMillis) {
+        Durabilidade modo;
+        try {
+            modo = Durabilidade.valueOf(durabilidade.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Durabilidade '" + durabilidade + "' não é válida. Use: sync, batched ou async");
+        }
+        return new LogEscrita(Path.of(diretorio), modo, intervaloMillis);
+    }
+}
@@ -0,0 +1,20 @@
+package com.sccon.geospatial.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class WebReativaConfig {
+
+    /**
+     * Com o Tomcat no classpath (pilha servlet), o Spring Boot o escolheria também para o
+     * WebFlux, via adaptador de Servlet; a pilha reativa deve rodar no event loop do Netty.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,60 @@
+package com.sccon.geospatial.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sccon.geospatial.controller.ConversorJsonPessoas;
+import com.sccon.geospatial.controller.FormatosBinarios;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class WebServletConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+    private final FormatosBinarios formatosBinarios;
+
+    public WebServletConfig(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.formatosBinarios = new FormatosBinarios(objectMapper);
+    }
+
+    @Bean
+    public FormatosBinarios formatosBinarios() {
+        return formatosBinarios;
+    }
+
+    /**
+     * Antes do conversor do Jackson, para que pessoas e listas de pessoas saiam do cache de
+     * JSON de cada registro; os demais tipos seguem para o Jackson.
+     * <p>
+     * Os conversores binários padrão do Spring (sem datas como dia da época) são trocados
+     * pelos nossos, no fim da lista: com {@code Accept: *}{@code /*} a resposta continua JSON.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new ConversorJsonPessoas(objectMapper));
+        converters.removeIf(conversor -> conversor instanceof MappingJackson2CborHttpMessageConverter
+                || conversor instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.addAll(formatosBinarios.conversores());
+    }
+
+    /**
+     * A exportação e o feed de alterações ocupam a thread assíncrona enquanto o cliente estiver
+     * conectado; com uma thread virtual por resposta, conexões longas não esgotam um pool fixo.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mvc-async-");
+        executor.setVirtualThreads(true);
+        configurer.setTaskExecutor(executor);
+    }
+}
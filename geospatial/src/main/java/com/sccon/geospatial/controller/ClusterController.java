@@ -0,0 +1,54 @@
+package com.sccon.geospatial.controller;
+
+import com.sccon.geospatial.cluster.ClusterPessoas;
+import com.sccon.geospatial.exception.InvalidParameterException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Membros do cluster. Um nó que sobe se anuncia com {@code POST /cluster/nodes} e recebe
+ * os membros conhecidos; no rebalanceamento, as pessoas chegam ao novo dono por
+ * {@code POST /cluster/transfers}.
+ */
+@RestController
+@RequestMapping("/cluster")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "pessoa.cluster.habilitado", havingValue = "true")
+public class ClusterController {
+
+    private final ClusterPessoas cluster;
+
+    public ClusterController(ClusterPessoas cluster) {
+        this.cluster = cluster;
+    }
+
+    @GetMapping("/nodes")
+    public ResponseEntity<List<String>> listarNos() {
+        return ResponseEntity.ok(cluster.nos());
+    }
+
+    @PostMapping("/nodes")
+    public ResponseEntity<List<String>> adicionarNo(@RequestBody ClusterPessoas.EntradaNo entrada) {
+        if (entrada.endereco() == null || entrada.endereco().isBlank()) {
+            throw new InvalidParameterException("Endereço do nó é obrigatório");
+        }
+        if (!cluster.pronto()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(cluster.adicionar(List.of(entrada.endereco())));
+    }
+
+    @PostMapping("/transfers")
+    public ResponseEntity<Void> receberTransferencia(@RequestBody ClusterPessoas.Transferencia transferencia) {
+        if (transferencia.pessoa() == null) {
+            throw new InvalidParameterException("Pessoa transferida é obrigatória");
+        }
+        cluster.receber(transferencia);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.sccon.geospatial.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.sccon.geospatial.model.Pessoa;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Escreve {@link Pessoa} e coleções de pessoas em JSON a partir da codificação guardada em
+ * cada versão, sem passar pelo Jackson a cada resposta. Uma lista é montada concatenando as
+ * codificações direto no stream do container: o tamanho total é conhecido antes do primeiro
+ * byte, então a resposta sai com Content-Length e sem buffer intermediário. A leitura de
+ * corpos continua com o conversor do Jackson.
+ */
+public class ConversorJsonPessoas extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final byte[] VAZIA = {'[', ']'};
+
+    private final ObjectWriter writer;
+
+    public ConversorJsonPessoas(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_JSON);
+        this.writer = objectMapper.writerFor(Pessoa.class);
+    }
+
+    public byte[] codificar(Pessoa pessoa) {
+        return pessoa.json(this::serializar);
+    }
+
+    private byte[] serializar(Pessoa pessoa) {
+        try {
+            return writer.writeValueAsBytes(pessoa);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Pessoa.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return (Pessoa.class == clazz || colecaoDePessoas(type)) && canWrite(mediaType);
+    }
+
+    private static boolean colecaoDePessoas(Type type) {
+        return type instanceof ParameterizedType parametrizado
+                && parametrizado.getRawType() instanceof Class<?> bruto
+                && Collection.class.isAssignableFrom(bruto)
+                && parametrizado.getActualTypeArguments()[0] == Pessoa.class;
+    }
+
+    @Override
+    protected void writeInternal(Object objeto, Type type, HttpOutputMessage saida) throws IOException {
+        if (objeto instanceof Pessoa pessoa) {
+            byte[] json = codificar(pessoa);
+            saida.getHeaders().setContentLength(json.length);
+            saida.getBody().write(json);
+            return;
+        }
+        if (!(objeto instanceof Collection<?> pessoas)) {
+            throw new HttpMessageNotWritableException("Tipo não suportado: " + objeto.getClass().getName());
+        }
+        // As codificações são coletadas antes: a coleção pode ser uma visão do cadastro
+        // que muda entre duas passadas
+        List<byte[]> partes = new ArrayList<>(pessoas.size());
+        long tamanho = 2;
+        for (Object pessoa : pessoas) {
+            byte[] json = codificar((Pessoa) pessoa);
+            partes.add(json);
+            tamanho += json.length;
+        }
+        if (partes.isEmpty()) {
+            saida.getHeaders().setContentLength(VAZIA.length);
+            saida.getBody().write(VAZIA);
+            return;
+        }
+        saida.getHeaders().setContentLength(tamanho + partes.size() - 1);
+        OutputStream corpo = saida.getBody();
+        corpo.write('[');
+        for (int i = 0; i < partes.size(); i++) {
+            if (i > 0) {
+                corpo.write(',');
+            }
+            corpo.write(partes.get(i));
+        }
+        corpo.write(']');
+    }
+
+    /**
+     * Só escreve: {@link #canRead} é sempre falso, e chegar aqui é um conversor fora de ordem.
+     */
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage entrada) {
+        throw naoLe(entrada);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage entrada) {
+        throw naoLe(entrada);
+    }
+
+    private static HttpMessageNotReadableException naoLe(HttpInputMessage entrada) {
+        return new HttpMessageNotReadableException("ConversorJsonPessoas só escreve respostas; o corpo deve ser lido pelo conversor do Jackson", entrada);
+    }
+}
@@ -0,0 +1,92 @@
+package com.sccon.geospatial.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Codificações binárias da API (CBOR e Smile), negociadas por {@code Accept} e
+ * {@code Content-Type}. Os mapeadores copiam a configuração do {@link ObjectMapper} da
+ * aplicação e trocam só a codificação das datas: em vez do texto ISO, o dia da época como
+ * inteiro, que é menor e não precisa ser interpretado. Na leitura o texto ISO continua aceito.
+ */
+public class FormatosBinarios {
+
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ObjectMapper cbor;
+    private final ObjectMapper smile;
+
+    public FormatosBinarios(ObjectMapper objectMapper) {
+        this.cbor = objectMapper.copyWith(new CBORFactory()).registerModule(datasComoDiaDaEpoca());
+        this.smile = objectMapper.copyWith(new SmileFactory()).registerModule(datasComoDiaDaEpoca());
+    }
+
+    public ObjectMapper cbor() {
+        return cbor;
+    }
+
+    public ObjectMapper smile() {
+        return smile;
+    }
+
+    /**
+     * Mapeador do tipo de conteúdo informado, ou {@code null} se não for um formato binário.
+     */
+    public ObjectMapper mapeadorPara(MediaType tipo) {
+        if (MediaType.APPLICATION_CBOR.isCompatibleWith(tipo)) {
+            return cbor;
+        }
+        if (APPLICATION_SMILE.isCompatibleWith(tipo)) {
+            return smile;
+        }
+        return null;
+    }
+
+    public List<HttpMessageConverter<?>> conversores() {
+        return List.of(new MappingJackson2CborHttpMessageConverter(cbor), new MappingJackson2SmileHttpMessageConverter(smile));
+    }
+
+    private static SimpleModule datasComoDiaDaEpoca() {
+        SimpleModule modulo = new SimpleModule("DatasComoDiaDaEpoca");
+        modulo.addSerializer(LocalDate.class, new JsonSerializer<>() {
+            @Override
+            public void serialize(LocalDate data, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+                gerador.writeNumber(data.toEpochDay());
+            }
+        });
+        modulo.addDeserializer(LocalDate.class, new JsonDeserializer<>() {
+            @Override
+            public LocalDate deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+                if (parser.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+                    return LocalDate.ofEpochDay(parser.getLongValue());
+                }
+                if (parser.hasToken(JsonToken.VALUE_STRING)) {
+                    try {
+                        return LocalDate.parse(parser.getText());
+                    } catch (RuntimeException e) {
+                        return (LocalDate) contexto.handleWeirdStringValue(LocalDate.class, parser.getText(), "data ISO inválida");
+                    }
+                }
+                return (LocalDate) contexto.handleUnexpectedToken(LocalDate.class, parser);
+            }
+        });
+        return modulo;
+    }
+}
@@ -0,0 +1,384 @@
+package com.sccon.geospatial.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sccon.geospatial.exception.InvalidParameterException;
+import com.sccon.geospatial.exception.PessoaPreconditionFailedException;
+import com.sccon.geospatial.model.CalculoPessoa;
+import com.sccon.geospatial.model.EstatisticasPessoas;
+import com.sccon.geospatial.model.EventoAlteracao;
+import com.sccon.geospatial.model.FiltroPessoas;
+import com.sccon.geospatial.model.PaginaPessoas;
+import com.sccon.geospatial.model.Pessoa;
+import com.sccon.geospatial.model.RequisicaoCalculo;
+import com.sccon.geospatial.model.ResultadoLote;
+import com.sccon.geospatial.service.FeedAlteracoes;
+import com.sccon.geospatial.service.PessoaService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/person")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PessoaController {
+    
+    static final String HEADER_PROXIMO_CURSOR = "X-Next-Cursor";
+    private static final int LIMITE_PADRAO = 100;
+    private static final int LIMITE_PADRAO_BUSCA = 20;
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    private static final int TAMANHO_BUFFER_EXPORTACAO = 64 * 1024;
+    private static final int TAMANHO_BLOCO_LOTE = 1000;
+    static final String HEADER_ULTIMO_EVENTO = "Last-Event-ID";
+    private static final long INTERVALO_BATIMENTO_MS = 15_000;
+    private static final byte[] BATIMENTO = ":\n\n".getBytes(StandardCharsets.US_ASCII);
+    
+    private final PessoaService pessoaService;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter ndjsonWriter;
+    private final FormatosBinarios formatosBinarios;
+    
+    public PessoaController(PessoaService pessoaService, ObjectMapper objectMapper, FormatosBinarios formatosBinarios) {
+        this.pessoaService = pessoaService;
+        this.objectMapper = objectMapper;
+        this.formatosBinarios = formatosBinarios;
+        this.ndjsonWriter = objectMapper.writerFor(Pessoa.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+    
+    @GetMapping
+    public ResponseEntity<List<Pessoa>> listarPessoas(@RequestParam(required = false) Integer limit,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) String sort,
+                                                      @RequestParam(required = false) String dataNascimentoDe,
+                                                      @RequestParam(required = false) String dataNascimentoAte,
+                                                      @RequestParam(required = false) String dataAdmissaoDe,
+                                                      @RequestParam(required = false) String dataAdmissaoAte,
+                                                      WebRequest webRequest) {
+        FiltroPessoas filtro = FiltroPessoas.de(sort, dataNascimentoDe, dataNascimentoAte, dataAdmissaoDe, dataAdmissaoAte);
+        
+        // A ETag é lida antes dos dados; se nada mudou, respondemos 304 sem montar a lista
+        String etag = etagCadastro(pessoaService.versaoCadastro());
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        
+        if (limit == null && cursor == null && filtro.vazio()) {
+            List<Pessoa> pessoas = pessoaService.listarPessoas();
+            return ResponseEntity.ok().eTag(etag).body(pessoas);
+        }
+        
+        PaginaPessoas pagina = pessoaService.listarPessoas(filtro, cursor, limit != null ? limit : LIMITE_PADRAO);
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok().eTag(etag);
+        if (pagina.proximoCursor() != null) {
+            resposta.header(HEADER_PROXIMO_CURSOR, pagina.proximoCursor());
+        }
+        return resposta.body(pagina.pessoas());
+    }
+    
+    @GetMapping("/search")
+    public ResponseEntity<List<Pessoa>> buscarPorNome(@RequestParam String q,
+                                                      @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(pessoaService.buscarPorNome(q, limit != null ? limit : LIMITE_PADRAO_BUSCA));
+    }
+    
+    @GetMapping("/stats")
+    public ResponseEntity<EstatisticasPessoas> estatisticas() {
+        return ResponseEntity.ok(pessoaService.estatisticas());
+    }
+    
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportarPessoas() {
+        StreamingResponseBody corpo = saida -> {
+            // Escrita bloqueante no buffer do container é o controle de fluxo: não lemos
+            // o próximo registro enquanto o cliente não consumir o anterior
+            OutputStream buffer = new BufferedOutputStream(saida, TAMANHO_BUFFER_EXPORTACAO);
+            boolean primeiro = true;
+            for (Pessoa pessoa : pessoaService.exportarPessoas()) {
+                // Reaproveita o JSON já em cache, mas não o preenche: a exportação passa
+                // uma vez por todo o cadastro
+                byte[] json = pessoa.jsonEmCache();
+                if (json != null) {
+                    buffer.write(json);
+                } else {
+                    ndjsonWriter.writeValue(buffer, pessoa);
+                }
+                buffer.write('\n');
+                if (primeiro) {
+                    buffer.flush();
+                    primeiro = false;
+                }
+            }
+            buffer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE), StandardCharsets.UTF_8))
+                .body(corpo);
+    }
+    
+    /**
+     * Feed de alterações em text/event-stream: cada evento leva a sequência em {@code id}, o
+     * tipo em {@code event} (created, updated ou deleted) e a pessoa em {@code data}; na
+     * remoção, só o id. Na reconexão, o navegador manda a última sequência em Last-Event-ID;
+     * outros clientes podem usar {@code since}. Sem nenhum dos dois, o feed começa agora.
+     * <p>
+     * Um cliente lento não segura quem altera o cadastro: quando fica para trás mais que a
+     * capacidade do feed, ou pede uma sequência que este servidor não conhece, recebe
+     * {@code event: reset} com a sequência atual e a conexão é encerrada. O cliente então
+     * recarrega o cadastro e volta com {@code since} igual a essa sequência.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> acompanharAlteracoes(
+            @RequestHeader(value = HEADER_ULTIMO_EVENTO, required = false) String ultimoEvento,
+            @RequestParam(required = false) String since) {
+        FeedAlteracoes feed = pessoaService.alteracoes();
+        FeedAlteracoes.Leitor leitor = feed.leitor(ultimaSequenciaLida(ultimoEvento, since));
+        StreamingResponseBody corpo = saida -> {
+            OutputStream buffer = new BufferedOutputStream(saida, TAMANHO_BUFFER_EXPORTACAO);
+            // Os cabeçalhos saem já, sem esperar a primeira alteração
+            buffer.write(BATIMENTO);
+            buffer.flush();
+            try {
+                while (true) {
+                    EventoAlteracao evento = leitor.proximo(0);
+                    if (evento == null && !leitor.perdeuEventos()) {
+                        // Em dia com o feed: entrega o que está no buffer antes de esperar
+                        buffer.flush();
+                        evento = leitor.proximo(INTERVALO_BATIMENTO_MS);
+                    }
+                    if (leitor.perdeuEventos()) {
+                        escreverReinicio(buffer, feed.ultimaSequencia());
+                        return;
+                    }
+                    if (evento == null) {
+                        // Mantém a conexão viva em proxies que encerram conexões ociosas
+                        buffer.write(BATIMENTO);
+                    } else {
+                        escreverEvento(buffer, evento);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType(MediaType.TEXT_EVENT_STREAM, StandardCharsets.UTF_8))
+                .cacheControl(CacheControl.noStore())
+                .body(corpo);
+    }
+    
+    /**
+     * Last-Event-ID tem precedência sobre {@code since}; nulo quando nenhum dos dois veio.
+     */
+    static Long ultimaSequenciaLida(String ultimoEvento, String since) {
+        String valor = ultimoEvento != null && !ultimoEvento.isBlank() ? ultimoEvento : since;
+        if (valor == null) {
+            return null;
+        }
+        try {
+            long sequencia = Long.parseLong(valor.trim());
+            if (sequencia >= 0) {
+                return sequencia;
+            }
+        } catch (NumberFormatException e) {
+            // tratado abaixo
+        }
+        throw new InvalidParameterException("Sequência '" + valor + "' não é válida");
+    }
+    
+    /**
+     * O JSON de cada versão é codificado uma vez e reaproveitado por todas as conexões e pelas
+     * respostas de leitura.
+     */
+    private void escreverEvento(OutputStream buffer, EventoAlteracao evento) throws IOException {
+        buffer.write(("id:" + evento.sequencia() + "\nevent:" + evento.tipo().evento() + "\ndata:")
+                .getBytes(StandardCharsets.US_ASCII));
+        if (evento.pessoa() != null) {
+            buffer.write(evento.pessoa().json(this::serializar));
+        } else {
+            buffer.write(("{\"id\":" + evento.id() + "}").getBytes(StandardCharsets.US_ASCII));
+        }
+        buffer.write('\n');
+        buffer.write('\n');
+    }
+    
+    private byte[] serializar(Pessoa pessoa) {
+        try {
+            return ndjsonWriter.writeValueAsBytes(pessoa);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static void escreverReinicio(OutputStream buffer, long sequencia) throws IOException {
+        buffer.write(("event:reset\ndata:{\"sequencia\":" + sequencia + "}\n\n").getBytes(StandardCharsets.US_ASCII));
+        buffer.flush();
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<Pessoa> buscarPorId(@PathVariable Long id) {
+        Pessoa pessoa = pessoaService.buscarPorId(id);
+        return ResponseEntity.ok().eTag(etag(pessoa)).body(pessoa);
+    }
+    
+    @PostMapping
+    public ResponseEntity<Pessoa> criarPessoa(@Valid @RequestBody Pessoa pessoa) {
+        Pessoa pessoaCriada = pessoaService.criarPessoa(pessoa);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(etag(pessoaCriada)).body(pessoaCriada);
+    }
+    
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, "application/x-jackson-smile"})
+    public ResponseEntity<List<ResultadoLote>> criarPessoas(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType tipo,
+                                                            InputStream corpo) throws IOException {
+        ObjectMapper mapeador = formatosBinarios.mapeadorPara(tipo);
+        if (mapeador == null) {
+            mapeador = objectMapper;
+        }
+        List<ResultadoLote> resultados = new ArrayList<>();
+        List<Pessoa> bloco = new ArrayList<>(TAMANHO_BLOCO_LOTE);
+        int indice = 0;
+        int inicioBloco = 0;
+        boolean foraDeOrdem = false;
+        
+        // O array é lido item a item; só um bloco de pessoas fica em memória por vez
+        try (JsonParser parser = mapeador.createParser(corpo)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidParameterException("Corpo deve ser um array JSON de pessoas");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                JsonNode item = parser.readValueAsTree();
+                Pessoa pessoa = null;
+                if (item.isObject()) {
+                    try {
+                        pessoa = mapeador.treeToValue(item, Pessoa.class);
+                    } catch (JsonProcessingException e) {
+                        // tratado abaixo como item inválido
+                    }
+                }
+                if (pessoa == null) {
+                    resultados.add(ResultadoLote.invalido(indice, "Pessoa com formato inválido"));
+                    foraDeOrdem = true;
+                }
+                bloco.add(pessoa);
+                indice++;
+                if (bloco.size() == TAMANHO_BLOCO_LOTE) {
+                    resultados.addAll(criarBloco(bloco, inicioBloco));
+                    bloco.clear();
+                    inicioBloco = indice;
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidParameterException("Corpo deve ser um array JSON de pessoas");
+        }
+        resultados.addAll(criarBloco(bloco, inicioBloco));
+        
+        if (foraDeOrdem) {
+            resultados.sort(Comparator.comparingInt(ResultadoLote::indice));
+        }
+        return ResponseEntity.ok(resultados);
+    }
+    
+    private List<ResultadoLote> criarBloco(List<Pessoa> bloco, int inicioBloco) {
+        if (bloco.isEmpty()) {
+            return List.of();
+        }
+        // Itens nulos representam erros de formato já reportados pelo parser
+        List<ResultadoLote> resultados = new ArrayList<>(bloco.size());
+        for (ResultadoLote resultado : pessoaService.criarPessoas(bloco, inicioBloco)) {
+            if (bloco.get(resultado.indice() - inicioBloco) != null) {
+                resultados.add(resultado);
+            }
+        }
+        return resultados;
+    }
+    
+    @PutMapping("/{id}")
+    public ResponseEntity<Pessoa> atualizarPessoa(@PathVariable Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @Valid @RequestBody Pessoa pessoa) {
+        Pessoa pessoaAtualizada = pessoaService.atualizarPessoa(id, pessoa, versaoEsperada(ifMatch));
+        return ResponseEntity.ok().eTag(etag(pessoaAtualizada)).body(pessoaAtualizada);
+    }
+    
+    @PatchMapping("/{id}")
+    public ResponseEntity<Pessoa> atualizarAtributo(@PathVariable Long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                    @RequestBody Map<String, Object> updates) {
+        Pessoa pessoaAtualizada = pessoaService.atualizarParcialmente(id, updates, versaoEsperada(ifMatch));
+        return ResponseEntity.ok().eTag(etag(pessoaAtualizada)).body(pessoaAtualizada);
+    }
+    
+    static String etag(Pessoa pessoa) {
+        return "\"" + pessoa.getVersao() + "\"";
+    }
+    
+    static String etagCadastro(long versaoCadastro) {
+        return "\"c" + versaoCadastro + "\"";
+    }
+    
+    /**
+     * Converte o If-Match (uma ETag forte emitida por este controller) na versão esperada.
+     * Ausente ou "*" significa qualquer versão.
+     */
+    static Long versaoEsperada(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.length() > 2 && etag.startsWith("\"") && etag.endsWith("\"")) {
+            try {
+                return Long.parseLong(etag.substring(1, etag.length() - 1));
+            } catch (NumberFormatException e) {
+                // cai no erro abaixo
+            }
+        }
+        throw new PessoaPreconditionFailedException("If-Match '" + ifMatch + "' não corresponde a nenhuma versão");
+    }
+    
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> removerPessoa(@PathVariable Long id) {
+        pessoaService.removerPessoa(id);
+        return ResponseEntity.noContent().build();
+    }
+    
+    @GetMapping("/{id}/age")
+    public ResponseEntity<Long> calcularIdade(@PathVariable Long id, @RequestParam String output) {
+        return ResponseEntity.ok(pessoaService.calcularIdade(id, output));
+    }
+    
+    @GetMapping("/{id}/salary")
+    public ResponseEntity<Double> calcularSalario(@PathVariable Long id, @RequestParam String output) {
+        return ResponseEntity.ok(pessoaService.calcularSalario(id, output));
+    }
+    
+    @PostMapping("/calculations")
+    public ResponseEntity<List<CalculoPessoa>> calcularEmLote(@RequestBody RequisicaoCalculo requisicao) {
+        return ResponseEntity.ok(pessoaService.calcularEmLote(requisicao.ids(), requisicao.age(), requisicao.salary()));
+    }
+}
@@ -0,0 +1,261 @@
+package com.sccon.geospatial.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sccon.geospatial.exception.InvalidParameterException;
+import com.sccon.geospatial.model.CalculoPessoa;
+import com.sccon.geospatial.model.EstatisticasPessoas;
+import com.sccon.geospatial.model.EventoAlteracao;
+import com.sccon.geospatial.model.FiltroPessoas;
+import com.sccon.geospatial.model.PaginaPessoas;
+import com.sccon.geospatial.model.Pessoa;
+import com.sccon.geospatial.model.RequisicaoCalculo;
+import com.sccon.geospatial.model.ResultadoLote;
+import com.sccon.geospatial.service.FeedAlteracoes;
+import com.sccon.geospatial.service.PessoaService;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+
+/**
+ * As mesmas operações de {@link PessoaController} sobre WebFlux, para quem sobe a aplicação
+ * com {@code spring.main.web-application-type=reactive}. Leituras rodam direto no event loop,
+ * pois o cadastro está em memória e nunca bloqueia; alterações podem esperar o fsync do log
+ * de escrita e por isso rodam fora dele.
+ */
+@RestController
+@RequestMapping("/person")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class PessoaReativaController {
+
+    private static final int LIMITE_PADRAO = 100;
+    private static final int LIMITE_PADRAO_BUSCA = 20;
+    private static final int TAMANHO_BLOCO_LOTE = 1000;
+    private static final long INTERVALO_BATIMENTO_MS = 15_000;
+
+    private final PessoaService pessoaService;
+    private final ObjectMapper objectMapper;
+    // Uma thread virtual por alteração: quem espera o fsync não ocupa thread de plataforma, e
+    // o número de alterações esperando juntas (o tamanho do grupo no log) não fica limitado
+    private final Scheduler escritas = Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "escritas-pessoa");
+    // A espera pelo próximo evento do feed bloqueia: cada conexão espera numa thread virtual
+    private final Scheduler leiturasFeed = Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "feed-alteracoes");
+
+    public PessoaReativaController(PessoaService pessoaService, ObjectMapper objectMapper) {
+        this.pessoaService = pessoaService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * A lista completa sai do índice item a item, conforme a demanda, sem montar a lista nem
+     * o array JSON inteiro; páginas são limitadas e saem num buffer só, que custa menos por
+     * requisição.
+     */
+    @GetMapping
+    public ResponseEntity<?> listarPessoas(@RequestParam(required = false) Integer limit,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) String sort,
+                                                      @RequestParam(required = false) String dataNascimentoDe,
+                                                      @RequestParam(required = false) String dataNascimentoAte,
+                                                      @RequestParam(required = false) String dataAdmissaoDe,
+                                                      @RequestParam(required = false) String dataAdmissaoAte,
+                                                      ServerWebExchange exchange) {
+        FiltroPessoas filtro = FiltroPessoas.de(sort, dataNascimentoDe, dataNascimentoAte, dataAdmissaoDe, dataAdmissaoAte);
+
+        String etag = PessoaController.etagCadastro(pessoaService.versaoCadastro());
+        if (exchange.checkNotModified(etag)) {
+            return null;
+        }
+
+        if (limit == null && cursor == null && filtro.vazio()) {
+            return ResponseEntity.ok().eTag(etag).body(Flux.defer(() -> Flux.fromIterable(pessoaService.percorrerPorNome())));
+        }
+
+        PaginaPessoas pagina = pessoaService.listarPessoas(filtro, cursor, limit != null ? limit : LIMITE_PADRAO);
+        ResponseEntity.BodyBuilder resposta = ResponseEntity.ok().eTag(etag);
+        if (pagina.proximoCursor() != null) {
+            resposta.header(PessoaController.HEADER_PROXIMO_CURSOR, pagina.proximoCursor());
+        }
+        return resposta.body(pagina.pessoas());
+    }
+
+    @GetMapping("/search")
+    public List<Pessoa> buscarPorNome(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        return pessoaService.buscarPorNome(q, limit != null ? limit : LIMITE_PADRAO_BUSCA);
+    }
+
+    @GetMapping("/stats")
+    public EstatisticasPessoas estatisticas() {
+        return pessoaService.estatisticas();
+    }
+
+    /**
+     * O próximo registro só é lido quando o cliente pede mais: a demanda do Netty faz o
+     * papel da escrita bloqueante da versão servlet.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Pessoa> exportarPessoas() {
+        return Flux.defer(() -> Flux.fromIterable(pessoaService.exportarPessoas()));
+    }
+
+    /**
+     * O feed de {@link PessoaController#acompanharAlteracoes}. O próximo evento só é lido
+     * quando o cliente pede mais; quem fica para trás recebe {@code reset} como na versão servlet.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> acompanharAlteracoes(
+            @RequestHeader(value = PessoaController.HEADER_ULTIMO_EVENTO, required = false) String ultimoEvento,
+            @RequestParam(required = false) String since) {
+        FeedAlteracoes feed = pessoaService.alteracoes();
+        FeedAlteracoes.Leitor leitor = feed.leitor(PessoaController.ultimaSequenciaLida(ultimoEvento, since));
+        Flux<ServerSentEvent<Object>> eventos = Flux.generate(sink -> {
+            if (leitor.perdeuEventos()) {
+                sink.complete();
+                return;
+            }
+            try {
+                EventoAlteracao evento = leitor.proximo(INTERVALO_BATIMENTO_MS);
+                if (evento != null) {
+                    Object dados = evento.pessoa() != null ? evento.pessoa() : Map.of("id", evento.id());
+                    sink.next(ServerSentEvent.builder(dados)
+                            .id(Long.toString(evento.sequencia()))
+                            .event(evento.tipo().evento())
+                            .build());
+                } else if (leitor.perdeuEventos()) {
+                    sink.next(ServerSentEvent.<Object>builder(Map.of("sequencia", feed.ultimaSequencia())).event("reset").build());
+                } else {
+                    sink.next(ServerSentEvent.builder().comment("").build());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                sink.complete();
+            }
+        });
+        // Os cabeçalhos saem já, sem esperar a primeira alteração
+        return eventos.subscribeOn(leiturasFeed).startWith(ServerSentEvent.builder().comment("").build());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Pessoa> buscarPorId(@PathVariable Long id) {
+        Pessoa pessoa = pessoaService.buscarPorId(id);
+        return ResponseEntity.ok().eTag(PessoaController.etag(pessoa)).body(pessoa);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Pessoa>> criarPessoa(@Valid @RequestBody Pessoa pessoa) {
+        return escrever(() -> pessoaService.criarPessoa(pessoa))
+                .map(criada -> ResponseEntity.status(HttpStatus.CREATED).eTag(PessoaController.etag(criada)).body(criada));
+    }
+
+    /**
+     * O array é decodificado item a item e criado em blocos, como na versão servlet. Um
+     * objeto isolado no lugar do array é tratado como um lote de um item.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<List<ResultadoLote>> criarPessoas(@RequestBody Flux<JsonNode> corpo) {
+        return corpo
+                .onErrorMap(ServerWebInputException.class, e -> new InvalidParameterException("Corpo deve ser um array JSON de pessoas"))
+                .index()
+                .buffer(TAMANHO_BLOCO_LOTE)
+                .concatMap(bloco -> escrever(() -> criarBloco(bloco)))
+                .collectList()
+                .map(blocos -> blocos.stream().flatMap(List::stream).toList());
+    }
+
+    private List<ResultadoLote> criarBloco(List<Tuple2<Long, JsonNode>> itens) {
+        int inicioBloco = Math.toIntExact(itens.get(0).getT1());
+        List<Pessoa> bloco = new ArrayList<>(itens.size());
+        List<ResultadoLote> resultados = new ArrayList<>(itens.size());
+        for (int i = 0; i < itens.size(); i++) {
+            Pessoa pessoa = pessoa(itens.get(i).getT2());
+            if (pessoa == null) {
+                resultados.add(ResultadoLote.invalido(inicioBloco + i, "Pessoa com formato inválido"));
+            }
+            bloco.add(pessoa);
+        }
+        // Itens nulos representam erros de formato já reportados acima
+        for (ResultadoLote resultado : pessoaService.criarPessoas(bloco, inicioBloco)) {
+            if (bloco.get(resultado.indice() - inicioBloco) != null) {
+                resultados.add(resultado);
+            }
+        }
+        resultados.sort(Comparator.comparingInt(ResultadoLote::indice));
+        return resultados;
+    }
+
+    private Pessoa pessoa(JsonNode item) {
+        if (!item.isObject()) {
+            return null;
+        }
+        try {
+            return objectMapper.treeToValue(item, Pessoa.class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Pessoa>> atualizarPessoa(@PathVariable Long id,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                        @Valid @RequestBody Pessoa pessoa) {
+        Long versaoEsperada = PessoaController.versaoEsperada(ifMatch);
+        return escrever(() -> pessoaService.atualizarPessoa(id, pessoa, versaoEsperada))
+                .map(atualizada -> ResponseEntity.ok().eTag(PessoaController.etag(atualizada)).body(atualizada));
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Pessoa>> atualizarAtributo(@PathVariable Long id,
+                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                          @RequestBody Map<String, Object> updates) {
+        Long versaoEsperada = PessoaController.versaoEsperada(ifMatch);
+        return escrever(() -> pessoaService.atualizarParcialmente(id, updates, versaoEsperada))
+                .map(atualizada -> ResponseEntity.ok().eTag(PessoaController.etag(atualizada)).body(atualizada));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> removerPessoa(@PathVariable Long id) {
+        return escrever(() -> {
+            pessoaService.removerPessoa(id);
+            return ResponseEntity.noContent().<Void>build();
+        });
+    }
+
+    @GetMapping("/{id}/age")
+    public long calcularIdade(@PathVariable Long id, @RequestParam String output) {
+        return pessoaService.calcularIdade(id, output);
+    }
+
+    @GetMapping("/{id}/salary")
+    public double calcularSalario(@PathVariable Long id, @RequestParam String output) {
+        return pessoaService.calcularSalario(id, output);
+    }
+
+    @PostMapping("/calculations")
+    public List<CalculoPessoa> calcularEmLote(@RequestBody RequisicaoCalculo requisicao) {
+        return pessoaService.calcularEmLote(requisicao.ids(), requisicao.age(), requisicao.salary());
+    }
+
+    private <T> Mono<T> escrever(Callable<T> alteracao) {
+        return Mono.fromCallable(alteracao).subscribeOn(escritas);
+    }
+}
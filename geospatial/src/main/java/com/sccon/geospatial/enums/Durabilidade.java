@@ -0,0 +1,13 @@
+package com.sccon.geospatial.enums;
+
+/**
+ * Quando uma alteração confirmada ao cliente está garantida em disco.
+ */
+public enum Durabilidade {
+    /** O cliente espera o fsync, feito assim que o escritor fica livre; alterações concorrentes dividem o mesmo fsync. */
+    SYNC,
+    /** O cliente espera o fsync, que é adiado pelo intervalo configurado para juntar mais alterações. */
+    BATCHED,
+    /** O cliente não espera; o fsync acontece a cada intervalo e uma queda perde no máximo esse intervalo. */
+    ASYNC
+}
@@ -28,4 +28,18 @@ public enum FormatoIdade {
     
     public abstract long calcular(LocalDate dataNascimento, LocalDate dataAtual);
     
+    private static final FormatoIdade[] VALORES = values();
+    
+    /**
+     * Como {@code valueOf}, mas sem distinguir maiúsculas de minúsculas e sem converter o texto.
+     */
+    public static FormatoIdade porNome(String nome) {
+        for (FormatoIdade formato : VALORES) {
+            if (formato.name().equalsIgnoreCase(nome)) {
+                return formato;
+            }
+        }
+        throw new IllegalArgumentException("No enum constant " + FormatoIdade.class.getCanonicalName() + "." + nome);
+    }
+    
 }
@@ -18,4 +18,18 @@ public enum FormatoSalario {
     
     public abstract double calcular(double salarioAtual, double salarioMinimo);
     
+    private static final FormatoSalario[] VALORES = values();
+    
+    /**
+     * Como {@code valueOf}, mas sem distinguir maiúsculas de minúsculas e sem converter o texto.
+     */
+    public static FormatoSalario porNome(String nome) {
+        for (FormatoSalario formato : VALORES) {
+            if (formato.name().equalsIgnoreCase(nome)) {
+                return formato;
+            }
+        }
+        throw new IllegalArgumentException("No enum constant " + FormatoSalario.class.getCanonicalName() + "." + nome);
+    }
+    
 }
@@ -0,0 +1,31 @@
+package com.sccon.geospatial.enums;
+
+import com.sccon.geospatial.exception.InvalidParameterException;
+
+/**
+ * Campos pelos quais a listagem de pessoas pode ser ordenada; cada um tem um índice próprio.
+ */
+public enum OrdenacaoPessoas {
+    NOME("nome"),
+    DATA_NASCIMENTO("dataNascimento"),
+    DATA_ADMISSAO("dataAdmissao");
+    
+    private final String parametro;
+    
+    OrdenacaoPessoas(String parametro) {
+        this.parametro = parametro;
+    }
+    
+    public String getParametro() {
+        return parametro;
+    }
+    
+    public static OrdenacaoPessoas de(String parametro) {
+        for (OrdenacaoPessoas ordenacao : values()) {
+            if (ordenacao.parametro.equalsIgnoreCase(parametro)) {
+                return ordenacao;
+            }
+        }
+        throw new InvalidParameterException("Ordenação '" + parametro + "' não é válida. Use: nome, dataNascimento ou dataAdmissao");
+    }
+}
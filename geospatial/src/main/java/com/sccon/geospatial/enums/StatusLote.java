@@ -0,0 +1,7 @@
+package com.sccon.geospatial.enums;
+
+public enum StatusLote {
+    CREATED,
+    CONFLICT,
+    INVALID
+}
@@ -0,0 +1,18 @@
+package com.sccon.geospatial.enums;
+
+import java.util.Locale;
+
+public enum TipoAlteracao {
+    CREATED,
+    UPDATED,
+    DELETED;
+
+    private final String evento = name().toLowerCase(Locale.ROOT);
+
+    /**
+     * Nome do evento no feed de alterações ({@code event:} do text/event-stream).
+     */
+    public String evento() {
+        return evento;
+    }
+}
@@ -0,0 +1,21 @@
+package com.sccon.geospatial.exception;
+
+/**
+ * Base das exceções que o {@link GlobalExceptionHandler} converte em respostas 4xx. São
+ * resultados esperados de uma requisição, não falhas: não preenchem stack trace (que copiaria
+ * a pilha inteira do Tomcat e do Spring MVC a cada 404) nem aceitam exceções suprimidas.
+ * Sem estado mutável, as de mensagem fixa podem ser criadas uma vez e relançadas.
+ */
+public abstract class ExcecaoDominio extends RuntimeException {
+
+    private final RespostaErro resposta;
+
+    protected ExcecaoDominio(String message) {
+        super(message, null, false, false);
+        this.resposta = new RespostaErro(message);
+    }
+
+    public RespostaErro getResposta() {
+        return resposta;
+    }
+}
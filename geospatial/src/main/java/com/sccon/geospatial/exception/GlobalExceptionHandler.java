@@ -0,0 +1,92 @@
+package com.sccon.geospatial.exception;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    private static final RespostaErro DADOS_INVALIDOS = new RespostaErro("Dados de entrada inválidos");
+
+    private final Counter naoEncontradas;
+    private final Counter conflitos;
+    private final Counter precondicoes;
+    private final Counter parametrosInvalidos;
+    private final Counter validacoes;
+    private final Map<String, RespostaErro> respostasValidacao = new ConcurrentHashMap<>();
+
+    /**
+     * Sem registro de métricas (testes de fatia web), os contadores existem mas não são exportados.
+     */
+    public GlobalExceptionHandler(ObjectProvider<MeterRegistry> registroMetricas) {
+        MeterRegistry registro = registroMetricas.getIfAvailable(CompositeMeterRegistry::new);
+        naoEncontradas = contador(registro, HttpStatus.NOT_FOUND, "PessoaNotFoundException");
+        conflitos = contador(registro, HttpStatus.CONFLICT, "PessoaConflictException");
+        precondicoes = contador(registro, HttpStatus.PRECONDITION_FAILED, "PessoaPreconditionFailedException");
+        parametrosInvalidos = contador(registro, HttpStatus.BAD_REQUEST, "InvalidParameterException");
+        // Corpo inválido nas duas pilhas web
+        validacoes = contador(registro, HttpStatus.BAD_REQUEST, "BindException");
+    }
+
+    private static Counter contador(MeterRegistry registro, HttpStatus status, String excecao) {
+        return Counter.builder("pessoa.erros")
+                .description("Respostas de erro por status e exceção")
+                .tag("status", String.valueOf(status.value()))
+                .tag("excecao", excecao)
+                .register(registro);
+    }
+
+    @ExceptionHandler(PessoaNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public RespostaErro handlePessoaNotFoundException(PessoaNotFoundException e) {
+        naoEncontradas.increment();
+        return e.getResposta();
+    }
+
+    @ExceptionHandler(PessoaConflictException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public RespostaErro handlePessoaConflictException(PessoaConflictException e) {
+        conflitos.increment();
+        return e.getResposta();
+    }
+
+    @ExceptionHandler(PessoaPreconditionFailedException.class)
+    @ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+    public RespostaErro handlePessoaPreconditionFailedException(PessoaPreconditionFailedException e) {
+        precondicoes.increment();
+        return e.getResposta();
+    }
+
+    @ExceptionHandler(InvalidParameterException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public RespostaErro handleInvalidParameterException(InvalidParameterException e) {
+        parametrosInvalidos.increment();
+        return e.getResposta();
+    }
+
+    // A primeira é lançada pela pilha servlet, a segunda pela reativa
+    @ExceptionHandler({MethodArgumentNotValidException.class, WebExchangeBindException.class})
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public RespostaErro handleValidationException(BindingResult e) {
+        validacoes.increment();
+        FieldError erro = e.getFieldError();
+        if (erro == null || erro.getDefaultMessage() == null) {
+            return DADOS_INVALIDOS;
+        }
+        // As mensagens vêm das anotações de validação, um conjunto fixo
+        return respostasValidacao.computeIfAbsent(erro.getDefaultMessage(), RespostaErro::new);
+    }
+}
@@ -1,6 +1,6 @@
 package com.sccon.geospatial.exception;
 
-public class InvalidParameterException extends RuntimeException {
+public class InvalidParameterException extends ExcecaoDominio {
     public InvalidParameterException(String message) {
         super(message);
     }
@@ -1,6 +1,6 @@
 package com.sccon.geospatial.exception;
 
-public class PessoaConflictException extends RuntimeException {
+public class PessoaConflictException extends ExcecaoDominio {
     public PessoaConflictException(String message) {
         super(message);
     }
@@ -1,6 +1,6 @@
 package com.sccon.geospatial.exception;
 
-public class PessoaNotFoundException extends RuntimeException {
+public class PessoaNotFoundException extends ExcecaoDominio {
     public PessoaNotFoundException(String message) {
         super(message);
     }
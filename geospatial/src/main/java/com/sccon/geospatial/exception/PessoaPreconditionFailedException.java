@@ -0,0 +1,7 @@
+package com.sccon.geospatial.exception;
+
+public class PessoaPreconditionFailedException extends ExcecaoDominio {
+    public PessoaPreconditionFailedException(String message) {
+        super(message);
+    }
+}
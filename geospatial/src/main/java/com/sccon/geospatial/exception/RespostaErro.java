@@ -0,0 +1,7 @@
+package com.sccon.geospatial.exception;
+
+/**
+ * Corpo imutável das respostas de erro, serializado como {@code {"error": "..."}}.
+ */
+public record RespostaErro(String error) {
+}
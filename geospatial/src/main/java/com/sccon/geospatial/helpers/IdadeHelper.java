@@ -20,13 +20,19 @@ public class IdadeHelper {
         this(Clock.systemDefaultZone());
     }
     
+    public LocalDate hoje() {
+        return LocalDate.now(clock);
+    }
+    
     public long calcularIdade(Pessoa pessoa, String formato) {
         pessoa.validaDataNescimento();
         
-        LocalDate hoje = LocalDate.now(clock);
-        LocalDate dataNascimento = pessoa.getDataNascimento();
-        
         FormatoIdade formatoIdade = FormatoIdade.valueOf(formato.toUpperCase());
-        return formatoIdade.calcular(dataNascimento, hoje);
+        return calcularIdade(pessoa, formatoIdade, hoje());
+    }
+    
+    public long calcularIdade(Pessoa pessoa, FormatoIdade formato, LocalDate hoje) {
+        pessoa.validaDataNescimento();
+        return formato.calcular(pessoa.getDataNascimento(), hoje);
     }
 }
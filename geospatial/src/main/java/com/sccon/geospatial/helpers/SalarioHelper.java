@@ -0,0 +1,68 @@
+package com.sccon.geospatial.helpers;
+
+import com.sccon.geospatial.enums.FormatoSalario;
+import com.sccon.geospatial.model.Pessoa;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.Period;
+
+@Component
+public class SalarioHelper {
+
+    private static final double SALARIO_BASE = 1558.00;
+    private static final double MULTIPLICADOR_ANUAL = 1.18;
+    private static final double BONUS_ANUAL = 500.00;
+    private static final double SALARIO_MINIMO = 1302.00;
+    private static final int ANOS_PRE_CALCULADOS = 256;
+    
+    private static final TabelaSalario TABELA = new TabelaSalario(
+            SALARIO_BASE, MULTIPLICADOR_ANUAL, BONUS_ANUAL, ANOS_PRE_CALCULADOS);
+    
+    private final Clock clock;
+    
+    public SalarioHelper(Clock clock) {
+        this.clock = clock;
+    }
+    
+    public SalarioHelper() {
+        this(Clock.systemDefaultZone());
+    }
+    
+    public LocalDate hoje() {
+        return LocalDate.now(clock);
+    }
+    
+    public double calcularSalario(Pessoa pessoa, String formato) {
+        pessoa.validaDataAdminissao();
+        
+        double salarioAtual = calcularSalarioAtual(pessoa, hoje());
+        
+        FormatoSalario formatoSalario = FormatoSalario.valueOf(formato.toUpperCase());
+        return formatoSalario.calcular(salarioAtual, SALARIO_MINIMO);
+    }
+    
+    public double calcularSalario(Pessoa pessoa, FormatoSalario formato, LocalDate hoje) {
+        return formato.calcular(calcularSalarioAtual(pessoa, hoje), SALARIO_MINIMO);
+    }
+    
+    public double calcularSalarioAtual(Pessoa pessoa, LocalDate hoje) {
+        pessoa.validaDataAdminissao();
+        
+        int anosNaEmpresa = Period.between(pessoa.getDataAdmissao(), hoje).getYears();
+        return calcularSalarioAtual(anosNaEmpresa);
+    }
+    
+    public double formatar(double salarioAtual, FormatoSalario formato) {
+        return formato.calcular(salarioAtual, SALARIO_MINIMO);
+    }
+    
+    public double calcularSalarioAtual(int anosNaEmpresa) {
+        return TABELA.salario(anosNaEmpresa);
+    }
+    
+    public void calcularSalarios(int[] anosNaEmpresa, FormatoSalario formato, double[] destino) {
+        TABELA.salarios(anosNaEmpresa, formato, SALARIO_MINIMO, destino);
+    }
+}
@@ -0,0 +1,53 @@
+package com.sccon.geospatial.helpers;
+
+import com.sccon.geospatial.enums.FormatoSalario;
+
+/**
+ * Salário composto por anos de empresa, pré-calculado na construção com a mesma
+ * recorrência (salário * multiplicador + bônus) usada antes a cada requisição.
+ * Por aplicar exatamente as mesmas operações em ponto flutuante, a consulta devolve
+ * valores idênticos bit a bit ao laço original, em tempo constante.
+ */
+public class TabelaSalario {
+
+    private final double multiplicador;
+    private final double bonus;
+    private final double[] salarios;
+
+    public TabelaSalario(double salarioBase, double multiplicador, double bonus, int anosPreCalculados) {
+        this.multiplicador = multiplicador;
+        this.bonus = bonus;
+        this.salarios = new double[anosPreCalculados + 1];
+        salarios[0] = salarioBase;
+        for (int i = 1; i < salarios.length; i++) {
+            salarios[i] = salarios[i - 1] * multiplicador + bonus;
+        }
+    }
+
+    public double salario(int anosNaEmpresa) {
+        if (anosNaEmpresa <= 0) {
+            return salarios[0];
+        }
+        if (anosNaEmpresa < salarios.length) {
+            return salarios[anosNaEmpresa];
+        }
+        // Fora da tabela segue a recorrência a partir do último valor conhecido
+        double salario = salarios[salarios.length - 1];
+        for (int i = salarios.length - 1; i < anosNaEmpresa && Double.isFinite(salario); i++) {
+            salario = salario * multiplicador + bonus;
+        }
+        return salario;
+    }
+
+    public void salarios(int[] anosNaEmpresa, double[] destino) {
+        for (int i = 0; i < anosNaEmpresa.length; i++) {
+            destino[i] = salario(anosNaEmpresa[i]);
+        }
+    }
+
+    public void salarios(int[] anosNaEmpresa, FormatoSalario formato, double salarioMinimo, double[] destino) {
+        for (int i = 0; i < anosNaEmpresa.length; i++) {
+            destino[i] = formato.calcular(salario(anosNaEmpresa[i]), salarioMinimo);
+        }
+    }
+}
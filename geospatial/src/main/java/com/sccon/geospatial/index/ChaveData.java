@@ -0,0 +1,33 @@
+package com.sccon.geospatial.index;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+
+/**
+ * Posição num índice de datas: dia desde a época seguido do id para desempate.
+ */
+public record ChaveData(long dia, long id) implements Comparable<ChaveData> {
+
+    /**
+     * Cursor opaco (base64url de dia + id) usado na paginação por data.
+     */
+    public String toCursor() {
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES).putLong(dia).putLong(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static ChaveData fromCursor(String cursor) {
+        byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+        if (bytes.length != 2 * Long.BYTES) {
+            throw new IllegalArgumentException("Cursor de data com tamanho inválido");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new ChaveData(buffer.getLong(), buffer.getLong());
+    }
+
+    @Override
+    public int compareTo(ChaveData outra) {
+        int comparacao = Long.compare(dia, outra.dia);
+        return comparacao != 0 ? comparacao : Long.compare(id, outra.id);
+    }
+}
@@ -0,0 +1,65 @@
+package com.sccon.geospatial.index;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Chave de ordenação por nome: bytes da CollationKey pt-BR seguidos do id para desempate.
+ * A comparação sem sinal dos bytes equivale à comparação das CollationKeys originais.
+ */
+public final class ChaveNome implements Comparable<ChaveNome> {
+
+    private final byte[] chave;
+    private final long id;
+
+    public ChaveNome(byte[] chave, long id) {
+        this.chave = chave;
+        this.id = id;
+    }
+
+    /**
+     * Cursor opaco (base64url de id + bytes da chave) usado na paginação por chave.
+     */
+    public String toCursor() {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + chave.length);
+        buffer.putLong(id).put(chave);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    public static ChaveNome fromCursor(String cursor) {
+        byte[] bytes = Base64.getUrlDecoder().decode(cursor);
+        if (bytes.length < Long.BYTES) {
+            throw new IllegalArgumentException("Cursor truncado");
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long id = buffer.getLong();
+        byte[] chave = new byte[buffer.remaining()];
+        buffer.get(chave);
+        return new ChaveNome(chave, id);
+    }
+
+    public byte[] getChave() {
+        return chave;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public int compareTo(ChaveNome outra) {
+        int comparacao = Arrays.compareUnsigned(chave, outra.chave);
+        return comparacao != 0 ? comparacao : Long.compare(id, outra.id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ChaveNome outra && compareTo(outra) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(chave) + Long.hashCode(id);
+    }
+}
@@ -0,0 +1,191 @@
+package com.sccon.geospatial.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * Mapa ordenado de chave para ids, com os ids de cada chave em blocos ordenados de até
+ * {@value #TAMANHO_BLOCO}: uma chave comum (um dia de admissão em massa, o token "silva")
+ * pode ter milhões de ids, e um array único seria copiado inteiro a cada alteração.
+ *
+ * Leitores não travam. Escritores da mesma chave se revezam numa trava, porque dividir um
+ * bloco ou trocar a chave dele mexe em duas entradas; a entrada nova sempre aparece antes de
+ * a antiga sumir, então quem percorre no meio pode ver um id duas vezes, mas nunca deixa de
+ * ver um id que já estava lá.
+ */
+final class IdsPorChave<K extends Comparable<K>> {
+
+    static final int TAMANHO_BLOCO = 256;
+    private static final int TRAVAS = 64;
+
+    /**
+     * Posição de um bloco: a chave e o primeiro id do bloco.
+     */
+    record Bloco<K extends Comparable<K>>(K chave, long primeiroId) implements Comparable<Bloco<K>> {
+        @Override
+        public int compareTo(Bloco<K> outro) {
+            int comparacao = chave.compareTo(outro.chave);
+            return comparacao != 0 ? comparacao : Long.compare(primeiroId, outro.primeiroId);
+        }
+    }
+
+    private volatile ConcurrentSkipListMap<Bloco<K>, long[]> blocos = new ConcurrentSkipListMap<>();
+    private final Object[] travas = new Object[TRAVAS];
+
+    IdsPorChave() {
+        for (int i = 0; i < TRAVAS; i++) {
+            travas[i] = new Object();
+        }
+    }
+
+    private Object trava(K chave) {
+        return travas[Math.floorMod(chave.hashCode(), TRAVAS)];
+    }
+
+    /**
+     * Retorna verdadeiro se a chave não tinha ids.
+     */
+    boolean adicionar(K chave, long id) {
+        return adicionar(chave, id, c -> { });
+    }
+
+    /**
+     * Como {@link #adicionar(Comparable, long)}, chamando {@code aoSurgir} dentro da trava da
+     * chave quando ela não tinha ids: quem acompanha o conjunto de chaves vê o surgimento e o
+     * sumiço de cada chave na ordem em que aconteceram.
+     */
+    boolean adicionar(K chave, long id, Consumer<? super K> aoSurgir) {
+        synchronized (trava(chave)) {
+            Map.Entry<Bloco<K>, long[]> bloco = blocos.floorEntry(new Bloco<>(chave, id));
+            if (bloco == null || !bloco.getKey().chave().equals(chave)) {
+                // Menor que todos os ids da chave: entra no primeiro bloco, que passa a ter outra posição
+                Map.Entry<Bloco<K>, long[]> primeiro = blocos.ceilingEntry(new Bloco<>(chave, Long.MIN_VALUE));
+                boolean chaveNova = primeiro == null || !primeiro.getKey().chave().equals(chave);
+                if (chaveNova || primeiro.getValue().length >= TAMANHO_BLOCO) {
+                    blocos.put(new Bloco<>(chave, id), new long[]{id});
+                } else {
+                    blocos.put(new Bloco<>(chave, id), ListaIds.comId(primeiro.getValue(), id));
+                    blocos.remove(primeiro.getKey());
+                }
+                if (chaveNova) {
+                    aoSurgir.accept(chave);
+                }
+                return chaveNova;
+            }
+            long[] ids = ListaIds.comId(bloco.getValue(), id);
+            if (ids.length <= TAMANHO_BLOCO) {
+                blocos.put(bloco.getKey(), ids);
+                return false;
+            }
+            // Ids automáticos crescem: quem entra no fim abre um bloco novo e deixa o anterior cheio
+            int meio = ids[ids.length - 1] == id ? ids.length - 1 : ids.length / 2;
+            blocos.put(new Bloco<>(chave, ids[meio]), Arrays.copyOfRange(ids, meio, ids.length));
+            blocos.put(bloco.getKey(), Arrays.copyOf(ids, meio));
+            return false;
+        }
+    }
+
+    /**
+     * Retorna verdadeiro se a chave ficou sem ids.
+     */
+    boolean retirar(K chave, long id) {
+        return retirar(chave, id, c -> { });
+    }
+
+    /**
+     * Como {@link #retirar(Comparable, long)}, chamando {@code aoSumir} dentro da trava da
+     * chave quando ela fica sem ids.
+     */
+    boolean retirar(K chave, long id, Consumer<? super K> aoSumir) {
+        synchronized (trava(chave)) {
+            Bloco<K> posicao = blocos.floorKey(new Bloco<>(chave, id));
+            if (posicao == null || !posicao.chave().equals(chave)) {
+                return false;
+            }
+            long[] ids = ListaIds.semId(blocos.get(posicao), id);
+            if (ids == null) {
+                blocos.remove(posicao);
+                boolean sumiu = !chave.equals(aPartirDe(chave));
+                if (sumiu) {
+                    aoSumir.accept(chave);
+                }
+                return sumiu;
+            }
+            if (ids[0] != posicao.primeiroId()) {
+                blocos.put(new Bloco<>(chave, ids[0]), ids);
+                blocos.remove(posicao);
+            } else {
+                blocos.put(posicao, ids);
+            }
+            return false;
+        }
+    }
+
+    boolean contem(K chave, long id) {
+        Map.Entry<Bloco<K>, long[]> bloco = blocos.floorEntry(new Bloco<>(chave, id));
+        return bloco != null && bloco.getKey().chave().equals(chave) && Arrays.binarySearch(bloco.getValue(), id) >= 0;
+    }
+
+    /**
+     * Blocos da chave, em ordem crescente de id.
+     */
+    Collection<long[]> blocos(K chave) {
+        return blocos.subMap(new Bloco<>(chave, Long.MIN_VALUE), true, new Bloco<>(chave, Long.MAX_VALUE), true).values();
+    }
+
+    /**
+     * Blocos das chaves de {@code de} a {@code ate}, inclusive, começando no bloco que pode conter
+     * {@code primeiroId} dentro de {@code de}.
+     */
+    NavigableMap<Bloco<K>, long[]> trecho(K de, long primeiroId, K ate) {
+        Bloco<K> inicio = blocos.floorKey(new Bloco<>(de, primeiroId));
+        if (inicio == null || !inicio.chave().equals(de)) {
+            inicio = new Bloco<>(de, Long.MIN_VALUE);
+        }
+        return blocos.subMap(inicio, true, new Bloco<>(ate, Long.MAX_VALUE), true);
+    }
+
+    long quantidade(K chave) {
+        long quantidade = 0;
+        for (long[] ids : blocos(chave)) {
+            quantidade += ids.length;
+        }
+        return quantidade;
+    }
+
+    long quantidade() {
+        return blocos.values().stream().mapToLong(ids -> ids.length).sum();
+    }
+
+    /**
+     * Primeira chave maior ou igual a {@code chave}, ou nulo.
+     */
+    K aPartirDe(K chave) {
+        Bloco<K> bloco = blocos.ceilingKey(new Bloco<>(chave, Long.MIN_VALUE));
+        return bloco == null ? null : bloco.chave();
+    }
+
+    K depoisDe(K chave) {
+        Bloco<K> bloco = blocos.higherKey(new Bloco<>(chave, Long.MAX_VALUE));
+        return bloco == null ? null : bloco.chave();
+    }
+
+    /**
+     * Substitui o conteúdo por listas já ordenadas de cada chave. Só pode ser usado antes de
+     * receber atualizações concorrentes.
+     */
+    void carregar(TreeMap<K, long[]> idsPorChave) {
+        TreeMap<Bloco<K>, long[]> novos = new TreeMap<>();
+        idsPorChave.forEach((chave, ids) -> {
+            for (int inicio = 0; inicio < ids.length; inicio += TAMANHO_BLOCO) {
+                novos.put(new Bloco<>(chave, ids[inicio]), Arrays.copyOfRange(ids, inicio, Math.min(ids.length, inicio + TAMANHO_BLOCO)));
+            }
+        });
+        blocos = new ConcurrentSkipListMap<>(novos);
+    }
+}
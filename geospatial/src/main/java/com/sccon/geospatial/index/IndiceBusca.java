@@ -0,0 +1,362 @@
+package com.sccon.geospatial.index;
+
+import com.sccon.geospatial.model.Pessoa;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.LongFunction;
+
+/**
+ * Índice de busca por partes do nome, sem distinção de acentos nem de caixa. Cada nome vira
+ * tokens normalizados (o que a collation pt-BR considera iguais no nível primário) e cada token
+ * aponta para os ids que o contêm ({@link IdsPorChave}).
+ *
+ * Os tokens ficam ordenados, então os tokens com um prefixo são um intervalo contíguo. A busca
+ * aproximada percorre uma trie do vocabulário ({@link TrieTokens}).
+ * Os dois custos dependem do vocabulário (poucos nomes distintos), não do número de pessoas.
+ */
+public class IndiceBusca implements IndicePessoas {
+
+    // Penalidades de um termo da consulta contra um token do nome; a aproximada soma a distância
+    private static final int EXATO = 0;
+    private static final int PREFIXO = 1;
+    private static final int APROXIMADO = 2;
+    private static final int SEM_CASAMENTO = Integer.MAX_VALUE;
+    // Acima disso um termo é conferido no nome da pessoa, não em cada um dos seus tokens
+    private static final int LIMITE_CONFERENCIA_NO_INDICE = 16;
+
+    private final IdsPorChave<String> idsPorToken = new IdsPorChave<>();
+    private volatile TrieTokens trie = new TrieTokens();
+
+    /**
+     * Tokens distintos do texto, sem acentos e em minúsculas, na ordem em que aparecem.
+     */
+    public static List<String> tokens(String texto) {
+        // Decomposto, cada letra acentuada vira a letra base seguida de marcas, que são descartadas
+        String decomposto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        List<String> tokens = new ArrayList<>(4);
+        StringBuilder token = new StringBuilder(decomposto.length());
+        for (int i = 0; i <= decomposto.length(); i++) {
+            char caractere = i < decomposto.length() ? decomposto.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(caractere)) {
+                token.append(Character.toLowerCase(caractere));
+            } else if (!marca(caractere) && !token.isEmpty()) {
+                String completo = token.toString();
+                if (!tokens.contains(completo)) {
+                    tokens.add(completo);
+                }
+                token.setLength(0);
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean marca(char caractere) {
+        int tipo = Character.getType(caractere);
+        return tipo == Character.NON_SPACING_MARK || tipo == Character.COMBINING_SPACING_MARK || tipo == Character.ENCLOSING_MARK;
+    }
+
+    /**
+     * Erros de digitação tolerados: nenhum em termos curtos, que casariam com metade do vocabulário.
+     */
+    static int distanciaMaxima(String termo) {
+        return termo.length() < 4 ? 0 : termo.length() < 8 ? 1 : 2;
+    }
+
+    @Override
+    public void atualizar(Pessoa antiga, Pessoa nova) {
+        if (antiga != null && nova != null && antiga.getNome().equals(nova.getNome())) {
+            return;
+        }
+        List<String> antigos = antiga != null ? tokens(antiga.getNome()) : List.of();
+        List<String> novos = nova != null ? tokens(nova.getNome()) : List.of();
+        for (String token : antigos) {
+            if (!novos.contains(token)) {
+                retirar(token, antiga.getId());
+            }
+        }
+        for (String token : novos) {
+            if (!antigos.contains(token)) {
+                adicionar(token, nova.getId());
+            }
+        }
+    }
+
+    /**
+     * A trie muda dentro da trava do token: um token que some e volta ao mesmo tempo não
+     * fica fora da trie com ids no índice.
+     */
+    private void adicionar(String token, long id) {
+        idsPorToken.adicionar(token, id, t -> trie.adicionar(t));
+    }
+
+    private void retirar(String token, long id) {
+        idsPorToken.retirar(token, id, t -> trie.remover(t));
+    }
+
+    /**
+     * Substitui o conteúdo do índice pelas pessoas informadas. Só pode ser usado antes de o
+     * índice receber atualizações concorrentes.
+     */
+    public void carregar(Iterable<Pessoa> pessoas) {
+        ListaIds.Acumulador<String> acumulador = new ListaIds.Acumulador<>();
+        for (Pessoa pessoa : pessoas) {
+            for (String token : tokens(pessoa.getNome())) {
+                acumulador.adicionar(token, pessoa.getId());
+            }
+        }
+        TreeMap<String, long[]> ordenado = acumulador.ordenado();
+        TrieTokens novaTrie = new TrieTokens();
+        ordenado.keySet().forEach(novaTrie::adicionar);
+        idsPorToken.carregar(ordenado);
+        trie = novaTrie;
+    }
+
+    /**
+     * Quantidade de tokens distintos.
+     */
+    public int vocabulario() {
+        int tokens = 0;
+        for (String token = idsPorToken.aPartirDe(""); token != null; token = idsPorToken.depoisDe(token)) {
+            tokens++;
+        }
+        return tokens;
+    }
+
+    /**
+     * Até {@code limite} pessoas cujo nome casa com todos os termos da consulta, cada termo
+     * como token exato, prefixo de token ou token a poucas edições de distância. O resultado
+     * vem da menor penalidade total para a maior e, no empate, por id.
+     *
+     * Os candidatos saem do termo com menos ids, em ordem de penalidade desse termo. Os demais
+     * termos são conferidos nos blocos dos seus tokens ou, quando se expandem em tokens demais,
+     * no nome lido de {@code pessoas}. A varredura para quando nenhum
+     * candidato restante pode entrar no resultado.
+     */
+    public List<Pessoa> buscar(String consulta, int limite, LongFunction<Pessoa> pessoas) {
+        List<String> textos = tokens(consulta);
+        if (textos.isEmpty()) {
+            return List.of();
+        }
+
+        List<Termo> termos = new ArrayList<>(textos.size());
+        Termo guia = null;
+        for (String texto : textos) {
+            Termo termo = expandir(texto);
+            if (termo.quantidade() == 0) {
+                return List.of();
+            }
+            if (guia == null || termo.quantidade() < guia.quantidade()) {
+                guia = termo;
+            }
+            termos.add(termo);
+        }
+        List<Termo> demais = new ArrayList<>(termos);
+        demais.remove(guia);
+
+        // Penalidade mínima possível dos demais termos, somada à de cada grupo do termo guia
+        int minimoDemais = demais.stream().mapToInt(termo -> termo.tokens().get(0).getValue()).sum();
+        TreeMap<Integer, List<String>> grupos = new TreeMap<>();
+        for (Map.Entry<String, Integer> token : guia.tokens()) {
+            grupos.computeIfAbsent(token.getValue(), p -> new ArrayList<>()).add(token.getKey());
+        }
+
+        Comparator<Encontrada> ordem = Comparator.comparingInt(Encontrada::penalidade).thenComparingLong(Encontrada::id);
+        PriorityQueue<Encontrada> melhores = new PriorityQueue<>(ordem.reversed());
+        Set<Long> vistos = new HashSet<>();
+        for (Map.Entry<Integer, List<String>> grupo : grupos.entrySet()) {
+            int piso = grupo.getKey() + minimoDemais;
+            if (melhores.size() == limite && melhores.peek().penalidade() < piso) {
+                break;
+            }
+            for (String token : grupo.getValue()) {
+                List<Conferencia> conferencias = demais.stream().map(Conferencia::new).toList();
+                percorrerToken:
+                for (long[] ids : idsPorToken.blocos(token)) {
+                    for (long id : ids) {
+                        // Com o resultado cheio e empatado no piso, só ids menores ainda entram
+                        if (melhores.size() == limite && melhores.peek().penalidade() == piso && id > melhores.peek().id()) {
+                            break percorrerToken;
+                        }
+                        // Os grupos vêm em ordem: o primeiro em que o id aparece é o melhor para o guia
+                        if (!vistos.add(id)) {
+                            continue;
+                        }
+                        Encontrada encontrada = conferir(id, grupo.getKey(), conferencias, pessoas);
+                        if (encontrada != null) {
+                            melhores.add(encontrada);
+                            if (melhores.size() > limite) {
+                                melhores.poll();
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Encontrada> ordenadas = new ArrayList<>(melhores);
+        ordenadas.sort(ordem);
+        return ordenadas.stream().map(Encontrada::pessoa).toList();
+    }
+
+    private Encontrada conferir(long id, int penalidadeGuia, List<Conferencia> conferencias, LongFunction<Pessoa> pessoas) {
+        Pessoa pessoa = null;
+        List<String> tokensNome = null;
+        int total = penalidadeGuia;
+        for (Conferencia conferencia : conferencias) {
+            int penalidade;
+            if (conferencia.percursos != null) {
+                penalidade = conferencia.noIndice(id);
+            } else {
+                if (pessoa == null) {
+                    pessoa = pessoas.apply(id);
+                    if (pessoa == null) {
+                        return null;
+                    }
+                    tokensNome = tokens(pessoa.getNome());
+                }
+                penalidade = conferencia.noNome(tokensNome);
+            }
+            if (penalidade == SEM_CASAMENTO) {
+                return null;
+            }
+            total += penalidade;
+        }
+        if (pessoa == null) {
+            pessoa = pessoas.apply(id);
+        }
+        return pessoa == null ? null : new Encontrada(total, id, pessoa);
+    }
+
+    /**
+     * Confere um termo nos candidatos de um token do guia, que chegam em ordem crescente de id:
+     * cada token do termo é percorrido uma vez só, como numa intersecção de listas ordenadas.
+     */
+    private final class Conferencia {
+
+        private final Termo termo;
+        // Nulo quando o termo se expande em tokens demais e é conferido no nome
+        private final Percurso[] percursos;
+
+        Conferencia(Termo termo) {
+            this.termo = termo;
+            if (termo.tokens().size() > LIMITE_CONFERENCIA_NO_INDICE) {
+                this.percursos = null;
+                return;
+            }
+            this.percursos = new Percurso[termo.tokens().size()];
+            for (int i = 0; i < percursos.length; i++) {
+                percursos[i] = new Percurso(idsPorToken.blocos(termo.tokens().get(i).getKey()).iterator());
+            }
+        }
+
+        int noIndice(long id) {
+            for (int i = 0; i < percursos.length; i++) {
+                if (percursos[i].contem(id)) {
+                    return termo.tokens().get(i).getValue();
+                }
+            }
+            return SEM_CASAMENTO;
+        }
+
+        int noNome(List<String> tokensNome) {
+            int melhor = SEM_CASAMENTO;
+            for (String token : tokensNome) {
+                melhor = Math.min(melhor, penalidade(termo.texto(), token));
+            }
+            return melhor;
+        }
+    }
+
+    /**
+     * Cursor que só avança sobre os blocos de um token; consultas devem vir em ordem crescente de id.
+     */
+    private static final class Percurso {
+
+        private final Iterator<long[]> blocos;
+        private long[] atual;
+        private int posicao;
+
+        Percurso(Iterator<long[]> blocos) {
+            this.blocos = blocos;
+            this.atual = blocos.hasNext() ? blocos.next() : null;
+        }
+
+        boolean contem(long id) {
+            while (atual != null && atual[atual.length - 1] < id) {
+                atual = blocos.hasNext() ? blocos.next() : null;
+                posicao = 0;
+            }
+            if (atual == null) {
+                return false;
+            }
+            int encontrada = Arrays.binarySearch(atual, posicao, atual.length, id);
+            posicao = encontrada >= 0 ? encontrada : -encontrada - 1;
+            return encontrada >= 0;
+        }
+    }
+
+    /**
+     * Termo da consulta com os tokens do índice em que se expande, da menor penalidade para a maior.
+     */
+    private record Termo(String texto, List<Map.Entry<String, Integer>> tokens, long quantidade) {
+    }
+
+    private record Encontrada(int penalidade, long id, Pessoa pessoa) {
+    }
+
+    /**
+     * Tokens do índice que casam com o termo, cada um com a menor penalidade.
+     */
+    private Termo expandir(String texto) {
+        Map<String, Integer> expansao = new HashMap<>();
+        for (String token = idsPorToken.aPartirDe(texto); token != null && token.startsWith(texto); token = idsPorToken.depoisDe(token)) {
+            expansao.put(token, token.equals(texto) ? EXATO : PREFIXO);
+        }
+        int maxima = distanciaMaxima(texto);
+        if (maxima > 0) {
+            trie.aproximados(texto, maxima, (token, distancia) -> expansao.putIfAbsent(token, APROXIMADO + distancia));
+        }
+        List<Map.Entry<String, Integer>> tokens = new ArrayList<>(expansao.entrySet());
+        tokens.sort(Map.Entry.comparingByValue());
+        long quantidade = tokens.stream().mapToLong(token -> idsPorToken.quantidade(token.getKey())).sum();
+        return new Termo(texto, tokens, quantidade);
+    }
+
+    private static int penalidade(String termo, String token) {
+        if (token.equals(termo)) {
+            return EXATO;
+        }
+        if (token.startsWith(termo)) {
+            return PREFIXO;
+        }
+        int maxima = distanciaMaxima(termo);
+        if (maxima == 0 || Math.abs(token.length() - termo.length()) > maxima) {
+            return SEM_CASAMENTO;
+        }
+        int[] linha = new int[termo.length() + 1];
+        int[] seguinte = new int[termo.length() + 1];
+        for (int i = 0; i < linha.length; i++) {
+            linha[i] = i;
+        }
+        for (int j = 0; j < token.length(); j++) {
+            if (TrieTokens.proximaLinha(termo, linha, token.charAt(j), seguinte) > maxima) {
+                return SEM_CASAMENTO;
+            }
+            int[] troca = linha;
+            linha = seguinte;
+            seguinte = troca;
+        }
+        return linha[termo.length()] <= maxima ? APROXIMADO + linha[termo.length()] : SEM_CASAMENTO;
+    }
+}
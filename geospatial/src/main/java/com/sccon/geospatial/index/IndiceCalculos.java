@@ -0,0 +1,255 @@
+package com.sccon.geospatial.index;
+
+import com.sccon.geospatial.enums.FormatoIdade;
+import com.sccon.geospatial.enums.FormatoSalario;
+import com.sccon.geospatial.helpers.IdadeHelper;
+import com.sccon.geospatial.helpers.SalarioHelper;
+import com.sccon.geospatial.model.Pessoa;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Idade e salário de todo o cadastro, em todos os formatos, calculados uma vez por dia.
+ * Como só dependem das datas, os valores são guardados por data de nascimento e de
+ * admissão, em vetores indexados pelo dia da época desde a data mais antiga do cadastro
+ * até hoje: a consulta é uma leitura de vetor, a memória não cresce com o número de
+ * pessoas e a reconstrução custa O(dias cobertos), não O(pessoas).
+ * <p>
+ * O dia vem do {@link Clock}. Consultas com dia vencido ou data fora das tabelas calculam
+ * direto e agendam a reconstrução no {@code executor}; uma alteração com data anterior às
+ * tabelas também agenda, para que a data passe a ser coberta.
+ */
+public class IndiceCalculos implements IndicePessoas {
+
+    // Datas mais antigas que isso são calculadas direto, para limitar o tamanho das tabelas
+    private static final long DIAS_MAXIMOS = 200 * 366L;
+
+    private final Clock clock;
+    private final IdadeHelper idadeHelper;
+    private final SalarioHelper salarioHelper;
+    private final Executor executor;
+    private final AtomicBoolean reconstruindo = new AtomicBoolean();
+    // Só diminuem: remoções não encolhem as tabelas
+    private final AtomicLong menorNascimento = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong menorAdmissao = new AtomicLong(Long.MAX_VALUE);
+
+    private volatile Tabelas atual;
+
+    public IndiceCalculos(Clock clock, IdadeHelper idadeHelper, SalarioHelper salarioHelper, Executor executor) {
+        this.clock = clock;
+        this.idadeHelper = idadeHelper;
+        this.salarioHelper = salarioHelper;
+        this.executor = executor;
+        this.atual = tabelas(LocalDate.now(clock));
+    }
+
+    /**
+     * Valores de um dia: posição {@code i} de meses e anos é a idade de quem nasceu no dia
+     * {@code primeiroNascimento + i} da época; a de integral e mínimos, o salário de quem
+     * foi admitido no dia {@code primeiraAdmissao + i}.
+     */
+    private record Tabelas(LocalDate dia, long inicio, long fim,
+                           long primeiroNascimento, int[] meses, int[] anos,
+                           long primeiraAdmissao, double[] integral, double[] minimos) {
+
+        boolean vale(long agora) {
+            return agora >= inicio && agora < fim;
+        }
+    }
+
+    private Tabelas tabelas(LocalDate dia) {
+        long hoje = dia.toEpochDay();
+        long primeiroNascimento = primeiro(menorNascimento.get(), hoje);
+        long primeiraAdmissao = primeiro(menorAdmissao.get(), hoje);
+        int[] meses = new int[(int) (hoje + 1 - primeiroNascimento)];
+        int[] anos = new int[meses.length];
+        for (int i = 0; i < meses.length; i++) {
+            LocalDate nascimento = LocalDate.ofEpochDay(primeiroNascimento + i);
+            meses[i] = (int) FormatoIdade.MONTHS.calcular(nascimento, dia);
+            anos[i] = (int) FormatoIdade.YEARS.calcular(nascimento, dia);
+        }
+        double[] integral = new double[(int) (hoje + 1 - primeiraAdmissao)];
+        double[] minimos = new double[integral.length];
+        for (int i = 0; i < integral.length; i++) {
+            int anosNaEmpresa = Period.between(LocalDate.ofEpochDay(primeiraAdmissao + i), dia).getYears();
+            double salarioAtual = salarioHelper.calcularSalarioAtual(anosNaEmpresa);
+            integral[i] = salarioHelper.formatar(salarioAtual, FormatoSalario.FULL);
+            minimos[i] = salarioHelper.formatar(salarioAtual, FormatoSalario.MIN);
+        }
+        long inicio = dia.atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        long fim = dia.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        return new Tabelas(dia, inicio, fim, primeiroNascimento, meses, anos, primeiraAdmissao, integral, minimos);
+    }
+
+    // Primeiro dia coberto: a menor data, limitada a DIAS_MAXIMOS atrás; sem datas, nenhum
+    private static long primeiro(long menor, long hoje) {
+        return Math.min(Math.max(menor, hoje - DIAS_MAXIMOS), hoje + 1);
+    }
+
+    @Override
+    public void atualizar(Pessoa antiga, Pessoa nova) {
+        if (nova == null) {
+            return;
+        }
+        observar(nova);
+        if (precisaReconstruir()) {
+            agendar();
+        }
+    }
+
+    private void observar(Pessoa pessoa) {
+        if (pessoa.getDataNascimento() != null) {
+            menorNascimento.accumulateAndGet(pessoa.getDataNascimento().toEpochDay(), Math::min);
+        }
+        if (pessoa.getDataAdmissao() != null) {
+            menorAdmissao.accumulateAndGet(pessoa.getDataAdmissao().toEpochDay(), Math::min);
+        }
+    }
+
+    /**
+     * Monta as tabelas para as datas das pessoas informadas. Só pode ser usado antes de o
+     * índice receber atualizações concorrentes.
+     */
+    public void carregar(Iterable<Pessoa> pessoas) {
+        for (Pessoa pessoa : pessoas) {
+            observar(pessoa);
+        }
+        atual = tabelas(LocalDate.now(clock));
+    }
+
+    public long idade(Pessoa pessoa, FormatoIdade formato) {
+        return idade(vigentes(), LocalDate.now(clock), pessoa, formato);
+    }
+
+    public double salario(Pessoa pessoa, FormatoSalario formato) {
+        return salario(vigentes(), LocalDate.now(clock), pessoa, formato);
+    }
+
+    /**
+     * Cálculos de um lote inteiro num mesmo dia: as tabelas vigentes agora valem até o fim do
+     * lote, mesmo que o dia vire no meio dele.
+     */
+    public Lote lote() {
+        Tabelas tabelas = vigentes();
+        return new Lote(tabelas, tabelas != null ? tabelas.dia : LocalDate.now(clock));
+    }
+
+    public final class Lote {
+
+        // Nulas quando estavam vencidas: o lote calcula direto no dia
+        private final Tabelas tabelas;
+        private final LocalDate dia;
+
+        private Lote(Tabelas tabelas, LocalDate dia) {
+            this.tabelas = tabelas;
+            this.dia = dia;
+        }
+
+        public long idade(Pessoa pessoa, FormatoIdade formato) {
+            return IndiceCalculos.this.idade(tabelas, dia, pessoa, formato);
+        }
+
+        public double salario(Pessoa pessoa, FormatoSalario formato) {
+            return IndiceCalculos.this.salario(tabelas, dia, pessoa, formato);
+        }
+
+        public LocalDate dia() {
+            return dia;
+        }
+    }
+
+    private long idade(Tabelas tabelas, LocalDate dia, Pessoa pessoa, FormatoIdade formato) {
+        pessoa.validaDataNescimento();
+        if (tabelas != null) {
+            long nascimento = pessoa.getDataNascimento().toEpochDay();
+            if (formato == FormatoIdade.DAYS) {
+                return tabelas.dia.toEpochDay() - nascimento;
+            }
+            long i = nascimento - tabelas.primeiroNascimento;
+            if (i >= 0 && i < tabelas.meses.length) {
+                return formato == FormatoIdade.MONTHS ? tabelas.meses[(int) i] : tabelas.anos[(int) i];
+            }
+            // Nascimento futuro ou anterior às tabelas
+            agendarSeNecessario();
+        }
+        return idadeHelper.calcularIdade(pessoa, formato, dia);
+    }
+
+    private double salario(Tabelas tabelas, LocalDate dia, Pessoa pessoa, FormatoSalario formato) {
+        pessoa.validaDataAdminissao();
+        if (tabelas != null) {
+            long i = pessoa.getDataAdmissao().toEpochDay() - tabelas.primeiraAdmissao;
+            if (i >= 0 && i < tabelas.integral.length) {
+                return formato == FormatoSalario.FULL ? tabelas.integral[(int) i] : tabelas.minimos[(int) i];
+            }
+            agendarSeNecessario();
+        }
+        return salarioHelper.calcularSalario(pessoa, formato, dia);
+    }
+
+    private Tabelas vigentes() {
+        Tabelas tabelas = atual;
+        if (tabelas.vale(clock.millis())) {
+            return tabelas;
+        }
+        agendar();
+        return null;
+    }
+
+    private boolean precisaReconstruir() {
+        Tabelas tabelas = atual;
+        long hoje = tabelas.dia.toEpochDay();
+        return !tabelas.vale(clock.millis())
+                || primeiro(menorNascimento.get(), hoje) < tabelas.primeiroNascimento
+                || primeiro(menorAdmissao.get(), hoje) < tabelas.primeiraAdmissao;
+    }
+
+    private void agendarSeNecessario() {
+        if (precisaReconstruir()) {
+            agendar();
+        }
+    }
+
+    private void agendar() {
+        if (reconstruindo.compareAndSet(false, true)) {
+            executor.execute(this::reconstruir);
+        }
+    }
+
+    /**
+     * Reconstrói as tabelas se o dia do relógio mudou ou se há datas que elas ainda não
+     * cobrem, desde que nenhuma reconstrução esteja em andamento.
+     *
+     * @return se houve reconstrução
+     */
+    public boolean virarDia() {
+        if (!precisaReconstruir() || !reconstruindo.compareAndSet(false, true)) {
+            return false;
+        }
+        reconstruir();
+        return true;
+    }
+
+    /**
+     * Alterações que precisaram de tabelas novas enquanto esta reconstrução rodava não
+     * conseguiram agendar outra; por isso a necessidade é conferida de novo ao final.
+     */
+    private void reconstruir() {
+        do {
+            try {
+                atual = tabelas(LocalDate.now(clock));
+            } finally {
+                reconstruindo.set(false);
+            }
+        } while (precisaReconstruir() && reconstruindo.compareAndSet(false, true));
+    }
+
+    public LocalDate dia() {
+        return atual.dia;
+    }
+}
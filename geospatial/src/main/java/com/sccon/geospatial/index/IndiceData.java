@@ -0,0 +1,82 @@
+package com.sccon.geospatial.index;
+
+import com.sccon.geospatial.model.Pessoa;
+
+import java.time.LocalDate;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Índice de pessoas por uma data (nascimento ou admissão): para cada dia, os ids em blocos
+ * ordenados ({@link IdsPorChave}), o que custa cerca de 8 bytes por pessoa. Intervalos são
+ * respondidos em O(log b + k), b sendo o número de blocos. Pessoas sem a data ficam no fim,
+ * sob {@link #SEM_DATA}.
+ */
+public class IndiceData implements IndicePessoas {
+
+    public static final long SEM_DATA = Long.MAX_VALUE;
+
+    private final Function<Pessoa, LocalDate> campo;
+    private final IdsPorChave<Long> idsPorDia = new IdsPorChave<>();
+
+    public IndiceData(Function<Pessoa, LocalDate> campo) {
+        this.campo = campo;
+    }
+
+    public static long dia(LocalDate data) {
+        return data == null ? SEM_DATA : data.toEpochDay();
+    }
+
+    private long dia(Pessoa pessoa) {
+        return dia(campo.apply(pessoa));
+    }
+
+    @Override
+    public void atualizar(Pessoa antiga, Pessoa nova) {
+        if (antiga != null && nova != null && dia(antiga) == dia(nova)) {
+            return;
+        }
+        if (antiga != null) {
+            idsPorDia.retirar(dia(antiga), antiga.getId());
+        }
+        if (nova != null) {
+            idsPorDia.adicionar(dia(nova), nova.getId());
+        }
+    }
+
+    /**
+     * Chaves com dia entre {@code inicio} e {@code fim} (inclusive), em ordem, posteriores a
+     * {@code depoisDe} quando informado. O stream é preguiçoso: só os dias consumidos são visitados.
+     */
+    public Stream<ChaveData> intervalo(long inicio, long fim, ChaveData depoisDe) {
+        long primeiro = depoisDe == null ? inicio : Math.max(inicio, depoisDe.dia());
+        if (primeiro > fim) {
+            return Stream.empty();
+        }
+        // Num dia com muitos blocos, começa direto no bloco do cursor
+        long primeiroId = depoisDe != null && depoisDe.dia() == primeiro ? depoisDe.id() : Long.MIN_VALUE;
+        return idsPorDia.trecho(primeiro, primeiroId, fim).entrySet().stream().flatMap(entrada -> {
+            long dia = entrada.getKey().chave();
+            long[] ids = entrada.getValue();
+            int desde = depoisDe != null && dia == depoisDe.dia() ? ListaIds.depoisDe(ids, depoisDe.id()) : 0;
+            return LongStream.of(ids).skip(desde).mapToObj(id -> new ChaveData(dia, id));
+        });
+    }
+
+    /**
+     * Substitui o conteúdo do índice pelas pessoas informadas, ordenando cada dia uma vez.
+     * Só pode ser usado antes de o índice receber atualizações concorrentes.
+     */
+    public void carregar(Iterable<Pessoa> pessoas) {
+        ListaIds.Acumulador<Long> acumulador = new ListaIds.Acumulador<>();
+        for (Pessoa pessoa : pessoas) {
+            acumulador.adicionar(dia(pessoa), pessoa.getId());
+        }
+        idsPorDia.carregar(acumulador.ordenado());
+    }
+
+    public long tamanho() {
+        return idsPorDia.quantidade();
+    }
+}
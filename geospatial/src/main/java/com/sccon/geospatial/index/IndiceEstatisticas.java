@@ -0,0 +1,152 @@
+package com.sccon.geospatial.index;
+
+import com.sccon.geospatial.model.EstatisticasPessoas;
+import com.sccon.geospatial.model.Pessoa;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.Supplier;
+
+/**
+ * Agregados do cadastro mantidos a cada alteração, sem percorrer as pessoas na leitura.
+ * Idades e anos de empresa dependem do dia: as contagens por data distinta permitem
+ * recalcular os histogramas na virada do dia em O(datas distintas), e não O(pessoas).
+ * A virada é feita na primeira leitura do novo dia. O resumo montado fica em cache até
+ * a próxima alteração ou a próxima virada.
+ */
+public class IndiceEstatisticas implements IndicePessoas {
+
+    private final Supplier<LocalDate> hoje;
+    private final IntToDoubleFunction salarioPorAnos;
+
+    private final Map<LocalDate, Long> porNascimento = new HashMap<>();
+    private final Map<LocalDate, Long> porAdmissao = new HashMap<>();
+    private final TreeMap<YearMonth, Long> porMesAdmissao = new TreeMap<>();
+    private long quantidade;
+
+    // Derivados das contagens por data para o dia corrente
+    private LocalDate dia;
+    private TreeMap<Integer, Long> porIdade = new TreeMap<>();
+    private TreeMap<Integer, Long> porAnosEmpresa = new TreeMap<>();
+
+    private volatile EstatisticasPessoas resumo;
+
+    /**
+     * @param salarioPorAnos salário integral, já arredondado como na consulta individual,
+     *                       de quem tem o número de anos de empresa informado
+     */
+    public IndiceEstatisticas(Supplier<LocalDate> hoje, IntToDoubleFunction salarioPorAnos) {
+        this.hoje = hoje;
+        this.salarioPorAnos = salarioPorAnos;
+    }
+
+    @Override
+    public synchronized void atualizar(Pessoa antiga, Pessoa nova) {
+        if (antiga != null) {
+            contabilizar(antiga, -1);
+        }
+        if (nova != null) {
+            contabilizar(nova, 1);
+        }
+        resumo = null;
+    }
+
+    /**
+     * Substitui as contagens pelas das pessoas informadas. Só pode ser usado antes de o
+     * índice receber atualizações concorrentes.
+     */
+    public synchronized void carregar(Iterable<Pessoa> pessoas) {
+        porNascimento.clear();
+        porAdmissao.clear();
+        porMesAdmissao.clear();
+        quantidade = 0;
+        dia = null;
+        for (Pessoa pessoa : pessoas) {
+            contabilizar(pessoa, 1);
+        }
+        resumo = null;
+    }
+
+    public EstatisticasPessoas resumo() {
+        LocalDate referencia = hoje.get();
+        EstatisticasPessoas atual = resumo;
+        if (atual != null && atual.referencia().equals(referencia)) {
+            return atual;
+        }
+        synchronized (this) {
+            if (!referencia.equals(dia)) {
+                rebasear(referencia);
+            }
+            if (resumo == null || !resumo.referencia().equals(referencia)) {
+                resumo = montar();
+            }
+            return resumo;
+        }
+    }
+
+    private void contabilizar(Pessoa pessoa, long delta) {
+        quantidade += delta;
+        LocalDate nascimento = pessoa.getDataNascimento();
+        if (nascimento != null) {
+            somar(porNascimento, nascimento, delta);
+            if (dia != null) {
+                somar(porIdade, anos(nascimento, dia), delta);
+            }
+        }
+        LocalDate admissao = pessoa.getDataAdmissao();
+        if (admissao != null) {
+            somar(porAdmissao, admissao, delta);
+            somar(porMesAdmissao, YearMonth.from(admissao), delta);
+            if (dia != null) {
+                somar(porAnosEmpresa, anos(admissao, dia), delta);
+            }
+        }
+    }
+
+    private void rebasear(LocalDate referencia) {
+        dia = referencia;
+        porIdade = new TreeMap<>();
+        for (Map.Entry<LocalDate, Long> entrada : porNascimento.entrySet()) {
+            somar(porIdade, anos(entrada.getKey(), referencia), entrada.getValue());
+        }
+        porAnosEmpresa = new TreeMap<>();
+        for (Map.Entry<LocalDate, Long> entrada : porAdmissao.entrySet()) {
+            somar(porAnosEmpresa, anos(entrada.getKey(), referencia), entrada.getValue());
+        }
+    }
+
+    private EstatisticasPessoas montar() {
+        double folha = 0;
+        long assalariados = 0;
+        for (Map.Entry<Integer, Long> entrada : porAnosEmpresa.entrySet()) {
+            folha += salarioPorAnos.applyAsDouble(entrada.getKey()) * entrada.getValue();
+            assalariados += entrada.getValue();
+        }
+        Map<String, Long> admissoes = new LinkedHashMap<>();
+        porMesAdmissao.forEach((mes, total) -> admissoes.put(mes.toString(), total));
+        return new EstatisticasPessoas(dia, quantidade, centavos(folha),
+                assalariados == 0 ? 0 : centavos(folha / assalariados),
+                Collections.unmodifiableMap(new LinkedHashMap<>(porIdade)),
+                Collections.unmodifiableMap(admissoes));
+    }
+
+    // Mesmo cálculo de anos completos das consultas de idade e salário
+    private static int anos(LocalDate data, LocalDate referencia) {
+        return Period.between(data, referencia).getYears();
+    }
+
+    private static double centavos(double valor) {
+        return Math.round(valor * 100) / 100.0;
+    }
+
+    private static <K> void somar(Map<K, Long> contagens, K chave, long delta) {
+        contagens.merge(chave, delta, (atual, soma) -> atual + soma == 0 ? null : atual + soma);
+    }
+}
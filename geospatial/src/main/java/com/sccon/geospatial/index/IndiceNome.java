@@ -0,0 +1,112 @@
+package com.sccon.geospatial.index;
+
+import com.sccon.geospatial.model.Pessoa;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Índice de pessoas ordenado por nome segundo a collation do locale informado.
+ * As chaves são calculadas apenas na escrita, então a listagem é uma varredura
+ * ordenada sem ordenação por requisição e sem passar pelo lock do Collator.
+ * Guarda só as chaves (que já carregam o id); os registros ficam no armazenamento.
+ * Atualizações de um mesmo id devem ser serializadas pelo chamador.
+ */
+public class IndiceNome implements IndicePessoas {
+
+    // Texto fixo cuja chave identifica a collation em uso (acentos, cedilha, caixa)
+    private static final String SONDA_ASSINATURA = "Ação Érica ÂNGELA ñandu Øre Zoë 123";
+
+    private final ThreadLocal<Collator> collators;
+    private volatile ConcurrentSkipListMap<ChaveNome, Boolean> ordenado = new ConcurrentSkipListMap<>();
+    // O size() da skip list percorre o mapa inteiro
+    private final AtomicInteger tamanho = new AtomicInteger();
+
+    public IndiceNome(Locale locale) {
+        Collator base = Collator.getInstance(locale);
+        // RuleBasedCollator é sincronizado; cada thread usa o seu clone
+        this.collators = ThreadLocal.withInitial(() -> (Collator) base.clone());
+    }
+
+    public ChaveNome chave(String nome, long id) {
+        return new ChaveNome(collators.get().getCollationKey(nome).toByteArray(), id);
+    }
+
+    /**
+     * Bytes que mudam se a collation mudar (outro locale ou outra versão do JDK);
+     * chaves guardadas fora do processo só podem ser reaproveitadas com a mesma assinatura.
+     */
+    public byte[] assinatura() {
+        return collators.get().getCollationKey(SONDA_ASSINATURA).toByteArray();
+    }
+
+    /**
+     * Troca a chave da versão {@code antiga} pela da {@code nova}; qualquer uma pode ser nula
+     * (inserção ou remoção). A chave antiga é recalculada a partir do nome anterior.
+     */
+    @Override
+    public void atualizar(Pessoa antiga, Pessoa nova) {
+        if (antiga != null && nova != null && antiga.getNome().equals(nova.getNome())) {
+            return;
+        }
+        if (antiga != null && ordenado.remove(chave(antiga.getNome(), antiga.getId())) != null) {
+            tamanho.decrementAndGet();
+        }
+        if (nova != null && ordenado.put(chave(nova.getNome(), nova.getId()), Boolean.TRUE) == null) {
+            tamanho.incrementAndGet();
+        }
+    }
+
+    /**
+     * Substitui o conteúdo do índice por chaves já em ordem crescente. A skip list é montada
+     * à parte e publicada pronta; em ordem, cada inserção cai no fim dela. Só pode ser usado
+     * antes de o índice receber atualizações concorrentes.
+     */
+    public void carregarOrdenadas(List<ChaveNome> chaves) {
+        ConcurrentSkipListMap<ChaveNome, Boolean> novo = new ConcurrentSkipListMap<>();
+        int distintas = 0;
+        for (ChaveNome chave : chaves) {
+            if (novo.put(chave, Boolean.TRUE) == null) {
+                distintas++;
+            }
+        }
+        ordenado = novo;
+        tamanho.set(distintas);
+    }
+
+    public boolean contem(ChaveNome chave) {
+        return ordenado.containsKey(chave);
+    }
+
+    public Iterable<ChaveNome> chaves() {
+        return ordenado.keySet();
+    }
+
+    /**
+     * Retorna até {@code limite} chaves posteriores a {@code depoisDe} (ou do início, se nulo),
+     * em O(log n + limite) e sem materializar o restante do índice.
+     */
+    public List<ChaveNome> pagina(ChaveNome depoisDe, int limite) {
+        NavigableSet<ChaveNome> restante = depoisDe == null ? ordenado.keySet() : ordenado.tailMap(depoisDe, false).keySet();
+        List<ChaveNome> chaves = new ArrayList<>(limite);
+        for (ChaveNome chave : restante) {
+            if (chaves.size() == limite) {
+                break;
+            }
+            chaves.add(chave);
+        }
+        return chaves;
+    }
+
+    /**
+     * Quantidade de chaves, sem percorrer o índice; sob escritas concorrentes é aproximada.
+     */
+    public int tamanho() {
+        return Math.max(tamanho.get(), 0);
+    }
+}
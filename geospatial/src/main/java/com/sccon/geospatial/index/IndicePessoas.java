@@ -0,0 +1,15 @@
+package com.sccon.geospatial.index;
+
+import com.sccon.geospatial.model.Pessoa;
+
+/**
+ * Estrutura derivada do cadastro. O serviço a atualiza dentro da seção crítica de cada
+ * alteração, então alterações de um mesmo id chegam em ordem e nunca concorrem entre si.
+ */
+public interface IndicePessoas {
+
+    /**
+     * Troca a versão {@code antiga} pela {@code nova}; a antiga é nula numa inserção e a nova numa remoção.
+     */
+    void atualizar(Pessoa antiga, Pessoa nova);
+}
@@ -0,0 +1,93 @@
+package com.sccon.geospatial.index;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Listas de ids ordenadas e imutáveis usadas pelos índices: cada alteração troca o array
+ * inteiro, então leitores percorrem sem lock enquanto escritores usam compute do mapa.
+ */
+final class ListaIds {
+
+    private ListaIds() {
+    }
+
+    static long[] comId(long[] ids, long id) {
+        if (ids == null) {
+            return new long[]{id};
+        }
+        int posicao = Arrays.binarySearch(ids, id);
+        if (posicao >= 0) {
+            return ids;
+        }
+        int insercao = -posicao - 1;
+        long[] novos = new long[ids.length + 1];
+        System.arraycopy(ids, 0, novos, 0, insercao);
+        novos[insercao] = id;
+        System.arraycopy(ids, insercao, novos, insercao + 1, ids.length - insercao);
+        return novos;
+    }
+
+    /**
+     * Retorna nulo quando a lista fica vazia, o que tira a entrada do mapa no compute.
+     */
+    static long[] semId(long[] ids, long id) {
+        int posicao = Arrays.binarySearch(ids, id);
+        if (posicao < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return null;
+        }
+        long[] novos = new long[ids.length - 1];
+        System.arraycopy(ids, 0, novos, 0, posicao);
+        System.arraycopy(ids, posicao + 1, novos, posicao, ids.length - posicao - 1);
+        return novos;
+    }
+
+    /**
+     * Posição do primeiro id maior que {@code id}.
+     */
+    static int depoisDe(long[] ids, long id) {
+        int posicao = Arrays.binarySearch(ids, id);
+        return posicao >= 0 ? posicao + 1 : -posicao - 1;
+    }
+
+    /**
+     * Junta ids por chave numa carga inicial e ordena cada lista uma única vez no final.
+     */
+    static final class Acumulador<K extends Comparable<K>> {
+
+        private final Map<K, Bloco> blocos = new HashMap<>();
+
+        void adicionar(K chave, long id) {
+            blocos.computeIfAbsent(chave, k -> new Bloco()).adicionar(id);
+        }
+
+        TreeMap<K, long[]> ordenado() {
+            TreeMap<K, long[]> ordenado = new TreeMap<>();
+            blocos.forEach((chave, bloco) -> ordenado.put(chave, bloco.ordenados()));
+            return ordenado;
+        }
+
+        private static final class Bloco {
+            private long[] ids = new long[4];
+            private int tamanho;
+
+            void adicionar(long id) {
+                if (tamanho == ids.length) {
+                    ids = Arrays.copyOf(ids, tamanho * 2);
+                }
+                ids[tamanho++] = id;
+            }
+
+            long[] ordenados() {
+                long[] exatos = Arrays.copyOf(ids, tamanho);
+                Arrays.sort(exatos);
+                return exatos;
+            }
+        }
+    }
+}
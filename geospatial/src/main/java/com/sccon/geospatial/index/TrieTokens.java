@@ -0,0 +1,137 @@
+package com.sccon.geospatial.index;
+
+import java.util.Arrays;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Trie dos tokens distintos do índice de busca, percorrida na busca aproximada. Escritas só
+ * acontecem quando um token entra ou sai do vocabulário e são serializadas pelo próprio
+ * objeto; leituras não travam, porque cada nó publica letras e filhos juntos num único
+ * campo volátil.
+ */
+final class TrieTokens {
+
+    private final No raiz = new No();
+
+    private static final class No {
+        volatile Filhos filhos = Filhos.NENHUM;
+        volatile boolean fimDeToken;
+    }
+
+    private record Filhos(char[] letras, No[] nos) {
+
+        static final Filhos NENHUM = new Filhos(new char[0], new No[0]);
+
+        No get(char letra) {
+            int posicao = Arrays.binarySearch(letras, letra);
+            return posicao >= 0 ? nos[posicao] : null;
+        }
+
+        Filhos com(char letra, No no) {
+            int insercao = -Arrays.binarySearch(letras, letra) - 1;
+            char[] novasLetras = new char[letras.length + 1];
+            No[] novosNos = new No[nos.length + 1];
+            System.arraycopy(letras, 0, novasLetras, 0, insercao);
+            System.arraycopy(nos, 0, novosNos, 0, insercao);
+            novasLetras[insercao] = letra;
+            novosNos[insercao] = no;
+            System.arraycopy(letras, insercao, novasLetras, insercao + 1, letras.length - insercao);
+            System.arraycopy(nos, insercao, novosNos, insercao + 1, nos.length - insercao);
+            return new Filhos(novasLetras, novosNos);
+        }
+
+        Filhos sem(char letra) {
+            int posicao = Arrays.binarySearch(letras, letra);
+            char[] novasLetras = new char[letras.length - 1];
+            No[] novosNos = new No[nos.length - 1];
+            System.arraycopy(letras, 0, novasLetras, 0, posicao);
+            System.arraycopy(nos, 0, novosNos, 0, posicao);
+            System.arraycopy(letras, posicao + 1, novasLetras, posicao, letras.length - posicao - 1);
+            System.arraycopy(nos, posicao + 1, novosNos, posicao, nos.length - posicao - 1);
+            return new Filhos(novasLetras, novosNos);
+        }
+    }
+
+    synchronized void adicionar(String token) {
+        No no = raiz;
+        for (int i = 0; i < token.length(); i++) {
+            No filho = no.filhos.get(token.charAt(i));
+            if (filho == null) {
+                filho = new No();
+                no.filhos = no.filhos.com(token.charAt(i), filho);
+            }
+            no = filho;
+        }
+        no.fimDeToken = true;
+    }
+
+    /**
+     * Desmarca o token e solta os nós que ficaram sem tokens abaixo deles.
+     */
+    synchronized void remover(String token) {
+        No[] caminho = new No[token.length() + 1];
+        caminho[0] = raiz;
+        for (int i = 0; i < token.length(); i++) {
+            caminho[i + 1] = caminho[i].filhos.get(token.charAt(i));
+            if (caminho[i + 1] == null) {
+                return;
+            }
+        }
+        caminho[token.length()].fimDeToken = false;
+        for (int i = token.length(); i > 0; i--) {
+            No no = caminho[i];
+            if (no.fimDeToken || no.filhos.letras().length > 0) {
+                return;
+            }
+            caminho[i - 1].filhos = caminho[i - 1].filhos.sem(token.charAt(i - 1));
+        }
+    }
+
+    /**
+     * Entrega cada token a no máximo {@code maxima} edições (Levenshtein) do termo, com a
+     * distância. Cada nó recebe a linha da matriz de distâncias do seu prefixo; um ramo cuja
+     * linha inteira passa do limite não tem como casar e não é visitado.
+     */
+    void aproximados(String termo, int maxima, ObjIntConsumer<String> saida) {
+        // Um ramo mais fundo que o termo mais o limite já passou do limite; as linhas são reaproveitadas por nível
+        int[][] linhas = new int[termo.length() + maxima + 2][termo.length() + 1];
+        for (int i = 0; i <= termo.length(); i++) {
+            linhas[0][i] = i;
+        }
+        percorrer(raiz, new StringBuilder(), termo, maxima, linhas, saida);
+    }
+
+    private static void percorrer(No no, StringBuilder prefixo, String termo, int maxima, int[][] linhas, ObjIntConsumer<String> saida) {
+        int[] linha = linhas[prefixo.length()];
+        if (no.fimDeToken && linha[termo.length()] <= maxima) {
+            saida.accept(prefixo.toString(), linha[termo.length()]);
+        }
+        if (prefixo.length() + 1 == linhas.length) {
+            return;
+        }
+        Filhos filhos = no.filhos;
+        int[] seguinte = linhas[prefixo.length() + 1];
+        for (int i = 0; i < filhos.letras().length; i++) {
+            if (proximaLinha(termo, linha, filhos.letras()[i], seguinte) <= maxima) {
+                prefixo.append(filhos.letras()[i]);
+                percorrer(filhos.nos()[i], prefixo, termo, maxima, linhas, saida);
+                prefixo.setLength(prefixo.length() - 1);
+            }
+        }
+    }
+
+    /**
+     * Preenche {@code seguinte} com a linha da matriz de Levenshtein após {@code caractere} e
+     * retorna o menor valor dela.
+     */
+    static int proximaLinha(String termo, int[] linha, char caractere, int[] seguinte) {
+        seguinte[0] = linha[0] + 1;
+        int menor = seguinte[0];
+        for (int i = 1; i < linha.length; i++) {
+            int substituicao = linha[i - 1] + (termo.charAt(i - 1) == caractere ? 0 : 1);
+            seguinte[i] = Math.min(substituicao, Math.min(linha[i] + 1, seguinte[i - 1] + 1));
+            menor = Math.min(menor, seguinte[i]);
+        }
+        return menor;
+    }
+}
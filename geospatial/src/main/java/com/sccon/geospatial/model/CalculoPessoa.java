@@ -0,0 +1,9 @@
+package com.sccon.geospatial.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public record CalculoPessoa(Long id, Map<String, Long> age, Map<String, Double> salary) {
+}
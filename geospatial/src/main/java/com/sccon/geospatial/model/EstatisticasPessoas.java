@@ -0,0 +1,17 @@
+package com.sccon.geospatial.model;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Agregados do cadastro na data de referência: quantidade de pessoas, folha salarial
+ * (soma dos salários integrais, como em {@code /salary?output=full}), pessoas por idade
+ * em anos e admissões por mês ({@code AAAA-MM}).
+ */
+public record EstatisticasPessoas(LocalDate referencia,
+                                  long quantidade,
+                                  double folhaTotal,
+                                  double folhaMedia,
+                                  Map<Integer, Long> pessoasPorIdade,
+                                  Map<String, Long> admissoesPorMes) {
+}
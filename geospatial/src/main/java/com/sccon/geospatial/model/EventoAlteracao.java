@@ -0,0 +1,9 @@
+package com.sccon.geospatial.model;
+
+import com.sccon.geospatial.enums.TipoAlteracao;
+
+/**
+ * Uma alteração do cadastro no feed, com a versão publicada da pessoa (nula na remoção).
+ */
+public record EventoAlteracao(long sequencia, TipoAlteracao tipo, long id, Pessoa pessoa) {
+}
@@ -0,0 +1,96 @@
+package com.sccon.geospatial.model;
+
+import com.sccon.geospatial.enums.OrdenacaoPessoas;
+import com.sccon.geospatial.exception.InvalidParameterException;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Ordenação e intervalos de datas (inclusivos) da listagem de pessoas. Campos nulos não
+ * restringem; sem ordenação informada, o serviço escolhe conforme os filtros.
+ */
+public record FiltroPessoas(OrdenacaoPessoas ordenacao,
+                            LocalDate dataNascimentoDe, LocalDate dataNascimentoAte,
+                            LocalDate dataAdmissaoDe, LocalDate dataAdmissaoAte) {
+    
+    public static final FiltroPessoas NENHUM = new FiltroPessoas(null, null, null, null, null);
+    
+    public FiltroPessoas {
+        if (dataNascimentoDe != null && dataNascimentoAte != null && dataNascimentoDe.isAfter(dataNascimentoAte)) {
+            throw new InvalidParameterException("dataNascimentoDe não pode ser posterior a dataNascimentoAte");
+        }
+        if (dataAdmissaoDe != null && dataAdmissaoAte != null && dataAdmissaoDe.isAfter(dataAdmissaoAte)) {
+            throw new InvalidParameterException("dataAdmissaoDe não pode ser posterior a dataAdmissaoAte");
+        }
+    }
+    
+    /**
+     * Monta o filtro a partir dos parâmetros da requisição, todos opcionais.
+     */
+    public static FiltroPessoas de(String sort, String dataNascimentoDe, String dataNascimentoAte,
+                                   String dataAdmissaoDe, String dataAdmissaoAte) {
+        return new FiltroPessoas(sort == null ? null : OrdenacaoPessoas.de(sort),
+                data("dataNascimentoDe", dataNascimentoDe), data("dataNascimentoAte", dataNascimentoAte),
+                data("dataAdmissaoDe", dataAdmissaoDe), data("dataAdmissaoAte", dataAdmissaoAte));
+    }
+    
+    private static LocalDate data(String parametro, String valor) {
+        if (valor == null) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(valor);
+        } catch (DateTimeParseException e) {
+            throw new InvalidParameterException("Data '" + valor + "' não é válida para " + parametro + ". Use o formato AAAA-MM-DD");
+        }
+    }
+    
+    public boolean vazio() {
+        return equals(NENHUM);
+    }
+    
+    /**
+     * Ordenação da listagem: a informada ou, sem ela, a da data filtrada (nome se não houver
+     * filtro). Filtros de data só são aceitos quando percorrem o índice ordenado.
+     */
+    public OrdenacaoPessoas ordenacaoEfetiva() {
+        OrdenacaoPessoas efetiva = ordenacao;
+        if (efetiva == null) {
+            efetiva = filtraNascimento() ? OrdenacaoPessoas.DATA_NASCIMENTO
+                    : filtraAdmissao() ? OrdenacaoPessoas.DATA_ADMISSAO
+                    : OrdenacaoPessoas.NOME;
+        }
+        // Sem intervalo no campo ordenado, o filtro teria de varrer o índice inteiro
+        boolean filtraOrdenado = efetiva == OrdenacaoPessoas.DATA_NASCIMENTO && filtraNascimento()
+                || efetiva == OrdenacaoPessoas.DATA_ADMISSAO && filtraAdmissao();
+        if ((filtraNascimento() || filtraAdmissao()) && !filtraOrdenado) {
+            throw new InvalidParameterException("Filtros de data exigem ordenação por uma das datas filtradas");
+        }
+        return efetiva;
+    }
+    
+    public boolean filtraNascimento() {
+        return dataNascimentoDe != null || dataNascimentoAte != null;
+    }
+    
+    public boolean filtraAdmissao() {
+        return dataAdmissaoDe != null || dataAdmissaoAte != null;
+    }
+    
+    /**
+     * Verdadeiro se a pessoa está em todos os intervalos informados; quem não tem a data
+     * filtrada fica de fora.
+     */
+    public boolean aceita(Pessoa pessoa) {
+        return dentro(pessoa.getDataNascimento(), dataNascimentoDe, dataNascimentoAte)
+                && dentro(pessoa.getDataAdmissao(), dataAdmissaoDe, dataAdmissaoAte);
+    }
+    
+    private static boolean dentro(LocalDate data, LocalDate de, LocalDate ate) {
+        if (de == null && ate == null) {
+            return true;
+        }
+        return data != null && (de == null || !data.isBefore(de)) && (ate == null || !data.isAfter(ate));
+    }
+}
@@ -0,0 +1,6 @@
+package com.sccon.geospatial.model;
+
+import java.util.List;
+
+public record PaginaPessoas(List<Pessoa> pessoas, String proximoCursor) {
+}
@@ -0,0 +1,162 @@
+package com.sccon.geospatial.model;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.sccon.geospatial.exception.InvalidParameterException;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDate;
+import java.util.function.Function;
+
+/**
+ * Versão imutável de uma pessoa. Alterações criam uma nova instância ({@code com*}),
+ * que o serviço publica no cadastro por compare-and-swap, junto com uma nova versão.
+ */
+public final class Pessoa {
+
+    private static final String NOME_VAZIO_ERROR_MESSAGE = "Nome não pode ser vazio";
+    private static final String DATA_NASC_ERROR_MESSAGE = "Data de nascimento não pode ser nula";
+    private static final String DATA_ADMISSAO_ERROR_MESSAGE = "Data de admissão não pode ser nula";
+    // Anos de quatro dígitos: o ISO 8601 sem sinal, e dias da época que cabem num int no
+    // armazenamento colunar, no snapshot e no log de escrita
+    public static final LocalDate DATA_MINIMA = LocalDate.of(1, 1, 1);
+    public static final LocalDate DATA_MAXIMA = LocalDate.of(9999, 12, 31);
+    // Sem stack trace, podem ser relançadas a cada item inválido de um lote
+    private static final InvalidParameterException NOME_VAZIO = new InvalidParameterException(NOME_VAZIO_ERROR_MESSAGE);
+    private static final InvalidParameterException DATA_NASC_NULA = new InvalidParameterException(DATA_NASC_ERROR_MESSAGE);
+    private static final InvalidParameterException DATA_ADMISSAO_NULA = new InvalidParameterException(DATA_ADMISSAO_ERROR_MESSAGE);
+    private static final InvalidParameterException DATA_NASC_FORA_DO_INTERVALO = new InvalidParameterException(
+            "Data de nascimento deve estar entre " + DATA_MINIMA + " e " + DATA_MAXIMA);
+    private static final InvalidParameterException DATA_ADMISSAO_FORA_DO_INTERVALO = new InvalidParameterException(
+            "Data de admissão deve estar entre " + DATA_MINIMA + " e " + DATA_MAXIMA);
+
+    private final Long id;
+    
+    @NotBlank(message = NOME_VAZIO_ERROR_MESSAGE)
+    private final String nome;
+    
+    @NotNull(message = DATA_NASC_ERROR_MESSAGE)
+    private final LocalDate dataNascimento;
+    
+    @NotNull(message = DATA_ADMISSAO_ERROR_MESSAGE)
+    private final LocalDate dataAdmissao;
+
+    private final long versao;
+
+    // JSON UTF-8 desta versão, gravado na primeira resposta que a inclui. Uma alteração
+    // gera outra instância, então o cache nunca fica velho
+    private volatile byte[] json;
+
+    @JsonCreator
+    public Pessoa(@JsonProperty("id") Long id,
+                  @JsonProperty("nome") String nome,
+                  @JsonProperty("dataNascimento") LocalDate dataNascimento,
+                  @JsonProperty("dataAdmissao") LocalDate dataAdmissao) {
+        this(id, nome, dataNascimento, dataAdmissao, 0L);
+    }
+
+    public Pessoa(Long id, String nome, LocalDate dataNascimento, LocalDate dataAdmissao, long versao) {
+        this.id = id;
+        this.nome = nome;
+        this.dataNascimento = dataNascimento;
+        this.dataAdmissao = dataAdmissao;
+        this.versao = versao;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public LocalDate getDataNascimento() {
+        return dataNascimento;
+    }
+
+    public LocalDate getDataAdmissao() {
+        return dataAdmissao;
+    }
+
+    @JsonIgnore
+    public long getVersao() {
+        return versao;
+    }
+
+    /**
+     * Codificação JSON desta versão, calculada por {@code codificar} só na primeira chamada.
+     */
+    public byte[] json(Function<Pessoa, byte[]> codificar) {
+        byte[] codificado = json;
+        if (codificado == null) {
+            codificado = codificar.apply(this);
+            json = codificado;
+        }
+        return codificado;
+    }
+
+    /**
+     * Codificação JSON já calculada, ou nulo; para quem percorre o cadastro uma vez e não deve
+     * preencher o cache.
+     */
+    public byte[] jsonEmCache() {
+        return json;
+    }
+
+    public Pessoa comId(Long id) {
+        return new Pessoa(id, nome, dataNascimento, dataAdmissao, versao);
+    }
+
+    public Pessoa comNome(String nome) {
+        return new Pessoa(id, nome, dataNascimento, dataAdmissao, versao);
+    }
+
+    public Pessoa comDataNascimento(LocalDate dataNascimento) {
+        return new Pessoa(id, nome, dataNascimento, dataAdmissao, versao);
+    }
+
+    public Pessoa comDataAdmissao(LocalDate dataAdmissao) {
+        return new Pessoa(id, nome, dataNascimento, dataAdmissao, versao);
+    }
+
+    public Pessoa comVersao(long versao) {
+        return new Pessoa(id, nome, dataNascimento, dataAdmissao, versao);
+    }
+
+    public void validaNome() {
+        if (this.nome == null || this.nome.trim().isEmpty()) {
+            throw NOME_VAZIO;
+        }
+    }
+
+    public void validaDataNescimento() {
+        if (this.dataNascimento == null) {
+            throw DATA_NASC_NULA;
+        }
+    }
+
+    public void validaDataAdminissao() {
+        if (this.dataAdmissao == null) {
+            throw DATA_ADMISSAO_NULA;
+        }
+    }
+
+    /**
+     * Datas presentes devem estar entre {@link #DATA_MINIMA} e {@link #DATA_MAXIMA}; a
+     * ausência é tratada pelas demais validações.
+     */
+    public void validaIntervaloDatas() {
+        if (foraDoIntervalo(dataNascimento)) {
+            throw DATA_NASC_FORA_DO_INTERVALO;
+        }
+        if (foraDoIntervalo(dataAdmissao)) {
+            throw DATA_ADMISSAO_FORA_DO_INTERVALO;
+        }
+    }
+
+    private static boolean foraDoIntervalo(LocalDate data) {
+        return data != null && (data.isBefore(DATA_MINIMA) || data.isAfter(DATA_MAXIMA));
+    }
+}
@@ -0,0 +1,9 @@
+package com.sccon.geospatial.model;
+
+import java.util.List;
+
+/**
+ * Pedido de cálculo em lote. Sem {@code ids}, calcula para todas as pessoas.
+ */
+public record RequisicaoCalculo(List<Long> ids, List<String> age, List<String> salary) {
+}
@@ -0,0 +1,20 @@
+package com.sccon.geospatial.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.sccon.geospatial.enums.StatusLote;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ResultadoLote(int indice, StatusLote status, Long id, String erro) {
+
+    public static ResultadoLote criado(int indice, Long id) {
+        return new ResultadoLote(indice, StatusLote.CREATED, id, null);
+    }
+
+    public static ResultadoLote conflito(int indice, Long id) {
+        return new ResultadoLote(indice, StatusLote.CONFLICT, id, "Pessoa com ID " + id + " já existe");
+    }
+
+    public static ResultadoLote invalido(int indice, String erro) {
+        return new ResultadoLote(indice, StatusLote.INVALID, null, erro);
+    }
+}
@@ -0,0 +1,47 @@
+package com.sccon.geospatial.service;
+
+import com.sccon.geospatial.storage.SnapshotPessoas;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Grava o snapshot do cadastro periodicamente e no encerramento da aplicação.
+ * A gravação percorre o armazenamento sem bloquear leituras nem escritas.
+ */
+@Component
+@ConditionalOnProperty("pessoa.snapshot.arquivo")
+public class AgendadorSnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(AgendadorSnapshot.class);
+
+    private final PessoaService pessoaService;
+    private final SnapshotPessoas snapshot;
+    private long versaoGravada = -1;
+
+    public AgendadorSnapshot(PessoaService pessoaService, SnapshotPessoas snapshot) {
+        this.pessoaService = pessoaService;
+        this.snapshot = snapshot;
+    }
+
+    @Scheduled(fixedDelayString = "${pessoa.snapshot.intervalo-ms:300000}",
+               initialDelayString = "${pessoa.snapshot.intervalo-ms:300000}")
+    public synchronized void gravar() {
+        long versao = pessoaService.versaoCadastro();
+        if (versao == versaoGravada) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        SnapshotPessoas.Resumo resumo = pessoaService.gravarSnapshot(snapshot);
+        versaoGravada = versao;
+        log.info("Snapshot com {} pessoas gravado em {} ms", resumo.quantidade(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void aoEncerrar() {
+        gravar();
+    }
+}
@@ -0,0 +1,31 @@
+package com.sccon.geospatial.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Confere periodicamente, pelo relógio do serviço, se o dia virou e recalcula idades e
+ * salários antes que a primeira consulta do dia precise fazê-lo. Sem virada, a conferência
+ * é uma comparação de instantes.
+ */
+@Component
+public class AgendadorViradaDia {
+
+    private static final Logger log = LoggerFactory.getLogger(AgendadorViradaDia.class);
+
+    private final PessoaService pessoaService;
+
+    public AgendadorViradaDia(PessoaService pessoaService) {
+        this.pessoaService = pessoaService;
+    }
+
+    @Scheduled(fixedDelayString = "${pessoa.calculos.verificacao-ms:60000}")
+    public void verificar() {
+        long inicio = System.nanoTime();
+        if (pessoaService.virarDia()) {
+            log.info("Idades e salários recalculados para o novo dia em {} ms", (System.nanoTime() - inicio) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.sccon.geospatial.service;
+
+/**
+ * Fonte de ids para pessoas criadas sem id informado. Implementações devem ser
+ * seguras para uso concorrente sem serializar as escritas.
+ */
+public interface AlocadorId {
+
+    long proximo();
+
+    /**
+     * Informa um id escolhido pelo cliente, para que ids automáticos futuros não colidam com ele.
+     */
+    void observar(long id);
+}
@@ -0,0 +1,59 @@
+package com.sccon.geospatial.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ids sequenciais sem lock: cada thread reserva um bloco da marca d'água global com um
+ * único getAndAdd e depois distribui os ids do bloco localmente. Um id informado pelo
+ * cliente acima do piso o empurra para frente e as threads descartam a parte de seus
+ * blocos abaixo dele, então ids automáticos emitidos depois dele são sempre maiores.
+ * Threads virtuais costumam viver uma alteração só e deixariam o resto do bloco sem uso:
+ * elas tiram um id por vez direto da marca.
+ */
+public class AlocadorIdSequencial implements AlocadorId {
+
+    private final int tamanhoBloco;
+    // Próximo id ainda não reservado por nenhuma thread
+    private final AtomicLong marca;
+    // Menor id automático aceitável: maior id informado por cliente + 1
+    private final AtomicLong piso;
+    private final ThreadLocal<long[]> blocos = ThreadLocal.withInitial(() -> new long[2]);
+
+    public AlocadorIdSequencial(long primeiroId, int tamanhoBloco) {
+        if (tamanhoBloco < 1) {
+            throw new IllegalArgumentException("Tamanho do bloco deve ser positivo");
+        }
+        this.tamanhoBloco = tamanhoBloco;
+        this.marca = new AtomicLong(primeiroId);
+        this.piso = new AtomicLong(primeiroId);
+    }
+
+    @Override
+    public long proximo() {
+        if (Thread.currentThread().isVirtual()) {
+            // A marca nunca fica abaixo do piso: observar empurra as duas
+            return marca.getAndIncrement();
+        }
+        // bloco[0] = próximo id do bloco, bloco[1] = fim exclusivo
+        long[] bloco = blocos.get();
+        long minimo = piso.get();
+        if (bloco[0] < minimo) {
+            // Pula os ids do bloco que ficaram abaixo de um id informado por cliente
+            bloco[0] = minimo;
+        }
+        if (bloco[0] >= bloco[1]) {
+            long inicio = marca.getAndAdd(tamanhoBloco);
+            bloco[0] = inicio;
+            bloco[1] = inicio + tamanhoBloco;
+        }
+        return bloco[0]++;
+    }
+
+    @Override
+    public void observar(long id) {
+        if (id >= piso.get()) {
+            piso.accumulateAndGet(id + 1, Math::max);
+            marca.accumulateAndGet(id + 1, Math::max);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.sccon.geospatial.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ids ordenados no tempo e marcados com o nó de origem, no formato
+ * [41 bits de milissegundos desde 2024-01-01][10 bits de nó][12 bits de sequência].
+ * Instâncias com nós distintos geram ids únicos sem coordenação. O estado
+ * (milissegundo + sequência) avança por CAS; se a sequência esgota ou o relógio volta,
+ * o alocador segue no milissegundo seguinte ao último usado em vez de esperar.
+ */
+public class AlocadorIdTemporal implements AlocadorId {
+
+    public static final int NO_MAXIMO = 1023;
+
+    private static final long EPOCA = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int BITS_SEQUENCIA = 12;
+    private static final int BITS_NO = 10;
+    private static final long MASCARA_SEQUENCIA = (1L << BITS_SEQUENCIA) - 1;
+
+    private final Clock clock;
+    private final long no;
+    private final AtomicLong estado = new AtomicLong();
+
+    public AlocadorIdTemporal(int no, Clock clock) {
+        if (no < 0 || no > NO_MAXIMO) {
+            throw new IllegalArgumentException("Nó deve estar entre 0 e " + NO_MAXIMO);
+        }
+        this.no = no;
+        this.clock = clock;
+    }
+
+    @Override
+    public long proximo() {
+        while (true) {
+            long atual = estado.get();
+            long agora = clock.millis() - EPOCA;
+            long novo;
+            if (agora > (atual >>> BITS_SEQUENCIA)) {
+                novo = agora << BITS_SEQUENCIA;
+            } else if ((atual & MASCARA_SEQUENCIA) < MASCARA_SEQUENCIA) {
+                novo = atual + 1;
+            } else {
+                novo = ((atual >>> BITS_SEQUENCIA) + 1) << BITS_SEQUENCIA;
+            }
+            if (estado.compareAndSet(atual, novo)) {
+                return (novo >>> BITS_SEQUENCIA) << (BITS_NO + BITS_SEQUENCIA)
+                        | no << BITS_SEQUENCIA
+                        | (novo & MASCARA_SEQUENCIA);
+            }
+        }
+    }
+
+    @Override
+    public void observar(long id) {
+        // Ids informados por clientes não afetam o relógio; colisões são detectadas na inserção
+    }
+
+    public static int no(long id) {
+        return (int) ((id >>> BITS_SEQUENCIA) & NO_MAXIMO);
+    }
+}
@@ -0,0 +1,189 @@
+package com.sccon.geospatial.service;
+
+import com.sccon.geospatial.enums.TipoAlteracao;
+import com.sccon.geospatial.model.EventoAlteracao;
+import com.sccon.geospatial.model.Pessoa;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Alterações recentes do cadastro num buffer circular de capacidade fixa, para o feed de
+ * eventos. A sequência é reservada na seção crítica do id alterado, então as alterações de um
+ * mesmo id têm sequências crescentes; o evento só é publicado depois da confirmação, e cada
+ * leitor espera as sequências na ordem. Uma sequência reservada cuja alteração falhou é
+ * descartada, e os leitores passam por ela sem entregá-la.
+ * <p>
+ * Quem publica nunca espera quem lê: um leitor que fica mais de {@link #capacidade()} eventos
+ * para trás encontra a sua posição sobrescrita e precisa recomeçar do cadastro.
+ */
+public class FeedAlteracoes {
+
+    private static final int CAPACIDADE_MAXIMA = 1 << 30;
+
+    private final AtomicReferenceArray<EventoAlteracao> eventos;
+    private final int mascara;
+    private final AtomicLong proxima = new AtomicLong(1);
+    // Quem publica só toma a trava quando há leitor esperando
+    private final AtomicInteger aguardando = new AtomicInteger();
+    private final ReentrantLock trava = new ReentrantLock();
+    private final Condition publicado = trava.newCondition();
+
+    /**
+     * @param capacidade arredondada para a potência de dois seguinte
+     */
+    public FeedAlteracoes(int capacidade) {
+        if (capacidade < 1 || capacidade > CAPACIDADE_MAXIMA) {
+            throw new IllegalArgumentException("Capacidade do feed deve estar entre 1 e " + CAPACIDADE_MAXIMA);
+        }
+        int tamanho = Integer.highestOneBit(capacidade);
+        if (tamanho < capacidade) {
+            tamanho <<= 1;
+        }
+        this.eventos = new AtomicReferenceArray<>(tamanho);
+        this.mascara = tamanho - 1;
+    }
+
+    public int capacidade() {
+        return eventos.length();
+    }
+
+    /**
+     * Sequência da última alteração; zero antes da primeira. O evento dela pode ainda não
+     * ter sido publicado.
+     */
+    public long ultimaSequencia() {
+        return proxima.get() - 1;
+    }
+
+    /**
+     * Leitor que começa depois de {@code ultimaLida}; sem ela, recebe só as alterações feitas
+     * daqui em diante.
+     */
+    public Leitor leitor(Long ultimaLida) {
+        return new Leitor(ultimaLida != null ? ultimaLida + 1 : proxima.get());
+    }
+
+    /**
+     * Chamado dentro da seção crítica do id alterado.
+     */
+    EventoAlteracao reservar(Pessoa antiga, Pessoa nova) {
+        TipoAlteracao tipo = antiga == null ? TipoAlteracao.CREATED : nova == null ? TipoAlteracao.DELETED : TipoAlteracao.UPDATED;
+        long id = nova != null ? nova.getId() : antiga.getId();
+        return new EventoAlteracao(proxima.getAndIncrement(), tipo, id, nova);
+    }
+
+    void publicar(EventoAlteracao evento) {
+        // A posição só é trocada por um evento mais novo: quem publica atrasado não apaga um
+        // evento que já deu a volta no buffer (o leitor dessa sequência vê a perda)
+        eventos.accumulateAndGet(posicao(evento.sequencia()), evento,
+                (atual, novo) -> atual == null || atual.sequencia() < novo.sequencia() ? novo : atual);
+        if (aguardando.get() > 0) {
+            trava.lock();
+            try {
+                publicado.signalAll();
+            } finally {
+                trava.unlock();
+            }
+        }
+    }
+
+    /**
+     * Publica no lugar do evento um marcador sem tipo, para que os leitores não fiquem
+     * parados numa sequência cuja alteração não aconteceu.
+     */
+    void descartar(EventoAlteracao evento) {
+        publicar(new EventoAlteracao(evento.sequencia(), null, evento.id(), null));
+    }
+
+    private int posicao(long sequencia) {
+        return (int) sequencia & mascara;
+    }
+
+    /**
+     * Evento na posição da sequência; nulo se ainda não foi publicado. Um evento com sequência
+     * maior significa que a posição já foi sobrescrita.
+     */
+    private EventoAlteracao ler(long sequencia) {
+        EventoAlteracao evento = eventos.get(posicao(sequencia));
+        return evento == null || evento.sequencia() < sequencia ? null : evento;
+    }
+
+    /**
+     * O contador de espera é incrementado antes da releitura, e quem publica grava o evento
+     * antes de ler o contador: ou a releitura vê o evento, ou quem publica vê o leitor.
+     */
+    private EventoAlteracao aguardar(long sequencia, long restante) throws InterruptedException {
+        trava.lockInterruptibly();
+        aguardando.incrementAndGet();
+        try {
+            EventoAlteracao evento;
+            while ((evento = ler(sequencia)) == null && restante > 0) {
+                restante = publicado.awaitNanos(restante);
+            }
+            return evento;
+        } finally {
+            aguardando.decrementAndGet();
+            trava.unlock();
+        }
+    }
+
+    /**
+     * Posição de um consumidor no feed. Não é thread-safe: cada conexão tem o seu.
+     */
+    public final class Leitor {
+
+        private long sequencia;
+        private boolean perdeuEventos;
+
+        private Leitor(long sequencia) {
+            this.sequencia = sequencia;
+        }
+
+        /**
+         * Próximo evento na ordem das sequências, esperando por ele até {@code timeoutMillis};
+         * nulo se não chegou a tempo ou se o leitor perdeu eventos ({@link #perdeuEventos()}).
+         * Sequências descartadas são puladas dentro do mesmo prazo.
+         */
+        public EventoAlteracao proximo(long timeoutMillis) throws InterruptedException {
+            long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (true) {
+                if (perdeuEventos) {
+                    return null;
+                }
+                // Sequência que este servidor ainda não reservou: veio de uma execução anterior
+                if (sequencia > proxima.get()) {
+                    perdeuEventos = true;
+                    return null;
+                }
+                EventoAlteracao evento = ler(sequencia);
+                if (evento == null && timeoutMillis > 0) {
+                    evento = aguardar(sequencia, limite - System.nanoTime());
+                }
+                if (evento == null) {
+                    return null;
+                }
+                if (evento.sequencia() != sequencia) {
+                    perdeuEventos = true;
+                    return null;
+                }
+                sequencia++;
+                if (evento.tipo() != null) {
+                    return evento;
+                }
+            }
+        }
+
+        /**
+         * Verdadeiro quando a próxima sequência foi sobrescrita antes de ser lida, ou não
+         * pertence a esta execução do servidor; o leitor não avança mais.
+         */
+        public boolean perdeuEventos() {
+            return perdeuEventos;
+        }
+    }
+}
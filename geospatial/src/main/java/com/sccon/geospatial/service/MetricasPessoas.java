@@ -0,0 +1,96 @@
+package com.sccon.geospatial.service;
+
+import com.sccon.geospatial.enums.FormatoIdade;
+import com.sccon.geospatial.enums.FormatoSalario;
+import com.sccon.geospatial.storage.ArmazenamentoPessoas;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Medidores do serviço, criados uma vez: o caminho quente só chama {@code record} e
+ * {@code increment} em instâncias prontas, sem montar tags nem consultar o registro.
+ * Os timers publicam histograma de buckets (percentis calculados no Prometheus), que
+ * custa um incremento por amostra, em vez de percentis calculados no processo.
+ */
+class MetricasPessoas {
+
+    final Timer listar;
+    final Timer listarPagina;
+    final Timer buscarPorNome;
+    final Timer estatisticas;
+    final Timer buscarPorId;
+    final Timer criar;
+    final Timer criarLote;
+    final Timer atualizar;
+    final Timer atualizarParcialmente;
+    final Timer remover;
+    final Timer calcularIdade;
+    final Timer calcularSalario;
+    final Timer calcularEmLote;
+
+    private final Map<FormatoIdade, Counter> porFormatoIdade = new EnumMap<>(FormatoIdade.class);
+    private final Map<FormatoSalario, Counter> porFormatoSalario = new EnumMap<>(FormatoSalario.class);
+
+    MetricasPessoas(MeterRegistry registro, ArmazenamentoPessoas armazenamento) {
+        listar = timer(registro, "listar");
+        listarPagina = timer(registro, "listarPagina");
+        buscarPorNome = timer(registro, "buscarPorNome");
+        estatisticas = timer(registro, "estatisticas");
+        buscarPorId = timer(registro, "buscarPorId");
+        criar = timer(registro, "criar");
+        criarLote = timer(registro, "criarLote");
+        atualizar = timer(registro, "atualizar");
+        atualizarParcialmente = timer(registro, "atualizarParcialmente");
+        remover = timer(registro, "remover");
+        calcularIdade = timer(registro, "calcularIdade");
+        calcularSalario = timer(registro, "calcularSalario");
+        calcularEmLote = timer(registro, "calcularEmLote");
+
+        for (FormatoIdade formato : FormatoIdade.values()) {
+            porFormatoIdade.put(formato, Counter.builder("pessoa.calculos")
+                    .description("Cálculos de idade e salário por formato")
+                    .tag("tipo", "idade")
+                    .tag("formato", formato.name().toLowerCase())
+                    .register(registro));
+        }
+        for (FormatoSalario formato : FormatoSalario.values()) {
+            porFormatoSalario.put(formato, Counter.builder("pessoa.calculos")
+                    .description("Cálculos de idade e salário por formato")
+                    .tag("tipo", "salario")
+                    .tag("formato", formato.name().toLowerCase())
+                    .register(registro));
+        }
+
+        Gauge.builder("pessoa.cadastro.tamanho", armazenamento, ArmazenamentoPessoas::tamanho)
+                .description("Pessoas no cadastro")
+                .register(registro);
+        Gauge.builder("pessoa.cadastro.memoria", armazenamento, ArmazenamentoPessoas::bytesEstimados)
+                .description("Estimativa do espaço ocupado pelos registros")
+                .baseUnit("bytes")
+                .register(registro);
+    }
+
+    private static Timer timer(MeterRegistry registro, String operacao) {
+        return Timer.builder("pessoa.operacao")
+                .description("Duração das operações do serviço de pessoas")
+                .tag("operacao", operacao)
+                .publishPercentileHistogram()
+                .register(registro);
+    }
+
+    /**
+     * Soma {@code quantidade} cálculos ao contador do formato, já resolvido pelo chamador.
+     */
+    void contarIdade(FormatoIdade formato, long quantidade) {
+        porFormatoIdade.get(formato).increment(quantidade);
+    }
+
+    void contarSalario(FormatoSalario formato, long quantidade) {
+        porFormatoSalario.get(formato).increment(quantidade);
+    }
+}
@@ -0,0 +1,995 @@
+package com.sccon.geospatial.service;
+
+import com.sccon.geospatial.enums.FormatoIdade;
+import com.sccon.geospatial.enums.FormatoSalario;
+import com.sccon.geospatial.exception.InvalidParameterException;
+import com.sccon.geospatial.exception.PessoaConflictException;
+import com.sccon.geospatial.exception.PessoaNotFoundException;
+import com.sccon.geospatial.exception.PessoaPreconditionFailedException;
+import com.sccon.geospatial.helpers.IdadeHelper;
+import com.sccon.geospatial.helpers.SalarioHelper;
+import com.sccon.geospatial.index.ChaveData;
+import com.sccon.geospatial.index.ChaveNome;
+import com.sccon.geospatial.index.IndiceBusca;
+import com.sccon.geospatial.index.IndiceCalculos;
+import com.sccon.geospatial.index.IndiceData;
+import com.sccon.geospatial.index.IndiceEstatisticas;
+import com.sccon.geospatial.index.IndiceNome;
+import com.sccon.geospatial.index.IndicePessoas;
+import com.sccon.geospatial.model.CalculoPessoa;
+import com.sccon.geospatial.model.EstatisticasPessoas;
+import com.sccon.geospatial.model.EventoAlteracao;
+import com.sccon.geospatial.model.FiltroPessoas;
+import com.sccon.geospatial.model.PaginaPessoas;
+import com.sccon.geospatial.model.Pessoa;
+import com.sccon.geospatial.model.ResultadoLote;
+import com.sccon.geospatial.storage.ArmazenamentoMemoria;
+import com.sccon.geospatial.storage.ArmazenamentoPessoas;
+import com.sccon.geospatial.storage.LogEscrita;
+import com.sccon.geospatial.storage.SnapshotPessoas;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+@Service
+public class PessoaService {
+    
+    public static final int LIMITE_PAGINA_MAXIMO = 1000;
+    private static final int TAMANHO_BLOCO_ID_PADRAO = 64;
+    private static final int CAPACIDADE_FEED_PADRAO = 65536;
+    
+    private final ArmazenamentoPessoas armazenamento;
+    // Nulo quando as alterações não são registradas em disco
+    private final LogEscrita logEscrita;
+    private final IdadeHelper idadeHelper;
+    private final SalarioHelper salarioHelper;
+    private final AlocadorId alocadorId;
+    private final MetricasPessoas metricas;
+    private final FeedAlteracoes alteracoes;
+    private static final ArmazenamentoPessoas.AoPublicar SEM_INDICE = (antiga, nova) -> { };
+    private static final InvalidParameterException PESSOA_NULA = new InvalidParameterException("Pessoa não pode ser nula");
+    
+    private final IndiceNome indiceNome = new IndiceNome(Locale.forLanguageTag("pt-BR"));
+    private final IndiceData indiceNascimento = new IndiceData(Pessoa::getDataNascimento);
+    private final IndiceData indiceAdmissao = new IndiceData(Pessoa::getDataAdmissao);
+    private final IndiceBusca indiceBusca = new IndiceBusca();
+    private final IndiceEstatisticas indiceEstatisticas;
+    private final IndiceCalculos indiceCalculos;
+    private final List<IndicePessoas> indices;
+    // Fonte das versões dos registros: cada publicação recebe um número maior que o anterior
+    private final AtomicLong versoes = new AtomicLong();
+    // Incrementado só depois que a alteração fica visível: quem o lê antes de consultar
+    // o cadastro nunca associa um valor novo a dados antigos
+    private final AtomicLong versaoCadastro = new AtomicLong();
+    
+    public PessoaService() {
+        this(Clock.systemDefaultZone());
+    }
+    
+    public PessoaService(Clock clock) {
+        this(clock, new AlocadorIdSequencial(1L, TAMANHO_BLOCO_ID_PADRAO));
+    }
+    
+    public PessoaService(Clock clock, AlocadorId alocadorId) {
+        this(clock, alocadorId, new ArmazenamentoMemoria());
+    }
+    
+    public PessoaService(Clock clock, AlocadorId alocadorId, ArmazenamentoPessoas armazenamento) {
+        this(clock, alocadorId, armazenamento, null, null);
+    }
+    
+    public PessoaService(Clock clock, AlocadorId alocadorId, ArmazenamentoPessoas armazenamento,
+                         @Nullable SnapshotPessoas snapshot, @Nullable LogEscrita logEscrita) {
+        this(clock, alocadorId, armazenamento, snapshot, logEscrita, null);
+    }
+    
+    public PessoaService(Clock clock, AlocadorId alocadorId, ArmazenamentoPessoas armazenamento,
+                         @Nullable SnapshotPessoas snapshot, @Nullable LogEscrita logEscrita,
+                         @Nullable MeterRegistry registroMetricas) {
+        this(clock, alocadorId, armazenamento, snapshot, logEscrita, registroMetricas, new FeedAlteracoes(CAPACIDADE_FEED_PADRAO));
+    }
+    
+    /**
+     * O cadastro é restaurado do snapshot e depois do log de escrita, quando existem;
+     * os dados iniciais só são criados quando nenhum dos dois tem conteúdo. Sem registro
+     * de métricas, os medidores existem mas não são exportados. A restauração não gera
+     * eventos no feed de alterações.
+     */
+    @Autowired
+    public PessoaService(Clock clock, AlocadorId alocadorId, ArmazenamentoPessoas armazenamento,
+                         @Nullable SnapshotPessoas snapshot, @Nullable LogEscrita logEscrita,
+                         @Nullable MeterRegistry registroMetricas, FeedAlteracoes alteracoes) {
+        this.armazenamento = armazenamento;
+        this.logEscrita = logEscrita;
+        this.alteracoes = alteracoes;
+        this.idadeHelper = new IdadeHelper(clock);
+        this.salarioHelper = new SalarioHelper(clock);
+        this.alocadorId = alocadorId;
+        this.metricas = new MetricasPessoas(registroMetricas != null ? registroMetricas : new CompositeMeterRegistry(), armazenamento);
+        this.indiceEstatisticas = new IndiceEstatisticas(idadeHelper::hoje,
+                anos -> salarioHelper.formatar(salarioHelper.calcularSalarioAtual(anos), FormatoSalario.FULL));
+        this.indiceCalculos = new IndiceCalculos(clock, idadeHelper, salarioHelper,
+                tarefa -> Thread.ofVirtual().name("calculos-dia").start(tarefa));
+        this.indices = List.of(indiceNome, indiceNascimento, indiceAdmissao, indiceBusca, indiceEstatisticas, indiceCalculos);
+        boolean restaurado = snapshot != null && restaurar(snapshot);
+        if (logEscrita != null) {
+            restaurado |= reproduzir(logEscrita) > 0;
+        }
+        if (!restaurado) {
+            inicializarDados();
+        }
+    }
+    
+    /**
+     * Restaura o armazenamento em paralelo e monta o índice de nomes de uma vez a partir
+     * das chaves gravadas no snapshot, que já vêm em ordem de nome. Os índices de datas, de
+     * busca, de estatísticas e de cálculos são montados numa passada cada pelo armazenamento já restaurado.
+     */
+    private boolean restaurar(SnapshotPessoas snapshot) {
+        Map<Integer, BlocoRestaurado> blocos = new ConcurrentHashMap<>();
+        SnapshotPessoas.Resumo resumo = snapshot.restaurar(indiceNome.assinatura(), (bloco, registros) -> {
+            ChaveNome[] chaves = new ChaveNome[registros.size()];
+            long[] versoesLidas = new long[registros.size()];
+            for (int i = 0; i < registros.size(); i++) {
+                Pessoa pessoa = registros.get(i).pessoa();
+                byte[] chave = registros.get(i).chave();
+                chaves[i] = chave != null ? new ChaveNome(chave, pessoa.getId()) : indiceNome.chave(pessoa.getNome(), pessoa.getId());
+                versoesLidas[i] = pessoa.getVersao();
+                restaurarRegistro(pessoa, SEM_INDICE);
+            }
+            blocos.put(bloco, new BlocoRestaurado(chaves, versoesLidas));
+        });
+        if (resumo == null) {
+            return false;
+        }
+        
+        List<ChaveNome> chaves = new ArrayList<>(Math.toIntExact(resumo.quantidade()));
+        long[] versoesChaves = new long[Math.toIntExact(resumo.quantidade())];
+        boolean ordenadas = true;
+        for (int bloco = 0; bloco < blocos.size(); bloco++) {
+            BlocoRestaurado restaurado = blocos.get(bloco);
+            for (int i = 0; i < restaurado.chaves().length; i++) {
+                ChaveNome chave = restaurado.chaves()[i];
+                ordenadas &= chaves.isEmpty() || chaves.get(chaves.size() - 1).compareTo(chave) < 0;
+                versoesChaves[chaves.size()] = restaurado.versoes()[i];
+                chaves.add(chave);
+            }
+        }
+        if (!ordenadas || chaves.size() != armazenamento.tamanho()) {
+            // Renomeações durante a gravação ou outra collation: fica só a chave da versão
+            // vigente de cada id, reordenada
+            List<ChaveNome> vigentes = new ArrayList<>(chaves.size());
+            for (int i = 0; i < chaves.size(); i++) {
+                Pessoa pessoa = armazenamento.buscar(chaves.get(i).getId());
+                if (pessoa != null && pessoa.getVersao() == versoesChaves[i]) {
+                    vigentes.add(chaves.get(i));
+                }
+            }
+            chaves = vigentes.stream().sorted().distinct().toList();
+        }
+        indiceNome.carregarOrdenadas(chaves);
+        indiceNascimento.carregar(armazenamento.todas());
+        indiceAdmissao.carregar(armazenamento.todas());
+        indiceBusca.carregar(armazenamento.todas());
+        indiceEstatisticas.carregar(armazenamento.todas());
+        indiceCalculos.carregar(armazenamento.todas());
+        
+        // Id e versão máximos vêm do cabeçalho para não disputar o alocador e o contador
+        // de versões a cada registro
+        alocadorId.observar(resumo.maiorId());
+        versoes.accumulateAndGet(resumo.maiorVersao(), Math::max);
+        return true;
+    }
+    
+    private record BlocoRestaurado(ChaveNome[] chaves, long[] versoes) {
+    }
+    
+    /**
+     * Um id pode aparecer mais de uma vez no snapshot se mudou durante a gravação, e o log
+     * pode repetir versões que o snapshot já tem; prevalece a maior versão.
+     */
+    private void restaurarRegistro(Pessoa pessoa, ArmazenamentoPessoas.AoPublicar aoPublicar) {
+        while (!armazenamento.inserir(pessoa, aoPublicar)) {
+            Pessoa presente = armazenamento.buscar(pessoa.getId());
+            if (presente != null && (presente.getVersao() >= pessoa.getVersao()
+                    || armazenamento.substituir(presente, pessoa, aoPublicar))) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Reaplica, em ordem, as alterações registradas depois do snapshot. Os índices acompanham
+     * cada passo, mas nada é registrado de novo no log.
+     */
+    private long reproduzir(LogEscrita log) {
+        return log.reproduzir((removida, gravada) -> {
+            if (gravada != null) {
+                restaurarRegistro(gravada, this::atualizarIndices);
+                alocadorId.observar(gravada.getId());
+                versoes.accumulateAndGet(gravada.getVersao(), Math::max);
+                return;
+            }
+            Pessoa presente = armazenamento.buscar(removida.getId());
+            // Uma versão maior vinda do snapshot é uma recriação posterior à remoção
+            if (presente != null && presente.getVersao() <= removida.getVersao()) {
+                armazenamento.remover(removida.getId(), this::atualizarIndices);
+            }
+        });
+    }
+    
+    /**
+     * Grava o cadastro em ordem de nome, cada pessoa com a sua chave de ordenação, sem
+     * bloquear leituras nem escritas. Com log de escrita, os segmentos cobertos pelo snapshot
+     * são descartados depois que ele está em disco.
+     */
+    public SnapshotPessoas.Resumo gravarSnapshot(SnapshotPessoas snapshot) {
+        int primeiroSegmentoMantido = logEscrita != null ? logEscrita.rotacionar() : 0;
+        SnapshotPessoas.Resumo resumo = snapshot.gravar(indiceNome.assinatura(), registrosSnapshot());
+        if (logEscrita != null) {
+            logEscrita.descartarAnteriores(primeiroSegmentoMantido);
+        }
+        return resumo;
+    }
+    
+    /**
+     * Os registros vêm do armazenamento, que entrega uma vez cada id presente durante toda a
+     * leitura; o índice de nomes perderia ou repetiria quem fosse renomeado no meio dela. Um
+     * id removido e recriado nesse intervalo pode vir duas vezes, e fica a maior versão. O
+     * conjunto é ordenado pelas chaves, calculadas do nome de cada versão lida, antes de ir
+     * para o disco.
+     */
+    private List<SnapshotPessoas.Registro> registrosSnapshot() {
+        Map<Long, Pessoa> porId = new HashMap<>();
+        for (Pessoa pessoa : armazenamento.todas()) {
+            porId.merge(pessoa.getId(), pessoa, (uma, outra) -> uma.getVersao() >= outra.getVersao() ? uma : outra);
+        }
+        List<ChaveNome> chaves = new ArrayList<>(porId.size());
+        for (Pessoa pessoa : porId.values()) {
+            chaves.add(indiceNome.chave(pessoa.getNome(), pessoa.getId()));
+        }
+        chaves.sort(null);
+        List<SnapshotPessoas.Registro> registros = new ArrayList<>(chaves.size());
+        for (ChaveNome chave : chaves) {
+            registros.add(new SnapshotPessoas.Registro(porId.get(chave.getId()), chave.getChave()));
+        }
+        return registros;
+    }
+    
+    private void inicializarDados() {
+        Pessoa pessoa1 = new Pessoa(1L, "José da Silva", LocalDate.of(2000, 4, 6), LocalDate.of(2020, 5, 10));
+        Pessoa pessoa2 = new Pessoa(2L, "Maria Santos", LocalDate.of(1995, 8, 15), LocalDate.of(2019, 3, 20));
+        Pessoa pessoa3 = new Pessoa(3L, "João Oliveira", LocalDate.of(1988, 12, 3), LocalDate.of(2021, 1, 15));
+        
+        for (Pessoa pessoa : List.of(pessoa1, pessoa2, pessoa3)) {
+            inserir(pessoa);
+            alocadorId.observar(pessoa.getId());
+        }
+    }
+    
+    public List<Pessoa> listarPessoas() {
+        long inicio = System.nanoTime();
+        try {
+            return listarTodas();
+        } finally {
+            medir(metricas.listar, inicio);
+        }
+    }
+    
+    private List<Pessoa> listarTodas() {
+        List<Pessoa> lista = new ArrayList<>(indiceNome.tamanho());
+        for (ChaveNome chave : indiceNome.chaves()) {
+            adicionarSePresente(lista, chave);
+        }
+        return lista;
+    }
+    
+    private void adicionarSePresente(List<Pessoa> lista, ChaveNome chave) {
+        // A chave pode ter sido removida entre a leitura do índice e a do armazenamento
+        Pessoa pessoa = armazenamento.buscar(chave.getId());
+        if (pessoa != null) {
+            lista.add(pessoa);
+        }
+    }
+    
+    public PaginaPessoas listarPessoas(String cursor, int limite) {
+        return listarPessoas(FiltroPessoas.NENHUM, cursor, limite);
+    }
+    
+    /**
+     * Página da listagem na ordem pedida, percorrendo o índice do campo ordenado a partir do
+     * cursor. Um intervalo na data ordenada vira o trecho percorrido do índice, em
+     * O(log n + limite); o intervalo da outra data, se houver, é verificado em cada pessoa.
+     */
+    public PaginaPessoas listarPessoas(FiltroPessoas filtro, String cursor, int limite) {
+        if (limite < 1 || limite > LIMITE_PAGINA_MAXIMO) {
+            throw new InvalidParameterException("Limite deve estar entre 1 e " + LIMITE_PAGINA_MAXIMO);
+        }
+        
+        long inicio = System.nanoTime();
+        try {
+            return switch (filtro.ordenacaoEfetiva()) {
+                case NOME -> paginaPorNome(cursor(cursor, ChaveNome::fromCursor), limite);
+                case DATA_NASCIMENTO -> paginaPorData(indiceNascimento, filtro.dataNascimentoDe(), filtro.dataNascimentoAte(),
+                        filtro, cursor(cursor, ChaveData::fromCursor), limite);
+                case DATA_ADMISSAO -> paginaPorData(indiceAdmissao, filtro.dataAdmissaoDe(), filtro.dataAdmissaoAte(),
+                        filtro, cursor(cursor, ChaveData::fromCursor), limite);
+            };
+        } finally {
+            medir(metricas.listarPagina, inicio);
+        }
+    }
+    
+    private static <T> T cursor(String cursor, Function<String, T> decodificar) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return decodificar.apply(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidParameterException("Cursor '" + cursor + "' não é válido");
+        }
+    }
+    
+    private PaginaPessoas paginaPorNome(ChaveNome depoisDe, int limite) {
+        // Busca um item a mais só para saber se existe próxima página
+        List<ChaveNome> chaves = indiceNome.pagina(depoisDe, limite + 1);
+        String proximoCursor = null;
+        if (chaves.size() > limite) {
+            chaves = chaves.subList(0, limite);
+            proximoCursor = chaves.get(limite - 1).toCursor();
+        }
+        
+        List<Pessoa> pagina = new ArrayList<>(chaves.size());
+        for (ChaveNome chave : chaves) {
+            adicionarSePresente(pagina, chave);
+        }
+        return new PaginaPessoas(pagina, proximoCursor);
+    }
+    
+    private PaginaPessoas paginaPorData(IndiceData indice, LocalDate de, LocalDate ate, FiltroPessoas filtro,
+                                        ChaveData depoisDe, int limite) {
+        // Pessoas sem a data ficam no fim da ordenação, mas nunca dentro de um intervalo
+        long inicio = de != null ? IndiceData.dia(de) : Long.MIN_VALUE;
+        long fim = ate != null ? IndiceData.dia(ate) : de != null ? IndiceData.SEM_DATA - 1 : IndiceData.SEM_DATA;
+        
+        List<Pessoa> pagina = new ArrayList<>(Math.min(limite, 64));
+        ChaveData ultima = null;
+        String proximoCursor = null;
+        Iterator<ChaveData> chaves = indice.intervalo(inicio, fim, depoisDe).iterator();
+        while (chaves.hasNext()) {
+            ChaveData chave = chaves.next();
+            Pessoa pessoa = armazenamento.buscar(chave.id());
+            if (pessoa == null || !filtro.aceita(pessoa)) {
+                continue;
+            }
+            if (pagina.size() == limite) {
+                proximoCursor = ultima.toCursor();
+                break;
+            }
+            pagina.add(pessoa);
+            ultima = chave;
+        }
+        return new PaginaPessoas(pagina, proximoCursor);
+    }
+    
+    /**
+     * Busca por partes do nome sem distinção de acentos e com tolerância a erros de digitação,
+     * das pessoas que melhor casam com a consulta para as que casam pior.
+     */
+    public List<Pessoa> buscarPorNome(String consulta, int limite) {
+        if (consulta == null || consulta.isBlank()) {
+            throw new InvalidParameterException("Consulta não pode ser vazia");
+        }
+        if (limite < 1 || limite > LIMITE_PAGINA_MAXIMO) {
+            throw new InvalidParameterException("Limite deve estar entre 1 e " + LIMITE_PAGINA_MAXIMO);
+        }
+        long inicio = System.nanoTime();
+        try {
+            return indiceBusca.buscar(consulta, limite, armazenamento::buscar);
+        } finally {
+            medir(metricas.buscarPorNome, inicio);
+        }
+    }
+    
+    /**
+     * Agregados do cadastro mantidos a cada alteração; o custo da leitura não depende
+     * da quantidade de pessoas.
+     */
+    public EstatisticasPessoas estatisticas() {
+        long inicio = System.nanoTime();
+        try {
+            return indiceEstatisticas.resumo();
+        } finally {
+            medir(metricas.estatisticas, inicio);
+        }
+    }
+    
+    /**
+     * Visão fracamente consistente de todas as pessoas, sem ordenação nem cópia,
+     * para quem precisa percorrer o cadastro inteiro em memória constante.
+     */
+    public Iterable<Pessoa> exportarPessoas() {
+        return armazenamento.todas();
+    }
+    
+    /**
+     * As pessoas em ordem de nome, lidas do índice à medida que o iterador avança: visão
+     * fracamente consistente, como a de {@link #exportarPessoas()}, para respostas em streaming.
+     */
+    public Iterable<Pessoa> percorrerPorNome() {
+        return () -> new Iterator<>() {
+            private final Iterator<ChaveNome> chaves = indiceNome.chaves().iterator();
+            private Pessoa proxima = avancar();
+
+            private Pessoa avancar() {
+                while (chaves.hasNext()) {
+                    // A chave pode ter sido removida entre a leitura do índice e a do armazenamento
+                    Pessoa pessoa = armazenamento.buscar(chaves.next().getId());
+                    if (pessoa != null) {
+                        return pessoa;
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public boolean hasNext() {
+                return proxima != null;
+            }
+
+            @Override
+            public Pessoa next() {
+                if (proxima == null) {
+                    throw new NoSuchElementException();
+                }
+                Pessoa atual = proxima;
+                proxima = avancar();
+                return atual;
+            }
+        };
+    }
+    
+    /**
+     * Versão do cadastro como um todo; muda a cada criação, atualização ou remoção.
+     */
+    public long versaoCadastro() {
+        return versaoCadastro.get();
+    }
+    
+    /**
+     * Feed das criações, atualizações e remoções, na ordem em que foram publicadas.
+     */
+    public FeedAlteracoes alteracoes() {
+        return alteracoes;
+    }
+    
+    public Pessoa buscarPorId(Long id) {
+        long inicio = System.nanoTime();
+        try {
+            return buscar(id);
+        } finally {
+            medir(metricas.buscarPorId, inicio);
+        }
+    }
+    
+    private Pessoa buscar(Long id) {
+        Pessoa pessoa = armazenamento.buscar(id);
+        if (pessoa == null) {
+            throw new PessoaNotFoundException("Pessoa com ID " + id + " não encontrada");
+        }
+        return pessoa;
+    }
+    
+    public Pessoa criarPessoa(Pessoa pessoa) {
+        if (pessoa == null) {
+            throw PESSOA_NULA;
+        }
+        
+        long inicio = System.nanoTime();
+        try {
+            if (pessoa.getId() == null) {
+                return inserirComIdAutomatico(pessoa);
+            }
+            
+            alocadorId.observar(pessoa.getId());
+            Pessoa criada = inserir(pessoa);
+            if (criada == null) {
+                throw new PessoaConflictException("Pessoa com ID " + pessoa.getId() + " já existe");
+            }
+            return criada;
+        } finally {
+            medir(metricas.criar, inicio);
+        }
+    }
+    
+    /**
+     * Cria um bloco de pessoas sem interromper o lote em caso de falha: cada item
+     * recebe seu próprio resultado. Os ids automáticos vêm do bloco reservado pela thread no alocador.
+     */
+    public List<ResultadoLote> criarPessoas(List<Pessoa> lote, int primeiroIndice) {
+        long inicio = System.nanoTime();
+        try {
+            return criarLote(lote, primeiroIndice);
+        } finally {
+            medir(metricas.criarLote, inicio);
+        }
+    }
+    
+    private List<ResultadoLote> criarLote(List<Pessoa> lote, int primeiroIndice) {
+        ResultadoLote[] resultados = new ResultadoLote[lote.size()];
+        long maiorId = -1;
+        
+        for (int i = 0; i < lote.size(); i++) {
+            Pessoa pessoa = lote.get(i);
+            try {
+                if (pessoa == null) {
+                    throw PESSOA_NULA;
+                }
+                pessoa.validaNome();
+                pessoa.validaDataNescimento();
+                pessoa.validaDataAdminissao();
+                pessoa.validaIntervaloDatas();
+            } catch (InvalidParameterException e) {
+                resultados[i] = ResultadoLote.invalido(primeiroIndice + i, e.getMessage());
+                continue;
+            }
+            if (pessoa.getId() != null) {
+                maiorId = Math.max(maiorId, pessoa.getId());
+            }
+        }
+        
+        if (maiorId >= 0) {
+            alocadorId.observar(maiorId);
+        }
+        
+        for (int i = 0; i < lote.size(); i++) {
+            if (resultados[i] != null) {
+                continue;
+            }
+            Pessoa pessoa = lote.get(i);
+            if (pessoa.getId() == null) {
+                Pessoa criada = inserirComIdAutomatico(pessoa);
+                resultados[i] = ResultadoLote.criado(primeiroIndice + i, criada.getId());
+                continue;
+            }
+            resultados[i] = inserir(pessoa) != null
+                    ? ResultadoLote.criado(primeiroIndice + i, pessoa.getId())
+                    : ResultadoLote.conflito(primeiroIndice + i, pessoa.getId());
+        }
+        return Arrays.asList(resultados);
+    }
+    
+    private Pessoa inserirComIdAutomatico(Pessoa pessoa) {
+        // Um id automático pode ter sido ocupado por um id informado por outro cliente
+        Pessoa criada;
+        do {
+            criada = inserir(pessoa.comId(alocadorId.proximo()));
+        } while (criada == null);
+        return criada;
+    }
+    
+    /**
+     * Insere a pessoa se o id estiver livre, retornando a versão publicada ou nulo em caso de conflito.
+     */
+    private Pessoa inserir(Pessoa pessoa) {
+        pessoa.validaIntervaloDatas();
+        Pessoa nova = pessoa.comVersao(versoes.incrementAndGet());
+        Publicacao publicacao = new Publicacao();
+        try {
+            if (!armazenamento.inserir(nova, (antiga, atual) -> aoPublicar(antiga, atual, publicacao))) {
+                return null;
+            }
+        } catch (RuntimeException | Error e) {
+            abandonar(publicacao);
+            throw e;
+        }
+        confirmar(publicacao);
+        return nova;
+    }
+    
+    /**
+     * Compare-and-swap da entrada do cadastro: publica {@code nova} somente se {@code atual}
+     * ainda for a versão vigente. A seção crítica do armazenamento é o que mantém os índices
+     * em sincronia com a entrada; leitores sempre enxergam uma versão completa.
+     */
+    private Pessoa publicar(Pessoa atual, Pessoa nova) {
+        nova.validaIntervaloDatas();
+        Pessoa publicada = nova.comVersao(versoes.incrementAndGet());
+        Publicacao publicacao = new Publicacao();
+        try {
+            if (!armazenamento.substituir(atual, publicada, (antiga, vigente) -> aoPublicar(antiga, vigente, publicacao))) {
+                return null;
+            }
+        } catch (RuntimeException | Error e) {
+            abandonar(publicacao);
+            throw e;
+        }
+        confirmar(publicacao);
+        return publicada;
+    }
+    
+    /**
+     * Chamado pelo armazenamento dentro da seção crítica do id alterado. O registro no log
+     * vem primeiro: se ele falhar, nada foi alterado. A sequência no feed é reservada aqui,
+     * para que as alterações de um id saiam no feed na ordem em que foram publicadas.
+     */
+    private void aoPublicar(Pessoa antiga, Pessoa nova, Publicacao publicacao) {
+        publicacao.antiga = antiga;
+        publicacao.nova = nova;
+        publicacao.sequenciaLog = logEscrita != null ? logEscrita.registrar(antiga, nova) : 0;
+        atualizarIndices(antiga, nova);
+        publicacao.evento = alteracoes.reservar(antiga, nova);
+    }
+    
+    private void atualizarIndices(Pessoa antiga, Pessoa nova) {
+        for (IndicePessoas indice : indices) {
+            indice.atualizar(antiga, nova);
+        }
+    }
+    
+    /**
+     * Fora da seção crítica: espera a durabilidade configurada e só então muda a versão do
+     * cadastro e publica o evento. Se a espera falhar, o evento sai mesmo assim: a alteração
+     * já está visível em memória, e os leitores do feed não podem ficar parados na sequência dela.
+     */
+    private void confirmar(Publicacao publicacao) {
+        try {
+            if (logEscrita != null) {
+                logEscrita.confirmar(publicacao.sequenciaLog);
+            }
+            versaoCadastro.incrementAndGet();
+        } finally {
+            alteracoes.publicar(publicacao.evento);
+        }
+    }
+    
+    /**
+     * A alteração falhou dentro da seção crítica: o registro no log é abandonado, senão a
+     * rotação esperaria por ele e a reprodução o aplicaria, e a sequência no feed é
+     * descartada, senão os leitores ficariam esperando por ela.
+     */
+    private void abandonar(Publicacao publicacao) {
+        try {
+            if (publicacao.sequenciaLog > 0) {
+                logEscrita.abandonar(publicacao.sequenciaLog, publicacao.antiga, publicacao.nova);
+            }
+        } finally {
+            if (publicacao.evento != null) {
+                alteracoes.descartar(publicacao.evento);
+            }
+        }
+    }
+    
+    /**
+     * O que a seção crítica passa para a confirmação.
+     */
+    private static final class Publicacao {
+        private Pessoa antiga;
+        private Pessoa nova;
+        private long sequenciaLog;
+        private EventoAlteracao evento;
+    }
+    
+    private static void verificarVersao(Pessoa atual, Long versaoEsperada) {
+        if (versaoEsperada != null && atual.getVersao() != versaoEsperada) {
+            throw new PessoaPreconditionFailedException("Pessoa com ID " + atual.getId()
+                    + " está na versão " + atual.getVersao() + ", esperada " + versaoEsperada);
+        }
+    }
+    
+    public Pessoa atualizarPessoa(Long id, Pessoa pessoaAtualizada) {
+        return atualizarPessoa(id, pessoaAtualizada, null);
+    }
+    
+    public Pessoa atualizarPessoa(Long id, Pessoa pessoaAtualizada, Long versaoEsperada) {
+        Pessoa dados = pessoaAtualizada.comId(id);
+        long inicio = System.nanoTime();
+        try {
+            while (true) {
+                Pessoa atual = buscar(id);
+                verificarVersao(atual, versaoEsperada);
+                Pessoa publicada = publicar(atual, dados);
+                if (publicada != null) {
+                    return publicada;
+                }
+            }
+        } finally {
+            medir(metricas.atualizar, inicio);
+        }
+    }
+    
+    public Pessoa atualizarAtributo(Long id, String prop, Object val) {
+        return atualizarParcialmente(id, Collections.singletonMap(prop, val), null, false);
+    }
+    
+    private Pessoa aplicarAtributo(Pessoa pessoa, String prop, Object val) {
+        Pessoa nova;
+        switch (prop.toLowerCase()) {
+            case "nome":
+                nova = pessoa.comNome((String) val);
+                nova.validaNome();
+                break;
+            case "datanascimento":
+                nova = pessoa.comDataNascimento((LocalDate) val);
+                nova.validaDataNescimento();
+                break;
+            case "dataadmissao":
+                nova = pessoa.comDataAdmissao((LocalDate) val);
+                nova.validaDataAdminissao();
+                break;
+            default:
+                throw new InvalidParameterException("Atributo '" + prop + "' não é válido");
+        }
+        return nova;
+    }
+    
+    public Pessoa atualizarParcialmente(Long id, Map<String, Object> updates) {
+        return atualizarParcialmente(id, updates, null);
+    }
+    
+    public Pessoa atualizarParcialmente(Long id, Map<String, Object> updates, Long versaoEsperada) {
+        return atualizarParcialmente(id, updates, versaoEsperada, true);
+    }
+    
+    private Pessoa atualizarParcialmente(Long id, Map<String, Object> updates, Long versaoEsperada, boolean converterDatas) {
+        long inicio = System.nanoTime();
+        try {
+            return aplicarAtualizacoes(id, updates, versaoEsperada, converterDatas);
+        } finally {
+            medir(metricas.atualizarParcialmente, inicio);
+        }
+    }
+    
+    private Pessoa aplicarAtualizacoes(Long id, Map<String, Object> updates, Long versaoEsperada, boolean converterDatas) {
+        while (true) {
+            Pessoa atual = buscar(id);
+            verificarVersao(atual, versaoEsperada);
+            
+            // A nova versão é montada fora do cadastro: uma falha de validação não deixa rastros
+            Pessoa nova = atual;
+            for (Map.Entry<String, Object> entry : updates.entrySet()) {
+                String prop = entry.getKey();
+                Object val = entry.getValue();
+
+                if (converterDatas && (prop.equals("dataNascimento") || prop.equals("dataAdmissao"))) {
+                    // Texto ISO no JSON; dia da época nos formatos binários (CBOR, Smile)
+                    try {
+                        if (val instanceof Number dia) {
+                            val = LocalDate.ofEpochDay(dia.longValue());
+                        } else if (val != null) {
+                            val = LocalDate.parse(val.toString());
+                        }
+                    } catch (DateTimeException e) {
+                        throw new InvalidParameterException("Data '" + val + "' não é válida para " + prop);
+                    }
+                }
+
+                nova = aplicarAtributo(nova, prop, val);
+            }
+            
+            if (nova == atual) {
+                return atual;
+            }
+            Pessoa publicada = publicar(atual, nova);
+            if (publicada != null) {
+                return publicada;
+            }
+        }
+    }
+    
+    public void removerPessoa(Long id) {
+        long inicio = System.nanoTime();
+        try {
+            Publicacao publicacao = new Publicacao();
+            Pessoa removida;
+            try {
+                removida = armazenamento.remover(id, (antiga, nova) -> aoPublicar(antiga, nova, publicacao));
+            } catch (RuntimeException | Error e) {
+                abandonar(publicacao);
+                throw e;
+            }
+            if (removida == null) {
+                throw new PessoaNotFoundException("Pessoa com ID " + id + " não encontrada");
+            }
+            confirmar(publicacao);
+        } finally {
+            medir(metricas.remover, inicio);
+        }
+    }
+    
+    /**
+     * Remove a pessoa somente se ela ainda estiver na versão {@code versao}; retorna se a
+     * removeu. Usado pelo cluster para apagar a cópia local de uma pessoa transferida sem
+     * perder uma alteração feita depois da cópia.
+     */
+    public boolean removerSeVersao(Long id, long versao) {
+        long inicio = System.nanoTime();
+        try {
+            Pessoa presente = armazenamento.buscar(id);
+            return presente != null && presente.getVersao() == versao
+                    && alterar(aviso -> armazenamento.remover(presente, aviso));
+        } finally {
+            medir(metricas.remover, inicio);
+        }
+    }
+    
+    /**
+     * Recebe uma pessoa transferida por outro nó do cluster, com a versão que ela tinha lá.
+     * Prevalece a maior versão: uma cópia local igual ou mais nova fica como está. O contador
+     * de versões avança até a recebida, para que as alterações feitas aqui depois a superem.
+     *
+     * @return a versão vigente depois da transferência
+     */
+    public Pessoa receberTransferencia(Pessoa pessoa) {
+        if (pessoa == null) {
+            throw PESSOA_NULA;
+        }
+        if (pessoa.getId() == null) {
+            throw new InvalidParameterException("Id da pessoa transferida é obrigatório");
+        }
+        pessoa.validaIntervaloDatas();
+        alocadorId.observar(pessoa.getId());
+        versoes.accumulateAndGet(pessoa.getVersao(), Math::max);
+        while (true) {
+            Pessoa presente = armazenamento.buscar(pessoa.getId());
+            if (presente != null && presente.getVersao() >= pessoa.getVersao()) {
+                return presente;
+            }
+            if (alterar(aviso -> presente == null
+                    ? armazenamento.inserir(pessoa, aviso)
+                    : armazenamento.substituir(presente, pessoa, aviso))) {
+                return pessoa;
+            }
+        }
+    }
+    
+    /**
+     * Aplica uma alteração já pronta no armazenamento com o mesmo registro no log, índices e
+     * feed de {@link #publicar(Pessoa, Pessoa)}; retorna se o armazenamento a aceitou.
+     */
+    private boolean alterar(Predicate<ArmazenamentoPessoas.AoPublicar> alteracao) {
+        Publicacao publicacao = new Publicacao();
+        try {
+            if (!alteracao.test((antiga, nova) -> aoPublicar(antiga, nova, publicacao))) {
+                return false;
+            }
+        } catch (RuntimeException | Error e) {
+            abandonar(publicacao);
+            throw e;
+        }
+        confirmar(publicacao);
+        return true;
+    }
+    
+    /**
+     * Idade e salário vêm dos valores calculados para o dia; a consulta não refaz o cálculo.
+     */
+    public long calcularIdade(Long id, String formato) {
+        long inicio = System.nanoTime();
+        try {
+            Pessoa pessoa = buscar(id);
+            FormatoIdade formatoIdade = FormatoIdade.porNome(formato);
+            long idade = indiceCalculos.idade(pessoa, formatoIdade);
+            metricas.contarIdade(formatoIdade, 1);
+            return idade;
+        } finally {
+            medir(metricas.calcularIdade, inicio);
+        }
+    }
+    
+    public double calcularSalario(Long id, String formato) {
+        long inicio = System.nanoTime();
+        try {
+            Pessoa pessoa = buscar(id);
+            FormatoSalario formatoSalario = FormatoSalario.porNome(formato);
+            double salario = indiceCalculos.salario(pessoa, formatoSalario);
+            metricas.contarSalario(formatoSalario, 1);
+            return salario;
+        } finally {
+            medir(metricas.calcularSalario, inicio);
+        }
+    }
+    
+    /**
+     * Recalcula idades e salários do cadastro se o dia mudou desde o último cálculo.
+     *
+     * @return se houve recálculo
+     */
+    public boolean virarDia() {
+        return indiceCalculos.virarDia();
+    }
+    
+    /**
+     * Calcula idade e salário de várias pessoas com um único "hoje" e formatos
+     * interpretados uma só vez. Sem ids, calcula para todas em ordem de nome.
+     */
+    public List<CalculoPessoa> calcularEmLote(List<Long> ids, List<String> formatosIdade, List<String> formatosSalario) {
+        FormatoIdade[] idades = formatosIdade == null ? new FormatoIdade[0] : formatosIdade.stream()
+                .map(PessoaService::formatoIdade)
+                .distinct()
+                .toArray(FormatoIdade[]::new);
+        FormatoSalario[] salarios = formatosSalario == null ? new FormatoSalario[0] : formatosSalario.stream()
+                .map(PessoaService::formatoSalario)
+                .distinct()
+                .toArray(FormatoSalario[]::new);
+        if (idades.length == 0 && salarios.length == 0) {
+            throw new InvalidParameterException("Informe ao menos um formato de idade ou salário");
+        }
+        
+        long inicio = System.nanoTime();
+        try {
+            return calcularEmLote(ids, idades, salarios);
+        } finally {
+            medir(metricas.calcularEmLote, inicio);
+        }
+    }
+    
+    private List<CalculoPessoa> calcularEmLote(List<Long> ids, FormatoIdade[] idades, FormatoSalario[] salarios) {
+        Collection<Pessoa> alvo;
+        if (ids == null) {
+            alvo = listarTodas();
+        } else {
+            List<Pessoa> encontradas = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                encontradas.add(buscar(id));
+            }
+            alvo = encontradas;
+        }
+        
+        // Os mesmos valores materializados de /age e /salary, todos do mesmo dia
+        IndiceCalculos.Lote lote = indiceCalculos.lote();
+        List<CalculoPessoa> calculos = new ArrayList<>(alvo.size());
+        for (Pessoa pessoa : alvo) {
+            Map<String, Long> idade = new LinkedHashMap<>();
+            for (FormatoIdade formato : idades) {
+                idade.put(formato.name().toLowerCase(), lote.idade(pessoa, formato));
+            }
+            Map<String, Double> salario = new LinkedHashMap<>();
+            for (FormatoSalario formato : salarios) {
+                salario.put(formato.name().toLowerCase(), lote.salario(pessoa, formato));
+            }
+            calculos.add(new CalculoPessoa(pessoa.getId(), idade, salario));
+        }
+        for (FormatoIdade formato : idades) {
+            metricas.contarIdade(formato, calculos.size());
+        }
+        for (FormatoSalario formato : salarios) {
+            metricas.contarSalario(formato, calculos.size());
+        }
+        return calculos;
+    }
+    
+    private static void medir(Timer timer, long inicio) {
+        timer.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
+    
+    private static FormatoIdade formatoIdade(String formato) {
+        try {
+            return FormatoIdade.porNome(formato);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidParameterException("Formato '" + formato + "' não é válido. Use: days, months ou years");
+        }
+    }
+    
+    private static FormatoSalario formatoSalario(String formato) {
+        try {
+            return FormatoSalario.porNome(formato);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidParameterException("Formato '" + formato + "' não é válido. Use: full ou min");
+        }
+    }
+}
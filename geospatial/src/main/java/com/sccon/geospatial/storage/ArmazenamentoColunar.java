@@ -0,0 +1,339 @@
+package com.sccon.geospatial.storage;
+
+import com.sccon.geospatial.model.Pessoa;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Armazenamento compacto em colunas de tipos primitivos: ids e versões em long[],
+ * datas como dias desde a época em int[] e nomes em UTF-8 numa arena de bytes,
+ * indexados por um mapa long -> slot sem boxing. Um registro ocupa dezenas de bytes
+ * em poucos arrays grandes, em vez de seis objetos no heap, e objetos Pessoa só
+ * são criados quando alguém os lê.
+ *
+ * Leituras usam leitura otimista do StampedLock e só bloqueiam se houver uma escrita
+ * no meio; escritas são exclusivas.
+ */
+public class ArmazenamentoColunar implements ArmazenamentoPessoas {
+
+    private static final int SLOT_LIVRE = -1;
+    private static final int DATA_NULA = Integer.MIN_VALUE;
+    private static final int SLOTS_POR_LOTE_ITERACAO = 512;
+
+    private final StampedLock lock = new StampedLock();
+    private final MapaLongInt slotsPorId;
+
+    private long[] ids;
+    private long[] versoes;
+    private int[] nascimentos;
+    private int[] admissoes;
+    private int[] inicioNomes;
+    // SLOT_LIVRE marca slots sem registro
+    private int[] tamanhoNomes;
+    private int slotsUsados;
+    private int[] slotsLivres = new int[16];
+    private int quantidadeLivres;
+
+    private byte[] nomes;
+    private int bytesNomesUsados;
+    private int bytesNomesDescartados;
+
+    public ArmazenamentoColunar() {
+        this(1024);
+    }
+
+    public ArmazenamentoColunar(int capacidadeInicial) {
+        int capacidade = Math.max(16, capacidadeInicial);
+        slotsPorId = new MapaLongInt(capacidade);
+        ids = new long[capacidade];
+        versoes = new long[capacidade];
+        nascimentos = new int[capacidade];
+        admissoes = new int[capacidade];
+        inicioNomes = new int[capacidade];
+        tamanhoNomes = new int[capacidade];
+        nomes = new byte[capacidade * 16];
+    }
+
+    @Override
+    public Pessoa buscar(long id) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                Pessoa pessoa = ler(id);
+                if (lock.validate(stamp)) {
+                    return pessoa;
+                }
+            } catch (RuntimeException e) {
+                // Leitura concorrente com uma escrita; refeita abaixo com lock
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return ler(id);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Pessoa ler(long id) {
+        int slot = slotsPorId.get(id);
+        return slot == MapaLongInt.AUSENTE ? null : materializar(slot);
+    }
+
+    private Pessoa materializar(int slot) {
+        int tamanho = tamanhoNomes[slot];
+        String nome = new String(nomes, inicioNomes[slot], tamanho, StandardCharsets.UTF_8);
+        return new Pessoa(ids[slot], nome, data(nascimentos[slot]), data(admissoes[slot]), versoes[slot]);
+    }
+
+    private static LocalDate data(int epochDay) {
+        return epochDay == DATA_NULA ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static int epochDay(LocalDate data) {
+        return data == null ? DATA_NULA : Math.toIntExact(data.toEpochDay());
+    }
+
+    @Override
+    public boolean inserir(Pessoa nova, AoPublicar aoPublicar) {
+        long stamp = lock.writeLock();
+        try {
+            if (slotsPorId.get(nova.getId()) != MapaLongInt.AUSENTE) {
+                return false;
+            }
+            // Tudo o que pode falhar acontece antes do aviso: avisada, a alteração é gravada
+            byte[] nome = nova.getNome().getBytes(StandardCharsets.UTF_8);
+            int nascimento = epochDay(nova.getDataNascimento());
+            int admissao = epochDay(nova.getDataAdmissao());
+            reservarNome(nome.length);
+            int slot = novoSlot();
+            try {
+                aoPublicar.publicada(null, nova);
+            } catch (RuntimeException e) {
+                liberarSlot(slot);
+                throw e;
+            }
+            gravar(slot, nova, nome, nascimento, admissao);
+            slotsPorId.put(nova.getId(), slot);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean substituir(Pessoa atual, Pessoa nova, AoPublicar aoPublicar) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotsPorId.get(atual.getId());
+            if (slot == MapaLongInt.AUSENTE || versoes[slot] != atual.getVersao()) {
+                return false;
+            }
+            byte[] nome = nova.getNome().getBytes(StandardCharsets.UTF_8);
+            int nascimento = epochDay(nova.getDataNascimento());
+            int admissao = epochDay(nova.getDataAdmissao());
+            reservarNome(nome.length);
+            aoPublicar.publicada(materializar(slot), nova);
+            bytesNomesDescartados += tamanhoNomes[slot];
+            gravar(slot, nova, nome, nascimento, admissao);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Pessoa remover(long id, AoPublicar aoPublicar) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotsPorId.get(id);
+            if (slot == MapaLongInt.AUSENTE) {
+                return null;
+            }
+            return removerSlot(id, slot, aoPublicar);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public boolean remover(Pessoa atual, AoPublicar aoPublicar) {
+        long stamp = lock.writeLock();
+        try {
+            int slot = slotsPorId.get(atual.getId());
+            if (slot == MapaLongInt.AUSENTE || versoes[slot] != atual.getVersao()) {
+                return false;
+            }
+            removerSlot(atual.getId(), slot, aoPublicar);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private Pessoa removerSlot(long id, int slot, AoPublicar aoPublicar) {
+        Pessoa removida = materializar(slot);
+        aoPublicar.publicada(removida, null);
+        slotsPorId.remove(id);
+        bytesNomesDescartados += tamanhoNomes[slot];
+        liberarSlot(slot);
+        return removida;
+    }
+
+    private int novoSlot() {
+        if (quantidadeLivres > 0) {
+            return slotsLivres[--quantidadeLivres];
+        }
+        if (slotsUsados == ids.length) {
+            int capacidade = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacidade);
+            versoes = Arrays.copyOf(versoes, capacidade);
+            nascimentos = Arrays.copyOf(nascimentos, capacidade);
+            admissoes = Arrays.copyOf(admissoes, capacidade);
+            inicioNomes = Arrays.copyOf(inicioNomes, capacidade);
+            tamanhoNomes = Arrays.copyOf(tamanhoNomes, capacidade);
+        }
+        return slotsUsados++;
+    }
+
+    private void liberarSlot(int slot) {
+        tamanhoNomes[slot] = SLOT_LIVRE;
+        if (quantidadeLivres == slotsLivres.length) {
+            slotsLivres = Arrays.copyOf(slotsLivres, slotsLivres.length * 2);
+        }
+        slotsLivres[quantidadeLivres++] = slot;
+    }
+
+    /**
+     * Grava o registro no slot; o espaço do nome já deve ter sido reservado. Só cópias e
+     * atribuições: roda depois do aviso e não pode falhar.
+     */
+    private void gravar(int slot, Pessoa pessoa, byte[] nome, int nascimento, int admissao) {
+        System.arraycopy(nome, 0, nomes, bytesNomesUsados, nome.length);
+        inicioNomes[slot] = bytesNomesUsados;
+        tamanhoNomes[slot] = nome.length;
+        bytesNomesUsados += nome.length;
+
+        ids[slot] = pessoa.getId();
+        versoes[slot] = pessoa.getVersao();
+        nascimentos[slot] = nascimento;
+        admissoes[slot] = admissao;
+    }
+
+    private void reservarNome(int tamanho) {
+        if (bytesNomesUsados + tamanho <= nomes.length) {
+            return;
+        }
+        // Nomes substituídos ou removidos só são recuperados quando a arena enche
+        if (bytesNomesDescartados > bytesNomesUsados / 2) {
+            compactarNomes();
+            if (bytesNomesUsados + tamanho <= nomes.length) {
+                return;
+            }
+        }
+        long capacidade = Math.max(nomes.length + (nomes.length >> 1), (long) bytesNomesUsados + tamanho);
+        if (capacidade > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Arena de nomes excedeu o limite de 2 GB");
+        }
+        nomes = Arrays.copyOf(nomes, (int) capacidade);
+    }
+
+    private void compactarNomes() {
+        byte[] compactados = new byte[nomes.length];
+        int usados = 0;
+        for (int slot = 0; slot < slotsUsados; slot++) {
+            int tamanho = tamanhoNomes[slot];
+            if (tamanho != SLOT_LIVRE) {
+                System.arraycopy(nomes, inicioNomes[slot], compactados, usados, tamanho);
+                inicioNomes[slot] = usados;
+                usados += tamanho;
+            }
+        }
+        nomes = compactados;
+        bytesNomesUsados = usados;
+        bytesNomesDescartados = 0;
+    }
+
+    @Override
+    public Iterable<Pessoa> todas() {
+        return IteradorLotes::new;
+    }
+
+    /**
+     * Lê os slots em lotes curtos sob lock de leitura e entrega os registros fora dele,
+     * para não segurar escritores durante a iteração inteira.
+     */
+    private final class IteradorLotes implements Iterator<Pessoa> {
+
+        private final List<Pessoa> lote = new ArrayList<>(SLOTS_POR_LOTE_ITERACAO);
+        private int posicaoLote;
+        private int proximoSlot;
+
+        @Override
+        public boolean hasNext() {
+            while (posicaoLote == lote.size()) {
+                if (!carregarLote()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Pessoa next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return lote.get(posicaoLote++);
+        }
+
+        private boolean carregarLote() {
+            lote.clear();
+            posicaoLote = 0;
+            long stamp = lock.readLock();
+            try {
+                if (proximoSlot >= slotsUsados) {
+                    return false;
+                }
+                int fim = Math.min(slotsUsados, proximoSlot + SLOTS_POR_LOTE_ITERACAO);
+                for (int slot = proximoSlot; slot < fim; slot++) {
+                    if (tamanhoNomes[slot] != SLOT_LIVRE) {
+                        lote.add(materializar(slot));
+                    }
+                }
+                proximoSlot = fim;
+                return true;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    @Override
+    public long tamanho() {
+        long stamp = lock.readLock();
+        try {
+            return slotsPorId.tamanho();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public long bytesEstimados() {
+        long stamp = lock.readLock();
+        try {
+            long colunas = (long) ids.length * (Long.BYTES * 2 + Integer.BYTES * 4);
+            return colunas + nomes.length + slotsPorId.bytes() + (long) slotsLivres.length * Integer.BYTES;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.sccon.geospatial.storage;
+
+import com.sccon.geospatial.model.Pessoa;
+
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Armazenamento padrão: um objeto Pessoa por registro num ConcurrentHashMap.
+ * O compute do mapa serializa as alterações de cada id sem bloquear leitores.
+ */
+public class ArmazenamentoMemoria implements ArmazenamentoPessoas {
+
+    // Nó do mapa + Long + Pessoa + String + byte[] + duas LocalDate + slot da tabela
+    private static final long BYTES_POR_REGISTRO = 32 + 16 + 40 + 24 + 16 + 48 + 8;
+
+    private final ConcurrentHashMap<Long, Pessoa> pessoas = new ConcurrentHashMap<>();
+    private final LongAdder bytesNomes = new LongAdder();
+
+    @Override
+    public Pessoa buscar(long id) {
+        return pessoas.get(id);
+    }
+
+    @Override
+    public boolean inserir(Pessoa nova, AoPublicar aoPublicar) {
+        Pessoa presente = pessoas.computeIfAbsent(nova.getId(), id -> {
+            aoPublicar.publicada(null, nova);
+            bytesNomes.add(nova.getNome().length());
+            return nova;
+        });
+        return presente == nova;
+    }
+
+    @Override
+    public boolean substituir(Pessoa atual, Pessoa nova, AoPublicar aoPublicar) {
+        Pessoa presente = pessoas.computeIfPresent(atual.getId(), (id, vigente) -> {
+            if (vigente.getVersao() != atual.getVersao()) {
+                return vigente;
+            }
+            aoPublicar.publicada(vigente, nova);
+            bytesNomes.add(nova.getNome().length() - vigente.getNome().length());
+            return nova;
+        });
+        return presente == nova;
+    }
+
+    @Override
+    public Pessoa remover(long id, AoPublicar aoPublicar) {
+        Pessoa[] removida = new Pessoa[1];
+        pessoas.computeIfPresent(id, (chave, vigente) -> {
+            aoPublicar.publicada(vigente, null);
+            bytesNomes.add(-vigente.getNome().length());
+            removida[0] = vigente;
+            return null;
+        });
+        return removida[0];
+    }
+
+    @Override
+    public boolean remover(Pessoa atual, AoPublicar aoPublicar) {
+        boolean[] removida = new boolean[1];
+        pessoas.computeIfPresent(atual.getId(), (id, vigente) -> {
+            if (vigente.getVersao() != atual.getVersao()) {
+                return vigente;
+            }
+            aoPublicar.publicada(vigente, null);
+            bytesNomes.add(-vigente.getNome().length());
+            removida[0] = true;
+            return null;
+        });
+        return removida[0];
+    }
+
+    @Override
+    public Iterable<Pessoa> todas() {
+        return Collections.unmodifiableCollection(pessoas.values());
+    }
+
+    @Override
+    public long tamanho() {
+        return pessoas.size();
+    }
+
+    @Override
+    public long bytesEstimados() {
+        return pessoas.size() * BYTES_POR_REGISTRO + bytesNomes.sum();
+    }
+}
@@ -0,0 +1,54 @@
+package com.sccon.geospatial.storage;
+
+import com.sccon.geospatial.model.Pessoa;
+
+/**
+ * Onde o cadastro guarda as pessoas. Toda alteração de um id é atômica e avisa
+ * {@link AoPublicar} dentro da mesma seção crítica, para que índices e demais
+ * estruturas derivadas acompanhem o cadastro na mesma ordem. Tudo o que pode falhar
+ * acontece antes do aviso: avisada, a alteração é aplicada.
+ */
+public interface ArmazenamentoPessoas {
+
+    /**
+     * Recebe a versão anterior (nula numa inserção) e a nova (nula numa remoção).
+     */
+    @FunctionalInterface
+    interface AoPublicar {
+        void publicada(Pessoa antiga, Pessoa nova);
+    }
+
+    Pessoa buscar(long id);
+
+    /**
+     * Insere se o id estiver livre.
+     */
+    boolean inserir(Pessoa nova, AoPublicar aoPublicar);
+
+    /**
+     * Compare-and-swap pela versão: substitui apenas se {@code atual} ainda for a versão vigente.
+     */
+    boolean substituir(Pessoa atual, Pessoa nova, AoPublicar aoPublicar);
+
+    /**
+     * Remove o id, retornando a versão removida ou nulo se não existia.
+     */
+    Pessoa remover(long id, AoPublicar aoPublicar);
+
+    /**
+     * Compare-and-swap da remoção: remove apenas se {@code atual} ainda for a versão vigente.
+     */
+    boolean remover(Pessoa atual, AoPublicar aoPublicar);
+
+    /**
+     * Percorre o cadastro de forma fracamente consistente, em memória constante.
+     */
+    Iterable<Pessoa> todas();
+
+    long tamanho();
+
+    /**
+     * Estimativa do espaço ocupado pelos registros.
+     */
+    long bytesEstimados();
+}
@@ -0,0 +1,482 @@
+package com.sccon.geospatial.storage;
+
+import com.sccon.geospatial.enums.Durabilidade;
+import com.sccon.geospatial.model.Pessoa;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Log de escrita antecipada das alterações do cadastro, com group commit: quem altera só
+ * serializa o registro num buffer em memória, e uma única thread escritora grava tudo o que
+ * se acumulou e faz um fsync para o lote inteiro. Quanto o chamador espera depende da
+ * {@link Durabilidade}.
+ *
+ * Alterações são registradas dentro da seção crítica do armazenamento, então a ordem do log
+ * é a ordem de publicação de cada id, e confirmadas com {@link #confirmar(long)} depois que
+ * a nova versão ficou visível. O log é dividido em segmentos; cada abertura e cada
+ * {@link #rotacionar()} começa um novo, e os anteriores a um snapshot concluído podem ser
+ * descartados. Registros levam a versão da pessoa para que a reprodução sobre um snapshot
+ * fracamente consistente seja idempotente.
+ *
+ * <pre>
+ * registro: tamanho, CRC32C, tipo, id, versão, nascimento e admissão (dia da época),
+ *           tamanho do nome, nome UTF-8
+ * </pre>
+ *
+ * Uma alteração que falha depois de registrada ganha um registro de abandono com o mesmo
+ * id e versão, e a reprodução a ignora.
+
+ */
+public class LogEscrita implements AutoCloseable {
+
+    private static final Pattern NOME_SEGMENTO = Pattern.compile("wal-(\\d+)\\.log");
+    private static final byte GRAVACAO = 1;
+    private static final byte REMOCAO = 2;
+    // Tipo do registro abandonado + ABANDONO
+    private static final byte ABANDONO = 2;
+    private static final int DATA_NULA = Integer.MIN_VALUE;
+    private static final int BYTES_FIXOS = 4 + 4 + 1 + 8 + 8 + 4 + 4 + 4;
+    // Acima disso quem altera espera o escritor, mesmo no modo ASYNC
+    private static final int LIMITE_PENDENTE = 64 << 20;
+
+    private final Path diretorio;
+    private final Durabilidade durabilidade;
+    private final long intervaloNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition temDados = lock.newCondition();
+    private final Condition gravado = lock.newCondition();
+    private final Condition temEspaco = lock.newCondition();
+    private final Condition rotacaoConcluida = lock.newCondition();
+    private ByteBuffer pendente = ByteBuffer.allocate(1 << 16);
+    private ByteBuffer emGravacao = ByteBuffer.allocate(1 << 16);
+    private long ultimaRegistrada;
+    private long ultimaDuravel;
+    private IOException falha;
+    private boolean fechado;
+    // Época = registros entre duas rotações; a anterior só termina quando todos os seus
+    // registros foram confirmados, isto é, publicados no armazenamento
+    private long inicioEpoca = 1;
+    private int abertosEpocaAtual;
+    private int abertosEpocaAnterior;
+    // Posição em pendente onde termina o segmento anterior a uma rotação em andamento
+    private int corte = -1;
+    private int rotacoesGravadas;
+
+    // Canal e segmento só são alterados pela thread escritora depois da abertura
+    private FileChannel canal;
+    private volatile int segmento;
+    private final int primeiroSegmento;
+
+    private final Thread escritor;
+
+    public LogEscrita(Path diretorio, Durabilidade durabilidade, long intervaloMillis) {
+        this.diretorio = diretorio;
+        this.durabilidade = durabilidade;
+        this.intervaloNanos = TimeUnit.MILLISECONDS.toNanos(intervaloMillis);
+        try {
+            Files.createDirectories(diretorio);
+            List<Integer> existentes = segmentos();
+            abrirSegmento(existentes.isEmpty() ? 1 : existentes.get(existentes.size() - 1) + 1);
+            primeiroSegmento = segmento;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir log de escrita em " + diretorio, e);
+        }
+        this.escritor = Thread.ofPlatform().name("log-escrita").daemon().start(this::escrever);
+    }
+
+    public Durabilidade getDurabilidade() {
+        return durabilidade;
+    }
+
+    /**
+     * Registra uma alteração que está sendo publicada: {@code nova} nula é uma remoção de
+     * {@code antiga}. Deve ser chamado dentro da seção crítica do id, e o número de sequência
+     * retornado passado a {@link #confirmar(long)} assim que ela terminar, ou a
+     * {@link #abandonar(long, Pessoa, Pessoa)} se ela falhar.
+     */
+    public long registrar(Pessoa antiga, Pessoa nova) {
+        byte[] registro = codificar(nova != null ? GRAVACAO : REMOCAO, nova != null ? nova : antiga);
+        lock.lock();
+        try {
+            long sequencia = acrescentar(registro);
+            abertosEpocaAtual++;
+            return sequencia;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static byte[] codificar(byte tipo, Pessoa pessoa) {
+        byte[] nome = pessoa.getNome().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer registro = ByteBuffer.allocate(BYTES_FIXOS + nome.length);
+        registro.putInt(registro.capacity() - 8).putInt(0)
+                .put(tipo)
+                .putLong(pessoa.getId()).putLong(pessoa.getVersao())
+                .putInt(epochDay(pessoa.getDataNascimento())).putInt(epochDay(pessoa.getDataAdmissao()))
+                .putInt(nome.length).put(nome);
+        CRC32C crc = new CRC32C();
+        crc.update(registro.array(), 8, registro.capacity() - 8);
+        registro.putInt(4, (int) crc.getValue());
+        return registro.array();
+    }
+
+    /**
+     * Põe o registro no buffer pendente e retorna a sua sequência; chamado com a trava.
+     */
+    private long acrescentar(byte[] registro) {
+        verificarEstado();
+        while (pendente.position() > LIMITE_PENDENTE) {
+            temEspaco.awaitUninterruptibly();
+            verificarEstado();
+        }
+        if (pendente.remaining() < registro.length) {
+            ByteBuffer maior = ByteBuffer.allocate(Math.max(pendente.capacity() * 2, pendente.position() + registro.length));
+            pendente = maior.put(pendente.flip());
+        }
+        boolean estavaVazio = pendente.position() == 0;
+        pendente.put(registro);
+        if (estavaVazio) {
+            temDados.signal();
+        }
+        return ++ultimaRegistrada;
+    }
+
+    /**
+     * Informa que a alteração {@code sequencia} já está visível e, exceto no modo ASYNC,
+     * bloqueia até ela estar em disco.
+     */
+    public void confirmar(long sequencia) {
+        lock.lock();
+        try {
+            encerrar(sequencia);
+            esperarDuravel(sequencia);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Desfaz o registro {@code sequencia} de uma alteração que falhou depois de registrada,
+     * com os mesmos {@code antiga} e {@code nova}: ele deixa de prender {@link #rotacionar()},
+     * e um registro de abandono faz a reprodução ignorá-lo. Exceto no modo ASYNC, bloqueia até
+     * o abandono estar em disco, para que a falha só seja informada quando não puder mais
+     * reaparecer.
+     */
+    public void abandonar(long sequencia, Pessoa antiga, Pessoa nova) {
+        byte[] registro = codificar((byte) ((nova != null ? GRAVACAO : REMOCAO) + ABANDONO), nova != null ? nova : antiga);
+        lock.lock();
+        try {
+            encerrar(sequencia);
+            esperarDuravel(acrescentar(registro));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void esperarDuravel(long sequencia) {
+        if (durabilidade == Durabilidade.ASYNC) {
+            return;
+        }
+        while (ultimaDuravel < sequencia) {
+            verificarEstado();
+            gravado.awaitUninterruptibly();
+        }
+    }
+
+    private void encerrar(long sequencia) {
+        if (sequencia >= inicioEpoca) {
+            abertosEpocaAtual--;
+        } else if (--abertosEpocaAnterior == 0) {
+            rotacaoConcluida.signalAll();
+        }
+    }
+
+    private void verificarEstado() {
+        if (falha != null) {
+            throw new UncheckedIOException("Log de escrita indisponível", falha);
+        }
+        if (fechado) {
+            throw new IllegalStateException("Log de escrita fechado");
+        }
+    }
+
+    private void escrever() {
+        while (true) {
+            long ate;
+            int corteLote;
+            lock.lock();
+            try {
+                while (pendente.position() == 0 && corte < 0 && !fechado) {
+                    temDados.awaitUninterruptibly();
+                }
+                if (pendente.position() == 0 && corte < 0) {
+                    return;
+                }
+                if (durabilidade != Durabilidade.SYNC && corte < 0 && !fechado) {
+                    // Deixa o lote crescer durante o intervalo antes de pagar o fsync
+                    long restante = intervaloNanos;
+                    while (restante > 0 && !fechado && corte < 0 && pendente.position() < LIMITE_PENDENTE) {
+                        try {
+                            restante = temDados.awaitNanos(restante);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                    }
+                }
+                ByteBuffer lote = pendente;
+                pendente = emGravacao.clear();
+                emGravacao = lote;
+                ate = ultimaRegistrada;
+                corteLote = corte;
+                corte = -1;
+                temEspaco.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                emGravacao.flip();
+                if (corteLote >= 0) {
+                    ByteBuffer antesDoCorte = emGravacao.slice(0, corteLote);
+                    gravarEForcar(antesDoCorte);
+                    canal.close();
+                    abrirSegmento(segmento + 1);
+                    emGravacao.position(corteLote);
+                }
+                gravarEForcar(emGravacao);
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    falha = e;
+                    gravado.signalAll();
+                    temEspaco.signalAll();
+                    rotacaoConcluida.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+
+            lock.lock();
+            try {
+                ultimaDuravel = ate;
+                gravado.signalAll();
+                if (corteLote >= 0) {
+                    rotacoesGravadas++;
+                    rotacaoConcluida.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void gravarEForcar(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+        canal.force(false);
+    }
+
+    /**
+     * Fecha o segmento atual e começa outro, retornando o número do novo. Quando retorna,
+     * toda alteração registrada nos segmentos anteriores já está publicada no armazenamento,
+     * então um snapshot iniciado em seguida a inclui.
+     */
+    public synchronized int rotacionar() {
+        lock.lock();
+        try {
+            verificarEstado();
+            abertosEpocaAnterior = abertosEpocaAtual;
+            abertosEpocaAtual = 0;
+            inicioEpoca = ultimaRegistrada + 1;
+            corte = pendente.position();
+            int esperadas = rotacoesGravadas + 1;
+            temDados.signal();
+            while (abertosEpocaAnterior > 0 || rotacoesGravadas < esperadas) {
+                verificarEstado();
+                rotacaoConcluida.awaitUninterruptibly();
+            }
+            return segmento;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Apaga os segmentos anteriores a {@code primeiroMantido}, já cobertos por um snapshot.
+     */
+    public void descartarAnteriores(int primeiroMantido) {
+        try {
+            for (int numero : segmentos()) {
+                if (numero < primeiroMantido) {
+                    Files.deleteIfExists(arquivoSegmento(numero));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao descartar segmentos do log em " + diretorio, e);
+        }
+    }
+
+    /**
+     * Entrega ao destino, em ordem, os registros dos segmentos escritos antes desta abertura:
+     * gravações como (nula, pessoa) e remoções como (pessoa, nula). Um registro truncado ou
+     * com CRC inválido encerra o seu segmento, pois só pode ser a cauda de uma queda.
+     * O abandono pode estar num segmento posterior ao do registro abandonado, então uma
+     * primeira passada junta os abandonos e a segunda reproduz o resto.
+     * Retorna a quantidade de registros reproduzidos.
+     */
+    public long reproduzir(ArmazenamentoPessoas.AoPublicar destino) {
+        Set<Abandono> abandonados = new HashSet<>();
+        percorrer((tipo, pessoa) -> {
+            if (tipo > ABANDONO) {
+                abandonados.add(new Abandono((byte) (tipo - ABANDONO), pessoa.getId(), pessoa.getVersao()));
+            }
+        });
+        long[] reproduzidos = new long[1];
+        percorrer((tipo, pessoa) -> {
+            if (tipo > ABANDONO || abandonados.contains(new Abandono(tipo, pessoa.getId(), pessoa.getVersao()))) {
+                return;
+            }
+            if (tipo == REMOCAO) {
+                destino.publicada(pessoa, null);
+            } else {
+                destino.publicada(null, pessoa);
+            }
+            reproduzidos[0]++;
+        });
+        return reproduzidos[0];
+    }
+
+    private record Abandono(byte tipo, long id, long versao) {
+    }
+
+    private interface LeitorRegistro {
+        void ler(byte tipo, Pessoa pessoa);
+    }
+
+    private void percorrer(LeitorRegistro leitor) {
+        try {
+            for (int numero : segmentos()) {
+                if (numero >= primeiroSegmento) {
+                    break;
+                }
+                try (InputStream entrada = Files.newInputStream(arquivoSegmento(numero))) {
+                    percorrerSegmento(new DataInputStream(new BufferedInputStream(entrada, 1 << 16)), leitor);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao reproduzir log de escrita em " + diretorio, e);
+        }
+    }
+
+    private void percorrerSegmento(DataInputStream entrada, LeitorRegistro leitor) throws IOException {
+        while (true) {
+            ByteBuffer registro;
+            int crc;
+            try {
+                int tamanho = entrada.readInt();
+                crc = entrada.readInt();
+                if (tamanho < BYTES_FIXOS - 8 || tamanho > LIMITE_PENDENTE) {
+                    return;
+                }
+                byte[] bytes = new byte[tamanho];
+                entrada.readFully(bytes);
+                registro = ByteBuffer.wrap(bytes);
+            } catch (EOFException e) {
+                return;
+            }
+            CRC32C checksum = new CRC32C();
+            checksum.update(registro.array());
+            if ((int) checksum.getValue() != crc) {
+                return;
+            }
+
+            byte tipo = registro.get();
+            long id = registro.getLong();
+            long versao = registro.getLong();
+            LocalDate nascimento = data(registro.getInt());
+            LocalDate admissao = data(registro.getInt());
+            int tamanhoNome = registro.getInt();
+            String nome = new String(registro.array(), registro.position(), tamanhoNome, StandardCharsets.UTF_8);
+            leitor.ler(tipo, new Pessoa(id, nome, nascimento, admissao, versao));
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            fechado = true;
+            temDados.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            canal.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao fechar log de escrita em " + diretorio, e);
+        }
+    }
+
+    private void abrirSegmento(int numero) throws IOException {
+        canal = FileChannel.open(arquivoSegmento(numero), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segmento = numero;
+    }
+
+    private Path arquivoSegmento(int numero) {
+        return diretorio.resolve(String.format("wal-%010d.log", numero));
+    }
+
+    private List<Integer> segmentos() throws IOException {
+        List<Integer> numeros = new ArrayList<>();
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            arquivos.forEach(arquivo -> {
+                Matcher matcher = NOME_SEGMENTO.matcher(arquivo.getFileName().toString());
+                if (matcher.matches()) {
+                    numeros.add(Integer.parseInt(matcher.group(1)));
+                }
+            });
+        }
+        numeros.sort(null);
+        return numeros;
+    }
+
+    private static LocalDate data(int epochDay) {
+        return epochDay == DATA_NULA ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static int epochDay(LocalDate data) {
+        return data == null ? DATA_NULA : Math.toIntExact(data.toEpochDay());
+    }
+}
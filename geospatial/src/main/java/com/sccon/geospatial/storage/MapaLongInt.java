@@ -0,0 +1,131 @@
+package com.sccon.geospatial.storage;
+
+import java.util.Arrays;
+
+/**
+ * Mapa long -> int com endereçamento aberto e sondagem linear, sem boxing.
+ * Remoções deslocam as entradas seguintes para trás, então não há lápides.
+ * Não é thread-safe: o armazenamento colunar o protege com o seu próprio lock.
+ */
+final class MapaLongInt {
+
+    static final int AUSENTE = -1;
+
+    private long[] chaves;
+    private int[] valores;
+    private int tamanho;
+
+    MapaLongInt(int capacidadeInicial) {
+        int capacidade = Integer.highestOneBit(Math.max(16, capacidadeInicial * 2 - 1));
+        chaves = new long[capacidade];
+        valores = new int[capacidade];
+        Arrays.fill(valores, AUSENTE);
+    }
+
+    private static int hash(long chave) {
+        // Finalizador do MurmurHash3
+        chave ^= chave >>> 33;
+        chave *= 0xff51afd7ed558ccdL;
+        chave ^= chave >>> 33;
+        chave *= 0xc4ceb9fe1a85ec53L;
+        chave ^= chave >>> 33;
+        return (int) chave;
+    }
+
+    int get(long chave) {
+        long[] chaves = this.chaves;
+        int[] valores = this.valores;
+        int mascara = valores.length - 1;
+        int i = hash(chave) & mascara;
+        // O limite de passos só importa para leituras otimistas concorrentes com uma escrita
+        for (int passos = 0; passos < valores.length; passos++) {
+            int valor = valores[i];
+            if (valor == AUSENTE) {
+                return AUSENTE;
+            }
+            if (chaves[i] == chave) {
+                return valor;
+            }
+            i = (i + 1) & mascara;
+        }
+        return AUSENTE;
+    }
+
+    void put(long chave, int valor) {
+        if ((tamanho + 1) * 2 > valores.length) {
+            redimensionar(valores.length * 2);
+        }
+        int mascara = valores.length - 1;
+        int i = hash(chave) & mascara;
+        while (valores[i] != AUSENTE) {
+            if (chaves[i] == chave) {
+                valores[i] = valor;
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        chaves[i] = chave;
+        valores[i] = valor;
+        tamanho++;
+    }
+
+    int remove(long chave) {
+        int mascara = valores.length - 1;
+        int i = hash(chave) & mascara;
+        while (valores[i] != AUSENTE && chaves[i] != chave) {
+            i = (i + 1) & mascara;
+        }
+        int removido = valores[i];
+        if (removido == AUSENTE) {
+            return AUSENTE;
+        }
+
+        int j = i;
+        while (true) {
+            j = (j + 1) & mascara;
+            if (valores[j] == AUSENTE) {
+                break;
+            }
+            int ideal = hash(chaves[j]) & mascara;
+            // A entrada em j só pode ocupar o buraco em i se i estiver entre o slot ideal e j
+            boolean podeMover = i <= j ? (ideal <= i || ideal > j) : (ideal <= i && ideal > j);
+            if (podeMover) {
+                chaves[i] = chaves[j];
+                valores[i] = valores[j];
+                i = j;
+            }
+        }
+        valores[i] = AUSENTE;
+        tamanho--;
+        return removido;
+    }
+
+    int tamanho() {
+        return tamanho;
+    }
+
+    long bytes() {
+        return (long) chaves.length * Long.BYTES + (long) valores.length * Integer.BYTES;
+    }
+
+    private void redimensionar(int capacidade) {
+        long[] chavesAntigas = chaves;
+        int[] valoresAntigos = valores;
+        long[] novasChaves = new long[capacidade];
+        int[] novosValores = new int[capacidade];
+        Arrays.fill(novosValores, AUSENTE);
+        int mascara = capacidade - 1;
+        for (int k = 0; k < valoresAntigos.length; k++) {
+            if (valoresAntigos[k] != AUSENTE) {
+                int i = hash(chavesAntigas[k]) & mascara;
+                while (novosValores[i] != AUSENTE) {
+                    i = (i + 1) & mascara;
+                }
+                novasChaves[i] = chavesAntigas[k];
+                novosValores[i] = valoresAntigos[k];
+            }
+        }
+        chaves = novasChaves;
+        valores = novosValores;
+    }
+}
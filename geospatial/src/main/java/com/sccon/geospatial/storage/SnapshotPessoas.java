@@ -0,0 +1,288 @@
+package com.sccon.geospatial.storage;
+
+import com.sccon.geospatial.model.Pessoa;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Snapshot binário do cadastro. O arquivo é dividido em blocos independentes, cada um
+ * com seu CRC32C, e termina com uma tabela de blocos apontada pelo cabeçalho; na
+ * restauração cada bloco é mapeado em memória e decodificado em paralelo.
+ *
+ * Cada registro leva junto a chave de ordenação do índice de nomes, que custa caro
+ * para recalcular; a assinatura gravada no cabeçalho identifica a collation que as gerou.
+ *
+ * <pre>
+ * cabeçalho:  magia, formato, blocos, tamanho da assinatura, quantidade, maior id,
+ *             maior versão, posição da tabela, assinatura
+ * registro:   id, versão, nascimento e admissão (dia da época), tamanho e bytes do nome
+ *             em UTF-8, tamanho e bytes da chave de ordenação
+ * tabela:     posição, tamanho, registros e CRC32C de cada bloco
+ * </pre>
+ *
+ * A gravação usa um arquivo temporário e só substitui o snapshot anterior depois do
+ * fsync, então uma queda no meio dela nunca deixa um snapshot pela metade.
+ */
+public class SnapshotPessoas {
+
+    public static final int REGISTROS_POR_BLOCO_PADRAO = 65_536;
+
+    private static final int MAGIA = 0x50534e50;
+    private static final int FORMATO = 1;
+    private static final int BYTES_CABECALHO = 4 + 4 + 4 + 4 + 8 + 8 + 8 + 8;
+    private static final int BYTES_ENTRADA_TABELA = 8 + 4 + 4 + 4;
+    private static final int DATA_NULA = Integer.MIN_VALUE;
+
+    /**
+     * Resumo de um snapshot gravado ou restaurado.
+     */
+    public record Resumo(long quantidade, long maiorId, long maiorVersao) {
+    }
+
+    /**
+     * Pessoa e a sua chave de ordenação por nome; a chave é nula na restauração
+     * quando a collation atual não é a que gerou o snapshot.
+     */
+    public record Registro(Pessoa pessoa, byte[] chave) {
+    }
+
+    /**
+     * Recebe os registros de um bloco; blocos diferentes chegam em paralelo.
+     */
+    @FunctionalInterface
+    public interface LeitorBloco {
+        void ler(int bloco, List<Registro> registros);
+    }
+
+    private final Path arquivo;
+    private final int registrosPorBloco;
+
+    public SnapshotPessoas(Path arquivo) {
+        this(arquivo, REGISTROS_POR_BLOCO_PADRAO);
+    }
+
+    public SnapshotPessoas(Path arquivo, int registrosPorBloco) {
+        this.arquivo = arquivo;
+        this.registrosPorBloco = registrosPorBloco;
+    }
+
+    public Path getArquivo() {
+        return arquivo;
+    }
+
+    /**
+     * Grava os registros num novo snapshot, na ordem em que chegam. A iteração pode ser
+     * fracamente consistente: cada registro é uma versão completa, mas o conjunto não é
+     * um corte instantâneo.
+     */
+    public Resumo gravar(byte[] assinatura, Iterable<Registro> registros) {
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        try {
+            Path diretorio = arquivo.toAbsolutePath().getParent();
+            if (diretorio != null) {
+                Files.createDirectories(diretorio);
+            }
+            Resumo resumo;
+            try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                resumo = new Escritor(canal, assinatura).escrever(registros);
+                canal.force(true);
+            }
+            Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return resumo;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar snapshot em " + arquivo, e);
+        }
+    }
+
+    /**
+     * Entrega os blocos do snapshot ao leitor, decodificando-os em paralelo. As chaves de
+     * ordenação só são repassadas se o snapshot tiver a mesma {@code assinatura}.
+     * Retorna nulo se não houver snapshot.
+     */
+    public Resumo restaurar(byte[] assinatura, LeitorBloco leitor) {
+        if (!Files.exists(arquivo)) {
+            return null;
+        }
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            if (canal.size() < BYTES_CABECALHO) {
+                throw corrompido("cabeçalho truncado");
+            }
+            ByteBuffer cabecalho = canal.map(FileChannel.MapMode.READ_ONLY, 0, BYTES_CABECALHO);
+            if (cabecalho.getInt() != MAGIA || cabecalho.getInt() != FORMATO) {
+                throw corrompido("formato desconhecido");
+            }
+            int blocos = cabecalho.getInt();
+            int tamanhoAssinatura = cabecalho.getInt();
+            Resumo resumo = new Resumo(cabecalho.getLong(), cabecalho.getLong(), cabecalho.getLong());
+            long posicaoTabela = cabecalho.getLong();
+            if (blocos < 0 || tamanhoAssinatura < 0 || BYTES_CABECALHO + (long) tamanhoAssinatura > canal.size()
+                    || posicaoTabela + (long) blocos * BYTES_ENTRADA_TABELA > canal.size()) {
+                throw corrompido("tabela de blocos fora do arquivo");
+            }
+            byte[] assinaturaGravada = new byte[tamanhoAssinatura];
+            canal.map(FileChannel.MapMode.READ_ONLY, BYTES_CABECALHO, tamanhoAssinatura).get(assinaturaGravada);
+            boolean usarChaves = Arrays.equals(assinatura, assinaturaGravada);
+            ByteBuffer tabela = canal.map(FileChannel.MapMode.READ_ONLY, posicaoTabela, (long) blocos * BYTES_ENTRADA_TABELA);
+
+            IntStream.range(0, blocos).parallel().forEach(bloco -> {
+                ByteBuffer entrada = tabela.slice(bloco * BYTES_ENTRADA_TABELA, BYTES_ENTRADA_TABELA);
+                leitor.ler(bloco, lerBloco(canal, entrada.getLong(), entrada.getInt(), entrada.getInt(), entrada.getInt(), usarChaves));
+            });
+            return resumo;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler snapshot de " + arquivo, e);
+        }
+    }
+
+    private List<Registro> lerBloco(FileChannel canal, long posicao, int tamanho, int registros, int crc, boolean usarChaves) {
+        MappedByteBuffer bloco;
+        try {
+            bloco = canal.map(FileChannel.MapMode.READ_ONLY, posicao, tamanho);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao mapear bloco do snapshot " + arquivo, e);
+        }
+        CRC32C checksum = new CRC32C();
+        checksum.update(bloco.duplicate());
+        if ((int) checksum.getValue() != crc) {
+            throw corrompido("CRC inválido no bloco da posição " + posicao);
+        }
+
+        List<Registro> lidos = new ArrayList<>(registros);
+        byte[] nome = new byte[256];
+        for (int i = 0; i < registros; i++) {
+            long id = bloco.getLong();
+            long versao = bloco.getLong();
+            int nascimento = bloco.getInt();
+            int admissao = bloco.getInt();
+            int tamanhoNome = bloco.getInt();
+            if (tamanhoNome > nome.length) {
+                nome = new byte[tamanhoNome];
+            }
+            bloco.get(nome, 0, tamanhoNome);
+            byte[] chave = new byte[bloco.getInt()];
+            bloco.get(chave);
+            Pessoa pessoa = new Pessoa(id, new String(nome, 0, tamanhoNome, StandardCharsets.UTF_8),
+                    data(nascimento), data(admissao), versao);
+            lidos.add(new Registro(pessoa, usarChaves ? chave : null));
+        }
+        return lidos;
+    }
+
+    private IllegalStateException corrompido(String motivo) {
+        return new IllegalStateException("Snapshot " + arquivo + " corrompido: " + motivo);
+    }
+
+    private static LocalDate data(int epochDay) {
+        return epochDay == DATA_NULA ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * O serviço só aceita datas entre {@link Pessoa#DATA_MINIMA} e {@link Pessoa#DATA_MAXIMA},
+     * que cabem num int com folga; fora disso é um erro de programação.
+     */
+    private static int epochDay(LocalDate data) {
+        return data == null ? DATA_NULA : Math.toIntExact(data.toEpochDay());
+    }
+
+    /**
+     * Monta cada bloco num buffer reaproveitado e o escreve de uma vez, registrando
+     * sua entrada na tabela.
+     */
+    private final class Escritor {
+
+        private final FileChannel canal;
+        private final byte[] assinatura;
+        private final List<long[]> tabela = new ArrayList<>();
+        private ByteBuffer bloco = ByteBuffer.allocate(1 << 20);
+        private int registrosNoBloco;
+        private long posicao;
+        private long quantidade;
+        private long maiorId;
+        private long maiorVersao;
+
+        Escritor(FileChannel canal, byte[] assinatura) {
+            this.canal = canal;
+            this.assinatura = assinatura;
+            this.posicao = BYTES_CABECALHO + assinatura.length;
+        }
+
+        Resumo escrever(Iterable<Registro> registros) throws IOException {
+            escreverTudo(ByteBuffer.wrap(assinatura), BYTES_CABECALHO);
+            for (Registro registro : registros) {
+                adicionar(registro.pessoa(), registro.chave());
+            }
+            fecharBloco();
+
+            ByteBuffer buffer = ByteBuffer.allocate(tabela.size() * BYTES_ENTRADA_TABELA);
+            for (long[] entrada : tabela) {
+                buffer.putLong(entrada[0]).putInt((int) entrada[1]).putInt((int) entrada[2]).putInt((int) entrada[3]);
+            }
+            escreverTudo(buffer.flip(), posicao);
+
+            ByteBuffer cabecalho = ByteBuffer.allocate(BYTES_CABECALHO)
+                    .putInt(MAGIA).putInt(FORMATO).putInt(tabela.size()).putInt(assinatura.length)
+                    .putLong(quantidade).putLong(maiorId).putLong(maiorVersao).putLong(posicao);
+            escreverTudo(cabecalho.flip(), 0);
+            return new Resumo(quantidade, maiorId, maiorVersao);
+        }
+
+        private void adicionar(Pessoa pessoa, byte[] chave) throws IOException {
+            byte[] nome = pessoa.getNome().getBytes(StandardCharsets.UTF_8);
+            int tamanho = 8 + 8 + 4 + 4 + 4 + nome.length + 4 + chave.length;
+            if (bloco.remaining() < tamanho) {
+                fecharBloco();
+                if (bloco.capacity() < tamanho) {
+                    bloco = ByteBuffer.allocate(tamanho);
+                }
+            }
+            bloco.putLong(pessoa.getId()).putLong(pessoa.getVersao())
+                    .putInt(epochDay(pessoa.getDataNascimento())).putInt(epochDay(pessoa.getDataAdmissao()))
+                    .putInt(nome.length).put(nome)
+                    .putInt(chave.length).put(chave);
+            quantidade++;
+            maiorId = Math.max(maiorId, pessoa.getId());
+            maiorVersao = Math.max(maiorVersao, pessoa.getVersao());
+            if (++registrosNoBloco == registrosPorBloco) {
+                fecharBloco();
+            }
+        }
+
+        private void fecharBloco() throws IOException {
+            if (registrosNoBloco == 0) {
+                return;
+            }
+            bloco.flip();
+            CRC32C checksum = new CRC32C();
+            checksum.update(bloco.duplicate());
+            int tamanho = bloco.remaining();
+            tabela.add(new long[] {posicao, tamanho, registrosNoBloco, (int) checksum.getValue()});
+            escreverTudo(bloco, posicao);
+            posicao += tamanho;
+            bloco.clear();
+            registrosNoBloco = 0;
+        }
+
+        private void escreverTudo(ByteBuffer buffer, long inicio) throws IOException {
+            long posicaoEscrita = inicio;
+            while (buffer.hasRemaining()) {
+                posicaoEscrita += canal.write(buffer, posicaoEscrita);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.sccon.geospatial;
+
+import com.sccon.geospatial.controller.PessoaController;
+import com.sccon.geospatial.controller.PessoaReativaController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		properties = "spring.main.web-application-type=reactive")
+class GeospatialApplicationReativaTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Test
+	void contextLoads_ComPilhaReativa_DeveUsarSoOControllerReativo() {
+		assertEquals(1, context.getBeanNamesForType(PessoaReativaController.class).length);
+		assertEquals(0, context.getBeanNamesForType(PessoaController.class).length);
+		assertInstanceOf(NettyWebServer.class, ((ReactiveWebServerApplicationContext) context).getWebServer());
+
+		webTestClient.get().uri("/person/1")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.nome").isEqualTo("José da Silva");
+	}
+
+}
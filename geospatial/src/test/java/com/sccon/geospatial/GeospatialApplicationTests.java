@@ -0,0 +1,42 @@
+package com.sccon.geospatial;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class GeospatialApplicationTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void contextLoads() {
+	}
+
+	@Test
+	void prometheus_AposRequisicoes_DeveExporMetricasDoServicoEErros() throws Exception {
+		mockMvc.perform(get("/person/999")).andExpect(status().isNotFound());
+		mockMvc.perform(get("/person/1/age").param("output", "years")).andExpect(status().isOk());
+
+		mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("pessoa_erros_total{excecao=\"PessoaNotFoundException\",status=\"404\"} 1.0")))
+				.andExpect(content().string(containsString("pessoa_calculos_total{formato=\"years\",tipo=\"idade\"} 1.0")))
+				.andExpect(content().string(containsString("pessoa_operacao_seconds_bucket{operacao=\"buscarPorId\"")))
+				.andExpect(content().string(containsString("pessoa_cadastro_tamanho 3.0")))
+				.andExpect(content().string(containsString("pessoa_cadastro_memoria_bytes")))
+				.andExpect(content().string(containsString("jvm_memory_used_bytes")));
+	}
+
+}
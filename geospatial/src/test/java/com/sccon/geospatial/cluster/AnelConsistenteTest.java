@@ -0,0 +1,61 @@
+package com.sccon.geospatial.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnelConsistenteTest {
+
+    private static final List<String> TRES_NOS = List.of("http://localhost:8081", "http://localhost:8082", "http://localhost:8083");
+
+    @Test
+    void dono_ComOsMesmosNosEmOutraOrdem_DeveSerOMesmo() {
+        AnelConsistente anel = new AnelConsistente(TRES_NOS, 128);
+        AnelConsistente invertido = new AnelConsistente(TRES_NOS.reversed(), 128);
+
+        for (long id = 1; id <= 1000; id++) {
+            assertEquals(anel.dono(id), invertido.dono(id));
+        }
+        assertEquals(TRES_NOS, invertido.nos());
+    }
+
+    @Test
+    void dono_ComIdsSequenciais_DeveDistribuirEntreOsNos() {
+        AnelConsistente anel = new AnelConsistente(TRES_NOS, 128);
+        Map<String, Integer> porNo = new HashMap<>();
+        for (long id = 1; id <= 30_000; id++) {
+            porNo.merge(anel.dono(id), 1, Integer::sum);
+        }
+
+        assertEquals(3, porNo.size());
+        for (int quantidade : porNo.values()) {
+            assertTrue(quantidade > 7_000 && quantidade < 13_000, "Distribuição desigual: " + porNo);
+        }
+    }
+
+    @Test
+    void dono_QuandoUmNoEntra_DeveMoverSoOsIdsDoNovoNo() {
+        AnelConsistente antes = new AnelConsistente(TRES_NOS, 128);
+        String novo = "http://localhost:8084";
+        AnelConsistente depois = new AnelConsistente(List.of(TRES_NOS.get(0), TRES_NOS.get(1), TRES_NOS.get(2), novo), 128);
+
+        int movidos = 0;
+        for (long id = 1; id <= 40_000; id++) {
+            if (!antes.dono(id).equals(depois.dono(id))) {
+                assertEquals(novo, depois.dono(id));
+                movidos++;
+            }
+        }
+        // Cerca de 1/4 dos ids vai para o nó novo
+        assertTrue(movidos > 6_000 && movidos < 14_000, "Movidos: " + movidos);
+    }
+
+    @Test
+    void construtor_SemNos_DeveLancarExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> new AnelConsistente(List.of(), 128));
+    }
+}
@@ -0,0 +1,263 @@
+package com.sccon.geospatial.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sccon.geospatial.GeospatialApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dois nós na mesma máquina: o primeiro sobe sozinho com os dados iniciais, o segundo
+ * entra pelo primeiro e recebe a sua parte do cadastro no rebalanceamento.
+ */
+class ClusterPessoasTest {
+
+    private static final HttpClient HTTP = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static ConfigurableApplicationContext noA;
+    private static ConfigurableApplicationContext noB;
+    private static String a;
+    private static String b;
+
+    @BeforeAll
+    static void subirNos() throws Exception {
+        noA = subir(1, "");
+        a = endereco(noA);
+        noB = subir(2, a);
+        b = endereco(noB);
+
+        aguardar(() -> nos(a).size() == 2 && nos(b).size() == 2);
+        // Os dados iniciais existem nos dois nós até o rebalanceamento deixar uma cópia de cada
+        aguardar(() -> {
+            List<Long> ids = new ArrayList<>(idsLocais(a));
+            ids.addAll(idsLocais(b));
+            return ids.size() == 3 && new HashSet<>(ids).size() == 3;
+        });
+    }
+
+    @AfterAll
+    static void descerNos() {
+        if (noB != null) {
+            noB.close();
+        }
+        if (noA != null) {
+            noA.close();
+        }
+    }
+
+    private static ConfigurableApplicationContext subir(int no, String sementes) {
+        return new SpringApplicationBuilder(GeospatialApplication.class)
+                .run("--server.port=0",
+                        "--pessoa.id.modo=temporal",
+                        "--pessoa.id.no=" + no,
+                        "--pessoa.cluster.habilitado=true",
+                        "--pessoa.cluster.nos=" + sementes);
+    }
+
+    private static String endereco(ConfigurableApplicationContext contexto) {
+        return "http://localhost:" + ((WebServerApplicationContext) contexto).getWebServer().getPort();
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + 20_000_000_000L;
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "Condição não atingida a tempo");
+            Thread.sleep(50);
+        }
+    }
+
+    private static HttpResponse<String> enviar(HttpRequest.Builder requisicao) {
+        try {
+            return HTTP.send(requisicao.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HttpResponse<String> get(String no, String caminho) {
+        return enviar(HttpRequest.newBuilder(URI.create(no + caminho)));
+    }
+
+    private static HttpResponse<String> post(String no, String caminho, String corpo) {
+        return enviar(HttpRequest.newBuilder(URI.create(no + caminho))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(corpo)));
+    }
+
+    private static JsonNode json(HttpResponse<String> resposta) {
+        try {
+            return JSON.readTree(resposta.body());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> nos(String no) {
+        List<String> nos = new ArrayList<>();
+        json(get(no, "/cluster/nodes")).forEach(membro -> nos.add(membro.asText()));
+        return nos;
+    }
+
+    // Só o que o nó guarda: a marca de encaminhamento desliga o roteamento
+    private static List<Long> idsLocais(String no) {
+        HttpResponse<String> resposta = enviar(HttpRequest.newBuilder(URI.create(no + "/person"))
+                .header(ClusterPessoas.HEADER_ENCAMINHADO, "teste"));
+        List<Long> ids = new ArrayList<>();
+        json(resposta).forEach(pessoa -> ids.add(pessoa.get("id").asLong()));
+        return ids;
+    }
+
+    private static List<String> nomes(JsonNode pessoas) {
+        List<String> nomes = new ArrayList<>();
+        pessoas.forEach(pessoa -> nomes.add(pessoa.get("nome").asText()));
+        return nomes;
+    }
+
+    @Test
+    void buscarPorId_EmQualquerNo_DeveEncaminharAoDono() {
+        for (String no : List.of(a, b)) {
+            HttpResponse<String> resposta = get(no, "/person/2");
+            assertEquals(200, resposta.statusCode());
+            assertEquals("Maria Santos", json(resposta).get("nome").asText());
+            assertTrue(resposta.headers().firstValue("ETag").isPresent());
+            assertEquals(404, get(no, "/person/999").statusCode());
+        }
+        assertEquals(200, get(b, "/person/1/age?output=years").statusCode());
+    }
+
+    @Test
+    void criarPessoa_SemId_DeveFicarNoNoQueRecebeuEPoderSerLidaPeloOutro() {
+        HttpResponse<String> criada = post(b, "/person",
+                "{\"nome\":\"Ana Costa\",\"dataNascimento\":\"1992-03-15\",\"dataAdmissao\":\"2022-06-01\"}");
+        assertEquals(201, criada.statusCode());
+        long id = json(criada).get("id").asLong();
+
+        assertTrue(idsLocais(b).contains(id));
+        assertEquals("Ana Costa", json(get(a, "/person/" + id)).get("nome").asText());
+
+        HttpResponse<String> removida = enviar(HttpRequest.newBuilder(URI.create(a + "/person/" + id)).DELETE());
+        assertEquals(204, removida.statusCode());
+        assertEquals(404, get(b, "/person/" + id).statusCode());
+    }
+
+    @Test
+    void transferencia_DeveFicarComAMaiorVersao() {
+        HttpResponse<String> criada = post(b, "/person",
+                "{\"nome\":\"Ana Costa\",\"dataNascimento\":\"1992-03-15\",\"dataAdmissao\":\"2022-06-01\"}");
+        long id = json(criada).get("id").asLong();
+        long versao = versao(criada);
+
+        assertEquals(204, post(b, "/cluster/transfers", transferencia(id, "Ana Velha", versao - 1)).statusCode());
+        assertEquals("Ana Costa", json(get(b, "/person/" + id)).get("nome").asText());
+
+        assertEquals(204, post(b, "/cluster/transfers", transferencia(id, "Ana Souza", versao + 1000)).statusCode());
+        HttpResponse<String> transferida = get(b, "/person/" + id);
+        assertEquals("Ana Souza", json(transferida).get("nome").asText());
+        assertEquals(versao + 1000, versao(transferida));
+
+        // Alterações feitas no dono depois da transferência superam a versão recebida
+        HttpResponse<String> alterada = enviar(HttpRequest.newBuilder(URI.create(a + "/person/" + id))
+                .header("Content-Type", "application/json")
+                .method("PATCH", HttpRequest.BodyPublishers.ofString("{\"nome\":\"Ana Lima\"}")));
+        assertEquals(200, alterada.statusCode());
+        assertTrue(versao(alterada) > versao + 1000);
+
+        enviar(HttpRequest.newBuilder(URI.create(a + "/person/" + id)).DELETE());
+    }
+
+    private static String transferencia(long id, String nome, long versao) {
+        return "{\"pessoa\":{\"id\":" + id + ",\"nome\":\"" + nome
+                + "\",\"dataNascimento\":\"1992-03-15\",\"dataAdmissao\":\"2022-06-01\"},\"versao\":" + versao + "}";
+    }
+
+    private static long versao(HttpResponse<String> resposta) {
+        return Long.parseLong(resposta.headers().firstValue("ETag").orElseThrow().replace("\"", ""));
+    }
+
+    @Test
+    void listarPessoas_ComPessoasNosDoisNos_DevePaginarComoUmNoUnico() {
+        StringBuilder lote = new StringBuilder("[");
+        for (int i = 0; i < 20; i++) {
+            lote.append(i == 0 ? "" : ",").append("{\"nome\":\"Pessoa Lote ").append((char) ('A' + i))
+                    .append("\",\"dataNascimento\":\"1990-01-01\",\"dataAdmissao\":\"2020-01-01\"}");
+        }
+        // Um id de cada nó e um id que já existe
+        lote.append(",{\"id\":1,\"nome\":\"Repetida\",\"dataNascimento\":\"1990-01-01\",\"dataAdmissao\":\"2020-01-01\"}]");
+        HttpResponse<String> resultado = post(a, "/person/batch", lote.toString());
+        assertEquals(200, resultado.statusCode());
+        JsonNode resultados = json(resultado);
+        assertEquals(21, resultados.size());
+        assertEquals(20, resultados.get(20).get("indice").asInt());
+        assertEquals("CONFLICT", resultados.get(20).get("status").asText());
+        List<Long> criados = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, resultados.get(i).get("indice").asInt());
+            assertEquals("CREATED", resultados.get(i).get("status").asText());
+            criados.add(resultados.get(i).get("id").asLong());
+        }
+
+        try {
+            List<String> todas = nomes(json(get(b, "/person")));
+            assertEquals(23, todas.size());
+            assertEquals(List.of("João Oliveira", "José da Silva", "Maria Santos"), todas.subList(0, 3));
+
+            List<String> paginadas = new ArrayList<>();
+            String cursor = null;
+            do {
+                HttpResponse<String> pagina = get(a, "/person?limit=7" + (cursor != null ? "&cursor=" + cursor : ""));
+                assertEquals(200, pagina.statusCode());
+                paginadas.addAll(nomes(json(pagina)));
+                cursor = pagina.headers().firstValue("X-Next-Cursor").orElse(null);
+            } while (cursor != null);
+            assertEquals(todas, paginadas);
+
+            assertEquals(23, json(get(b, "/person/stats")).get("quantidade").asLong());
+            assertEquals("José da Silva", nomes(json(get(b, "/person/search?q=jose"))).get(0));
+        } finally {
+            for (long id : criados) {
+                enviar(HttpRequest.newBuilder(URI.create(b + "/person/" + id)).DELETE());
+            }
+        }
+    }
+
+    @Test
+    void listarPessoas_ComETagDoCluster_DeveResponder304() {
+        HttpResponse<String> primeira = get(b, "/person");
+        String etag = primeira.headers().firstValue("ETag").orElseThrow();
+
+        HttpResponse<String> segunda = enviar(HttpRequest.newBuilder(URI.create(a + "/person")).header("If-None-Match", etag));
+
+        assertEquals(304, segunda.statusCode());
+    }
+
+    @Test
+    void calcularEmLote_ComIdsDeNosDiferentes_DeveManterAOrdemDoPedido() {
+        HttpResponse<String> resposta = post(a, "/person/calculations", "{\"ids\":[3,1,2],\"age\":[\"years\"]}");
+
+        assertEquals(200, resposta.statusCode());
+        JsonNode calculos = json(resposta);
+        assertEquals(3, calculos.get(0).get("id").asLong());
+        assertEquals(1, calculos.get(1).get("id").asLong());
+        assertEquals(2, calculos.get(2).get("id").asLong());
+    }
+}
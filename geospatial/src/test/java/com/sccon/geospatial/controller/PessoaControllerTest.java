@@ -1,20 +1,33 @@
 package com.sccon.geospatial.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sccon.geospatial.enums.OrdenacaoPessoas;
+import com.sccon.geospatial.model.CalculoPessoa;
+import com.sccon.geospatial.model.EstatisticasPessoas;
+import com.sccon.geospatial.model.FiltroPessoas;
+import com.sccon.geospatial.model.PaginaPessoas;
 import com.sccon.geospatial.model.Pessoa;
+import com.sccon.geospatial.model.ResultadoLote;
+import com.sccon.geospatial.service.FeedAlteracoes;
 import com.sccon.geospatial.service.PessoaService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.json.JsonCompareMode;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -32,6 +45,9 @@ class PessoaControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private FormatosBinarios formatosBinarios;
+
     private Pessoa pessoaTeste;
 
     @BeforeEach
@@ -64,12 +80,131 @@ class PessoaControllerTest {
         verify(pessoaService, times(1)).listarPessoas();
     }
 
+    @Test
+    void listarPessoas_ComLimite_DeveRetornarPaginaECursor() throws Exception {
+        List<Pessoa> pagina = List.of(
+            new Pessoa(3L, "João Oliveira", LocalDate.of(1988, 12, 3), LocalDate.of(2021, 1, 15))
+        );
+
+        when(pessoaService.listarPessoas(eq(FiltroPessoas.NENHUM), isNull(), eq(1))).thenReturn(new PaginaPessoas(pagina, "abc"));
+
+        mockMvc.perform(get("/person?limit=1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "abc"))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].nome").value("João Oliveira"));
+
+        verify(pessoaService, never()).listarPessoas();
+    }
+
+    @Test
+    void listarPessoas_NaUltimaPagina_NaoDeveRetornarCursor() throws Exception {
+        when(pessoaService.listarPessoas(FiltroPessoas.NENHUM, "abc", 100)).thenReturn(new PaginaPessoas(List.of(), null));
+
+        mockMvc.perform(get("/person?cursor=abc"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void listarPessoas_ComIntervaloDeDatas_DeveRepassarFiltroEOrdenacao() throws Exception {
+        FiltroPessoas filtro = new FiltroPessoas(OrdenacaoPessoas.DATA_ADMISSAO, null, null,
+            LocalDate.of(2020, 1, 1), LocalDate.of(2021, 12, 31));
+        when(pessoaService.listarPessoas(filtro, null, 100)).thenReturn(new PaginaPessoas(List.of(pessoaTeste), "prox"));
+
+        mockMvc.perform(get("/person?sort=dataAdmissao&dataAdmissaoDe=2020-01-01&dataAdmissaoAte=2021-12-31"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "prox"))
+                .andExpect(jsonPath("$[0].id").value(1));
+
+        verify(pessoaService, never()).listarPessoas();
+    }
+
+    @Test
+    void listarPessoas_ComDataInvalida_DeveRetornar400() throws Exception {
+        mockMvc.perform(get("/person?dataNascimentoDe=06-04-2000"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").exists());
+
+        verify(pessoaService, never()).listarPessoas(any(), any(), anyInt());
+    }
+
+    @Test
+    void buscarPorNome_DeveRepassarConsultaELimitePadrao() throws Exception {
+        when(pessoaService.buscarPorNome("joao oli", 20)).thenReturn(List.of(pessoaTeste));
+
+        mockMvc.perform(get("/person/search").param("q", "joao oli"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].nome").value("José da Silva"));
+    }
+
+    @Test
+    void estatisticas_DeveRetornarAgregados() throws Exception {
+        when(pessoaService.estatisticas()).thenReturn(new EstatisticasPessoas(LocalDate.of(2023, 2, 7), 2, 5000.5, 2500.25,
+                Map.of(22, 2L), Map.of("2020-05", 2L)));
+
+        mockMvc.perform(get("/person/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.referencia").value("2023-02-07"))
+                .andExpect(jsonPath("$.quantidade").value(2))
+                .andExpect(jsonPath("$.folhaTotal").value(5000.5))
+                .andExpect(jsonPath("$.pessoasPorIdade.22").value(2))
+                .andExpect(jsonPath("$['admissoesPorMes']['2020-05']").value(2));
+    }
+
+    @Test
+    void exportarPessoas_DeveRetornarUmJsonPorLinha() throws Exception {
+        List<Pessoa> pessoas = Arrays.asList(
+            new Pessoa(1L, "José da Silva", LocalDate.of(2000, 4, 6), LocalDate.of(2020, 5, 10)),
+            new Pessoa(2L, "Maria Santos", LocalDate.of(1995, 8, 15), LocalDate.of(2019, 3, 20))
+        );
+
+        when(pessoaService.exportarPessoas()).thenReturn(pessoas);
+
+        MvcResult resultado = mockMvc.perform(get("/person/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string(
+                    "{\"id\":1,\"nome\":\"José da Silva\",\"dataNascimento\":\"2000-04-06\",\"dataAdmissao\":\"2020-05-10\"}\n"
+                    + "{\"id\":2,\"nome\":\"Maria Santos\",\"dataNascimento\":\"1995-08-15\",\"dataAdmissao\":\"2019-03-20\"}\n"));
+    }
+
+    @Test
+    void acompanharAlteracoes_ComSequenciaQueOServidorNaoConhece_DeveEnviarResetEEncerrar() throws Exception {
+        when(pessoaService.alteracoes()).thenReturn(new FeedAlteracoes(8));
+
+        MvcResult resultado = mockMvc.perform(get("/person/changes").header("Last-Event-ID", "42"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(content().string(":\n\nevent:reset\ndata:{\"sequencia\":0}\n\n"));
+    }
+
+    @Test
+    void acompanharAlteracoes_ComSequenciaInvalida_DeveRetornarBadRequest() throws Exception {
+        when(pessoaService.alteracoes()).thenReturn(new FeedAlteracoes(8));
+
+        mockMvc.perform(get("/person/changes?since=abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Sequência 'abc' não é válida"));
+    }
+
     @Test
     void buscarPorId_QuandoPessoaExiste_DeveRetornarPessoa() throws Exception {
         when(pessoaService.buscarPorId(1L)).thenReturn(pessoaTeste);
 
         mockMvc.perform(get("/person/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.nome").value("José da Silva"))
@@ -79,6 +214,82 @@ class PessoaControllerTest {
         verify(pessoaService, times(1)).buscarPorId(1L);
     }
 
+    @Test
+    void buscarPorId_DeveEscreverOJsonEmCacheDoRegistro() throws Exception {
+        when(pessoaService.buscarPorId(1L)).thenReturn(pessoaTeste);
+
+        String primeira = mockMvc.perform(get("/person/1")).andReturn().getResponse().getContentAsString();
+        byte[] emCache = pessoaTeste.jsonEmCache();
+
+        assertNotNull(emCache);
+        assertEquals(objectMapper.writeValueAsString(pessoaTeste), primeira);
+        mockMvc.perform(get("/person/1"))
+                .andExpect(header().longValue("Content-Length", emCache.length))
+                .andExpect(content().bytes(emCache));
+        assertSame(emCache, pessoaTeste.jsonEmCache());
+    }
+
+    @Test
+    void listarPessoas_DeveConcatenarOJsonDeCadaRegistroComContentLength() throws Exception {
+        Pessoa maria = new Pessoa(2L, "Maria Santos", LocalDate.of(1995, 8, 15), LocalDate.of(2019, 3, 20));
+        when(pessoaService.versaoCadastro()).thenReturn(1L);
+        when(pessoaService.listarPessoas()).thenReturn(List.of(pessoaTeste, maria));
+        String esperado = objectMapper.writeValueAsString(List.of(pessoaTeste, maria));
+
+        mockMvc.perform(get("/person"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().longValue("Content-Length", esperado.getBytes(StandardCharsets.UTF_8).length))
+                .andExpect(content().json(esperado, JsonCompareMode.STRICT));
+
+        when(pessoaService.listarPessoas()).thenReturn(List.of());
+        when(pessoaService.versaoCadastro()).thenReturn(2L);
+        mockMvc.perform(get("/person"))
+                .andExpect(content().string("[]"));
+    }
+
+    @Test
+    void buscarPorId_ComIfNoneMatchDaVersaoAtual_DeveRetornar304SemCorpo() throws Exception {
+        when(pessoaService.buscarPorId(1L)).thenReturn(pessoaTeste.comVersao(5L));
+
+        mockMvc.perform(get("/person/1").header("If-None-Match", "\"5\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"5\""))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void buscarPorId_ComIfNoneMatchDeVersaoAntiga_DeveRetornar200() throws Exception {
+        when(pessoaService.buscarPorId(1L)).thenReturn(pessoaTeste.comVersao(6L));
+
+        mockMvc.perform(get("/person/1").header("If-None-Match", "\"5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"6\""))
+                .andExpect(jsonPath("$.nome").value("José da Silva"));
+    }
+
+    @Test
+    void listarPessoas_ComIfNoneMatchDoCadastroAtual_DeveRetornar304SemListar() throws Exception {
+        when(pessoaService.versaoCadastro()).thenReturn(42L);
+
+        mockMvc.perform(get("/person").header("If-None-Match", "\"c42\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(pessoaService, never()).listarPessoas();
+    }
+
+    @Test
+    void listarPessoas_DeveRetornarETagDoCadastro() throws Exception {
+        when(pessoaService.versaoCadastro()).thenReturn(43L);
+        when(pessoaService.listarPessoas()).thenReturn(List.of(pessoaTeste));
+
+        mockMvc.perform(get("/person").header("If-None-Match", "\"c42\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"c43\""))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
     @Test
     void buscarPorId_QuandoPessoaNaoExiste_DeveRetornar404() throws Exception {
         when(pessoaService.buscarPorId(999L))
@@ -168,13 +379,51 @@ class PessoaControllerTest {
         verify(pessoaService, never()).criarPessoa(any(Pessoa.class));
     }
 
+    @Test
+    void criarPessoas_DeveRetornarResultadoPorItem() throws Exception {
+        when(pessoaService.criarPessoas(anyList(), eq(0))).thenAnswer(invocacao -> {
+            List<Pessoa> lote = invocacao.getArgument(0);
+            assertEquals(3, lote.size());
+            assertNull(lote.get(1));
+            return List.of(
+                ResultadoLote.criado(0, 4L),
+                ResultadoLote.invalido(1, "Pessoa não pode ser nula"),
+                ResultadoLote.conflito(2, 1L));
+        });
+
+        mockMvc.perform(post("/person/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"nome\":\"Ana Costa\",\"dataNascimento\":\"1992-03-15\",\"dataAdmissao\":\"2022-06-01\"},"
+                    + "{\"nome\":\"Data Errada\",\"dataNascimento\":\"15/03/1992\"},"
+                    + "{\"id\":1,\"nome\":\"Conflito\",\"dataNascimento\":\"1990-01-01\",\"dataAdmissao\":\"2020-01-01\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[0].id").value(4))
+                .andExpect(jsonPath("$[1].indice").value(1))
+                .andExpect(jsonPath("$[1].status").value("INVALID"))
+                .andExpect(jsonPath("$[1].erro").value("Pessoa com formato inválido"))
+                .andExpect(jsonPath("$[2].status").value("CONFLICT"));
+    }
+
+    @Test
+    void criarPessoas_ComCorpoQueNaoEArray_DeveRetornar400() throws Exception {
+        mockMvc.perform(post("/person/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\":\"Ana Costa\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Corpo deve ser um array JSON de pessoas"));
+
+        verify(pessoaService, never()).criarPessoas(anyList(), anyInt());
+    }
+
     @Test
     void atualizarPessoa_QuandoPessoaExiste_DeveRetornar200() throws Exception {
         Pessoa pessoaAtualizada = new Pessoa(1L, "José da Silva Atualizado", 
             LocalDate.of(2000, 4, 6), 
             LocalDate.of(2020, 5, 10));
 
-        when(pessoaService.atualizarPessoa(eq(1L), any(Pessoa.class))).thenReturn(pessoaAtualizada);
+        when(pessoaService.atualizarPessoa(eq(1L), any(Pessoa.class), isNull())).thenReturn(pessoaAtualizada);
 
         mockMvc.perform(put("/person/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -183,7 +432,48 @@ class PessoaControllerTest {
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.nome").value("José da Silva Atualizado"));
 
-        verify(pessoaService, times(1)).atualizarPessoa(eq(1L), any(Pessoa.class));
+        verify(pessoaService, times(1)).atualizarPessoa(eq(1L), any(Pessoa.class), isNull());
+    }
+
+    @Test
+    void atualizarPessoa_ComIfMatch_DeveRepassarVersaoERetornarNovaETag() throws Exception {
+        Pessoa pessoaAtualizada = new Pessoa(1L, "José da Silva Atualizado",
+            LocalDate.of(2000, 4, 6),
+            LocalDate.of(2020, 5, 10), 8L);
+
+        when(pessoaService.atualizarPessoa(eq(1L), any(Pessoa.class), eq(7L))).thenReturn(pessoaAtualizada);
+
+        mockMvc.perform(put("/person/1")
+                .header("If-Match", "\"7\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(pessoaAtualizada)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"8\""))
+                .andExpect(jsonPath("$.versao").doesNotExist());
+    }
+
+    @Test
+    void atualizarAtributo_ComVersaoDesatualizada_DeveRetornar412() throws Exception {
+        when(pessoaService.atualizarParcialmente(eq(1L), any(), eq(7L)))
+                .thenThrow(new com.sccon.geospatial.exception.PessoaPreconditionFailedException("Pessoa com ID 1 está na versão 9, esperada 7"));
+
+        mockMvc.perform(patch("/person/1")
+                .header("If-Match", "\"7\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\":\"Teste\"}"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").value("Pessoa com ID 1 está na versão 9, esperada 7"));
+    }
+
+    @Test
+    void atualizarAtributo_ComIfMatchInvalido_DeveRetornar412() throws Exception {
+        mockMvc.perform(patch("/person/1")
+                .header("If-Match", "W/\"7\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nome\":\"Teste\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+        verify(pessoaService, never()).atualizarParcialmente(any(), any(), any());
     }
 
     @Test
@@ -192,7 +482,7 @@ class PessoaControllerTest {
             LocalDate.of(1990, 1, 1), 
             LocalDate.of(2020, 1, 1));
 
-        when(pessoaService.atualizarPessoa(eq(999L), any(Pessoa.class)))
+        when(pessoaService.atualizarPessoa(eq(999L), any(Pessoa.class), isNull()))
                 .thenThrow(new com.sccon.geospatial.exception.PessoaNotFoundException("Pessoa com ID 999 não encontrada"));
 
         mockMvc.perform(put("/person/999")
@@ -201,7 +491,7 @@ class PessoaControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").value("Pessoa com ID 999 não encontrada"));
 
-        verify(pessoaService, times(1)).atualizarPessoa(eq(999L), any(Pessoa.class));
+        verify(pessoaService, times(1)).atualizarPessoa(eq(999L), any(Pessoa.class), isNull());
     }
 
     @Test
@@ -210,7 +500,7 @@ class PessoaControllerTest {
             LocalDate.of(2000, 4, 6), 
             LocalDate.of(2020, 5, 10));
 
-        when(pessoaService.atualizarParcialmente(eq(1L), any())).thenReturn(pessoaAtualizada);
+        when(pessoaService.atualizarParcialmente(eq(1L), any(), isNull())).thenReturn(pessoaAtualizada);
 
         mockMvc.perform(patch("/person/1")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -218,7 +508,7 @@ class PessoaControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.nome").value("José Silva Modificado"));
 
-        verify(pessoaService, times(1)).atualizarParcialmente(eq(1L), any());
+        verify(pessoaService, times(1)).atualizarParcialmente(eq(1L), any(), isNull());
     }
 
     @Test
@@ -227,19 +517,19 @@ class PessoaControllerTest {
             LocalDate.of(2000, 4, 7), 
             LocalDate.of(2020, 5, 10));
 
-        when(pessoaService.atualizarParcialmente(eq(1L), any())).thenReturn(pessoaAtualizada);
+        when(pessoaService.atualizarParcialmente(eq(1L), any(), isNull())).thenReturn(pessoaAtualizada);
 
         mockMvc.perform(patch("/person/1")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content("{\"dataNascimento\":\"2000-04-07\"}"))
                 .andExpect(status().isOk());
 
-        verify(pessoaService, times(1)).atualizarParcialmente(eq(1L), any());
+        verify(pessoaService, times(1)).atualizarParcialmente(eq(1L), any(), isNull());
     }
 
     @Test
     void atualizarAtributo_QuandoPessoaNaoExiste_DeveRetornar404() throws Exception {
-        when(pessoaService.atualizarParcialmente(eq(999L), any()))
+        when(pessoaService.atualizarParcialmente(eq(999L), any(), isNull()))
                 .thenThrow(new com.sccon.geospatial.exception.PessoaNotFoundException("Pessoa com ID 999 não encontrada"));
 
         mockMvc.perform(patch("/person/999")
@@ -248,12 +538,12 @@ class PessoaControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.error").value("Pessoa com ID 999 não encontrada"));
 
-        verify(pessoaService, times(1)).atualizarParcialmente(eq(999L), any());
+        verify(pessoaService, times(1)).atualizarParcialmente(eq(999L), any(), isNull());
     }
 
     @Test
     void atualizarAtributo_ComAtributoInvalido_DeveRetornar400() throws Exception {
-        when(pessoaService.atualizarParcialmente(eq(1L), any()))
+        when(pessoaService.atualizarParcialmente(eq(1L), any(), isNull()))
                 .thenThrow(new com.sccon.geospatial.exception.InvalidParameterException("Atributo 'atributoInvalido' não é válido"));
 
         mockMvc.perform(patch("/person/1")
@@ -262,7 +552,7 @@ class PessoaControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("Atributo 'atributoInvalido' não é válido"));
 
-        verify(pessoaService, times(1)).atualizarParcialmente(eq(1L), any());
+        verify(pessoaService, times(1)).atualizarParcialmente(eq(1L), any(), isNull());
     }
 
     @Test
@@ -416,7 +706,7 @@ class PessoaControllerTest {
 
     @Test
     void atualizarAtributo_ComNomeVazio_DeveRetornar400() throws Exception {
-        when(pessoaService.atualizarParcialmente(eq(1L), any()))
+        when(pessoaService.atualizarParcialmente(eq(1L), any(), isNull()))
                 .thenThrow(new com.sccon.geospatial.exception.InvalidParameterException("Nome não pode ser vazio"));
 
         mockMvc.perform(patch("/person/1")
@@ -425,12 +715,12 @@ class PessoaControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("Nome não pode ser vazio"));
 
-        verify(pessoaService, times(1)).atualizarParcialmente(eq(1L), any());
+        verify(pessoaService, times(1)).atualizarParcialmente(eq(1L), any(), isNull());
     }
 
     @Test
     void atualizarAtributo_ComDataNascimentoNula_DeveRetornar400() throws Exception {
-        when(pessoaService.atualizarParcialmente(eq(1L), any()))
+        when(pessoaService.atualizarParcialmente(eq(1L), any(), isNull()))
                 .thenThrow(new com.sccon.geospatial.exception.InvalidParameterException("Data de nascimento não pode ser nula"));
 
         mockMvc.perform(patch("/person/1")
@@ -439,6 +729,77 @@ class PessoaControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("Data de nascimento não pode ser nula"));
 
-        verify(pessoaService, times(1)).atualizarParcialmente(eq(1L), any());
+        verify(pessoaService, times(1)).atualizarParcialmente(eq(1L), any(), isNull());
+    }
+
+    @Test
+    void calcularEmLote_DeveRetornarValoresDeTodasAsPessoas() throws Exception {
+        when(pessoaService.calcularEmLote(eq(List.of(1L)), eq(List.of("days")), eq(List.of("full"))))
+                .thenReturn(List.of(new CalculoPessoa(1L, Map.of("days", 8342L), Map.of("full", 3259.36))));
+
+        mockMvc.perform(post("/person/calculations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1],\"age\":[\"days\"],\"salary\":[\"full\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].age.days").value(8342))
+                .andExpect(jsonPath("$[0].salary.full").value(3259.36));
+    }
+
+    @Test
+    void buscarPorId_ComAcceptCbor_DeveRetornarDatasComoDiaDaEpoca() throws Exception {
+        when(pessoaService.buscarPorId(1L)).thenReturn(pessoaTeste);
+
+        byte[] corpo = mockMvc.perform(get("/person/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode pessoa = formatosBinarios.cbor().readTree(corpo);
+        assertEquals("José da Silva", pessoa.get("nome").asText());
+        assertTrue(pessoa.get("dataNascimento").isIntegralNumber());
+        assertEquals(LocalDate.of(2000, 4, 6).toEpochDay(), pessoa.get("dataNascimento").asLong());
+        assertEquals(pessoaTeste.getDataAdmissao(), formatosBinarios.cbor().readValue(corpo, Pessoa.class).getDataAdmissao());
+    }
+
+    @Test
+    void listarPessoas_ComAcceptSmile_DeveRetornarListaSmile() throws Exception {
+        List<Pessoa> pessoas = List.of(pessoaTeste,
+                new Pessoa(2L, "Maria Santos", LocalDate.of(1995, 8, 15), LocalDate.of(2019, 3, 20)));
+        when(pessoaService.listarPessoas()).thenReturn(pessoas);
+
+        byte[] corpo = mockMvc.perform(get("/person").accept(FormatosBinarios.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(FormatosBinarios.APPLICATION_SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        Pessoa[] lidas = formatosBinarios.smile().readValue(corpo, Pessoa[].class);
+        assertEquals(2, lidas.length);
+        assertEquals("Maria Santos", lidas[1].getNome());
+        assertEquals(LocalDate.of(1995, 8, 15), lidas[1].getDataNascimento());
+
+        // Sem preferência, a resposta continua JSON
+        mockMvc.perform(get("/person").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void criarPessoas_ComCorpoCbor_DeveLerDatasComoDiaDaEpoca() throws Exception {
+        when(pessoaService.criarPessoas(anyList(), eq(0))).thenReturn(List.of(ResultadoLote.criado(0, 4L)));
+        byte[] corpo = formatosBinarios.cbor().writeValueAsBytes(
+                List.of(new Pessoa(null, "Ana Costa", LocalDate.of(1992, 3, 15), LocalDate.of(2022, 6, 1))));
+
+        byte[] resposta = mockMvc.perform(post("/person/batch")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content(corpo))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals("CREATED", formatosBinarios.cbor().readTree(resposta).get(0).get("status").asText());
+        verify(pessoaService).criarPessoas(argThat(lote -> lote.size() == 1
+                && lote.get(0).getDataNascimento().equals(LocalDate.of(1992, 3, 15))
+                && lote.get(0).getDataAdmissao().equals(LocalDate.of(2022, 6, 1))), eq(0));
     }
 }
@@ -0,0 +1,198 @@
+package com.sccon.geospatial.controller;
+
+import com.sccon.geospatial.exception.PessoaNotFoundException;
+import com.sccon.geospatial.model.FiltroPessoas;
+import com.sccon.geospatial.model.PaginaPessoas;
+import com.sccon.geospatial.model.Pessoa;
+import com.sccon.geospatial.model.ResultadoLote;
+import com.sccon.geospatial.service.FeedAlteracoes;
+import com.sccon.geospatial.service.PessoaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(PessoaReativaController.class)
+class PessoaReativaControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockitoBean
+    private PessoaService pessoaService;
+
+    private Pessoa pessoaTeste;
+
+    @BeforeEach
+    void setUp() {
+        pessoaTeste = new Pessoa(1L, "José da Silva", LocalDate.of(2000, 4, 6), LocalDate.of(2020, 5, 10), 7L);
+    }
+
+    @Test
+    void listarPessoas_DeveRetornarArrayComETagDoCadastro() {
+        when(pessoaService.versaoCadastro()).thenReturn(4L);
+        when(pessoaService.percorrerPorNome()).thenReturn(List.of(
+                new Pessoa(3L, "João Oliveira", LocalDate.of(1988, 12, 3), LocalDate.of(2021, 1, 15)),
+                pessoaTeste));
+
+        webTestClient.get().uri("/person")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"c4\"")
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].nome").isEqualTo("João Oliveira")
+                .jsonPath("$[1].nome").isEqualTo("José da Silva");
+    }
+
+    @Test
+    void listarPessoas_ComIfNoneMatchAtual_DeveRetornar304SemConsultar() {
+        when(pessoaService.versaoCadastro()).thenReturn(4L);
+
+        webTestClient.get().uri("/person")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"c4\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        verify(pessoaService, never()).listarPessoas();
+    }
+
+    @Test
+    void listarPessoas_ComLimite_DeveRetornarPaginaECursor() {
+        when(pessoaService.listarPessoas(FiltroPessoas.NENHUM, null, 1))
+                .thenReturn(new PaginaPessoas(List.of(pessoaTeste), "abc"));
+
+        webTestClient.get().uri("/person?limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(PessoaController.HEADER_PROXIMO_CURSOR, "abc")
+                .expectBody()
+                .jsonPath("$[0].id").isEqualTo(1);
+    }
+
+    @Test
+    void exportarPessoas_DeveRetornarUmJsonPorLinha() {
+        when(pessoaService.exportarPessoas()).thenReturn(List.of(pessoaTeste,
+                new Pessoa(2L, "Maria Santos", LocalDate.of(1995, 8, 15), LocalDate.of(2019, 3, 20))));
+
+        String corpo = webTestClient.get().uri("/person/export")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals("{\"id\":1,\"nome\":\"José da Silva\",\"dataNascimento\":\"2000-04-06\",\"dataAdmissao\":\"2020-05-10\"}\n"
+                + "{\"id\":2,\"nome\":\"Maria Santos\",\"dataNascimento\":\"1995-08-15\",\"dataAdmissao\":\"2019-03-20\"}\n", corpo);
+    }
+
+    @Test
+    void acompanharAlteracoes_DesdeOInicio_DeveEnviarAsAlteracoesComSequenciaETipo() {
+        PessoaService servico = new PessoaService();
+        servico.removerPessoa(3L);
+        when(pessoaService.alteracoes()).thenReturn(servico.alteracoes());
+
+        List<ServerSentEvent<String>> eventos = webTestClient.get().uri("/person/changes?since=0")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() { })
+                .getResponseBody()
+                .filter(evento -> evento.data() != null)
+                .take(4)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        // Os dados iniciais são criados pelo próprio serviço
+        assertEquals(4, eventos.size());
+        assertEquals("1", eventos.get(0).id());
+        assertEquals("created", eventos.get(0).event());
+        assertTrue(eventos.get(0).data().contains("\"nome\":\"José da Silva\""));
+        assertEquals("4", eventos.get(3).id());
+        assertEquals("deleted", eventos.get(3).event());
+        assertEquals("{\"id\":3}", eventos.get(3).data());
+    }
+
+    @Test
+    void buscarPorId_Inexistente_DeveRetornar404ComMensagem() {
+        when(pessoaService.buscarPorId(99L)).thenThrow(new PessoaNotFoundException("Pessoa com ID 99 não encontrada"));
+
+        webTestClient.get().uri("/person/99")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Pessoa com ID 99 não encontrada");
+    }
+
+    @Test
+    void criarPessoa_SemNome_DeveRetornar400ComMensagemDeValidacao() {
+        webTestClient.post().uri("/person")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"dataNascimento\":\"2000-04-06\",\"dataAdmissao\":\"2020-05-10\"}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Nome não pode ser vazio");
+
+        verify(pessoaService, never()).criarPessoa(any());
+    }
+
+    @Test
+    void atualizarAtributo_ComIfMatch_DeveRepassarVersaoERetornarNovaETag() {
+        when(pessoaService.atualizarParcialmente(eq(1L), anyMap(), eq(7L))).thenReturn(pessoaTeste.comVersao(8L));
+
+        webTestClient.patch().uri("/person/1")
+                .header(HttpHeaders.IF_MATCH, "\"7\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"nome\":\"José da Silva\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"8\"");
+    }
+
+    @Test
+    void criarPessoas_ComItemMalFormado_DeveReportarNaPosicaoOriginal() {
+        when(pessoaService.criarPessoas(anyList(), eq(0))).thenReturn(List.of(
+                ResultadoLote.criado(0, 10L), ResultadoLote.invalido(1, "Pessoa não pode ser nula"), ResultadoLote.criado(2, 11L)));
+
+        webTestClient.post().uri("/person/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"nome\":\"Ana\",\"dataNascimento\":\"1990-01-01\",\"dataAdmissao\":\"2020-01-01\"},"
+                        + "42,"
+                        + "{\"nome\":\"Bia\",\"dataNascimento\":\"1990-01-01\",\"dataAdmissao\":\"2020-01-01\"}]")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[0].id").isEqualTo(10)
+                .jsonPath("$[1].erro").isEqualTo("Pessoa com formato inválido")
+                .jsonPath("$[2].id").isEqualTo(11);
+    }
+
+    @Test
+    void criarPessoas_ComJsonInvalido_DeveRetornar400() {
+        webTestClient.post().uri("/person/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[{\"nome\":")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Corpo deve ser um array JSON de pessoas");
+    }
+}
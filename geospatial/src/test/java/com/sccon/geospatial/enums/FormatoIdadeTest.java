@@ -49,4 +49,17 @@ class FormatoIdadeTest {
             FormatoIdade.valueOf(null);
         });
     }
+
+    @Test
+    void porNome_SemDistinguirCaixa_DeveRetornarEnumCorreto() {
+        assertEquals(FormatoIdade.DAYS, FormatoIdade.porNome("days"));
+        assertEquals(FormatoIdade.MONTHS, FormatoIdade.porNome("Months"));
+        assertEquals(FormatoIdade.YEARS, FormatoIdade.porNome("YEARS"));
+    }
+
+    @Test
+    void porNome_ComFormatoInvalido_DeveLancarExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> FormatoIdade.porNome("invalid"));
+        assertThrows(IllegalArgumentException.class, () -> FormatoIdade.porNome(null));
+    }
 }
@@ -1,5 +1,6 @@
 package com.sccon.geospatial.helpers;
 
+import com.sccon.geospatial.enums.FormatoIdade;
 import com.sccon.geospatial.model.Pessoa;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -62,4 +63,10 @@ class IdadeHelperTest {
             idadeHelper.calcularIdade(pessoaComDataNula, "days");
         });
     }
+
+    @Test
+    void calcularIdade_ComFormatoEDataInformados_DeveUsarDataInformada() {
+        long resultado = idadeHelper.calcularIdade(pessoaTeste, FormatoIdade.YEARS, LocalDate.of(2030, 4, 6));
+        assertEquals(30, resultado);
+    }
 }
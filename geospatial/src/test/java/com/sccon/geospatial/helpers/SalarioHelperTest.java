@@ -1,5 +1,6 @@
 package com.sccon.geospatial.helpers;
 
+import com.sccon.geospatial.enums.FormatoSalario;
 import com.sccon.geospatial.model.Pessoa;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -73,4 +74,11 @@ class SalarioHelperTest {
         double resultado = salarioHelper.calcularSalario(pessoaRecemAdmitida, "full");
         assertEquals(1558.00, resultado, 0.01);
     }
+
+    @Test
+    void calcularSalario_ComFormatoEDataInformados_DeveUsarDataInformada() {
+        // Admitido em 10/05/2020; em 10/05/2021 completa 1 ano: 1558.00 * 1.18 + 500.00 = 2338.44
+        double resultado = salarioHelper.calcularSalario(pessoaTeste, FormatoSalario.FULL, LocalDate.of(2021, 5, 10));
+        assertEquals(2338.44, resultado, 0.01);
+    }
 }
@@ -0,0 +1,60 @@
+package com.sccon.geospatial.helpers;
+
+import com.sccon.geospatial.enums.FormatoSalario;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TabelaSalarioTest {
+
+    private static final double SALARIO_BASE = 1558.00;
+    private static final double MULTIPLICADOR_ANUAL = 1.18;
+    private static final double BONUS_ANUAL = 500.00;
+    private static final double SALARIO_MINIMO = 1302.00;
+
+    private final TabelaSalario tabela = new TabelaSalario(SALARIO_BASE, MULTIPLICADOR_ANUAL, BONUS_ANUAL, 64);
+
+    // Laço original de SalarioHelper, usado como referência
+    private static double salarioPorLaco(int anosNaEmpresa) {
+        double salarioAtual = SALARIO_BASE;
+        for (int i = 0; i < anosNaEmpresa; i++) {
+            salarioAtual = salarioAtual * MULTIPLICADOR_ANUAL + BONUS_ANUAL;
+        }
+        return salarioAtual;
+    }
+
+    @Test
+    void salario_ParaQualquerTempoDeEmpresa_DeveSerIdenticoAoLaco() {
+        Random random = new Random(20230207L);
+        for (int i = 0; i < 10_000; i++) {
+            int anos = random.nextInt(-10, 200);
+            double esperado = salarioPorLaco(anos);
+            assertEquals(esperado, tabela.salario(anos), 0.0, "anos=" + anos);
+            for (FormatoSalario formato : FormatoSalario.values()) {
+                assertEquals(formato.calcular(esperado, SALARIO_MINIMO),
+                    formato.calcular(tabela.salario(anos), SALARIO_MINIMO), 0.0, formato + " anos=" + anos);
+            }
+        }
+    }
+
+    @Test
+    void salario_ComValoresConhecidos_DeveRetornarSalarioComposto() {
+        assertEquals(1558.00, tabela.salario(0), 0.001);
+        assertEquals(2338.44, tabela.salario(1), 0.001);
+        assertEquals(3259.36, tabela.salario(2), 0.01);
+    }
+
+    @Test
+    void salarios_EmLote_DeveAplicarFormatoACadaTempoDeEmpresa() {
+        int[] anos = {0, 2, 70, -1};
+        double[] destino = new double[anos.length];
+
+        tabela.salarios(anos, FormatoSalario.MIN, SALARIO_MINIMO, destino);
+
+        for (int i = 0; i < anos.length; i++) {
+            assertEquals(FormatoSalario.MIN.calcular(salarioPorLaco(anos[i]), SALARIO_MINIMO), destino[i], 0.0);
+        }
+    }
+}
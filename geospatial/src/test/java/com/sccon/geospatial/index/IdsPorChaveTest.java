@@ -0,0 +1,92 @@
+package com.sccon.geospatial.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdsPorChaveTest {
+
+    private static List<Long> ids(IdsPorChave<String> mapa, String chave) {
+        List<Long> ids = new ArrayList<>();
+        for (long[] bloco : mapa.blocos(chave)) {
+            for (long id : bloco) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    @Test
+    void adicionarERetirar_EmOrdemAleatoria_DeveManterIdsOrdenadosEntreBlocos() {
+        IdsPorChave<String> mapa = new IdsPorChave<>();
+        TreeSet<Long> esperados = new TreeSet<>();
+        Random aleatorio = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            long id = aleatorio.nextInt(3000);
+            if (aleatorio.nextInt(3) == 0) {
+                mapa.retirar("b", id);
+                esperados.remove(id);
+            } else {
+                mapa.adicionar("b", id);
+                esperados.add(id);
+            }
+        }
+        mapa.adicionar("a", 1L);
+        mapa.adicionar("c", 1L);
+
+        assertEquals(new ArrayList<>(esperados), ids(mapa, "b"));
+        assertEquals(esperados.size(), mapa.quantidade("b"));
+        assertTrue(mapa.blocos("b").stream().allMatch(bloco -> bloco.length <= IdsPorChave.TAMANHO_BLOCO));
+        assertEquals(List.of(1L), ids(mapa, "a"));
+        assertTrue(mapa.contem("b", esperados.first()));
+        assertFalse(mapa.contem("a", esperados.last() + 1));
+    }
+
+    @Test
+    void adicionarERetirar_DeveInformarQuandoAChaveSurgeOuSome() {
+        IdsPorChave<String> mapa = new IdsPorChave<>();
+
+        assertTrue(mapa.adicionar("silva", 5L));
+        assertFalse(mapa.adicionar("silva", 3L));
+        assertFalse(mapa.retirar("silva", 5L));
+        assertFalse(mapa.retirar("santos", 3L));
+        assertTrue(mapa.retirar("silva", 3L));
+        assertNull(mapa.aPartirDe("silva"));
+    }
+
+    @Test
+    void adicionar_IdsCrescentes_DeveEncherOsBlocos() {
+        IdsPorChave<String> mapa = new IdsPorChave<>();
+        for (long id = 0; id < 10 * IdsPorChave.TAMANHO_BLOCO; id++) {
+            mapa.adicionar("maria", id);
+        }
+
+        assertEquals(10, mapa.blocos("maria").size());
+    }
+
+    @Test
+    void trecho_ComIdInicial_DeveComecarNoBlocoQueOContem() {
+        IdsPorChave<Long> mapa = new IdsPorChave<>();
+        TreeMap<Long, long[]> carga = new TreeMap<>();
+        long[] muitos = new long[1000];
+        for (int i = 0; i < muitos.length; i++) {
+            muitos[i] = i;
+        }
+        carga.put(10L, muitos);
+        carga.put(20L, new long[]{7L});
+        mapa.carregar(carga);
+
+        Map.Entry<IdsPorChave.Bloco<Long>, long[]> primeiro = mapa.trecho(10L, 600L, 20L).firstEntry();
+        assertEquals(10L, primeiro.getKey().chave());
+        assertTrue(primeiro.getValue()[0] <= 600L && primeiro.getValue()[primeiro.getValue().length - 1] >= 600L);
+        assertEquals(20L, mapa.trecho(15L, Long.MIN_VALUE, 30L).firstKey().chave());
+        assertEquals(1001, mapa.quantidade());
+    }
+}
@@ -0,0 +1,147 @@
+package com.sccon.geospatial.index;
+
+import com.sccon.geospatial.model.Pessoa;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceBuscaTest {
+
+    private IndiceBusca indiceBusca;
+    private Map<Long, Pessoa> pessoas;
+
+    @BeforeEach
+    void setUp() {
+        indiceBusca = new IndiceBusca();
+        pessoas = new HashMap<>();
+        gravar(1L, "José da Silva");
+        gravar(2L, "Maria Santos");
+        gravar(3L, "João Oliveira");
+        gravar(4L, "Joana Oliveira Santos");
+    }
+
+    private void gravar(long id, String nome) {
+        Pessoa nova = new Pessoa(id, nome, LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1));
+        indiceBusca.atualizar(pessoas.put(id, nova), nova);
+    }
+
+    private void remover(long id) {
+        indiceBusca.atualizar(pessoas.remove(id), null);
+    }
+
+    private List<Long> buscar(String consulta, int limite) {
+        return indiceBusca.buscar(consulta, limite, pessoas::get).stream().map(Pessoa::getId).toList();
+    }
+
+    @Test
+    void tokens_DeveIgnorarAcentosCaixaEPontuacao() {
+        assertEquals(List.of("joao", "d", "avila", "conceicao"), IndiceBusca.tokens("JOÃO d'Ávila  Conceição"));
+    }
+
+    @Test
+    void buscar_ComPrefixosSemAcento_DeveEncontrarNomeAcentuado() {
+        assertEquals(List.of(3L), buscar("joao oli", 10));
+        assertEquals(List.of(3L, 4L), buscar("oliv", 10));
+    }
+
+    @Test
+    void buscar_DeveOrdenarExatoAntesDePrefixoEAproximado() {
+        gravar(5L, "Santo Antônio");
+        gravar(6L, "Ana Sanntos");
+
+        // "santos" é exato em 2 e 4 e está a uma edição de "santo" (5) e de "sanntos" (6)
+        assertEquals(List.of(2L, 4L, 5L, 6L), buscar("santos", 10));
+        // "santo" é exato em 5, prefixo de "santos" em 2 e 4 e está a duas edições de "sanntos"
+        assertEquals(List.of(5L, 2L, 4L), buscar("santo", 10));
+    }
+
+    @Test
+    void buscar_ComErroDeDigitacao_DeveEncontrarDentroDoLimite() {
+        assertEquals(List.of(3L, 4L), buscar("olivera", 10));
+        assertEquals(List.of(1L), buscar("jose slva", 10));
+        // Termos curtos não toleram erros
+        assertEquals(List.of(), buscar("jse", 10));
+    }
+
+    @Test
+    void buscar_ComLimite_DeveManterOsMelhores() {
+        for (long id = 10; id < 40; id++) {
+            gravar(id, "Pessoa Oliveira " + id);
+        }
+
+        assertEquals(List.of(3L, 4L, 10L), buscar("oliveira", 3));
+    }
+
+    @Test
+    void atualizar_ComMuitosIdsNoMesmoToken_DeveManterOrdemAoDividirBlocos() {
+        // Ids fora de ordem, antes e depois dos existentes, passando várias vezes do tamanho do bloco
+        for (long id = 2000; id >= 1000; id -= 2) {
+            gravar(id, "Silva " + id);
+        }
+        for (long id = 1001; id <= 2001; id += 2) {
+            gravar(id, "Silva " + id);
+        }
+        for (long id = 1000; id <= 2001; id += 3) {
+            remover(id);
+        }
+        gravar(5L, "Silva");
+
+        List<Long> esperados = pessoas.values().stream()
+                .filter(pessoa -> IndiceBusca.tokens(pessoa.getNome()).contains("silva"))
+                .map(Pessoa::getId)
+                .sorted()
+                .toList();
+        assertEquals(esperados, buscar("silva", 2000));
+        assertEquals(esperados.subList(0, 5), buscar("silva", 5));
+    }
+
+    @Test
+    void atualizar_ComRenomeacaoERemocao_DeveRefletirNaBusca() {
+        gravar(3L, "João Pereira");
+        remover(4L);
+
+        assertEquals(List.of(), buscar("oliveira", 10));
+        assertEquals(List.of(3L), buscar("pereira", 10));
+        assertEquals(List.of(), buscar("joana", 10));
+    }
+
+    @Test
+    void atualizar_ConcorrenteNoMesmoToken_DeveManterOTokenNaBuscaAproximada() throws InterruptedException {
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (long id = 10; id < 10 + threads; id++) {
+            Pessoa pessoa = new Pessoa(id, "Teodoro Quaresma", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1));
+            pessoas.put(id, pessoa);
+            executor.submit(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    indiceBusca.atualizar(null, pessoa);
+                    indiceBusca.atualizar(pessoa, null);
+                }
+                indiceBusca.atualizar(null, pessoa);
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // A uma edição de "teodoro": só a trie encontra
+        assertEquals(List.of(10L, 11L, 12L, 13L), buscar("tedoro", 10));
+    }
+
+    @Test
+    void carregar_DeveEquivalerAsAtualizacoesIndividuais() {
+        IndiceBusca carregado = new IndiceBusca();
+        carregado.carregar(pessoas.values());
+
+        assertEquals(indiceBusca.vocabulario(), carregado.vocabulario());
+        assertEquals(buscar("santos", 10), carregado.buscar("santos", 10, pessoas::get).stream().map(Pessoa::getId).toList());
+    }
+}
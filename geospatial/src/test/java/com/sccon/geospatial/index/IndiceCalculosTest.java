@@ -0,0 +1,179 @@
+package com.sccon.geospatial.index;
+
+import com.sccon.geospatial.enums.FormatoIdade;
+import com.sccon.geospatial.enums.FormatoSalario;
+import com.sccon.geospatial.helpers.IdadeHelper;
+import com.sccon.geospatial.helpers.SalarioHelper;
+import com.sccon.geospatial.model.Pessoa;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceCalculosTest {
+
+    private static final ZoneId ZONA = ZoneId.of("America/Sao_Paulo");
+
+    private RelogioAjustavel relogio;
+    private List<Runnable> tarefas;
+    private IndiceCalculos indice;
+
+    @BeforeEach
+    void setUp() {
+        relogio = new RelogioAjustavel(LocalDate.of(2023, 2, 7).atTime(23, 59).atZone(ZONA).toInstant());
+        tarefas = new ArrayList<>();
+        indice = new IndiceCalculos(relogio, new IdadeHelper(relogio), new SalarioHelper(relogio), tarefas::add);
+    }
+
+    private void executarTarefas() {
+        List<Runnable> pendentes = new ArrayList<>(tarefas);
+        tarefas.clear();
+        pendentes.forEach(Runnable::run);
+    }
+
+    @Test
+    void idade_AposReconstrucao_DeveRetornarOsMesmosValoresDoCalculoDireto() {
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        IdadeHelper idadeHelper = new IdadeHelper(relogio);
+        SalarioHelper salarioHelper = new SalarioHelper(relogio);
+        List<Pessoa> pessoas = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            pessoas.add(new Pessoa(id, "Pessoa " + id, LocalDate.of(1950, 1, 1).plusDays(aleatorio.nextInt(55 * 365)),
+                    LocalDate.of(1980, 1, 1).plusDays(aleatorio.nextInt(43 * 365)), id));
+        }
+        indice.carregar(pessoas);
+
+        LocalDate hoje = LocalDate.of(2023, 2, 7);
+        for (Pessoa pessoa : pessoas) {
+            for (FormatoIdade formato : FormatoIdade.values()) {
+                assertEquals(idadeHelper.calcularIdade(pessoa, formato, hoje), indice.idade(pessoa, formato));
+            }
+            for (FormatoSalario formato : FormatoSalario.values()) {
+                assertEquals(salarioHelper.calcularSalario(pessoa, formato, hoje), indice.salario(pessoa, formato));
+            }
+        }
+        assertTrue(tarefas.isEmpty());
+    }
+
+    @Test
+    void atualizar_ComDataAnteriorAsTabelas_DeveAgendarUmaReconstrucao() {
+        indice.atualizar(null, new Pessoa(1L, "José da Silva", LocalDate.of(2000, 4, 6), LocalDate.of(2020, 5, 10), 1L));
+        indice.atualizar(null, new Pessoa(2L, "Maria Santos", LocalDate.of(1995, 8, 15), LocalDate.of(2019, 3, 20), 2L));
+        assertEquals(1, tarefas.size());
+        executarTarefas();
+
+        Pessoa posterior = new Pessoa(3L, "Ana Costa", LocalDate.of(1999, 1, 1), LocalDate.of(2021, 1, 1), 3L);
+        indice.atualizar(null, posterior);
+        assertTrue(tarefas.isEmpty());
+        assertEquals(24, indice.idade(posterior, FormatoIdade.YEARS));
+
+        Pessoa anterior = new Pessoa(4L, "João Oliveira", LocalDate.of(1988, 12, 3), LocalDate.of(2021, 1, 15), 4L);
+        indice.atualizar(null, anterior);
+        assertEquals(1, tarefas.size());
+        // Antes da reconstrução o valor vem do cálculo direto
+        assertEquals(34, indice.idade(anterior, FormatoIdade.YEARS));
+        executarTarefas();
+        assertEquals(34, indice.idade(anterior, FormatoIdade.YEARS));
+        assertTrue(tarefas.isEmpty());
+    }
+
+    @Test
+    void idade_NaViradaDoDia_DeveCalcularDiretoEAgendarUmaReconstrucao() {
+        // Aniversário no dia seguinte ao das tabelas
+        Pessoa pessoa = new Pessoa(1L, "Ana Costa", LocalDate.of(2000, 2, 8), LocalDate.of(2020, 2, 8), 1L);
+        indice.carregar(List.of(pessoa));
+        assertEquals(22, indice.idade(pessoa, FormatoIdade.YEARS));
+        assertEquals(8400, indice.idade(pessoa, FormatoIdade.DAYS));
+
+        relogio.avancarMinutos(2);
+
+        assertEquals(23, indice.idade(pessoa, FormatoIdade.YEARS));
+        assertEquals(8401, indice.idade(pessoa, FormatoIdade.DAYS));
+        assertEquals(1, tarefas.size());
+        assertEquals(LocalDate.of(2023, 2, 7), indice.dia());
+
+        executarTarefas();
+
+        assertEquals(LocalDate.of(2023, 2, 8), indice.dia());
+        assertEquals(23, indice.idade(pessoa, FormatoIdade.YEARS));
+        assertTrue(tarefas.isEmpty());
+    }
+
+    @Test
+    void lote_NaViradaDoDia_DeveManterODiaEmQueComecou() {
+        Pessoa pessoa = new Pessoa(1L, "Ana Costa", LocalDate.of(2000, 2, 8), LocalDate.of(2020, 2, 8), 1L);
+        indice.carregar(List.of(pessoa));
+        IndiceCalculos.Lote lote = indice.lote();
+
+        relogio.avancarMinutos(2);
+
+        assertEquals(LocalDate.of(2023, 2, 7), lote.dia());
+        assertEquals(22, lote.idade(pessoa, FormatoIdade.YEARS));
+        assertEquals(8400, lote.idade(pessoa, FormatoIdade.DAYS));
+        // Três anos de empresa no dia seguinte, dois no do lote
+        assertTrue(indice.lote().salario(pessoa, FormatoSalario.FULL) > lote.salario(pessoa, FormatoSalario.FULL));
+        assertEquals(23, indice.lote().idade(pessoa, FormatoIdade.YEARS));
+    }
+
+    @Test
+    void virarDia_SemMudancaDeDia_NaoDeveReconstruir() {
+        indice.carregar(List.of(new Pessoa(1L, "Ana Costa", LocalDate.of(2000, 2, 8), LocalDate.of(2020, 2, 8), 1L)));
+
+        assertFalse(indice.virarDia());
+
+        relogio.avancarMinutos(2);
+
+        assertTrue(indice.virarDia());
+        assertFalse(indice.virarDia());
+        assertEquals(LocalDate.of(2023, 2, 8), indice.dia());
+    }
+
+    @Test
+    void idade_ComDataForaDoLimiteDasTabelas_DeveCalcularDiretoSemReconstruirDeNovo() {
+        Pessoa antiga = new Pessoa(1L, "Ana Costa", LocalDate.of(1700, 1, 1), LocalDate.of(1720, 1, 1), 1L);
+        Pessoa futura = new Pessoa(2L, "Bia Costa", LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 1), 2L);
+        indice.carregar(List.of(antiga, futura));
+
+        assertEquals(323, indice.idade(antiga, FormatoIdade.YEARS));
+        assertEquals(-6, indice.idade(futura, FormatoIdade.YEARS));
+        assertEquals(new SalarioHelper(relogio).calcularSalario(antiga, FormatoSalario.MIN, LocalDate.of(2023, 2, 7)),
+                indice.salario(antiga, FormatoSalario.MIN));
+        assertTrue(tarefas.isEmpty());
+    }
+
+    private static final class RelogioAjustavel extends Clock {
+
+        private volatile Instant agora;
+
+        RelogioAjustavel(Instant agora) {
+            this.agora = agora;
+        }
+
+        void avancarMinutos(long minutos) {
+            agora = agora.plusSeconds(minutos * 60);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZONA;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
+}
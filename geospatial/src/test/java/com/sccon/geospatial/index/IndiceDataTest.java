@@ -0,0 +1,135 @@
+package com.sccon.geospatial.index;
+
+import com.sccon.geospatial.model.Pessoa;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceDataTest {
+
+    private IndiceData indiceData;
+    private Map<Long, Pessoa> pessoas;
+
+    @BeforeEach
+    void setUp() {
+        indiceData = new IndiceData(Pessoa::getDataAdmissao);
+        pessoas = new HashMap<>();
+    }
+
+    private void gravar(long id, LocalDate admissao) {
+        Pessoa nova = new Pessoa(id, "Pessoa " + id, LocalDate.of(1990, 1, 1), admissao);
+        indiceData.atualizar(pessoas.put(id, nova), nova);
+    }
+
+    private void remover(long id) {
+        indiceData.atualizar(pessoas.remove(id), null);
+    }
+
+    private List<Long> ids(LocalDate de, LocalDate ate, ChaveData depoisDe) {
+        return indiceData.intervalo(de == null ? Long.MIN_VALUE : IndiceData.dia(de), ate == null ? IndiceData.SEM_DATA : IndiceData.dia(ate), depoisDe)
+                .map(ChaveData::id)
+                .toList();
+    }
+
+    @Test
+    void intervalo_DeveRetornarPorDataEDepoisPorIdComSemDataNoFim() {
+        gravar(5L, LocalDate.of(2021, 1, 15));
+        gravar(2L, null);
+        gravar(3L, LocalDate.of(2019, 3, 20));
+        gravar(1L, LocalDate.of(2021, 1, 15));
+        gravar(4L, LocalDate.of(2020, 5, 10));
+
+        assertEquals(List.of(3L, 4L, 1L, 5L, 2L), ids(null, null, null));
+    }
+
+    @Test
+    void intervalo_ComLimitesInclusivos_DeveRetornarSomenteDentro() {
+        gravar(1L, LocalDate.of(2019, 12, 31));
+        gravar(2L, LocalDate.of(2020, 1, 1));
+        gravar(3L, LocalDate.of(2020, 6, 30));
+        gravar(4L, LocalDate.of(2020, 12, 31));
+        gravar(5L, LocalDate.of(2021, 1, 1));
+        gravar(6L, null);
+
+        assertEquals(List.of(2L, 3L, 4L), ids(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 12, 31), null));
+    }
+
+    @Test
+    void intervalo_ComCursorNoMeioDoDia_DeveContinuarDoIdSeguinte() {
+        gravar(1L, LocalDate.of(2020, 1, 1));
+        gravar(2L, LocalDate.of(2020, 1, 1));
+        gravar(4L, LocalDate.of(2020, 1, 1));
+        gravar(3L, LocalDate.of(2020, 1, 2));
+
+        ChaveData depoisDe = new ChaveData(IndiceData.dia(LocalDate.of(2020, 1, 1)), 2L);
+        assertEquals(List.of(4L, 3L), ids(null, null, depoisDe));
+        // O id do cursor pode ter saído do índice; a continuação não depende dele
+        remover(2L);
+        assertEquals(List.of(4L, 3L), ids(null, null, depoisDe));
+    }
+
+    @Test
+    void intervalo_ComCursorNumDiaDeMuitosBlocos_DeveContinuarDoIdSeguinte() {
+        LocalDate admissaoEmMassa = LocalDate.of(2020, 3, 2);
+        for (long id = 1; id <= 2000; id++) {
+            gravar(id, admissaoEmMassa);
+        }
+        gravar(3000L, LocalDate.of(2020, 3, 3));
+
+        ChaveData depoisDe = new ChaveData(IndiceData.dia(admissaoEmMassa), 1500L);
+        List<Long> restantes = ids(null, null, depoisDe);
+        assertEquals(501, restantes.size());
+        assertEquals(1501L, restantes.get(0));
+        assertEquals(3000L, restantes.get(500));
+    }
+
+    @Test
+    void atualizar_ComNovaData_DeveMoverSemDuplicarEApagarDiaVazio() {
+        gravar(1L, LocalDate.of(2020, 1, 1));
+        gravar(2L, LocalDate.of(2021, 1, 1));
+        gravar(1L, LocalDate.of(2022, 1, 1));
+
+        assertEquals(List.of(2L, 1L), ids(null, null, null));
+        assertEquals(List.of(), ids(LocalDate.of(2020, 1, 1), LocalDate.of(2020, 1, 1), null));
+        assertEquals(2, indiceData.tamanho());
+
+        remover(2L);
+        assertEquals(List.of(1L), ids(null, null, null));
+    }
+
+    @Test
+    void carregar_DeveEquivalerAsAtualizacoesIndividuais() {
+        List<Pessoa> lista = new ArrayList<>(List.of(
+                new Pessoa(3L, "C", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)),
+                new Pessoa(1L, "A", LocalDate.of(1990, 1, 1), null),
+                new Pessoa(2L, "B", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)),
+                new Pessoa(9L, "D", LocalDate.of(1990, 1, 1), LocalDate.of(2019, 1, 1))));
+        // Dias com mais ids que a capacidade inicial do bloco
+        for (long id = 29; id >= 10; id--) {
+            lista.add(new Pessoa(id, "E", LocalDate.of(1990, 1, 1), LocalDate.of(2018, 1, 1)));
+        }
+
+        indiceData.carregar(lista);
+
+        IndiceData esperado = new IndiceData(Pessoa::getDataAdmissao);
+        lista.forEach(pessoa -> esperado.atualizar(null, pessoa));
+        assertEquals(esperado.intervalo(Long.MIN_VALUE, IndiceData.SEM_DATA, null).toList(),
+                indiceData.intervalo(Long.MIN_VALUE, IndiceData.SEM_DATA, null).toList());
+        assertEquals(lista.size(), indiceData.tamanho());
+    }
+
+    @Test
+    void chaveData_Cursor_DeveSerReversivel() {
+        ChaveData chave = new ChaveData(IndiceData.dia(LocalDate.of(1988, 12, 3)), 42L);
+
+        assertEquals(chave, ChaveData.fromCursor(chave.toCursor()));
+        assertThrows(IllegalArgumentException.class, () -> ChaveData.fromCursor("AAAA"));
+    }
+}
@@ -0,0 +1,98 @@
+package com.sccon.geospatial.index;
+
+import com.sccon.geospatial.model.EstatisticasPessoas;
+import com.sccon.geospatial.model.Pessoa;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceEstatisticasTest {
+
+    private AtomicReference<LocalDate> hoje;
+    private IndiceEstatisticas indice;
+
+    @BeforeEach
+    void setUp() {
+        hoje = new AtomicReference<>(LocalDate.of(2023, 2, 7));
+        // Salário fictício: 1000 por ano de empresa, mínimo de 1000
+        indice = new IndiceEstatisticas(hoje::get, anos -> Math.max(1, anos) * 1000.0);
+    }
+
+    private static Pessoa pessoa(long id, LocalDate nascimento, LocalDate admissao) {
+        return new Pessoa(id, "Pessoa " + id, nascimento, admissao);
+    }
+
+    @Test
+    void resumo_NaViradaDoDia_DeveAvancarIdadesEAnosDeEmpresa() {
+        indice.atualizar(null, pessoa(1L, LocalDate.of(2000, 2, 8), LocalDate.of(2020, 2, 8)));
+        indice.atualizar(null, pessoa(2L, LocalDate.of(1990, 6, 1), LocalDate.of(2021, 6, 1)));
+
+        EstatisticasPessoas antes = indice.resumo();
+        assertEquals(Map.of(22, 1L, 32, 1L), antes.pessoasPorIdade());
+        assertEquals(3000.0, antes.folhaTotal());
+        assertSame(antes, indice.resumo());
+
+        hoje.set(LocalDate.of(2023, 2, 8));
+        EstatisticasPessoas depois = indice.resumo();
+
+        assertEquals(LocalDate.of(2023, 2, 8), depois.referencia());
+        assertEquals(Map.of(23, 1L, 32, 1L), depois.pessoasPorIdade());
+        assertEquals(4000.0, depois.folhaTotal());
+        assertEquals(2000.0, depois.folhaMedia());
+    }
+
+    @Test
+    void atualizar_AposVirada_DeveUsarOsAnosDoNovoDia() {
+        Pessoa original = pessoa(1L, LocalDate.of(2000, 2, 8), LocalDate.of(2020, 2, 8));
+        indice.atualizar(null, original);
+        indice.resumo();
+        hoje.set(LocalDate.of(2023, 2, 8));
+        indice.resumo();
+
+        // A remoção precisa tirar a pessoa da faixa em que a virada a colocou
+        Pessoa alterada = original.comDataAdmissao(LocalDate.of(2023, 1, 1));
+        indice.atualizar(original, alterada);
+        indice.atualizar(null, pessoa(2L, LocalDate.of(2000, 2, 9), LocalDate.of(2023, 1, 20)));
+        EstatisticasPessoas resumo = indice.resumo();
+
+        assertEquals(2, resumo.quantidade());
+        assertEquals(Map.of(22, 1L, 23, 1L), resumo.pessoasPorIdade());
+        assertEquals(Map.of("2023-01", 2L), resumo.admissoesPorMes());
+        assertEquals(2000.0, resumo.folhaTotal());
+
+        indice.atualizar(alterada, null);
+        assertEquals(Map.of(22, 1L), indice.resumo().pessoasPorIdade());
+    }
+
+    @Test
+    void carregar_DeveSubstituirContagens() {
+        indice.atualizar(null, pessoa(9L, LocalDate.of(1950, 1, 1), LocalDate.of(1970, 1, 1)));
+        indice.resumo();
+
+        indice.carregar(List.of(
+                pessoa(1L, LocalDate.of(2000, 1, 1), LocalDate.of(2020, 1, 15)),
+                pessoa(2L, LocalDate.of(2000, 3, 1), LocalDate.of(2020, 1, 31))));
+        EstatisticasPessoas resumo = indice.resumo();
+
+        assertEquals(2, resumo.quantidade());
+        assertEquals(Map.of(22, 1L, 23, 1L), resumo.pessoasPorIdade());
+        assertEquals(Map.of("2020-01", 2L), resumo.admissoesPorMes());
+        assertEquals(6000.0, resumo.folhaTotal());
+    }
+
+    @Test
+    void resumo_SemPessoas_DeveRetornarZeros() {
+        EstatisticasPessoas resumo = indice.resumo();
+
+        assertEquals(0, resumo.quantidade());
+        assertEquals(0.0, resumo.folhaTotal());
+        assertEquals(0.0, resumo.folhaMedia());
+        assertTrue(resumo.pessoasPorIdade().isEmpty());
+    }
+}
@@ -0,0 +1,138 @@
+package com.sccon.geospatial.index;
+
+import com.sccon.geospatial.model.Pessoa;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceNomeTest {
+
+    private IndiceNome indiceNome;
+    private Map<Long, Pessoa> pessoas;
+
+    @BeforeEach
+    void setUp() {
+        indiceNome = new IndiceNome(Locale.forLanguageTag("pt-BR"));
+        pessoas = new HashMap<>();
+    }
+
+    private void gravar(long id, String nome) {
+        Pessoa nova = new Pessoa(id, nome, LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1));
+        indiceNome.atualizar(pessoas.put(id, nova), nova);
+    }
+
+    private void remover(long id) {
+        Pessoa antiga = pessoas.remove(id);
+        if (antiga != null) {
+            indiceNome.atualizar(antiga, null);
+        }
+    }
+
+    private List<Long> ids() {
+        return StreamSupport.stream(indiceNome.chaves().spliterator(), false).map(ChaveNome::getId).toList();
+    }
+
+    private List<String> nomes() {
+        return ids().stream().map(id -> pessoas.get(id).getNome()).toList();
+    }
+
+    @Test
+    void chaves_DeveRetornarOrdemDaCollationPtBr() {
+        gravar(1L, "José da Silva");
+        gravar(2L, "Maria Santos");
+        gravar(3L, "João Oliveira");
+        gravar(4L, "Érica Lima");
+
+        assertEquals(List.of("Érica Lima", "João Oliveira", "José da Silva", "Maria Santos"), nomes());
+    }
+
+    @Test
+    void atualizar_ComNovoNome_DeveReposicionarSemDuplicar() {
+        gravar(1L, "Ana");
+        gravar(2L, "Bruno");
+
+        gravar(1L, "Carla");
+
+        assertEquals(List.of("Bruno", "Carla"), nomes());
+        assertEquals(2, indiceNome.tamanho());
+    }
+
+    @Test
+    void atualizar_ComMesmoNome_DeveManterUmaChave() {
+        gravar(1L, "Ana");
+        gravar(1L, "Ana");
+
+        assertEquals(List.of(1L), ids());
+    }
+
+    @Test
+    void atualizar_ComNomesIguais_DeveDesempatarPorId() {
+        gravar(2L, "Ana");
+        gravar(1L, "Ana");
+
+        assertEquals(List.of(1L, 2L), ids());
+    }
+
+    @Test
+    void atualizar_ComNovaNula_DeveRetirarPessoaDoIndice() {
+        gravar(1L, "Ana");
+        gravar(2L, "Bruno");
+
+        remover(1L);
+        remover(99L);
+
+        assertEquals(List.of("Bruno"), nomes());
+        assertEquals(1, indiceNome.tamanho());
+    }
+
+    @Test
+    void pagina_DeveContinuarDepoisDaChaveInformada() {
+        gravar(1L, "Ana");
+        gravar(2L, "Bruno");
+        gravar(3L, "Carla");
+
+        List<ChaveNome> primeira = indiceNome.pagina(null, 2);
+        List<ChaveNome> segunda = indiceNome.pagina(primeira.get(1), 2);
+
+        assertEquals(List.of(1L, 2L), primeira.stream().map(ChaveNome::getId).toList());
+        assertEquals(List.of(3L), segunda.stream().map(ChaveNome::getId).toList());
+    }
+
+    @Test
+    void carregarOrdenadas_DeveSubstituirConteudoMantendoOrdem() {
+        gravar(9L, "Zé");
+        ChaveNome ana = indiceNome.chave("Ana", 1L);
+        ChaveNome bruno = indiceNome.chave("Bruno", 2L);
+
+        indiceNome.carregarOrdenadas(List.of(ana, bruno));
+        indiceNome.atualizar(null, new Pessoa(3L, "Aline", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)));
+
+        assertEquals(List.of(3L, 1L, 2L), ids());
+        assertEquals(3, indiceNome.tamanho());
+        assertTrue(indiceNome.contem(bruno));
+    }
+
+    @Test
+    void assinatura_DeveSerEstavelEDependerDoLocale() {
+        assertArrayEquals(indiceNome.assinatura(), new IndiceNome(Locale.forLanguageTag("pt-BR")).assinatura());
+        assertFalse(Arrays.equals(indiceNome.assinatura(), new IndiceNome(Locale.forLanguageTag("sv-SE")).assinatura()));
+    }
+
+    @Test
+    void chave_DeveCompararComoCollationKey() {
+        ChaveNome joao = indiceNome.chave("João", 1L);
+        ChaveNome jose = indiceNome.chave("José", 1L);
+
+        assertTrue(joao.compareTo(jose) < 0);
+        assertEquals(joao, indiceNome.chave("João", 1L));
+    }
+}
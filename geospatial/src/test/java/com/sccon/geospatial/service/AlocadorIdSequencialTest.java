@@ -0,0 +1,83 @@
+package com.sccon.geospatial.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlocadorIdSequencialTest {
+
+    @Test
+    void proximo_NaMesmaThread_DeveSerSequencial() {
+        AlocadorIdSequencial alocador = new AlocadorIdSequencial(4L, 3);
+
+        assertEquals(4L, alocador.proximo());
+        assertEquals(5L, alocador.proximo());
+        assertEquals(6L, alocador.proximo());
+        assertEquals(7L, alocador.proximo());
+    }
+
+    @Test
+    void observar_IdAcimaDaMarca_DeveFazerProximosIdsSeremMaiores() {
+        AlocadorIdSequencial alocador = new AlocadorIdSequencial(1L, 64);
+        assertEquals(1L, alocador.proximo());
+
+        alocador.observar(10L);
+
+        assertEquals(11L, alocador.proximo());
+        assertEquals(12L, alocador.proximo());
+    }
+
+    @Test
+    void observar_IdAbaixoDaMarca_NaoDeveAlterarSequencia() {
+        AlocadorIdSequencial alocador = new AlocadorIdSequencial(1L, 64);
+        alocador.observar(10L);
+        assertEquals(11L, alocador.proximo());
+
+        alocador.observar(5L);
+
+        assertEquals(12L, alocador.proximo());
+    }
+
+    @Test
+    void proximo_EmThreadsVirtuaisNovas_NaoDeveDesperdicarBlocos() throws Exception {
+        AlocadorIdSequencial alocador = new AlocadorIdSequencial(1L, 64);
+        alocador.observar(3L);
+        long[] ids = new long[3];
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = executor.submit(alocador::proximo).get();
+            }
+        }
+
+        assertArrayEquals(new long[]{4L, 5L, 6L}, ids);
+    }
+
+    @Test
+    void proximo_ComThreadsConcorrentes_NaoDeveRepetirIds() throws InterruptedException {
+        AlocadorIdSequencial alocador = new AlocadorIdSequencial(1L, 16);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ids.add(alocador.proximo());
+                    if (i % 1000 == 0) {
+                        alocador.observar(alocador.proximo() + 5);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(80_000, ids.size());
+    }
+}
@@ -0,0 +1,64 @@
+package com.sccon.geospatial.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlocadorIdTemporalTest {
+
+    private final Clock fixedClock = Clock.fixed(Instant.parse("2025-06-01T12:00:00Z"), ZoneOffset.UTC);
+
+    @Test
+    void proximo_DeveGerarIdsCrescentesMarcadosComONo() {
+        AlocadorIdTemporal alocador = new AlocadorIdTemporal(7, fixedClock);
+
+        long anterior = alocador.proximo();
+        for (int i = 0; i < 10_000; i++) {
+            long id = alocador.proximo();
+            assertTrue(id > anterior);
+            assertEquals(7, AlocadorIdTemporal.no(id));
+            anterior = id;
+        }
+    }
+
+    @Test
+    void proximo_EmNosDiferentes_NaoDeveColidir() {
+        AlocadorIdTemporal no1 = new AlocadorIdTemporal(1, fixedClock);
+        AlocadorIdTemporal no2 = new AlocadorIdTemporal(2, fixedClock);
+
+        assertNotEquals(no1.proximo(), no2.proximo());
+    }
+
+    @Test
+    void proximo_ComThreadsConcorrentes_NaoDeveRepetirIds() throws InterruptedException {
+        AlocadorIdTemporal alocador = new AlocadorIdTemporal(3, Clock.systemUTC());
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ids.add(alocador.proximo());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(80_000, ids.size());
+    }
+
+    @Test
+    void construtor_ComNoInvalido_DeveLancarExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> new AlocadorIdTemporal(1024, fixedClock));
+    }
+}
@@ -0,0 +1,136 @@
+package com.sccon.geospatial.service;
+
+import com.sccon.geospatial.enums.TipoAlteracao;
+import com.sccon.geospatial.model.EventoAlteracao;
+import com.sccon.geospatial.model.Pessoa;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FeedAlteracoesTest {
+
+    private static Pessoa pessoa(long id, String nome) {
+        return new Pessoa(id, nome, LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1));
+    }
+
+    private static EventoAlteracao alterar(FeedAlteracoes feed, Pessoa antiga, Pessoa nova) {
+        EventoAlteracao evento = feed.reservar(antiga, nova);
+        feed.publicar(evento);
+        return evento;
+    }
+
+    @Test
+    void construtor_DeveArredondarCapacidadeParaPotenciaDeDois() {
+        assertEquals(8, new FeedAlteracoes(5).capacidade());
+        assertEquals(1, new FeedAlteracoes(1).capacidade());
+        assertThrows(IllegalArgumentException.class, () -> new FeedAlteracoes(0));
+    }
+
+    @Test
+    void proximo_ComEventosPublicados_DeveEntregarNaOrdemComOTipoDeCadaAlteracao() throws InterruptedException {
+        FeedAlteracoes feed = new FeedAlteracoes(8);
+        Pessoa criada = pessoa(1L, "Ana");
+        Pessoa atualizada = pessoa(1L, "Ana Costa");
+        alterar(feed, null, criada);
+        alterar(feed, criada, atualizada);
+        alterar(feed, atualizada, null);
+
+        FeedAlteracoes.Leitor leitor = feed.leitor(0L);
+
+        assertEquals(new EventoAlteracao(1, TipoAlteracao.CREATED, 1L, criada), leitor.proximo(0));
+        assertEquals(new EventoAlteracao(2, TipoAlteracao.UPDATED, 1L, atualizada), leitor.proximo(0));
+        assertEquals(new EventoAlteracao(3, TipoAlteracao.DELETED, 1L, null), leitor.proximo(0));
+        assertNull(leitor.proximo(0));
+        assertFalse(leitor.perdeuEventos());
+        assertEquals(3, feed.ultimaSequencia());
+    }
+
+    @Test
+    void proximo_ComSequenciaReservadaAindaNaoPublicada_DeveEsperarPorElaNaOrdem() throws InterruptedException {
+        FeedAlteracoes feed = new FeedAlteracoes(8);
+        EventoAlteracao primeira = feed.reservar(null, pessoa(1L, "Ana"));
+        EventoAlteracao segunda = feed.reservar(null, pessoa(2L, "Bruno"));
+        feed.publicar(segunda);
+        FeedAlteracoes.Leitor leitor = feed.leitor(0L);
+
+        assertNull(leitor.proximo(0));
+
+        feed.publicar(primeira);
+        assertEquals(primeira, leitor.proximo(0));
+        assertEquals(segunda, leitor.proximo(0));
+    }
+
+    @Test
+    void proximo_ComSequenciaDescartada_DevePularParaAProxima() throws InterruptedException {
+        FeedAlteracoes feed = new FeedAlteracoes(8);
+        EventoAlteracao descartada = feed.reservar(null, pessoa(1L, "Ana"));
+        EventoAlteracao seguinte = alterar(feed, null, pessoa(2L, "Bruno"));
+        FeedAlteracoes.Leitor leitor = feed.leitor(0L);
+
+        assertNull(leitor.proximo(0));
+
+        feed.descartar(descartada);
+        assertEquals(seguinte, leitor.proximo(0));
+        assertNull(leitor.proximo(0));
+        assertFalse(leitor.perdeuEventos());
+    }
+
+    @Test
+    void proximo_SemUltimaLida_DeveComecarNaProximaAlteracao() throws InterruptedException {
+        FeedAlteracoes feed = new FeedAlteracoes(8);
+        alterar(feed, null, pessoa(1L, "Ana"));
+        FeedAlteracoes.Leitor leitor = feed.leitor(null);
+
+        assertNull(leitor.proximo(0));
+
+        EventoAlteracao nova = alterar(feed, null, pessoa(2L, "Bruno"));
+        assertEquals(nova, leitor.proximo(0));
+    }
+
+    @Test
+    void proximo_QuandoLeitorFicaMaisQueACapacidadeParaTras_DevePerderEventos() throws InterruptedException {
+        FeedAlteracoes feed = new FeedAlteracoes(2);
+        FeedAlteracoes.Leitor leitor = feed.leitor(0L);
+        for (long id = 1; id <= 3; id++) {
+            alterar(feed, null, pessoa(id, "Pessoa " + id));
+        }
+
+        assertNull(leitor.proximo(0));
+        assertTrue(leitor.perdeuEventos());
+    }
+
+    @Test
+    void proximo_ComSequenciaQueOServidorNaoConhece_DevePerderEventos() throws InterruptedException {
+        FeedAlteracoes feed = new FeedAlteracoes(8);
+        alterar(feed, null, pessoa(1L, "Ana"));
+
+        FeedAlteracoes.Leitor leitor = feed.leitor(500L);
+
+        assertNull(leitor.proximo(0));
+        assertTrue(leitor.perdeuEventos());
+    }
+
+    @Test
+    void proximo_QuandoEventoEPublicadoDuranteAEspera_DeveAcordarOLeitor() throws InterruptedException {
+        FeedAlteracoes feed = new FeedAlteracoes(8);
+        FeedAlteracoes.Leitor leitor = feed.leitor(null);
+        Thread escritor = Thread.ofVirtual().start(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            alterar(feed, null, pessoa(1L, "Ana"));
+        });
+
+        long inicio = System.nanoTime();
+        EventoAlteracao evento = leitor.proximo(10_000);
+
+        assertNotNull(evento);
+        assertEquals(1, evento.sequencia());
+        assertTrue(System.nanoTime() - inicio < 5_000_000_000L);
+        escritor.join();
+    }
+}
@@ -0,0 +1,1074 @@
+package com.sccon.geospatial.service;
+
+import com.sccon.geospatial.exception.InvalidParameterException;
+import com.sccon.geospatial.exception.PessoaConflictException;
+import com.sccon.geospatial.exception.PessoaNotFoundException;
+import com.sccon.geospatial.exception.PessoaPreconditionFailedException;
+import com.sccon.geospatial.exception.RespostaErro;
+import com.sccon.geospatial.enums.Durabilidade;
+import com.sccon.geospatial.enums.StatusLote;
+import com.sccon.geospatial.enums.TipoAlteracao;
+import com.sccon.geospatial.index.ChaveNome;
+import com.sccon.geospatial.index.IndiceNome;
+import com.sccon.geospatial.model.CalculoPessoa;
+import com.sccon.geospatial.model.EstatisticasPessoas;
+import com.sccon.geospatial.model.EventoAlteracao;
+import com.sccon.geospatial.model.FiltroPessoas;
+import com.sccon.geospatial.model.PaginaPessoas;
+import com.sccon.geospatial.model.Pessoa;
+import com.sccon.geospatial.model.ResultadoLote;
+import com.sccon.geospatial.storage.ArmazenamentoColunar;
+import com.sccon.geospatial.storage.ArmazenamentoMemoria;
+import com.sccon.geospatial.storage.LogEscrita;
+import com.sccon.geospatial.storage.SnapshotPessoas;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PessoaServiceTest {
+
+    private PessoaService pessoaService;
+    private Clock fixedClock;
+
+    @BeforeEach
+    void setUp() {
+        // Usar data fixa para testes determinísticos: 07/02/2023
+        fixedClock = Clock.fixed(
+            LocalDate.of(2023, 2, 7).atStartOfDay(ZoneId.systemDefault()).toInstant(),
+            ZoneId.systemDefault()
+        );
+        pessoaService = new PessoaService(fixedClock);
+    }
+
+    @Test
+    void listarPessoas_DeveRetornarListaOrdenadaPorNome() {
+        List<Pessoa> pessoas = pessoaService.listarPessoas();
+        
+        assertEquals(3, pessoas.size());
+        // Ordem correta em português: João vem antes de José
+        assertEquals("João Oliveira", pessoas.get(0).getNome());
+        assertEquals("José da Silva", pessoas.get(1).getNome());
+        assertEquals("Maria Santos", pessoas.get(2).getNome());
+    }
+
+    @Test
+    void listarPessoas_AposCriarAtualizarERemover_DeveManterOrdemPorNome() {
+        pessoaService.criarPessoa(new Pessoa(null, "Álvaro Souza", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)));
+        pessoaService.atualizarAtributo(2L, "nome", "Ana Santos");
+        pessoaService.removerPessoa(1L);
+
+        List<Pessoa> pessoas = pessoaService.listarPessoas();
+
+        assertEquals(3, pessoas.size());
+        assertEquals("Álvaro Souza", pessoas.get(0).getNome());
+        assertEquals("Ana Santos", pessoas.get(1).getNome());
+        assertEquals("João Oliveira", pessoas.get(2).getNome());
+    }
+
+    @Test
+    void percorrerPorNome_DeveSeguirAOrdemDaListagemSemMontarALista() {
+        Iterator<Pessoa> pessoas = pessoaService.percorrerPorNome().iterator();
+        assertEquals("João Oliveira", pessoas.next().getNome());
+
+        pessoaService.removerPessoa(2L);
+
+        assertEquals("José da Silva", pessoas.next().getNome());
+        assertFalse(pessoas.hasNext());
+        assertThrows(NoSuchElementException.class, pessoas::next);
+        assertEquals(pessoaService.listarPessoas(), StreamSupport.stream(pessoaService.percorrerPorNome().spliterator(), false).toList());
+    }
+
+    @Test
+    void atualizarParcialmente_ComErroNoMeioDoPatch_NaoDeveAlterarNada() {
+        Map<String, Object> updates = new LinkedHashMap<>();
+        updates.put("nome", "Zuleica Santos");
+        updates.put("atributoInvalido", "valor");
+        long versaoAnterior = pessoaService.buscarPorId(2L).getVersao();
+
+        assertThrows(InvalidParameterException.class, () -> {
+            pessoaService.atualizarParcialmente(2L, updates);
+        });
+
+        Pessoa pessoa = pessoaService.buscarPorId(2L);
+        assertEquals("Maria Santos", pessoa.getNome());
+        assertEquals(versaoAnterior, pessoa.getVersao());
+        assertEquals("Maria Santos", pessoaService.listarPessoas().get(2).getNome());
+    }
+
+    @Test
+    void listarPessoas_Paginado_DevePercorrerTodasAsPaginasEmOrdem() {
+        PaginaPessoas primeira = pessoaService.listarPessoas(null, 2);
+
+        assertEquals(2, primeira.pessoas().size());
+        assertEquals("João Oliveira", primeira.pessoas().get(0).getNome());
+        assertEquals("José da Silva", primeira.pessoas().get(1).getNome());
+        assertNotNull(primeira.proximoCursor());
+
+        PaginaPessoas segunda = pessoaService.listarPessoas(primeira.proximoCursor(), 2);
+
+        assertEquals(1, segunda.pessoas().size());
+        assertEquals("Maria Santos", segunda.pessoas().get(0).getNome());
+        assertNull(segunda.proximoCursor());
+    }
+
+    @Test
+    void listarPessoas_Paginado_DeveSerEstavelComEscritasEntrePaginas() {
+        PaginaPessoas primeira = pessoaService.listarPessoas(null, 2);
+
+        // Inserção antes do cursor não desloca a próxima página
+        pessoaService.criarPessoa(new Pessoa(null, "Ana Costa", LocalDate.of(1992, 3, 15), LocalDate.of(2022, 6, 1)));
+        pessoaService.removerPessoa(1L);
+
+        PaginaPessoas segunda = pessoaService.listarPessoas(primeira.proximoCursor(), 2);
+
+        assertEquals(1, segunda.pessoas().size());
+        assertEquals("Maria Santos", segunda.pessoas().get(0).getNome());
+    }
+
+    @Test
+    void listarPessoas_ComCursorInvalido_DeveLancarExcecao() {
+        assertThrows(InvalidParameterException.class, () -> {
+            pessoaService.listarPessoas("###", 2);
+        });
+    }
+
+    @Test
+    void listarPessoas_ComLimiteForaDoIntervalo_DeveLancarExcecao() {
+        assertThrows(InvalidParameterException.class, () -> {
+            pessoaService.listarPessoas(null, 0);
+        });
+        assertThrows(InvalidParameterException.class, () -> {
+            pessoaService.listarPessoas(null, PessoaService.LIMITE_PAGINA_MAXIMO + 1);
+        });
+    }
+
+    private static List<String> nomes(PaginaPessoas pagina) {
+        return pagina.pessoas().stream().map(Pessoa::getNome).toList();
+    }
+
+    @Test
+    void listarPessoas_OrdenadoPorNascimento_DeveRetornarDoMaisVelhoAoMaisNovo() {
+        FiltroPessoas filtro = FiltroPessoas.de("dataNascimento", null, null, null, null);
+
+        PaginaPessoas pagina = pessoaService.listarPessoas(filtro, null, 10);
+
+        assertEquals(List.of("João Oliveira", "Maria Santos", "José da Silva"), nomes(pagina));
+        assertNull(pagina.proximoCursor());
+    }
+
+    @Test
+    void listarPessoas_ComIntervaloDeAdmissao_DevePaginarSomenteDentroDoIntervalo() {
+        FiltroPessoas filtro = FiltroPessoas.de(null, null, null, "2019-03-20", "2020-12-31");
+
+        PaginaPessoas primeira = pessoaService.listarPessoas(filtro, null, 1);
+        assertEquals(List.of("Maria Santos"), nomes(primeira));
+        assertNotNull(primeira.proximoCursor());
+
+        PaginaPessoas segunda = pessoaService.listarPessoas(filtro, primeira.proximoCursor(), 1);
+        assertEquals(List.of("José da Silva"), nomes(segunda));
+        assertNull(segunda.proximoCursor());
+    }
+
+    @Test
+    void listarPessoas_ComDoisIntervalos_DeveAplicarAmbos() {
+        pessoaService.criarPessoa(new Pessoa(10L, "Ana Costa", LocalDate.of(1999, 1, 1), LocalDate.of(2020, 1, 1)));
+        FiltroPessoas filtro = FiltroPessoas.de("dataAdmissao", "1990-01-01", null, "2020-01-01", null);
+
+        assertEquals(List.of("Ana Costa", "José da Silva"), nomes(pessoaService.listarPessoas(filtro, null, 10)));
+    }
+
+    @Test
+    void listarPessoas_AposAlterarData_DeveReposicionarNoIndice() {
+        pessoaService.atualizarAtributo(1L, "dataNascimento", LocalDate.of(1980, 1, 1));
+        pessoaService.removerPessoa(3L);
+        FiltroPessoas filtro = FiltroPessoas.de("dataNascimento", null, null, null, null);
+
+        assertEquals(List.of("José da Silva", "Maria Santos"), nomes(pessoaService.listarPessoas(filtro, null, 10)));
+    }
+
+    @Test
+    void listarPessoas_ComFiltroDeDataSemOrdenarPorEla_DeveLancarExcecao() {
+        FiltroPessoas porNome = FiltroPessoas.de("nome", "1990-01-01", null, null, null);
+        FiltroPessoas porOutraData = FiltroPessoas.de("dataAdmissao", "1990-01-01", null, null, null);
+
+        assertThrows(InvalidParameterException.class, () -> pessoaService.listarPessoas(porNome, null, 10));
+        assertThrows(InvalidParameterException.class, () -> pessoaService.listarPessoas(porOutraData, null, 10));
+    }
+
+    @Test
+    void buscarPorNome_SemAcentoEComErro_DeveEncontrarAposAlteracoes() {
+        assertEquals(List.of("João Oliveira"), pessoaService.buscarPorNome("joao oli", 10).stream().map(Pessoa::getNome).toList());
+
+        pessoaService.atualizarAtributo(3L, "nome", "João Pereira");
+        pessoaService.criarPessoa(new Pessoa(10L, "Ana Oliveira", LocalDate.of(1992, 3, 15), LocalDate.of(2022, 6, 1)));
+
+        assertEquals(List.of("Ana Oliveira"), pessoaService.buscarPorNome("olivera", 10).stream().map(Pessoa::getNome).toList());
+        assertEquals(List.of("João Pereira"), pessoaService.buscarPorNome("JOAO", 10).stream().map(Pessoa::getNome).toList());
+    }
+
+    @Test
+    void buscarPorNome_ComConsultaVaziaOuLimiteInvalido_DeveLancarExcecao() {
+        assertThrows(InvalidParameterException.class, () -> pessoaService.buscarPorNome("  ", 10));
+        assertThrows(InvalidParameterException.class, () -> pessoaService.buscarPorNome("joao", 0));
+    }
+
+    @Test
+    void filtroPessoas_ComParametrosInvalidos_DeveLancarExcecao() {
+        assertThrows(InvalidParameterException.class, () -> FiltroPessoas.de("idade", null, null, null, null));
+        assertThrows(InvalidParameterException.class, () -> FiltroPessoas.de(null, "2000-13-01", null, null, null));
+        assertThrows(InvalidParameterException.class, () -> FiltroPessoas.de(null, null, null, "2021-01-01", "2020-01-01"));
+    }
+
+    @Test
+    void exportarPessoas_DevePercorrerTodasAsPessoas() {
+        List<Long> ids = new ArrayList<>();
+        for (Pessoa pessoa : pessoaService.exportarPessoas()) {
+            ids.add(pessoa.getId());
+        }
+
+        assertEquals(3, ids.size());
+        assertTrue(ids.containsAll(List.of(1L, 2L, 3L)));
+    }
+
+    @Test
+    void buscarPorId_QuandoPessoaExiste_DeveRetornarPessoa() {
+        Pessoa pessoa = pessoaService.buscarPorId(1L);
+        
+        assertNotNull(pessoa);
+        assertEquals(1L, pessoa.getId());
+        assertEquals("José da Silva", pessoa.getNome());
+        assertEquals(LocalDate.of(2000, 4, 6), pessoa.getDataNascimento());
+        assertEquals(LocalDate.of(2020, 5, 10), pessoa.getDataAdmissao());
+    }
+
+    @Test
+    void buscarPorId_QuandoPessoaNaoExiste_DeveLancarExcecao() {
+        assertThrows(PessoaNotFoundException.class, () -> {
+            pessoaService.buscarPorId(999L);
+        });
+    }
+
+    @Test
+    void buscarPorId_QuandoPessoaNaoExiste_DeveLancarExcecaoSemStackTraceComCorpoPronto() {
+        PessoaNotFoundException e = assertThrows(PessoaNotFoundException.class, () -> pessoaService.buscarPorId(999L));
+
+        assertEquals(0, e.getStackTrace().length);
+        assertEquals(new RespostaErro("Pessoa com ID 999 não encontrada"), e.getResposta());
+    }
+
+    @Test
+    void criarPessoa_ComIdAutomatico_DeveCriarPessoaComProximoId() {
+        Pessoa novaPessoa = new Pessoa(null, "Ana Costa", 
+            LocalDate.of(1992, 3, 15), 
+            LocalDate.of(2022, 6, 1));
+        
+        Pessoa pessoaCriada = pessoaService.criarPessoa(novaPessoa);
+        
+        assertEquals(4L, pessoaCriada.getId());
+        assertEquals("Ana Costa", pessoaCriada.getNome());
+
+        List<Pessoa> pessoas = pessoaService.listarPessoas();
+        assertEquals(4, pessoas.size());
+    }
+
+    @Test
+    void criarPessoa_ComIdEspecifico_DeveCriarPessoaComIdEspecificado() {
+        Pessoa novaPessoa = new Pessoa(5L, "Pedro Silva", 
+            LocalDate.of(1985, 7, 20), 
+            LocalDate.of(2023, 2, 10));
+        
+        Pessoa pessoaCriada = pessoaService.criarPessoa(novaPessoa);
+        
+        assertEquals(5L, pessoaCriada.getId());
+        assertEquals("Pedro Silva", pessoaCriada.getNome());
+    }
+
+    @Test
+    void criarPessoa_ComThreadsConcorrentes_DeveAtribuirIdsUnicos() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 2000; i++) {
+            executor.submit(() -> pessoaService.criarPessoa(
+                new Pessoa(null, "Concorrente", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1))));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(2003, pessoaService.listarPessoas().size());
+    }
+
+    @Test
+    void criarPessoa_ComIdAutomaticoAposIdInformado_DeveUsarIdMaior() {
+        pessoaService.criarPessoa(new Pessoa(50L, "Pedro Silva", LocalDate.of(1985, 7, 20), LocalDate.of(2023, 2, 10)));
+
+        Pessoa criada = pessoaService.criarPessoa(
+            new Pessoa(null, "Ana Costa", LocalDate.of(1992, 3, 15), LocalDate.of(2022, 6, 1)));
+
+        assertEquals(51L, criada.getId());
+    }
+
+    @Test
+    void criarPessoa_ComIdExistente_DeveLancarExcecao() {
+        Pessoa pessoaConflito = new Pessoa(1L, "Teste Conflito", 
+            LocalDate.of(1990, 1, 1), 
+            LocalDate.of(2020, 1, 1));
+        
+        assertThrows(PessoaConflictException.class, () -> {
+            pessoaService.criarPessoa(pessoaConflito);
+        });
+    }
+
+
+    @Test
+    void criarPessoas_DeveRetornarResultadoPorItemSemAbortarLote() {
+        List<Pessoa> lote = Arrays.asList(
+            new Pessoa(null, "Ana Costa", LocalDate.of(1992, 3, 15), LocalDate.of(2022, 6, 1)),
+            new Pessoa(1L, "Conflito", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)),
+            new Pessoa(null, "", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)),
+            null,
+            new Pessoa(10L, "Pedro Silva", LocalDate.of(1985, 7, 20), LocalDate.of(2023, 2, 10)),
+            new Pessoa(null, "Bruno Lima", LocalDate.of(1991, 2, 2), LocalDate.of(2021, 2, 2))
+        );
+
+        List<ResultadoLote> resultados = pessoaService.criarPessoas(lote, 100);
+
+        assertEquals(6, resultados.size());
+        assertEquals(new ResultadoLote(100, StatusLote.CREATED, 11L, null), resultados.get(0));
+        assertEquals(StatusLote.CONFLICT, resultados.get(1).status());
+        assertEquals(1L, resultados.get(1).id());
+        assertEquals(new ResultadoLote(102, StatusLote.INVALID, null, "Nome não pode ser vazio"), resultados.get(2));
+        assertEquals(StatusLote.INVALID, resultados.get(3).status());
+        assertEquals(new ResultadoLote(104, StatusLote.CREATED, 10L, null), resultados.get(4));
+        assertEquals(new ResultadoLote(105, StatusLote.CREATED, 12L, null), resultados.get(5));
+
+        assertEquals(6, pessoaService.listarPessoas().size());
+        assertEquals("José da Silva", pessoaService.buscarPorId(1L).getNome());
+        assertEquals(13L, pessoaService.criarPessoa(
+            new Pessoa(null, "Carla Dias", LocalDate.of(1993, 3, 3), LocalDate.of(2022, 3, 3))).getId());
+    }
+
+    @Test
+    void atualizarPessoa_QuandoPessoaExiste_DeveAtualizarPessoa() {
+        Pessoa pessoaAtualizada = new Pessoa(1L, "José da Silva Atualizado", 
+            LocalDate.of(2000, 4, 6), 
+            LocalDate.of(2020, 5, 10));
+        
+        Pessoa resultado = pessoaService.atualizarPessoa(1L, pessoaAtualizada);
+        
+        assertEquals("José da Silva Atualizado", resultado.getNome());
+
+        Pessoa pessoaVerificada = pessoaService.buscarPorId(1L);
+        assertEquals("José da Silva Atualizado", pessoaVerificada.getNome());
+    }
+
+    @Test
+    void atualizarPessoa_DevePublicarNovaVersaoSemAlterarAAnterior() {
+        Pessoa anterior = pessoaService.buscarPorId(1L);
+
+        Pessoa atualizada = pessoaService.atualizarPessoa(1L,
+            new Pessoa(null, "José Atualizado", LocalDate.of(2000, 4, 6), LocalDate.of(2020, 5, 10)),
+            anterior.getVersao());
+
+        assertEquals(1L, atualizada.getId());
+        assertTrue(atualizada.getVersao() > anterior.getVersao());
+        assertEquals("José da Silva", anterior.getNome());
+        assertSame(atualizada, pessoaService.buscarPorId(1L));
+    }
+
+    @Test
+    void atualizarPessoa_ComVersaoDesatualizada_DeveLancarExcecao() {
+        long versaoAntiga = pessoaService.buscarPorId(1L).getVersao();
+        pessoaService.atualizarAtributo(1L, "nome", "Outro Cliente");
+
+        assertThrows(PessoaPreconditionFailedException.class, () -> {
+            pessoaService.atualizarPessoa(1L,
+                new Pessoa(null, "Teste", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)), versaoAntiga);
+        });
+        assertEquals("Outro Cliente", pessoaService.buscarPorId(1L).getNome());
+    }
+
+    @Test
+    void atualizarParcialmente_ComVersaoDesatualizada_DeveLancarExcecao() {
+        long versaoAntiga = pessoaService.buscarPorId(1L).getVersao();
+        pessoaService.atualizarAtributo(1L, "nome", "Outro Cliente");
+
+        assertThrows(PessoaPreconditionFailedException.class, () -> {
+            pessoaService.atualizarParcialmente(1L, Map.of("nome", "Teste"), versaoAntiga);
+        });
+    }
+
+    @Test
+    void atualizarParcialmente_ComThreadsConcorrentes_NaoDevePerderAtualizacoes() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            String nome = "Nome " + i;
+            executor.submit(() -> pessoaService.atualizarParcialmente(1L, Map.of("nome", nome)));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        Pessoa pessoa = pessoaService.buscarPorId(1L);
+        assertTrue(pessoa.getNome().startsWith("Nome "));
+        assertEquals(3, pessoaService.listarPessoas().size());
+    }
+
+    @Test
+    void versaoCadastro_DeveMudarSomenteQuandoOCadastroMuda() {
+        long inicial = pessoaService.versaoCadastro();
+
+        pessoaService.criarPessoa(new Pessoa(null, "Ana Costa", LocalDate.of(1992, 3, 15), LocalDate.of(2022, 6, 1)));
+        long aposCriar = pessoaService.versaoCadastro();
+        assertTrue(aposCriar > inicial);
+
+        assertThrows(PessoaConflictException.class, () -> {
+            pessoaService.criarPessoa(new Pessoa(1L, "Conflito", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)));
+        });
+        pessoaService.atualizarParcialmente(1L, Map.of());
+        assertEquals(aposCriar, pessoaService.versaoCadastro());
+
+        pessoaService.atualizarAtributo(1L, "nome", "José Modificado");
+        long aposAtualizar = pessoaService.versaoCadastro();
+        assertTrue(aposAtualizar > aposCriar);
+
+        pessoaService.removerPessoa(1L);
+        assertTrue(pessoaService.versaoCadastro() > aposAtualizar);
+    }
+
+    @Test
+    void atualizarPessoa_QuandoPessoaNaoExiste_DeveLancarExcecao() {
+        Pessoa pessoaAtualizada = new Pessoa(999L, "Teste", 
+            LocalDate.of(1990, 1, 1), 
+            LocalDate.of(2020, 1, 1));
+        
+        assertThrows(PessoaNotFoundException.class, () -> {
+            pessoaService.atualizarPessoa(999L, pessoaAtualizada);
+        });
+    }
+
+    @Test
+    void removerPessoa_QuandoPessoaExiste_DeveRemoverPessoa() {
+        pessoaService.removerPessoa(1L);
+        
+        assertThrows(PessoaNotFoundException.class, () -> {
+            pessoaService.buscarPorId(1L);
+        });
+
+        List<Pessoa> pessoas = pessoaService.listarPessoas();
+        assertEquals(2, pessoas.size());
+    }
+
+    @Test
+    void removerPessoa_QuandoPessoaNaoExiste_DeveLancarExcecao() {
+        assertThrows(PessoaNotFoundException.class, () -> {
+            pessoaService.removerPessoa(999L);
+        });
+    }
+
+    @Test
+    void removerSeVersao_ComVersaoAlteradaDepoisDaCopia_NaoDeveRemover() {
+        Pessoa copiada = pessoaService.buscarPorId(1L);
+        pessoaService.atualizarAtributo(1L, "nome", "José Santos");
+
+        assertFalse(pessoaService.removerSeVersao(1L, copiada.getVersao()));
+        assertEquals("José Santos", pessoaService.buscarPorId(1L).getNome());
+        assertTrue(pessoaService.removerSeVersao(1L, pessoaService.buscarPorId(1L).getVersao()));
+        assertThrows(PessoaNotFoundException.class, () -> pessoaService.buscarPorId(1L));
+    }
+
+    @Test
+    void receberTransferencia_DevePrevalecerAMaiorVersao() {
+        Pessoa local = pessoaService.buscarPorId(1L);
+
+        Pessoa antiga = pessoaService.receberTransferencia(local.comNome("José Antigo").comVersao(local.getVersao() - 1));
+        assertEquals("José da Silva", antiga.getNome());
+
+        Pessoa nova = pessoaService.receberTransferencia(local.comNome("José Novo").comVersao(100L));
+        assertEquals("José Novo", pessoaService.buscarPorId(1L).getNome());
+        assertEquals(100L, nova.getVersao());
+        assertEquals(List.of(1L), pessoaService.buscarPorNome("José Novo", 10).stream().map(Pessoa::getId).toList());
+
+        Pessoa recebida = pessoaService.receberTransferencia(new Pessoa(50L, "Ana Costa",
+                LocalDate.of(1992, 3, 15), LocalDate.of(2022, 6, 1), 7L));
+        assertEquals(7L, recebida.getVersao());
+        assertTrue(pessoaService.atualizarAtributo(1L, "nome", "José Lima").getVersao() > 100L);
+        assertEquals(4, pessoaService.listarPessoas().size());
+    }
+
+    @Test
+    void alteracoes_AoCriarAtualizarERemover_DeveGerarEventosNaOrdem() throws InterruptedException {
+        FeedAlteracoes.Leitor leitor = pessoaService.alteracoes().leitor(null);
+        Pessoa criada = pessoaService.criarPessoa(new Pessoa(null, "Ana Costa", LocalDate.of(1992, 3, 15), LocalDate.of(2022, 6, 1)));
+        Pessoa atualizada = pessoaService.atualizarAtributo(criada.getId(), "nome", "Ana Souza");
+        pessoaService.removerPessoa(criada.getId());
+
+        EventoAlteracao criacao = leitor.proximo(0);
+        EventoAlteracao atualizacao = leitor.proximo(0);
+        EventoAlteracao remocao = leitor.proximo(0);
+
+        assertEquals(TipoAlteracao.CREATED, criacao.tipo());
+        assertSame(criada, criacao.pessoa());
+        assertEquals(TipoAlteracao.UPDATED, atualizacao.tipo());
+        assertSame(atualizada, atualizacao.pessoa());
+        assertEquals(TipoAlteracao.DELETED, remocao.tipo());
+        assertEquals(criada.getId(), remocao.id());
+        assertNull(remocao.pessoa());
+        assertEquals(criacao.sequencia() + 2, remocao.sequencia());
+        assertNull(leitor.proximo(0));
+    }
+
+    @Test
+    void calcularIdade_EmDias_DeveRetornarIdadeCorreta() {
+        // José da Silva: nascido em 06/04/2000, data atual: 07/02/2023
+        // Deve retornar 8342 dias
+        long idadeEmDias = pessoaService.calcularIdade(1L, "days");
+        
+        assertEquals(8342, idadeEmDias);
+    }
+
+    @Test
+    void calcularIdade_EmMeses_DeveRetornarIdadeCorreta() {
+        // José da Silva: nascido em 06/04/2000, data atual: 07/02/2023
+        // Deve retornar 274 meses
+        long idadeEmMeses = pessoaService.calcularIdade(1L, "months");
+        
+        assertEquals(274, idadeEmMeses);
+    }
+
+    @Test
+    void calcularIdade_EmAnos_DeveRetornarIdadeCorreta() {
+        // José da Silva: nascido em 06/04/2000, data atual: 07/02/2023
+        // Deve retornar 22 anos
+        long idadeEmAnos = pessoaService.calcularIdade(1L, "years");
+        
+        assertEquals(22, idadeEmAnos);
+    }
+
+    @Test
+    void calcularIdade_ComFormatoInvalido_DeveLancarExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            pessoaService.calcularIdade(1L, "invalid");
+        });
+    }
+
+    @Test
+    void calcularIdade_ComPessoaNaoEncontrada_DeveLancarExcecao() {
+        assertThrows(PessoaNotFoundException.class, () -> {
+            pessoaService.calcularIdade(999L, "days");
+        });
+    }
+
+    @Test
+    void calcularSalario_EmReais_DeveRetornarSalarioCorreto() {
+        // José da Silva: admitido em 10/05/2020, data atual: 07/02/2023
+        // 2 anos e 9 meses na empresa
+        // Salário base: 1558.00
+        // Ano 1: 1558.00 * 1.18 + 500.00 = 2338.44
+        // Ano 2: 2338.44 * 1.18 + 500.00 = 3259.36
+        double salario = pessoaService.calcularSalario(1L, "full");
+        
+        assertEquals(3259.36, salario, 0.01);
+    }
+
+    @Test
+    void calcularSalario_EmSalariosMinimos_DeveRetornarSalarioCorreto() {
+        // José da Silva: salário 3259.36, salário mínimo 1302.00
+        // 3259.36 / 1302.00 = 2.51
+        double salarioEmMinimos = pessoaService.calcularSalario(1L, "min");
+        
+        assertEquals(2.51, salarioEmMinimos, 0.01);
+    }
+
+    @Test
+    void calcularSalario_ComFormatoInvalido_DeveLancarExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            pessoaService.calcularSalario(1L, "invalid");
+        });
+    }
+
+    @Test
+    void calcularSalario_ComPessoaNaoEncontrada_DeveLancarExcecao() {
+        assertThrows(PessoaNotFoundException.class, () -> {
+            pessoaService.calcularSalario(999L, "full");
+        });
+    }
+
+    @Test
+    void calcularEmLote_DeveCalcularTodosOsFormatosPedidos() {
+        List<CalculoPessoa> calculos = pessoaService.calcularEmLote(
+            List.of(1L, 2L), List.of("days", "years", "DAYS"), List.of("full", "min"));
+
+        assertEquals(2, calculos.size());
+        CalculoPessoa jose = calculos.get(0);
+        assertEquals(1L, jose.id());
+        assertEquals(Map.of("days", 8342L, "years", 22L), jose.age());
+        assertEquals(3259.36, jose.salary().get("full"), 0.01);
+        assertEquals(2.51, jose.salary().get("min"), 0.01);
+        assertEquals(2L, calculos.get(1).id());
+    }
+
+    @Test
+    void calcularEmLote_SemIds_DeveCalcularParaTodasEmOrdemDeNome() {
+        List<CalculoPessoa> calculos = pessoaService.calcularEmLote(null, List.of("years"), null);
+
+        assertEquals(List.of(3L, 1L, 2L), calculos.stream().map(CalculoPessoa::id).toList());
+        assertTrue(calculos.get(0).salary().isEmpty());
+    }
+
+    @Test
+    void calcularEmLote_ComFormatoInvalido_DeveLancarExcecao() {
+        assertThrows(InvalidParameterException.class, () -> {
+            pessoaService.calcularEmLote(null, List.of("invalid"), null);
+        });
+        assertThrows(InvalidParameterException.class, () -> {
+            pessoaService.calcularEmLote(null, null, List.of());
+        });
+    }
+
+    @Test
+    void calcularEmLote_ComPessoaNaoEncontrada_DeveLancarExcecao() {
+        assertThrows(PessoaNotFoundException.class, () -> {
+            pessoaService.calcularEmLote(List.of(1L, 999L), List.of("days"), null);
+        });
+    }
+
+    @Test
+    void atualizarAtributo_ComNome_DeveAtualizarNome() {
+        pessoaService.atualizarAtributo(1L, "nome", "José Silva Modificado");
+        
+        Pessoa pessoaAtualizada = pessoaService.buscarPorId(1L);
+        assertEquals("José Silva Modificado", pessoaAtualizada.getNome());
+    }
+
+    @Test
+    void atualizarAtributo_ComDataNascimento_DeveAtualizarDataNascimento() {
+        LocalDate novaData = LocalDate.of(2000, 4, 7);
+        pessoaService.atualizarAtributo(1L, "dataNascimento", novaData);
+        
+        Pessoa pessoaAtualizada = pessoaService.buscarPorId(1L);
+        assertEquals(novaData, pessoaAtualizada.getDataNascimento());
+    }
+
+    @Test
+    void atualizarAtributo_ComAtributoInvalido_DeveLancarExcecao() {
+        assertThrows(InvalidParameterException.class, () -> {
+            pessoaService.atualizarAtributo(1L, "atributoInvalido", "valor");
+        });
+    }
+
+    @Test
+    void atualizarAtributo_ComNomeVazio_DeveLancarExcecao() {
+        assertThrows(InvalidParameterException.class, () -> {
+            pessoaService.atualizarAtributo(1L, "nome", "");
+        });
+    }
+
+    @Test
+    void criarPessoa_ComPessoaNula_DeveLancarExcecao() {
+        assertThrows(InvalidParameterException.class, () -> {
+            pessoaService.criarPessoa(null);
+        });
+    }
+
+    @Test
+    void atualizarParcialmente_ComUmAtributo_DeveAtualizarApenasEsseAtributo() {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("nome", "José Silva Modificado");
+        
+        Pessoa pessoaAtualizada = pessoaService.atualizarParcialmente(1L, updates);
+        
+        assertEquals("José Silva Modificado", pessoaAtualizada.getNome());
+        // Verifica que outros atributos não foram alterados
+        assertEquals(LocalDate.of(2000, 4, 6), pessoaAtualizada.getDataNascimento());
+        assertEquals(LocalDate.of(2020, 5, 10), pessoaAtualizada.getDataAdmissao());
+    }
+
+    @Test
+    void atualizarParcialmente_ComMultiplosAtributos_DeveAtualizarTodosOsAtributos() {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("nome", "José Silva Atualizado");
+        updates.put("dataNascimento", "2000-04-07");
+        updates.put("dataAdmissao", "2020-05-11");
+        
+        Pessoa pessoaAtualizada = pessoaService.atualizarParcialmente(1L, updates);
+        
+        assertEquals("José Silva Atualizado", pessoaAtualizada.getNome());
+        assertEquals(LocalDate.of(2000, 4, 7), pessoaAtualizada.getDataNascimento());
+        assertEquals(LocalDate.of(2020, 5, 11), pessoaAtualizada.getDataAdmissao());
+    }
+
+    @Test
+    void atualizarParcialmente_ComDataComoDiaDaEpoca_DeveConverterParaData() {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("dataNascimento", (int) LocalDate.of(2000, 4, 7).toEpochDay());
+        
+        Pessoa pessoaAtualizada = pessoaService.atualizarParcialmente(1L, updates);
+        
+        assertEquals(LocalDate.of(2000, 4, 7), pessoaAtualizada.getDataNascimento());
+    }
+
+    @Test
+    void atualizarParcialmente_ComAtributoInvalido_DeveLancarExcecao() {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("atributoInvalido", "valor");
+        
+        assertThrows(InvalidParameterException.class, () -> {
+            pessoaService.atualizarParcialmente(1L, updates);
+        });
+    }
+
+    @Test
+    void atualizarParcialmente_ComNomeVazio_DeveLancarExcecao() {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("nome", "");
+        
+        assertThrows(InvalidParameterException.class, () -> {
+            pessoaService.atualizarParcialmente(1L, updates);
+        });
+    }
+
+    @Test
+    void atualizarParcialmente_ComPessoaNaoEncontrada_DeveLancarExcecao() {
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("nome", "Teste");
+        
+        assertThrows(PessoaNotFoundException.class, () -> {
+            pessoaService.atualizarParcialmente(999L, updates);
+        });
+    }
+
+    @Test
+    void atualizarParcialmente_ComMapVazio_DeveRetornarPessoaInalterada() {
+        Map<String, Object> updates = new HashMap<>();
+        
+        Pessoa pessoaOriginal = pessoaService.buscarPorId(1L);
+        Pessoa pessoaAtualizada = pessoaService.atualizarParcialmente(1L, updates);
+        
+        assertEquals(pessoaOriginal.getNome(), pessoaAtualizada.getNome());
+        assertEquals(pessoaOriginal.getDataNascimento(), pessoaAtualizada.getDataNascimento());
+        assertEquals(pessoaOriginal.getDataAdmissao(), pessoaAtualizada.getDataAdmissao());
+    }
+
+    @Test
+    void armazenamentoColunar_DeveSeComportarComoOPadrao() {
+        PessoaService colunar = new PessoaService(fixedClock, new AlocadorIdSequencial(1L, 64), new ArmazenamentoColunar(4));
+        
+        Pessoa criada = colunar.criarPessoa(new Pessoa(null, "Álvaro Souza", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)));
+        colunar.atualizarAtributo(2L, "nome", "Ana Santos");
+        colunar.removerPessoa(1L);
+        
+        assertEquals(List.of("Álvaro Souza", "Ana Santos", "João Oliveira"),
+                colunar.listarPessoas().stream().map(Pessoa::getNome).toList());
+        Pessoa lida = colunar.buscarPorId(criada.getId());
+        assertEquals(criada.getNome(), lida.getNome());
+        assertEquals(criada.getDataNascimento(), lida.getDataNascimento());
+        assertEquals(criada.getVersao(), lida.getVersao());
+        assertEquals(pessoaService.calcularSalario(3L, "full"), colunar.calcularSalario(3L, "full"));
+        assertThrows(PessoaNotFoundException.class, () -> colunar.removerPessoa(1L));
+    }
+
+    @Test
+    void armazenamentoColunar_ComDataForaDoIntervalo_DeveRejeitarSemAlterarNada() {
+        PessoaService colunar = new PessoaService(fixedClock, new AlocadorIdSequencial(1L, 64), new ArmazenamentoColunar(4));
+        LocalDate distante = LocalDate.of(6_000_000, 1, 1);
+        long versaoAntes = colunar.versaoCadastro();
+
+        assertThrows(InvalidParameterException.class, () -> colunar.criarPessoa(
+                new Pessoa(null, "Álvaro Souza", distante, LocalDate.of(2020, 1, 1))));
+        assertThrows(InvalidParameterException.class, () -> colunar.atualizarPessoa(1L,
+                new Pessoa(null, "José da Silva", LocalDate.of(2000, 4, 6), distante)));
+        assertThrows(InvalidParameterException.class, () -> colunar.atualizarAtributo(1L, "dataNascimento", distante));
+        assertThrows(InvalidParameterException.class, () -> colunar.atualizarParcialmente(1L, Map.of("dataNascimento", "+6000000-01-01")));
+        assertThrows(InvalidParameterException.class, () -> colunar.atualizarParcialmente(1L, Map.of("dataAdmissao", Long.MAX_VALUE)));
+
+        assertEquals(versaoAntes, colunar.versaoCadastro());
+        assertEquals(3, colunar.listarPessoas().size());
+        assertEquals(LocalDate.of(2000, 4, 6), colunar.buscarPorId(1L).getDataNascimento());
+        assertNotNull(colunar.criarPessoa(new Pessoa(null, "Álvaro Souza", LocalDate.of(1990, 1, 1), Pessoa.DATA_MAXIMA)));
+    }
+
+    @Test
+    void alteracoes_QuandoArmazenamentoFalhaDepoisDoAviso_DeveDescartarASequencia() throws InterruptedException {
+        ArmazenamentoMemoria falhaNaRemocao = new ArmazenamentoMemoria() {
+            @Override
+            public Pessoa remover(long id, AoPublicar aoPublicar) {
+                super.remover(id, aoPublicar);
+                throw new IllegalStateException("falha simulada");
+            }
+        };
+        PessoaService servico = new PessoaService(fixedClock, new AlocadorIdSequencial(1L, 64), falhaNaRemocao);
+        FeedAlteracoes.Leitor leitor = servico.alteracoes().leitor(null);
+
+        assertThrows(IllegalStateException.class, () -> servico.removerPessoa(1L));
+        Pessoa criada = servico.criarPessoa(new Pessoa(null, "Álvaro Souza", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)));
+
+        EventoAlteracao evento = leitor.proximo(1000);
+        assertNotNull(evento);
+        assertEquals(TipoAlteracao.CREATED, evento.tipo());
+        assertEquals(criada.getId(), evento.id());
+    }
+
+    @Test
+    void metricas_DeveMedirOperacoesEContarFormatosSemContarChamadasInternas() {
+        SimpleMeterRegistry registro = new SimpleMeterRegistry();
+        PessoaService medido = new PessoaService(fixedClock, new AlocadorIdSequencial(1L, 64), new ArmazenamentoMemoria(), null, null, registro);
+        
+        medido.calcularIdade(1L, "YEARS");
+        medido.calcularIdade(2L, "days");
+        medido.calcularSalario(1L, "min");
+        medido.calcularEmLote(null, List.of("years"), null);
+        medido.atualizarAtributo(1L, "nome", "José Souza");
+        assertThrows(PessoaNotFoundException.class, () -> medido.buscarPorId(99L));
+        
+        assertEquals(2, registro.get("pessoa.operacao").tag("operacao", "calcularIdade").timer().count());
+        assertEquals(1, registro.get("pessoa.operacao").tag("operacao", "atualizarParcialmente").timer().count());
+        // Buscas internas de idade, salário e atualização não contam como buscarPorId
+        assertEquals(1, registro.get("pessoa.operacao").tag("operacao", "buscarPorId").timer().count());
+        assertEquals(0, registro.get("pessoa.operacao").tag("operacao", "listar").timer().count());
+        assertEquals(4, registro.get("pessoa.calculos").tags("tipo", "idade", "formato", "years").counter().count());
+        assertEquals(1, registro.get("pessoa.calculos").tags("tipo", "idade", "formato", "days").counter().count());
+        assertEquals(1, registro.get("pessoa.calculos").tags("tipo", "salario", "formato", "min").counter().count());
+        assertEquals(3, registro.get("pessoa.cadastro.tamanho").gauge().value());
+    }
+    
+    @Test
+    void estatisticas_DeveAgregarIdadesAdmissoesESalariosIndividuais() {
+        EstatisticasPessoas estatisticas = pessoaService.estatisticas();
+        
+        double folha = pessoaService.calcularSalario(1L, "full") + pessoaService.calcularSalario(2L, "full")
+                + pessoaService.calcularSalario(3L, "full");
+        assertEquals(LocalDate.of(2023, 2, 7), estatisticas.referencia());
+        assertEquals(3, estatisticas.quantidade());
+        assertEquals(folha, estatisticas.folhaTotal(), 0.001);
+        assertEquals(Math.round(folha / 3 * 100) / 100.0, estatisticas.folhaMedia(), 0.001);
+        assertEquals(Map.of(22, 1L, 27, 1L, 34, 1L), estatisticas.pessoasPorIdade());
+        assertEquals(List.of("2019-03", "2020-05", "2021-01"), List.copyOf(estatisticas.admissoesPorMes().keySet()));
+    }
+    
+    @Test
+    void estatisticas_AposAlteracoes_DeveRefletirSemRecalcularDoZero() {
+        pessoaService.criarPessoa(new Pessoa(null, "Ana Lima", LocalDate.of(2000, 1, 1), LocalDate.of(2020, 5, 20)));
+        pessoaService.atualizarParcialmente(3L, Map.of("dataNascimento", "2000-02-07", "dataAdmissao", "2023-01-02"));
+        pessoaService.removerPessoa(2L);
+        
+        EstatisticasPessoas estatisticas = pessoaService.estatisticas();
+        
+        double folha = pessoaService.calcularSalario(1L, "full") + pessoaService.calcularSalario(3L, "full")
+                + pessoaService.calcularSalario(4L, "full");
+        assertEquals(3, estatisticas.quantidade());
+        assertEquals(folha, estatisticas.folhaTotal(), 0.001);
+        assertEquals(Map.of(22, 1L, 23, 2L), estatisticas.pessoasPorIdade());
+        assertEquals(Map.of("2020-05", 2L, "2023-01", 1L), estatisticas.admissoesPorMes());
+        assertSame(estatisticas, pessoaService.estatisticas());
+    }
+
+    @Test
+    void snapshot_AoReiniciar_DeveRestaurarCadastroSemDadosIniciais(@TempDir Path diretorio) {
+        SnapshotPessoas snapshot = new SnapshotPessoas(diretorio.resolve("pessoas.snap"));
+        pessoaService.removerPessoa(1L);
+        Pessoa criada = pessoaService.criarPessoa(new Pessoa(50L, "Ana Lima", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)));
+        pessoaService.gravarSnapshot(snapshot);
+        
+        PessoaService reiniciado = new PessoaService(fixedClock, new AlocadorIdSequencial(1L, 64), new ArmazenamentoColunar(), snapshot, null);
+        
+        assertEquals(List.of("Ana Lima", "João Oliveira", "Maria Santos"),
+                reiniciado.listarPessoas().stream().map(Pessoa::getNome).toList());
+        assertEquals(List.of("Maria Santos", "Ana Lima", "João Oliveira"),
+                nomes(reiniciado.listarPessoas(FiltroPessoas.de("dataAdmissao", null, null, null, null), null, 10)));
+        assertEquals(List.of("Ana Lima"), reiniciado.buscarPorNome("ana", 10).stream().map(Pessoa::getNome).toList());
+        assertEquals(pessoaService.estatisticas(), reiniciado.estatisticas());
+        assertEquals(criada.getVersao(), reiniciado.buscarPorId(50L).getVersao());
+        Pessoa nova = reiniciado.criarPessoa(new Pessoa(null, "Bruno Reis", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)));
+        assertEquals(51L, nova.getId());
+        assertTrue(nova.getVersao() > criada.getVersao());
+    }
+    
+    @Test
+    void snapshot_ComRenomeacoesDuranteALeitura_DeveGravarCadaPessoaUmaVez(@TempDir Path diretorio) {
+        PessoaService[] servico = new PessoaService[1];
+        ArmazenamentoMemoria renomeiaDurante = new ArmazenamentoMemoria() {
+            @Override
+            public Iterable<Pessoa> todas() {
+                if (servico[0] == null) {
+                    return super.todas();
+                }
+                Iterator<Pessoa> pessoas = super.todas().iterator();
+                return () -> new Iterator<>() {
+                    private boolean renomeou;
+
+                    @Override
+                    public boolean hasNext() {
+                        return pessoas.hasNext();
+                    }
+
+                    @Override
+                    public Pessoa next() {
+                        Pessoa pessoa = pessoas.next();
+                        // Depois da primeira leitura, uma pessoa vai para o fim da ordem e outra para o começo
+                        if (!renomeou) {
+                            renomeou = true;
+                            servico[0].atualizarAtributo(3L, "nome", "Zuleica Prado");
+                            servico[0].atualizarAtributo(2L, "nome", "Abel Prado");
+                        }
+                        return pessoa;
+                    }
+                };
+            }
+        };
+        servico[0] = new PessoaService(fixedClock, new AlocadorIdSequencial(1L, 64), renomeiaDurante);
+        SnapshotPessoas snapshot = new SnapshotPessoas(diretorio.resolve("pessoas.snap"));
+
+        servico[0].gravarSnapshot(snapshot);
+
+        List<SnapshotPessoas.Registro> gravados = new ArrayList<>();
+        snapshot.restaurar(new IndiceNome(Locale.forLanguageTag("pt-BR")).assinatura(), (bloco, registros) -> gravados.addAll(registros));
+        // O id lido antes das renomeações pode ter saído com o nome anterior; os demais, com o novo
+        assertEquals(List.of(1L, 2L, 3L), gravados.stream().map(registro -> registro.pessoa().getId()).sorted().toList());
+        List<ChaveNome> chaves = gravados.stream().map(registro -> new ChaveNome(registro.chave(), registro.pessoa().getId())).toList();
+        assertEquals(chaves.stream().sorted().toList(), chaves);
+    }
+
+    @Test
+    void snapshot_ComDatasNosLimitesEDataRejeitada_DeveContinuarGravando(@TempDir Path diretorio) {
+        SnapshotPessoas snapshot = new SnapshotPessoas(diretorio.resolve("pessoas.snap"));
+        Pessoa limites = pessoaService.criarPessoa(new Pessoa(null, "Ana Lima", Pessoa.DATA_MINIMA, Pessoa.DATA_MAXIMA));
+        assertThrows(InvalidParameterException.class, () -> pessoaService.criarPessoa(
+                new Pessoa(null, "Bruno Reis", LocalDate.of(-1_000_000, 1, 1), LocalDate.of(2020, 1, 1))));
+
+        pessoaService.gravarSnapshot(snapshot);
+        pessoaService.gravarSnapshot(snapshot);
+
+        PessoaService reiniciado = new PessoaService(fixedClock, new AlocadorIdSequencial(1L, 64), new ArmazenamentoMemoria(), snapshot, null);
+        assertEquals(4, reiniciado.listarPessoas().size());
+        assertEquals(Pessoa.DATA_MINIMA, reiniciado.buscarPorId(limites.getId()).getDataNascimento());
+        assertEquals(Pessoa.DATA_MAXIMA, reiniciado.buscarPorId(limites.getId()).getDataAdmissao());
+    }
+    
+    @Test
+    void snapshot_ComIdRepetido_DeveManterMaiorVersaoEReordenarIndice(@TempDir Path diretorio) {
+        // Simula uma pessoa renomeada durante a gravação: aparece duas vezes, fora de ordem
+        SnapshotPessoas snapshot = new SnapshotPessoas(diretorio.resolve("pessoas.snap"));
+        IndiceNome indice = new IndiceNome(Locale.forLanguageTag("pt-BR"));
+        LocalDate nascimento = LocalDate.of(1990, 1, 1);
+        LocalDate admissao = LocalDate.of(2020, 1, 1);
+        List<SnapshotPessoas.Registro> registros = List.of(
+                new SnapshotPessoas.Registro(new Pessoa(1L, "Carla", nascimento, admissao, 5L), indice.chave("Carla", 1L).getChave()),
+                new SnapshotPessoas.Registro(new Pessoa(2L, "Bruno", nascimento, admissao, 2L), indice.chave("Bruno", 2L).getChave()),
+                new SnapshotPessoas.Registro(new Pessoa(1L, "Ana", nascimento, admissao, 3L), indice.chave("Ana", 1L).getChave()));
+        snapshot.gravar(indice.assinatura(), registros);
+        
+        PessoaService reiniciado = new PessoaService(fixedClock, new AlocadorIdSequencial(1L, 64), new ArmazenamentoMemoria(), snapshot, null);
+        
+        assertEquals(List.of("Bruno", "Carla"), reiniciado.listarPessoas().stream().map(Pessoa::getNome).toList());
+        reiniciado.atualizarAtributo(1L, "nome", "Aline");
+        assertEquals(List.of("Aline", "Bruno"), reiniciado.listarPessoas().stream().map(Pessoa::getNome).toList());
+    }
+    
+    @Test
+    void snapshot_Inexistente_DeveCriarDadosIniciais(@TempDir Path diretorio) {
+        SnapshotPessoas snapshot = new SnapshotPessoas(diretorio.resolve("pessoas.snap"));
+        
+        PessoaService novo = new PessoaService(fixedClock, new AlocadorIdSequencial(1L, 64), new ArmazenamentoMemoria(), snapshot, null);
+        
+        assertEquals(3, novo.listarPessoas().size());
+    }
+
+    @Test
+    void logEscrita_AoReiniciar_DeveReaplicarAlteracoes(@TempDir Path diretorio) {
+        try (LogEscrita log = new LogEscrita(diretorio, Durabilidade.SYNC, 1)) {
+            PessoaService servico = new PessoaService(fixedClock, new AlocadorIdSequencial(1L, 64), new ArmazenamentoMemoria(), null, log);
+            servico.atualizarAtributo(2L, "nome", "Ana Santos");
+            servico.removerPessoa(1L);
+            servico.criarPessoa(new Pessoa(null, "Bruno Reis", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1)));
+        }
+        
+        try (LogEscrita log = new LogEscrita(diretorio, Durabilidade.SYNC, 1)) {
+            PessoaService reiniciado = new PessoaService(fixedClock, new AlocadorIdSequencial(1L, 64), new ArmazenamentoColunar(), null, log);
+            
+            assertEquals(List.of("Ana Santos", "Bruno Reis", "João Oliveira"),
+                    reiniciado.listarPessoas().stream().map(Pessoa::getNome).toList());
+            assertEquals(5L, reiniciado.criarPessoa(new Pessoa(null, "Carla", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1))).getId());
+        }
+    }
+    
+    @Test
+    void logEscrita_QuandoArmazenamentoFalhaDepoisDoAviso_NaoDeveTravarARotacao(@TempDir Path diretorio) {
+        ArmazenamentoMemoria falhaNaRemocao = new ArmazenamentoMemoria() {
+            @Override
+            public Pessoa remover(long id, AoPublicar aoPublicar) {
+                super.remover(id, aoPublicar);
+                throw new IllegalStateException("falha simulada");
+            }
+        };
+        SnapshotPessoas snapshot = new SnapshotPessoas(diretorio.resolve("pessoas.snap"));
+        try (LogEscrita log = new LogEscrita(diretorio.resolve("wal"), Durabilidade.SYNC, 1)) {
+            PessoaService servico = new PessoaService(fixedClock, new AlocadorIdSequencial(1L, 64), falhaNaRemocao, null, log);
+
+            assertThrows(IllegalStateException.class, () -> servico.removerPessoa(1L));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> servico.gravarSnapshot(snapshot));
+        }
+    }
+    
+    @Test
+    void logEscrita_ComAlteracaoQueFalhou_NaoDeveReproduziLaAoReiniciar(@TempDir Path diretorio) {
+        ArmazenamentoMemoria falhaNaRemocao = new ArmazenamentoMemoria() {
+            @Override
+            public Pessoa remover(long id, AoPublicar aoPublicar) {
+                super.remover(id, aoPublicar);
+                throw new IllegalStateException("falha simulada");
+            }
+        };
+        try (LogEscrita log = new LogEscrita(diretorio, Durabilidade.SYNC, 1)) {
+            PessoaService servico = new PessoaService(fixedClock, new AlocadorIdSequencial(1L, 64), falhaNaRemocao, null, log);
+            assertThrows(IllegalStateException.class, () -> servico.removerPessoa(1L));
+        }
+        
+        try (LogEscrita log = new LogEscrita(diretorio, Durabilidade.SYNC, 1)) {
+            PessoaService reiniciado = new PessoaService(fixedClock, new AlocadorIdSequencial(1L, 64), new ArmazenamentoMemoria(), null, log);
+            assertEquals("José da Silva", reiniciado.buscarPorId(1L).getNome());
+            assertEquals(3, reiniciado.listarPessoas().size());
+        }
+    }
+    
+    @Test
+    void logEscrita_ComSnapshot_DeveReaplicarSoOQueVeioDepois(@TempDir Path diretorio) {
+        SnapshotPessoas snapshot = new SnapshotPessoas(diretorio.resolve("pessoas.snap"));
+        Path dirLog = diretorio.resolve("wal");
+        try (LogEscrita log = new LogEscrita(dirLog, Durabilidade.BATCHED, 1)) {
+            PessoaService servico = new PessoaService(fixedClock, new AlocadorIdSequencial(1L, 64), new ArmazenamentoMemoria(), snapshot, log);
+            servico.atualizarAtributo(1L, "nome", "José Souza");
+            servico.gravarSnapshot(snapshot);
+            servico.removerPessoa(1L);
+            servico.atualizarAtributo(3L, "nome", "Ana Oliveira");
+        }
+        
+        try (LogEscrita log = new LogEscrita(dirLog, Durabilidade.BATCHED, 1)) {
+            PessoaService reiniciado = new PessoaService(fixedClock, new AlocadorIdSequencial(1L, 64), new ArmazenamentoMemoria(), snapshot, log);
+            
+            assertEquals(List.of("Ana Oliveira", "Maria Santos"),
+                    reiniciado.listarPessoas().stream().map(Pessoa::getNome).toList());
+            assertThrows(PessoaNotFoundException.class, () -> reiniciado.buscarPorId(1L));
+        }
+    }
+}
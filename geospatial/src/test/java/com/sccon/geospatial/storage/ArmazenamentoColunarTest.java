@@ -0,0 +1,166 @@
+package com.sccon.geospatial.storage;
+
+import com.sccon.geospatial.model.Pessoa;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArmazenamentoColunarTest {
+
+    private static final ArmazenamentoPessoas.AoPublicar NADA = (antiga, nova) -> { };
+
+    private ArmazenamentoColunar armazenamento;
+
+    @BeforeEach
+    void setUp() {
+        armazenamento = new ArmazenamentoColunar(4);
+    }
+
+    private Pessoa pessoa(long id, String nome, long versao) {
+        return new Pessoa(id, nome, LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1), versao);
+    }
+
+    @Test
+    void buscar_DeveMaterializarRegistroGravado() {
+        armazenamento.inserir(new Pessoa(1L, "José da Silva", LocalDate.of(2000, 4, 6), null, 7L), NADA);
+
+        Pessoa lida = armazenamento.buscar(1L);
+
+        assertEquals(1L, lida.getId());
+        assertEquals("José da Silva", lida.getNome());
+        assertEquals(LocalDate.of(2000, 4, 6), lida.getDataNascimento());
+        assertNull(lida.getDataAdmissao());
+        assertEquals(7L, lida.getVersao());
+        assertNull(armazenamento.buscar(2L));
+    }
+
+    @Test
+    void inserir_ComIdExistente_DeveRecusarSemAvisar() {
+        armazenamento.inserir(pessoa(1L, "Ana", 1L), NADA);
+        List<Pessoa> avisos = new ArrayList<>();
+
+        assertFalse(armazenamento.inserir(pessoa(1L, "Bruno", 2L), (antiga, nova) -> avisos.add(nova)));
+        assertEquals("Ana", armazenamento.buscar(1L).getNome());
+        assertTrue(avisos.isEmpty());
+    }
+
+    @Test
+    void substituir_ComVersaoDesatualizada_DeveFalhar() {
+        armazenamento.inserir(pessoa(1L, "Ana", 1L), NADA);
+        Pessoa atual = armazenamento.buscar(1L);
+        assertTrue(armazenamento.substituir(atual, pessoa(1L, "Bruno", 2L), NADA));
+
+        assertFalse(armazenamento.substituir(atual, pessoa(1L, "Carla", 3L), NADA));
+        assertEquals("Bruno", armazenamento.buscar(1L).getNome());
+    }
+
+    @Test
+    void substituir_DeveAvisarVersaoAnteriorEAtual() {
+        armazenamento.inserir(pessoa(1L, "Ana", 1L), NADA);
+        List<String> avisos = new ArrayList<>();
+
+        armazenamento.substituir(armazenamento.buscar(1L), pessoa(1L, "Bruno", 2L),
+                (antiga, nova) -> avisos.add(antiga.getNome() + "->" + nova.getNome()));
+
+        assertEquals(List.of("Ana->Bruno"), avisos);
+    }
+
+    @Test
+    void remover_DeveLiberarSlotParaReuso() {
+        for (long id = 1; id <= 10; id++) {
+            armazenamento.inserir(pessoa(id, "Pessoa " + id, id), NADA);
+        }
+        long bytesAntes = armazenamento.bytesEstimados();
+
+        assertEquals("Pessoa 3", armazenamento.remover(3L, NADA).getNome());
+        assertNull(armazenamento.remover(3L, NADA));
+        armazenamento.inserir(pessoa(11L, "Pessoa 11", 11L), NADA);
+
+        assertEquals(10, armazenamento.tamanho());
+        assertNull(armazenamento.buscar(3L));
+        assertEquals("Pessoa 11", armazenamento.buscar(11L).getNome());
+        assertEquals(bytesAntes, armazenamento.bytesEstimados());
+    }
+
+    @Test
+    void remover_ComVersaoAntiga_NaoDeveRemover() {
+        armazenamento.inserir(pessoa(1L, "Ana", 1L), NADA);
+        Pessoa copiada = armazenamento.buscar(1L);
+        armazenamento.substituir(copiada, pessoa(1L, "Bruno", 2L), NADA);
+
+        assertFalse(armazenamento.remover(copiada, NADA));
+        assertTrue(armazenamento.remover(armazenamento.buscar(1L), NADA));
+        assertNull(armazenamento.buscar(1L));
+        assertEquals(0, armazenamento.tamanho());
+    }
+
+    @Test
+    void todas_DevePercorrerTodosOsRegistrosVivos() {
+        for (long id = 1; id <= 2000; id++) {
+            armazenamento.inserir(pessoa(id, "Pessoa " + id, id), NADA);
+        }
+        for (long id = 1; id <= 2000; id += 2) {
+            armazenamento.remover(id, NADA);
+        }
+
+        Set<Long> ids = new HashSet<>();
+        for (Pessoa pessoa : armazenamento.todas()) {
+            ids.add(pessoa.getId());
+        }
+
+        assertEquals(1000, ids.size());
+        assertTrue(ids.stream().allMatch(id -> id % 2 == 0));
+    }
+
+    @Test
+    void substituir_MuitasVezes_DeveCompactarArenaDeNomes() {
+        armazenamento.inserir(pessoa(1L, "Ana", 0L), NADA);
+        armazenamento.inserir(pessoa(2L, "Bruno", 0L), NADA);
+        for (long versao = 1; versao <= 10_000; versao++) {
+            Pessoa atual = armazenamento.buscar(1L);
+            armazenamento.substituir(atual, pessoa(1L, "Nome " + versao, versao), NADA);
+        }
+
+        assertEquals("Nome 10000", armazenamento.buscar(1L).getNome());
+        assertEquals("Bruno", armazenamento.buscar(2L).getNome());
+        assertTrue(armazenamento.bytesEstimados() < 4096);
+    }
+
+    @Test
+    void buscar_ConcorrenteComEscritas_DeveVerSempreRegistroCompleto() throws InterruptedException {
+        armazenamento.inserir(pessoa(1L, "Ana", 0L), NADA);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<String> inconsistencias = new ArrayList<>();
+
+        executor.submit(() -> {
+            for (long id = 2; id <= 5000; id++) {
+                armazenamento.inserir(pessoa(id, "Pessoa " + id, id), NADA);
+            }
+        });
+        executor.submit(() -> {
+            for (int i = 0; i < 5000; i++) {
+                Pessoa lida = armazenamento.buscar(1L);
+                if (lida == null || !lida.getNome().equals("Ana")) {
+                    synchronized (inconsistencias) {
+                        inconsistencias.add(String.valueOf(lida));
+                    }
+                }
+            }
+        });
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertTrue(inconsistencias.isEmpty());
+        assertEquals(5000, armazenamento.tamanho());
+    }
+}
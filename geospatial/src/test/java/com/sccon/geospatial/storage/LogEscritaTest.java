@@ -0,0 +1,146 @@
+package com.sccon.geospatial.storage;
+
+import com.sccon.geospatial.enums.Durabilidade;
+import com.sccon.geospatial.model.Pessoa;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogEscritaTest {
+
+    @TempDir
+    Path diretorio;
+
+    private Pessoa pessoa(long id, String nome, long versao) {
+        return new Pessoa(id, nome, LocalDate.of(1990, 1, 1), null, versao);
+    }
+
+    private void registrar(LogEscrita log, Pessoa antiga, Pessoa nova) {
+        log.confirmar(log.registrar(antiga, nova));
+    }
+
+    private List<String> reproduzir() {
+        List<String> entradas = new ArrayList<>();
+        try (LogEscrita log = new LogEscrita(diretorio, Durabilidade.SYNC, 1)) {
+            log.reproduzir((antiga, nova) -> entradas.add(nova != null
+                    ? "+" + nova.getId() + ":" + nova.getNome() + ":" + nova.getVersao()
+                    : "-" + antiga.getId() + ":" + antiga.getVersao()));
+        }
+        return entradas;
+    }
+
+    @Test
+    void reproduzir_DeveDevolverAlteracoesNaOrdem() {
+        try (LogEscrita log = new LogEscrita(diretorio, Durabilidade.SYNC, 1)) {
+            registrar(log, null, pessoa(1L, "José", 1L));
+            registrar(log, pessoa(1L, "José", 1L), pessoa(1L, "João", 2L));
+            registrar(log, pessoa(1L, "João", 2L), null);
+        }
+
+        assertEquals(List.of("+1:José:1", "+1:João:2", "-1:2"), reproduzir());
+    }
+
+    @Test
+    void reproduzir_ComCaudaTruncada_DevePararNoUltimoRegistroValido() throws IOException {
+        try (LogEscrita log = new LogEscrita(diretorio, Durabilidade.BATCHED, 1)) {
+            registrar(log, null, pessoa(1L, "Ana", 1L));
+            registrar(log, null, pessoa(2L, "Bruno", 2L));
+        }
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            Path segmento = arquivos.findFirst().orElseThrow();
+            Files.write(segmento, new byte[] {0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+        }
+
+        assertEquals(List.of("+1:Ana:1", "+2:Bruno:2"), reproduzir());
+    }
+
+    @Test
+    void reproduzir_ComRegistrosAbandonados_DeveIgnorarSoEles() throws Exception {
+        try (LogEscrita log = new LogEscrita(diretorio, Durabilidade.SYNC, 1)) {
+            registrar(log, null, pessoa(1L, "Ana", 1L));
+            long gravacao = log.registrar(pessoa(1L, "Ana", 1L), pessoa(1L, "Ana Lima", 2L));
+            long remocao = log.registrar(pessoa(1L, "Ana", 1L), null);
+            // Com a rotação esperando por eles, os abandonos caem no segmento seguinte
+            CompletableFuture<Integer> rotacao = CompletableFuture.supplyAsync(log::rotacionar);
+            assertThrows(TimeoutException.class, () -> rotacao.get(100, TimeUnit.MILLISECONDS));
+            log.abandonar(gravacao, pessoa(1L, "Ana", 1L), pessoa(1L, "Ana Lima", 2L));
+            log.abandonar(remocao, pessoa(1L, "Ana", 1L), null);
+            assertEquals(2, rotacao.get(5, TimeUnit.SECONDS));
+            registrar(log, pessoa(1L, "Ana", 1L), pessoa(1L, "Ana Costa", 3L));
+        }
+
+        assertEquals(List.of("+1:Ana:1", "+1:Ana Costa:3"), reproduzir());
+    }
+
+    @Test
+    void descartarAnteriores_DeveManterSoSegmentosDepoisDaRotacao() {
+        try (LogEscrita log = new LogEscrita(diretorio, Durabilidade.ASYNC, 1)) {
+            registrar(log, null, pessoa(1L, "Ana", 1L));
+            int novo = log.rotacionar();
+            registrar(log, null, pessoa(2L, "Bruno", 2L));
+            log.descartarAnteriores(novo);
+        }
+
+        assertEquals(List.of("+2:Bruno:2"), reproduzir());
+    }
+
+    @Test
+    void rotacionar_DeveEsperarRegistrosAindaNaoConfirmados() throws Exception {
+        try (LogEscrita log = new LogEscrita(diretorio, Durabilidade.SYNC, 1)) {
+            long sequencia = log.registrar(null, pessoa(1L, "Ana", 1L));
+            CompletableFuture<Integer> rotacao = CompletableFuture.supplyAsync(log::rotacionar);
+
+            assertThrows(TimeoutException.class, () -> rotacao.get(200, TimeUnit.MILLISECONDS));
+            log.confirmar(sequencia);
+            assertEquals(2, rotacao.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void rotacionar_ComRegistroAbandonado_NaoDeveEsperarPorEle() throws Exception {
+        try (LogEscrita log = new LogEscrita(diretorio, Durabilidade.SYNC, 1)) {
+            long sequencia = log.registrar(null, pessoa(1L, "Ana", 1L));
+            CompletableFuture<Integer> rotacao = CompletableFuture.supplyAsync(log::rotacionar);
+
+            assertThrows(TimeoutException.class, () -> rotacao.get(200, TimeUnit.MILLISECONDS));
+            log.abandonar(sequencia, null, pessoa(1L, "Ana", 1L));
+            assertEquals(2, rotacao.get(5, TimeUnit.SECONDS));
+            registrar(log, null, pessoa(2L, "Bruno", 1L));
+            assertEquals(3, log.rotacionar());
+        }
+    }
+
+    @Test
+    void confirmar_ConcorrenteNoModoSync_DeveGravarTodasAsAlteracoes() throws InterruptedException {
+        try (LogEscrita log = new LogEscrita(diretorio, Durabilidade.SYNC, 1)) {
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            for (int t = 0; t < 8; t++) {
+                long base = t * 1000L;
+                executor.submit(() -> {
+                    for (long i = 1; i <= 100; i++) {
+                        registrar(log, null, pessoa(base + i, "Pessoa", 1L));
+                    }
+                });
+            }
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        }
+
+        assertEquals(800, reproduzir().size());
+    }
+}
@@ -0,0 +1,35 @@
+package com.sccon.geospatial.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapaLongIntTest {
+
+    @Test
+    void operacoesAleatorias_DevemConcordarComHashMap() {
+        MapaLongInt mapa = new MapaLongInt(4);
+        Map<Long, Integer> esperado = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long chave = random.nextInt(2000);
+            if (random.nextBoolean()) {
+                mapa.put(chave, i);
+                esperado.put(chave, i);
+            } else {
+                assertEquals(esperado.getOrDefault(chave, MapaLongInt.AUSENTE), mapa.remove(chave));
+                esperado.remove(chave);
+            }
+        }
+
+        assertEquals(esperado.size(), mapa.tamanho());
+        for (long chave = 0; chave < 2000; chave++) {
+            assertEquals(esperado.getOrDefault(chave, MapaLongInt.AUSENTE), mapa.get(chave));
+        }
+    }
+}
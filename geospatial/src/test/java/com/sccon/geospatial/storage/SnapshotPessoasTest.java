@@ -0,0 +1,108 @@
+package com.sccon.geospatial.storage;
+
+import com.sccon.geospatial.model.Pessoa;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotPessoasTest {
+
+    @TempDir
+    Path diretorio;
+
+    private static final byte[] ASSINATURA = {1, 2, 3};
+
+    private List<SnapshotPessoas.Registro> registros(int quantidade) {
+        List<SnapshotPessoas.Registro> registros = new ArrayList<>();
+        for (long id = 1; id <= quantidade; id++) {
+            Pessoa pessoa = new Pessoa(id, "Pessoa " + id + " Conceição", LocalDate.of(1990, 1, 1).plusDays(id),
+                    LocalDate.of(2020, 1, 1), id * 10);
+            registros.add(new SnapshotPessoas.Registro(pessoa, new byte[] {(byte) id, 7}));
+        }
+        return registros;
+    }
+
+    private List<SnapshotPessoas.Registro> restaurar(SnapshotPessoas snapshot, byte[] assinatura) {
+        Map<Integer, List<SnapshotPessoas.Registro>> blocos = new ConcurrentHashMap<>();
+        snapshot.restaurar(assinatura, blocos::put);
+        List<SnapshotPessoas.Registro> registros = new ArrayList<>();
+        for (int bloco = 0; bloco < blocos.size(); bloco++) {
+            registros.addAll(blocos.get(bloco));
+        }
+        return registros;
+    }
+
+    @Test
+    void restaurar_DeveDevolverOQueFoiGravadoNaMesmaOrdem() {
+        SnapshotPessoas snapshot = new SnapshotPessoas(diretorio.resolve("pessoas.snap"), 7);
+        List<SnapshotPessoas.Registro> originais = registros(100);
+        originais.add(new SnapshotPessoas.Registro(new Pessoa(500L, "Sem datas", null, null, 3L), new byte[0]));
+
+        SnapshotPessoas.Resumo gravado = snapshot.gravar(ASSINATURA, originais);
+        List<SnapshotPessoas.Registro> restaurados = restaurar(snapshot, ASSINATURA);
+
+        assertEquals(new SnapshotPessoas.Resumo(101, 500, 1000), gravado);
+        assertEquals(101, restaurados.size());
+        for (int i = 0; i < originais.size(); i++) {
+            Pessoa original = originais.get(i).pessoa();
+            Pessoa restaurada = restaurados.get(i).pessoa();
+            assertEquals(original.getId(), restaurada.getId());
+            assertEquals(original.getNome(), restaurada.getNome());
+            assertEquals(original.getDataNascimento(), restaurada.getDataNascimento());
+            assertEquals(original.getDataAdmissao(), restaurada.getDataAdmissao());
+            assertEquals(original.getVersao(), restaurada.getVersao());
+            assertArrayEquals(originais.get(i).chave(), restaurados.get(i).chave());
+        }
+    }
+
+    @Test
+    void restaurar_ComOutraAssinatura_DeveDescartarChaves() {
+        SnapshotPessoas snapshot = new SnapshotPessoas(diretorio.resolve("pessoas.snap"));
+        snapshot.gravar(ASSINATURA, registros(5));
+
+        List<SnapshotPessoas.Registro> restaurados = restaurar(snapshot, new byte[] {9});
+
+        assertEquals(5, restaurados.size());
+        assertTrue(restaurados.stream().allMatch(registro -> registro.chave() == null));
+    }
+
+    @Test
+    void restaurar_SemArquivo_DeveRetornarNulo() {
+        SnapshotPessoas snapshot = new SnapshotPessoas(diretorio.resolve("inexistente.snap"));
+
+        assertNull(snapshot.restaurar(ASSINATURA, (bloco, registros) -> fail("Nenhum bloco esperado")));
+    }
+
+    @Test
+    void gravar_DeveSubstituirSnapshotAnterior() {
+        SnapshotPessoas snapshot = new SnapshotPessoas(diretorio.resolve("dados/pessoas.snap"));
+        snapshot.gravar(ASSINATURA, registros(10));
+
+        snapshot.gravar(ASSINATURA, registros(2));
+
+        assertEquals(2, restaurar(snapshot, ASSINATURA).size());
+    }
+
+    @Test
+    void restaurar_ComBlocoCorrompido_DeveFalhar() throws IOException {
+        Path arquivo = diretorio.resolve("pessoas.snap");
+        SnapshotPessoas snapshot = new SnapshotPessoas(arquivo, 10);
+        snapshot.gravar(ASSINATURA, registros(30));
+        try (RandomAccessFile bruto = new RandomAccessFile(arquivo.toFile(), "rw")) {
+            bruto.seek(60);
+            bruto.write(bruto.read() ^ 0xff);
+        }
+
+        assertThrows(IllegalStateException.class, () -> snapshot.restaurar(ASSINATURA, (bloco, registros) -> { }));
+    }
+}
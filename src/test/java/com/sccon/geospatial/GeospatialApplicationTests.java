@@ -1,13 +0,0 @@
-package com.sccon.geospatial;
-
-import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
-
-@SpringBootTest
-class GeospatialApplicationTests {
-
-	@Test
-	void contextLoads() {
-	}
-
-}